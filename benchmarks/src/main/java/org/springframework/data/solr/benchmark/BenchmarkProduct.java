@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.benchmark;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.solr.client.solrj.beans.Field;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Domain type used throughout the benchmarks. Fields match the schema of the embedded test core.
+ * 
+ * @author Christoph Strobl
+ */
+public class BenchmarkProduct {
+
+	@Id
+	@Field
+	private String id;
+
+	@Field
+	private String name;
+
+	@Field("cat")
+	private List<String> categories;
+
+	@Field
+	private Float price;
+
+	@Field
+	private Integer popularity;
+
+	@Field("inStock")
+	private boolean available;
+
+	@Field("last_modified")
+	private Date lastModified;
+
+	/**
+	 * Create product with values derived from given index
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public static BenchmarkProduct create(int index) {
+		BenchmarkProduct product = new BenchmarkProduct();
+		product.setId(Integer.toString(index));
+		product.setName("product " + index);
+		product.setCategories(Arrays.asList("category_" + (index % 10), "subcategory_" + (index % 100)));
+		product.setPrice(index % 1000 / 10f);
+		product.setPopularity(index % 100);
+		product.setAvailable(index % 2 == 0);
+		product.setLastModified(new Date(1350000000000L + index * 1000L));
+		return product;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<String> getCategories() {
+		return categories;
+	}
+
+	public void setCategories(List<String> categories) {
+		this.categories = categories;
+	}
+
+	public Float getPrice() {
+		return price;
+	}
+
+	public void setPrice(Float price) {
+		this.price = price;
+	}
+
+	public Integer getPopularity() {
+		return popularity;
+	}
+
+	public void setPopularity(Integer popularity) {
+		this.popularity = popularity;
+	}
+
+	public boolean isAvailable() {
+		return available;
+	}
+
+	public void setAvailable(boolean available) {
+		this.available = available;
+	}
+
+	public Date getLastModified() {
+		return lastModified;
+	}
+
+	public void setLastModified(Date lastModified) {
+		this.lastModified = lastModified;
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.benchmark;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.solr.repository.Query;
+import org.springframework.data.solr.repository.SolrCrudRepository;
+
+/**
+ * @author Christoph Strobl
+ */
+public interface BenchmarkProductRepository extends SolrCrudRepository<BenchmarkProduct, String> {
+
+	List<BenchmarkProduct> findByPopularity(Integer popularity);
+
+	Page<BenchmarkProduct> findByNameStartingWithAndPopularityBetweenOrderByPriceDesc(String prefix, Integer lower,
+			Integer upper, Pageable page);
+
+	List<BenchmarkProduct> findByCategoriesIn(Collection<String> categories);
+
+	@Query("name:?0 AND popularity:[?1 TO *]")
+	List<BenchmarkProduct> findByNameAndMinPopularity(String name, Integer popularity);
+
+}
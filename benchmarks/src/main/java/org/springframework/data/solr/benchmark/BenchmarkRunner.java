@@ -0,0 +1,195 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks matching the regular expressions given as arguments (all benchmarks if none given) with the
+ * {@link GCProfiler} attached, writes results to {@code target/benchmark-results.json} and compares score and
+ * normalized allocation rate of each benchmark against the baseline file referenced by system property
+ * {@code benchmark.baseline}. Setting {@code baseline.update=true} replaces the baseline with the current results.
+ * 
+ * @author Christoph Strobl
+ */
+public class BenchmarkRunner {
+
+	private static final String BASELINE_SYSTEM_PROPERTY = "benchmark.baseline";
+	private static final String UPDATE_BASELINE_SYSTEM_PROPERTY = "baseline.update";
+	private static final String THRESHOLD_SYSTEM_PROPERTY = "benchmark.threshold";
+
+	private static final String DEFAULT_BASELINE = "baseline.properties";
+	private static final String DEFAULT_THRESHOLD = "0.1";
+	private static final String DEFAULT_INCLUDE = "org\\.springframework\\.data\\.solr\\..*Benchmark.*";
+	private static final String RESULT_FILE = "target/benchmark-results.json";
+
+	private static final String SCORE_SUFFIX = ".score";
+	private static final String ALLOCATION_SUFFIX = ".alloc";
+	private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+	public static void main(String[] args) throws RunnerException, IOException {
+		ChainedOptionsBuilder options = new OptionsBuilder().addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON).result(RESULT_FILE);
+		if (args.length == 0) {
+			options.include(DEFAULT_INCLUDE);
+		}
+		for (String include : args) {
+			options.include(include);
+		}
+
+		Collection<RunResult> results = new Runner(options.build()).run();
+
+		File baselineFile = new File(System.getProperty(BASELINE_SYSTEM_PROPERTY, DEFAULT_BASELINE));
+		if (Boolean.getBoolean(UPDATE_BASELINE_SYSTEM_PROPERTY)) {
+			updateBaseline(baselineFile, results);
+			System.out.println("Baseline written to " + baselineFile.getAbsolutePath());
+			return;
+		}
+
+		List<String> regressions = compareWithBaseline(baselineFile, results,
+				Double.parseDouble(System.getProperty(THRESHOLD_SYSTEM_PROPERTY, DEFAULT_THRESHOLD)));
+		if (!regressions.isEmpty()) {
+			System.out.println("Regressions compared to " + baselineFile.getAbsolutePath() + ":");
+			for (String regression : regressions) {
+				System.out.println("  " + regression);
+			}
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Compare results against baseline. Scores are considered regressed if they differ from the baseline by more than
+	 * the given threshold in the unfavorable direction, which depends on whether the benchmark mode measures time or
+	 * throughput.
+	 * 
+	 * @param baselineFile
+	 * @param results
+	 * @param threshold relative deviation tolerated, eg. 0.1 for 10%
+	 * @return descriptions of regressed benchmarks
+	 * @throws FileNotFoundException if there is no baseline to compare with
+	 * @throws IOException
+	 */
+	static List<String> compareWithBaseline(File baselineFile, Collection<RunResult> results, double threshold)
+			throws IOException {
+		if (!baselineFile.exists()) {
+			throw new FileNotFoundException("No baseline found at " + baselineFile.getAbsolutePath() + ". Run with -D"
+					+ UPDATE_BASELINE_SYSTEM_PROPERTY + "=true to create one.");
+		}
+
+		List<String> regressions = new ArrayList<String>();
+		Properties baseline = loadProperties(baselineFile);
+		for (RunResult result : results) {
+			String key = getKey(result);
+			boolean higherIsBetter = result.getParams().getMode().shortLabel().equals("thrpt");
+
+			String expectedScore = baseline.getProperty(key + SCORE_SUFFIX);
+			if (expectedScore != null) {
+				double score = result.getPrimaryResult().getScore();
+				if (isRegression(Double.parseDouble(expectedScore), score, threshold, higherIsBetter)) {
+					regressions.add(String.format("%s: score %.3f %s (baseline %s)", key, score, result.getPrimaryResult()
+							.getScoreUnit(), expectedScore));
+				}
+			}
+
+			String expectedAllocation = baseline.getProperty(key + ALLOCATION_SUFFIX);
+			Result<?> allocation = getAllocationResult(result);
+			if (expectedAllocation != null && allocation != null) {
+				double allocated = allocation.getScore();
+				if (isRegression(Double.parseDouble(expectedAllocation), allocated, threshold, false)) {
+					regressions.add(String.format("%s: allocated %.1f %s (baseline %s)", key, allocated,
+							allocation.getScoreUnit(), expectedAllocation));
+				}
+			}
+		}
+		return regressions;
+	}
+
+	static boolean isRegression(double expected, double actual, double threshold, boolean higherIsBetter) {
+		if (higherIsBetter) {
+			return actual < expected * (1 - threshold);
+		}
+		return actual > expected * (1 + threshold);
+	}
+
+	private static void updateBaseline(File baselineFile, Collection<RunResult> results) throws IOException {
+		Properties baseline = baselineFile.exists() ? loadProperties(baselineFile) : new Properties();
+		for (RunResult result : results) {
+			String key = getKey(result);
+			baseline.setProperty(key + SCORE_SUFFIX, Double.toString(result.getPrimaryResult().getScore()));
+			Result<?> allocation = getAllocationResult(result);
+			if (allocation != null) {
+				baseline.setProperty(key + ALLOCATION_SUFFIX, Double.toString(allocation.getScore()));
+			}
+		}
+
+		OutputStream out = new FileOutputStream(baselineFile);
+		try {
+			baseline.store(out, "Spring Data Solr benchmark baseline");
+		} finally {
+			IOUtils.closeQuietly(out);
+		}
+	}
+
+	private static Properties loadProperties(File file) throws IOException {
+		Properties properties = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			properties.load(in);
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+		return properties;
+	}
+
+	private static Result<?> getAllocationResult(RunResult result) {
+		for (Map.Entry<String, Result> entry : result.getSecondaryResults().entrySet()) {
+			if (entry.getKey().endsWith(ALLOCATION_METRIC)) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	private static String getKey(RunResult result) {
+		StringBuilder key = new StringBuilder(result.getParams().getBenchmark());
+		for (String param : result.getParams().getParamsKeys()) {
+			key.append(':').append(param).append('=').append(result.getParams().getParam(param));
+		}
+		return key.toString();
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.solr.core.CsvLoadOptions;
+import org.springframework.data.solr.core.SolrTemplate;
+
+/**
+ * Indexing beans via {@link SolrTemplate#executeAddBeans} compared to streaming them as csv via
+ * {@link SolrTemplate#executeLoadCsv(Iterable, Class, CsvLoadOptions)}.
+ * 
+ * @author Christoph Strobl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BulkLoadBenchmark {
+
+	@Param({ "10000", "50000" })
+	private int numberOfDocuments;
+
+	private EmbeddedSolr embeddedSolr;
+	private SolrTemplate solrTemplate;
+	private List<BenchmarkProduct> products;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		embeddedSolr = new EmbeddedSolr();
+		solrTemplate = new SolrTemplate(embeddedSolr.getSolrServerFactory());
+		solrTemplate.afterPropertiesSet();
+
+		products = new ArrayList<BenchmarkProduct>(numberOfDocuments);
+		for (int i = 0; i < numberOfDocuments; i++) {
+			products.add(BenchmarkProduct.create(i));
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void clearIndex() throws Exception {
+		embeddedSolr.clear();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		embeddedSolr.shutdown();
+	}
+
+	@Benchmark
+	public UpdateResponse addBeans() {
+		UpdateResponse response = solrTemplate.executeAddBeans(products);
+		solrTemplate.executeCommit();
+		return response;
+	}
+
+	@Benchmark
+	public List<UpdateResponse> loadCsv() {
+		List<UpdateResponse> responses = solrTemplate.executeLoadCsv(products, BenchmarkProduct.class,
+				new CsvLoadOptions());
+		solrTemplate.executeCommit();
+		return responses;
+	}
+
+}
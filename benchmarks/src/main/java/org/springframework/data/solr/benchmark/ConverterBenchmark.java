@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.impl.HttpSolrServer;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.SolrInputField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.solr.core.SolrTemplate;
+import org.springframework.data.solr.core.convert.SolrConverter;
+
+/**
+ * Bean to document and document to bean conversion using the {@link SolrConverter} of {@link SolrTemplate}. No
+ * requests are sent to solr.
+ * 
+ * @author Christoph Strobl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+	private SolrTemplate solrTemplate;
+	private SolrConverter converter;
+	private BenchmarkProduct product;
+	private SolrDocument document;
+
+	@Setup
+	public void setUp() {
+		solrTemplate = new SolrTemplate(new HttpSolrServer("http://localhost:8983/solr"));
+		converter = solrTemplate.getConverter();
+		product = BenchmarkProduct.create(1);
+
+		document = new SolrDocument();
+		for (Map.Entry<String, SolrInputField> entry : solrTemplate.convertBeanToSolrInputDocument(product).entrySet()) {
+			document.setField(entry.getKey(), entry.getValue().getValue());
+		}
+	}
+
+	@Benchmark
+	public SolrInputDocument writeBean() {
+		return solrTemplate.convertBeanToSolrInputDocument(product);
+	}
+
+	@Benchmark
+	public BenchmarkProduct readBean() {
+		return converter.read(BenchmarkProduct.class, document);
+	}
+
+	@Benchmark
+	public ProductName readProjection() {
+		return converter.readProjection(ProductName.class, BenchmarkProduct.class, document);
+	}
+
+	public interface ProductName {
+
+		String getName();
+
+		Float getPrice();
+
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.util.NamedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.solr.core.SolrTemplate;
+import org.springframework.data.solr.core.query.Criteria;
+import org.springframework.data.solr.core.query.SimpleQuery;
+
+/**
+ * Construction and rendering of {@link Criteria} chains, and building the request for large {@code in} lists. Sending
+ * is done via a {@link SolrServer} that url encodes the request parameters as
+ * {@link org.apache.solr.client.solrj.impl.HttpSolrServer} would for GET and POST alike, but does not touch the
+ * network. The default template switches to POST once the request exceeds
+ * {@link SolrTemplate#DEFAULT_MAX_GET_REQUEST_LENGTH}, the GET template never does.
+ * 
+ * @author Christoph Strobl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CriteriaBenchmark {
+
+	@Param({ "1000", "10000", "50000" })
+	private int inListSize;
+
+	private Criteria criteria;
+	private Criteria inCriteria;
+	private List<String> inValues;
+	private SimpleQuery inQuery;
+	private SolrTemplate solrTemplate;
+	private SolrTemplate getSolrTemplate;
+
+	@Setup
+	public void setUp() {
+		criteria = createCriteria();
+
+		inValues = new ArrayList<String>(inListSize);
+		for (int i = 0; i < inListSize; i++) {
+			inValues.add("value_" + i);
+		}
+		inCriteria = new Criteria("id").in(inValues);
+		inQuery = new SimpleQuery(inCriteria);
+
+		solrTemplate = new SolrTemplate(new RequestEncodingSolrServer());
+		getSolrTemplate = new SolrTemplate(new RequestEncodingSolrServer());
+		getSolrTemplate.setMaxGetRequestLength(-1);
+	}
+
+	@Benchmark
+	public Criteria createCriteria() {
+		return new Criteria("name").startsWith("spring").and("popularity").between(10, 100).and("cat")
+				.is("category_1").or("price").greaterThanEqual(5.0f).and("inStock").is(true).not();
+	}
+
+	@Benchmark
+	public String renderCriteria() {
+		return criteria.createQueryString();
+	}
+
+	@Benchmark
+	public Criteria createInCriteria() {
+		return new Criteria("id").in(inValues);
+	}
+
+	@Benchmark
+	public String renderInCriteria() {
+		return inCriteria.createQueryString();
+	}
+
+	@Benchmark
+	public Page<BenchmarkProduct> sendInQuery() {
+		return solrTemplate.executeListQuery(inQuery, BenchmarkProduct.class);
+	}
+
+	@Benchmark
+	public Page<BenchmarkProduct> sendInQueryViaGet() {
+		return getSolrTemplate.executeListQuery(inQuery, BenchmarkProduct.class);
+	}
+
+	/**
+	 * Encodes request parameters and answers with an empty result.
+	 */
+	private static class RequestEncodingSolrServer extends SolrServer {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public NamedList<Object> request(SolrRequest request) throws SolrServerException, IOException {
+			NamedList<Object> response = new NamedList<Object>();
+			response.add("params", ClientUtils.toQueryString(request.getParams(), false));
+			response.add("response", new SolrDocumentList());
+			return response;
+		}
+
+	}
+
+}
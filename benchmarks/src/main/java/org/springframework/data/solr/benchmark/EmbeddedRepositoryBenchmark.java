@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.solr.core.SolrTemplate;
+import org.springframework.data.solr.repository.support.SolrRepositoryFactory;
+
+/**
+ * End to end repository calls, including query derivation, request execution against an embedded core and result
+ * conversion.
+ * 
+ * @author Christoph Strobl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddedRepositoryBenchmark {
+
+	private static final int NUMBER_OF_DOCUMENTS = 10000;
+
+	private EmbeddedSolr embeddedSolr;
+	private BenchmarkProductRepository repository;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		embeddedSolr = new EmbeddedSolr();
+
+		SolrTemplate solrTemplate = new SolrTemplate(embeddedSolr.getSolrServerFactory());
+		solrTemplate.afterPropertiesSet();
+		repository = new SolrRepositoryFactory(solrTemplate).getRepository(BenchmarkProductRepository.class);
+
+		List<BenchmarkProduct> products = new ArrayList<BenchmarkProduct>(NUMBER_OF_DOCUMENTS);
+		for (int i = 0; i < NUMBER_OF_DOCUMENTS; i++) {
+			products.add(BenchmarkProduct.create(i));
+		}
+		repository.save(products);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		embeddedSolr.shutdown();
+	}
+
+	@Benchmark
+	public BenchmarkProduct findOne() {
+		return repository.findOne("4711");
+	}
+
+	@Benchmark
+	public List<BenchmarkProduct> findBySimpleProperty() {
+		return repository.findByPopularity(42);
+	}
+
+	@Benchmark
+	public Page<BenchmarkProduct> findByDerivedQueryPaged() {
+		return repository.findByNameStartingWithAndPopularityBetweenOrderByPriceDesc("product", 10, 20, new PageRequest(
+				0, 20));
+	}
+
+	@Benchmark
+	public List<BenchmarkProduct> findByIn() {
+		return repository.findByCategoriesIn(Arrays.asList("category_1", "subcategory_42"));
+	}
+
+	@Benchmark
+	public List<BenchmarkProduct> findByAnnotatedQuery() {
+		return repository.findByNameAndMinPopularity("product", 99);
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.springframework.data.solr.embedded.EmbeddedSolrServerFactory;
+import org.xml.sax.SAXException;
+
+/**
+ * Embedded solr core used by end to end benchmarks. The solr home is taken from system property {@code solr.solr.home}
+ * and defaults to the configuration used by the integration tests, assuming benchmarks are run from within the
+ * benchmarks directory. Index data is written to a temporary directory removed on {@link #shutdown()}.
+ * 
+ * @author Christoph Strobl
+ */
+public class EmbeddedSolr {
+
+	private static final String SOLR_HOME_SYSTEM_PROPERTY = "solr.solr.home";
+	private static final String SOLR_DATA_DIR_SYSTEM_PROPERTY = "solr.data.dir";
+	private static final String DEFAULT_SOLR_HOME = "../src/test/resources/org/springframework/data/solr";
+
+	private final File dataDir;
+	private final EmbeddedSolrServerFactory solrServerFactory;
+
+	public EmbeddedSolr() throws IOException, ParserConfigurationException, SAXException {
+		if (System.getProperty(SOLR_HOME_SYSTEM_PROPERTY) == null) {
+			System.setProperty(SOLR_HOME_SYSTEM_PROPERTY, new File(DEFAULT_SOLR_HOME).getCanonicalPath());
+		}
+
+		this.dataDir = File.createTempFile("spring-data-solr-benchmark", "");
+		FileUtils.forceDelete(this.dataDir);
+		FileUtils.forceMkdir(this.dataDir);
+		System.setProperty(SOLR_DATA_DIR_SYSTEM_PROPERTY, this.dataDir.getAbsolutePath());
+
+		this.solrServerFactory = new EmbeddedSolrServerFactory(System.getProperty(SOLR_HOME_SYSTEM_PROPERTY));
+	}
+
+	public EmbeddedSolrServerFactory getSolrServerFactory() {
+		return this.solrServerFactory;
+	}
+
+	/**
+	 * Remove all documents from index
+	 * 
+	 * @throws SolrServerException
+	 * @throws IOException
+	 */
+	public void clear() throws SolrServerException, IOException {
+		solrServerFactory.getSolrServer().deleteByQuery("*:*");
+		solrServerFactory.getSolrServer().commit();
+	}
+
+	public void shutdown() throws IOException {
+		solrServerFactory.shutdownSolrServer();
+		FileUtils.deleteQuietly(this.dataDir);
+	}
+
+}
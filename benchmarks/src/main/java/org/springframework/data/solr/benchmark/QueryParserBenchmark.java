@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.SolrQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.solr.core.QueryFingerprint;
+import org.springframework.data.solr.core.QueryParser;
+import org.springframework.data.solr.core.query.Criteria;
+import org.springframework.data.solr.core.query.FacetOptions;
+import org.springframework.data.solr.core.query.FacetQuery;
+import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.core.query.SimpleFacetQuery;
+import org.springframework.data.solr.core.query.SimpleFilterQuery;
+import org.springframework.data.solr.core.query.SimpleQuery;
+
+/**
+ * Conversion of {@link Query} into {@link SolrQuery} via {@link QueryParser#constructSolrQuery}.
+ * 
+ * @author Christoph Strobl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryParserBenchmark {
+
+	@Param({ "1000", "10000" })
+	private int inListSize;
+
+	private QueryParser queryParser;
+
+	private Query simpleQuery;
+	private FacetQuery facetQuery;
+	private Query inQuery;
+	private SolrQuery solrQuery;
+
+	@Setup
+	public void setUp() {
+		queryParser = new QueryParser();
+
+		simpleQuery = new SimpleQuery(new Criteria("name").startsWith("spring").and("popularity").between(10, 100));
+		simpleQuery.addFilterQuery(new SimpleFilterQuery(new Criteria("inStock").is(true)));
+		simpleQuery.addSort(new Sort(Sort.Direction.DESC, "price"));
+		simpleQuery.setPageRequest(new PageRequest(2, 20));
+
+		facetQuery = new SimpleFacetQuery(new Criteria("name").is("spring"));
+		facetQuery.setFacetOptions(new FacetOptions("cat", "inStock").setFacetMinCount(1).setFacetLimit(50));
+
+		List<Integer> values = new ArrayList<Integer>(inListSize);
+		for (int i = 0; i < inListSize; i++) {
+			values.add(i);
+		}
+		inQuery = new SimpleQuery(new Criteria("popularity").in(values));
+
+		solrQuery = queryParser.constructSolrQuery(simpleQuery);
+	}
+
+	@Benchmark
+	public SolrQuery constructSimpleQuery() {
+		return queryParser.constructSolrQuery(simpleQuery);
+	}
+
+	@Benchmark
+	public SolrQuery constructFacetQuery() {
+		return queryParser.constructSolrQuery(facetQuery);
+	}
+
+	@Benchmark
+	public SolrQuery constructCanonicalQuery() {
+		return queryParser.constructCanonicalSolrQuery(simpleQuery);
+	}
+
+	@Benchmark
+	public SolrQuery constructInListQuery() {
+		return queryParser.constructSolrQuery(inQuery);
+	}
+
+	@Benchmark
+	public QueryFingerprint fingerprint() {
+		return QueryFingerprint.of(solrQuery);
+	}
+
+}
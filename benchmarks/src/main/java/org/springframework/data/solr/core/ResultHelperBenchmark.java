@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.util.NamedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.solr.core.query.Criteria;
+import org.springframework.data.solr.core.query.FacetOptions;
+import org.springframework.data.solr.core.query.FacetQuery;
+import org.springframework.data.solr.core.query.Field;
+import org.springframework.data.solr.core.query.SimpleFacetQuery;
+import org.springframework.data.solr.core.query.result.FacetEntry;
+import org.springframework.data.solr.core.query.result.FacetFieldColumns;
+
+/**
+ * Conversion of facet field responses via {@link ResultHelper}. Located in the same package in order to access the
+ * package private conversion methods.
+ * 
+ * @author Christoph Strobl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultHelperBenchmark {
+
+	private static final String[] FACET_FIELDS = { "cat", "name", "popularity" };
+
+	@Param({ "10", "1000", "100000" })
+	private int valuesPerField;
+
+	private FacetQuery query;
+	private QueryResponse response;
+
+	@Setup
+	public void setUp() {
+		query = new SimpleFacetQuery(new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD));
+		query.setFacetOptions(new FacetOptions(FACET_FIELDS).setFacetLimit(valuesPerField));
+
+		NamedList<Object> facetFields = new NamedList<Object>();
+		for (String fieldName : FACET_FIELDS) {
+			NamedList<Number> counts = new NamedList<Number>();
+			for (int i = 0; i < valuesPerField; i++) {
+				counts.add(fieldName + "_" + i, valuesPerField - i);
+			}
+			facetFields.add(fieldName, counts);
+		}
+		NamedList<Object> facetCounts = new NamedList<Object>();
+		facetCounts.add("facet_queries", new NamedList<Object>());
+		facetCounts.add("facet_fields", facetFields);
+		facetCounts.add("facet_dates", new NamedList<Object>());
+		facetCounts.add("facet_ranges", new NamedList<Object>());
+
+		NamedList<Object> responseValues = new NamedList<Object>();
+		responseValues.add("facet_counts", facetCounts);
+		response = new QueryResponse(responseValues, null);
+	}
+
+	@Benchmark
+	public Map<Field, Page<FacetEntry>> convertToFacetPageMap() {
+		return ResultHelper.convertFacetQueryResponseToFacetPageMap(query, response);
+	}
+
+	@Benchmark
+	public List<FacetFieldColumns> convertToFacetFieldColumns() {
+		return ResultHelper.convertFacetQueryResponseToFacetFieldColumns(query, response);
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.repository.query;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.solr.benchmark.BenchmarkProduct;
+import org.springframework.data.solr.benchmark.BenchmarkProductRepository;
+import org.springframework.data.solr.core.mapping.SimpleSolrMappingContext;
+import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.repository.support.SolrEntityInformationCreatorImpl;
+
+/**
+ * Derivation of {@link Query} from a repository method, creating it from the {@link PartTree} on each invocation via
+ * {@link SolrQueryCreator} compared to binding parameters to a precomputed {@link PartTreeQueryPlan}. Located in the
+ * same package in order to access the package private types.
+ * 
+ * @author Christoph Strobl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DerivedQueryBenchmark {
+
+	private SimpleSolrMappingContext mappingContext;
+	private SolrQueryMethod queryMethod;
+	private PartTree tree;
+	private PartTreeQueryPlan plan;
+	private Object[] parameters;
+
+	@Setup
+	public void setUp() throws Exception {
+		mappingContext = new SimpleSolrMappingContext();
+
+		Method method = BenchmarkProductRepository.class.getMethod(
+				"findByNameStartingWithAndPopularityBetweenOrderByPriceDesc", String.class, Integer.class, Integer.class,
+				Pageable.class);
+		queryMethod = new SolrQueryMethod(method, new DefaultRepositoryMetadata(BenchmarkProductRepository.class),
+				new SolrEntityInformationCreatorImpl(mappingContext));
+		tree = new PartTree(method.getName(), BenchmarkProduct.class);
+		plan = new PartTreeQueryPlan(tree, mappingContext);
+		parameters = new Object[] { "product", 10, 20, new PageRequest(0, 20) };
+	}
+
+	@Benchmark
+	public Query createWithQueryCreator() {
+		return new SolrQueryCreator(new PartTree(queryMethod.getName(), BenchmarkProduct.class),
+				new SolrParametersParameterAccessor(queryMethod, parameters), mappingContext).createQuery();
+	}
+
+	@Benchmark
+	public Query createWithCachedTree() {
+		return new SolrQueryCreator(tree, new SolrParametersParameterAccessor(queryMethod, parameters), mappingContext)
+				.createQuery();
+	}
+
+	@Benchmark
+	public Query bindQueryPlan() {
+		return plan.bind(new SolrParametersParameterAccessor(queryMethod, parameters));
+	}
+
+}
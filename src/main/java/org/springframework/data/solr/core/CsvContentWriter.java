@@ -0,0 +1,213 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.DateUtil;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.solr.core.convert.SolrConverter;
+import org.springframework.data.solr.core.mapping.SolrPersistentEntity;
+import org.springframework.data.solr.core.mapping.SolrPersistentProperty;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Writes beans as csv lines using the {@link org.apache.solr.client.solrj.beans.Field} annotated properties of the
+ * corresponding {@link SolrPersistentEntity} as columns. Values are taken from the document created by the
+ * {@link SolrConverter}, so custom conversions apply just like for regular updates. Values of collection and array
+ * properties are joined using the multi value separator. Values of those containing the multi value separator are
+ * enclosed using the encapsulator, which therefore has to be set as {@code f.<field>.encapsulator} when loading.
+ * 
+ * @author Christoph Strobl
+ */
+final class CsvContentWriter {
+
+	private static final String DYNAMIC_FIELD_WILDCARD = "*";
+	private static final char LINE_SEPARATOR = '\n';
+
+	private final List<String> fieldNames = new ArrayList<String>();
+	private final List<String> multiValuedFieldNames = new ArrayList<String>();
+	private final SolrConverter converter;
+	private final CsvLoadOptions options;
+
+	CsvContentWriter(SolrPersistentEntity<?> entity, SolrConverter converter, CsvLoadOptions options) {
+		Assert.notNull(entity);
+		Assert.notNull(converter);
+		Assert.notNull(options);
+		Assert.isTrue(options.getEncapsulator() != options.getMultiValueSeparator(),
+				"Encapsulator and multi value separator must differ.");
+
+		this.converter = converter;
+		this.options = options;
+
+		final Map<Field, SolrPersistentProperty> properties = new HashMap<Field, SolrPersistentProperty>();
+		entity.doWithProperties(new PropertyHandler<SolrPersistentProperty>() {
+
+			@Override
+			public void doWithPersistentProperty(SolrPersistentProperty property) {
+				if (property.getField() != null
+						&& property.getField().isAnnotationPresent(org.apache.solr.client.solrj.beans.Field.class)) {
+					properties.put(property.getField(), property);
+				}
+			}
+		});
+
+		// keep declaration order for columns
+		ReflectionUtils.doWithFields(entity.getType(), new ReflectionUtils.FieldCallback() {
+
+			@Override
+			public void doWith(Field field) {
+				SolrPersistentProperty property = properties.get(field);
+				if (property != null) {
+					addColumn(property);
+				}
+			}
+		});
+	}
+
+	private void addColumn(SolrPersistentProperty property) {
+		if (property.isMap() || property.getFieldName().contains(DYNAMIC_FIELD_WILDCARD)) {
+			throw new InvalidDataAccessApiUsageException("Dynamic field '" + property.getFieldName()
+					+ "' cannot be written as csv.");
+		}
+
+		fieldNames.add(property.getFieldName());
+		if (property.isCollectionLike()) {
+			multiValuedFieldNames.add(property.getFieldName());
+		}
+	}
+
+	/**
+	 * @return field names in column order
+	 */
+	List<String> getFieldNames() {
+		return Collections.unmodifiableList(this.fieldNames);
+	}
+
+	/**
+	 * @return names of collection and array properties
+	 */
+	List<String> getMultiValuedFieldNames() {
+		return Collections.unmodifiableList(this.multiValuedFieldNames);
+	}
+
+	/**
+	 * Write one line per bean, no header line is written.
+	 * 
+	 * @param beans
+	 * @return
+	 */
+	String write(List<?> beans) {
+		StringBuilder sb = new StringBuilder(beans.size() * fieldNames.size() * 16);
+		for (Object bean : beans) {
+			SolrInputDocument document = new SolrInputDocument();
+			converter.write(bean, document);
+			for (int i = 0; i < fieldNames.size(); i++) {
+				if (i > 0) {
+					sb.append(options.getSeparator());
+				}
+				String fieldName = fieldNames.get(i);
+				appendValue(sb, document.getFieldValues(fieldName), multiValuedFieldNames.contains(fieldName));
+			}
+			sb.append(LINE_SEPARATOR);
+		}
+		return sb.toString();
+	}
+
+	private void appendValue(StringBuilder sb, Collection<Object> values, boolean multiValued) {
+		if (values == null || values.isEmpty()) {
+			return;
+		}
+		if (!multiValued) {
+			appendEncapsulatedIfRequired(sb, format(values.iterator().next()), options.getSeparator());
+			return;
+		}
+
+		StringBuilder joined = new StringBuilder();
+		for (Iterator<?> it = values.iterator(); it.hasNext();) {
+			Object value = it.next();
+			if (value != null && value.getClass().isArray() && !(value instanceof byte[])) {
+				for (int i = 0; i < Array.getLength(value); i++) {
+					appendMultiValue(joined, Array.get(value, i));
+				}
+			} else {
+				appendMultiValue(joined, value);
+			}
+		}
+		appendEncapsulatedIfRequired(sb, joined.toString(), options.getSeparator());
+	}
+
+	private void appendMultiValue(StringBuilder sb, Object value) {
+		if (sb.length() > 0) {
+			sb.append(options.getMultiValueSeparator());
+		}
+		appendEncapsulatedIfRequired(sb, format(value), options.getMultiValueSeparator());
+	}
+
+	private String format(Object value) {
+		if (value == null) {
+			return "";
+		}
+		if (value instanceof Date) {
+			return DateUtil.getThreadLocalDateFormat().format((Date) value);
+		}
+		if (value instanceof byte[]) {
+			throw new InvalidDataAccessApiUsageException("Binary values cannot be written as csv.");
+		}
+		return value.toString();
+	}
+
+	private void appendEncapsulatedIfRequired(StringBuilder sb, String value, char separator) {
+		if (!requiresEncapsulation(value, separator)) {
+			sb.append(value);
+			return;
+		}
+
+		char encapsulator = options.getEncapsulator();
+		sb.append(encapsulator);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == encapsulator) {
+				sb.append(encapsulator);
+			}
+			sb.append(c);
+		}
+		sb.append(encapsulator);
+	}
+
+	private boolean requiresEncapsulation(String value, char separator) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == separator || c == options.getEncapsulator() || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
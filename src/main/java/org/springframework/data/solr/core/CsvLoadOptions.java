@@ -0,0 +1,182 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+/**
+ * Options used when loading csv content using the solr {@code /update/csv} request handler.
+ * 
+ * @author Christoph Strobl
+ */
+public class CsvLoadOptions {
+
+	public static final String DEFAULT_REQUEST_HANDLER = "/update/csv";
+	public static final char DEFAULT_SEPARATOR = ',';
+	public static final char DEFAULT_ENCAPSULATOR = '"';
+	public static final char DEFAULT_MULTI_VALUE_SEPARATOR = '|';
+	public static final int DEFAULT_CHUNK_SIZE = 10000;
+	public static final int DEFAULT_CONCURRENCY = 1;
+
+	private String requestHandler = DEFAULT_REQUEST_HANDLER;
+	private char separator = DEFAULT_SEPARATOR;
+	private char encapsulator = DEFAULT_ENCAPSULATOR;
+	private char multiValueSeparator = DEFAULT_MULTI_VALUE_SEPARATOR;
+	private boolean header = true;
+	private List<String> fieldNames = new ArrayList<String>(0);
+	private List<String> multiValuedFieldNames = new ArrayList<String>(0);
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private int concurrency = DEFAULT_CONCURRENCY;
+
+	/**
+	 * @param requestHandler path of the request handler processing csv content
+	 * @return
+	 */
+	public CsvLoadOptions setRequestHandler(String requestHandler) {
+		Assert.hasText(requestHandler, "RequestHandler must not be empty.");
+
+		this.requestHandler = requestHandler;
+		return this;
+	}
+
+	/**
+	 * @param separator character separating columns
+	 * @return
+	 */
+	public CsvLoadOptions setSeparator(char separator) {
+		this.separator = separator;
+		return this;
+	}
+
+	/**
+	 * @param encapsulator character used to enclose values containing special characters
+	 * @return
+	 */
+	public CsvLoadOptions setEncapsulator(char encapsulator) {
+		this.encapsulator = encapsulator;
+		return this;
+	}
+
+	/**
+	 * @param multiValueSeparator character separating values of multi valued fields within one column
+	 * @return
+	 */
+	public CsvLoadOptions setMultiValueSeparator(char multiValueSeparator) {
+		this.multiValueSeparator = multiValueSeparator;
+		return this;
+	}
+
+	/**
+	 * @param header true if first line of csv file contains field names
+	 * @return
+	 */
+	public CsvLoadOptions setHeader(boolean header) {
+		this.header = header;
+		return this;
+	}
+
+	/**
+	 * Set the field names of the columns of a csv file. Field names present in the header line, if any, are ignored.
+	 * 
+	 * @param fieldNames
+	 * @return
+	 */
+	public CsvLoadOptions setFieldNames(String... fieldNames) {
+		Assert.notNull(fieldNames, "FieldNames must not be null.");
+		Assert.noNullElements(fieldNames, "FieldNames must not contain null.");
+
+		this.fieldNames = new ArrayList<String>(Arrays.asList(fieldNames));
+		return this;
+	}
+
+	/**
+	 * Mark fields of a csv file as multi valued. Values within those columns are split using the multiValueSeparator.
+	 * 
+	 * @param fieldNames
+	 * @return
+	 */
+	public CsvLoadOptions setMultiValuedFieldNames(String... fieldNames) {
+		Assert.notNull(fieldNames, "FieldNames must not be null.");
+		Assert.noNullElements(fieldNames, "FieldNames must not contain null.");
+
+		this.multiValuedFieldNames = new ArrayList<String>(Arrays.asList(fieldNames));
+		return this;
+	}
+
+	/**
+	 * @param chunkSize max number of beans sent within one request
+	 * @return
+	 */
+	public CsvLoadOptions setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "ChunkSize must be greater than zero.");
+
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	/**
+	 * @param concurrency max number of chunks uploaded in parallel
+	 * @return
+	 */
+	public CsvLoadOptions setConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than zero.");
+
+		this.concurrency = concurrency;
+		return this;
+	}
+
+	public String getRequestHandler() {
+		return this.requestHandler;
+	}
+
+	public char getSeparator() {
+		return this.separator;
+	}
+
+	public char getEncapsulator() {
+		return this.encapsulator;
+	}
+
+	public char getMultiValueSeparator() {
+		return this.multiValueSeparator;
+	}
+
+	public boolean isHeader() {
+		return this.header;
+	}
+
+	public List<String> getFieldNames() {
+		return Collections.unmodifiableList(this.fieldNames);
+	}
+
+	public List<String> getMultiValuedFieldNames() {
+		return Collections.unmodifiableList(this.multiValuedFieldNames);
+	}
+
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+
+	public int getConcurrency() {
+		return this.concurrency;
+	}
+
+}
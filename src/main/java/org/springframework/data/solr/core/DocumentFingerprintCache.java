@@ -0,0 +1,475 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.SolrInputField;
+import org.springframework.util.Assert;
+
+/**
+ * Bounded cache of document fingerprints used by {@link SolrTemplate} to skip adding documents that have not changed
+ * since they have been sent to solr last. <br />
+ * Fingerprints are stable 64bit FNV-1a hashes computed over the sorted fields of a {@link SolrInputDocument} and are
+ * stored in an open addressing table of primitive longs kept outside the java heap, or in a memory mapped file allowing
+ * fingerprints to survive restarts. Once the table is full existing entries are evicted, which at worst causes an
+ * unchanged document to be sent again. <br />
+ * Fingerprints of sent documents are held pending until the documents have been committed, so a failed commit or a
+ * rollback never suppresses sending them again. Along with the fingerprints the index version seen on the last commit
+ * is recorded. Fingerprints are dropped once the index turns out to have been modified by someone else, eg. wiped. Use
+ * {@link #clear()} in case the index is modified outside the application in between two commits.
+ * 
+ * @author Christoph Strobl
+ */
+public class DocumentFingerprintCache {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static final int MIN_CAPACITY = 16;
+	private static final int BUCKET_SIZE = 4;
+	private static final long EMPTY = 0L;
+	private static final String DEFAULT_ID_FIELD_NAME = "id";
+
+	public static final long UNKNOWN_INDEX_VERSION = 0L;
+
+	private static final long MAGIC = 0x5344534652505431L;
+	private static final int HEADER_SIZE = 2;
+	private static final int MAGIC_OFFSET = 0;
+	private static final int INDEX_VERSION_OFFSET = 1;
+
+	private final LongBuffer header;
+	private final LongBuffer table;
+	private final MappedByteBuffer mappedBuffer;
+	private final int capacity;
+	private final int mask;
+	private String idFieldName = DEFAULT_ID_FIELD_NAME;
+	private final Map<String, Long> pendingFingerprints = new HashMap<String, Long>();
+	private final Set<String> conflictingIds = new HashSet<String>();
+
+	private long hitCount;
+	private long missCount;
+
+	/**
+	 * Create cache holding up to capacity fingerprints off heap
+	 * 
+	 * @param capacity will be rounded up to the next power of two
+	 */
+	public DocumentFingerprintCache(int capacity) {
+		this.capacity = normalizeCapacity(capacity);
+		this.mask = this.capacity - 1;
+		this.mappedBuffer = null;
+
+		LongBuffer buffer = ByteBuffer.allocateDirect((HEADER_SIZE + this.capacity * 2) * 8).asLongBuffer();
+		this.header = slice(buffer, 0, HEADER_SIZE);
+		this.table = slice(buffer, HEADER_SIZE, this.capacity * 2);
+		this.header.put(MAGIC_OFFSET, MAGIC);
+	}
+
+	/**
+	 * Create cache holding up to capacity fingerprints in a memory mapped file. Fingerprints already present in the file
+	 * are reused if it has been created with the same capacity. Call {@link #validate(long)} before using them.
+	 * 
+	 * @param capacity will be rounded up to the next power of two
+	 * @param file
+	 * @throws IOException
+	 */
+	public DocumentFingerprintCache(int capacity, File file) throws IOException {
+		Assert.notNull(file, "File must not be null.");
+
+		this.capacity = normalizeCapacity(capacity);
+		this.mask = this.capacity - 1;
+
+		long size = (HEADER_SIZE + this.capacity * 2L) * 8L;
+		boolean reuse = file.exists() && file.length() == size;
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		try {
+			this.mappedBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		} finally {
+			randomAccessFile.close();
+		}
+
+		LongBuffer buffer = mappedBuffer.asLongBuffer();
+		this.header = slice(buffer, 0, HEADER_SIZE);
+		this.table = slice(buffer, HEADER_SIZE, this.capacity * 2);
+		if (!reuse || this.header.get(MAGIC_OFFSET) != MAGIC) {
+			clear();
+			this.header.put(MAGIC_OFFSET, MAGIC);
+		}
+	}
+
+	private static LongBuffer slice(LongBuffer buffer, int offset, int length) {
+		LongBuffer duplicate = buffer.duplicate();
+		duplicate.position(offset);
+		duplicate.limit(offset + length);
+		return duplicate.slice();
+	}
+
+	private static int normalizeCapacity(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than zero.");
+		Assert.isTrue(capacity <= (1 << 26), "Capacity must not exceed " + (1 << 26) + ".");
+
+		int normalized = MIN_CAPACITY;
+		while (normalized < capacity) {
+			normalized <<= 1;
+		}
+		return normalized;
+	}
+
+	/**
+	 * Compute the fingerprint for given document. The fingerprint does not depend on the order fields have been added in.
+	 * 
+	 * @param document
+	 * @return
+	 */
+	public static long fingerprint(SolrInputDocument document) {
+		Assert.notNull(document, "Document must not be null.");
+
+		List<String> fieldNames = new ArrayList<String>(document.getFieldNames());
+		Collections.sort(fieldNames);
+
+		long hash = update(FNV_OFFSET_BASIS, Float.floatToIntBits(document.getDocumentBoost()));
+		for (String fieldName : fieldNames) {
+			SolrInputField field = document.getField(fieldName);
+			hash = update(hash, fieldName);
+			hash = update(hash, Float.floatToIntBits(field.getBoost()));
+			hash = update(hash, field.getValueCount());
+			for (Object value : field) {
+				hash = updateWithValue(hash, value);
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Check if document with given id has been recorded with the very same fingerprint.
+	 * 
+	 * @param id
+	 * @param fingerprint
+	 * @return true if fingerprint is unchanged
+	 */
+	public synchronized boolean isUnchanged(String id, long fingerprint) {
+		int slot = findSlot(hashId(id));
+		if (slot >= 0 && table.get(slot * 2 + 1) == fingerprint) {
+			hitCount++;
+			return true;
+		}
+		missCount++;
+		return false;
+	}
+
+	/**
+	 * Atomically check if document with given id has been committed with the very same fingerprint, and if not hold the
+	 * fingerprint pending until {@link #commitPending(long, long)}. The fingerprint recorded so far is dropped right
+	 * away, as the document is about to change. Fingerprints of an id marked concurrently with different values are
+	 * never recorded, as the order those reach solr in is unknown.
+	 * 
+	 * @param id
+	 * @param fingerprint
+	 * @return true if the document has changed and has to be sent
+	 */
+	public synchronized boolean markPendingIfChanged(String id, long fingerprint) {
+		if (isUnchanged(id, fingerprint)) {
+			return false;
+		}
+
+		remove(hashId(id));
+		Long pending = pendingFingerprints.get(id);
+		if (pending != null && pending.longValue() != fingerprint) {
+			conflictingIds.add(id);
+		} else if (pending != null || pendingFingerprints.size() < capacity) {
+			pendingFingerprints.put(id, fingerprint);
+		}
+		return true;
+	}
+
+	/**
+	 * Drop pending fingerprint of a document that could not be sent
+	 * 
+	 * @param id
+	 */
+	public synchronized void abortPending(String id) {
+		pendingFingerprints.remove(id);
+	}
+
+	/**
+	 * Record pending fingerprints once the documents have been committed. All fingerprints are dropped in case the
+	 * index version seen before the commit differs from the one recorded on the previous commit, as someone else
+	 * modified the index in between.
+	 * 
+	 * @param versionBeforeCommit index version right before the commit, {@link #UNKNOWN_INDEX_VERSION} if not known
+	 * @param versionAfterCommit index version after the commit, {@link #UNKNOWN_INDEX_VERSION} if not known
+	 */
+	public synchronized void commitPending(long versionBeforeCommit, long versionAfterCommit) {
+		validate(versionBeforeCommit);
+		commitPending(versionAfterCommit);
+	}
+
+	/**
+	 * Record pending fingerprints once the documents have been committed, without checking for modifications since the
+	 * previous commit.
+	 * 
+	 * @param versionAfterCommit index version after the commit, {@link #UNKNOWN_INDEX_VERSION} if not known
+	 */
+	public synchronized void commitPending(long versionAfterCommit) {
+		for (Map.Entry<String, Long> entry : pendingFingerprints.entrySet()) {
+			if (!conflictingIds.contains(entry.getKey())) {
+				put(entry.getKey(), entry.getValue());
+			}
+		}
+		discardPending();
+		header.put(INDEX_VERSION_OFFSET, versionAfterCommit);
+	}
+
+	/**
+	 * Drop pending fingerprints, eg. after a rollback.
+	 */
+	public synchronized void discardPending() {
+		pendingFingerprints.clear();
+		conflictingIds.clear();
+	}
+
+	/**
+	 * Drop all fingerprints in case given index version differs from the one recorded on the last commit.
+	 * 
+	 * @param indexVersion current index version, {@link #UNKNOWN_INDEX_VERSION} skips validation
+	 * @return false if fingerprints have been dropped
+	 */
+	public synchronized boolean validate(long indexVersion) {
+		long recordedVersion = header.get(INDEX_VERSION_OFFSET);
+		if (indexVersion == UNKNOWN_INDEX_VERSION || recordedVersion == UNKNOWN_INDEX_VERSION
+				|| recordedVersion == indexVersion) {
+			return true;
+		}
+		clearTable();
+		header.put(INDEX_VERSION_OFFSET, indexVersion);
+		return false;
+	}
+
+	/**
+	 * @return index version recorded on the last commit, {@link #UNKNOWN_INDEX_VERSION} if none
+	 */
+	public synchronized long getIndexVersion() {
+		return header.get(INDEX_VERSION_OFFSET);
+	}
+
+	/**
+	 * Record fingerprint for document with given id
+	 * 
+	 * @param id
+	 * @param fingerprint
+	 */
+	public synchronized void put(String id, long fingerprint) {
+		long key = hashId(id);
+		int slot = findSlot(key);
+		if (slot < 0) {
+			slot = findFreeSlot(key);
+		}
+		table.put(slot * 2, key);
+		table.put(slot * 2 + 1, fingerprint);
+	}
+
+	/**
+	 * Remove recorded and pending fingerprint for document with given id
+	 * 
+	 * @param id
+	 */
+	public synchronized void remove(String id) {
+		remove(hashId(id));
+		pendingFingerprints.remove(id);
+	}
+
+	private void remove(long key) {
+		int slot = findSlot(key);
+		if (slot >= 0) {
+			table.put(slot * 2, EMPTY);
+			table.put(slot * 2 + 1, EMPTY);
+		}
+	}
+
+	/**
+	 * Remove all recorded and pending fingerprints
+	 */
+	public synchronized void clear() {
+		clearTable();
+		header.put(INDEX_VERSION_OFFSET, UNKNOWN_INDEX_VERSION);
+		discardPending();
+	}
+
+	private void clearTable() {
+		for (int i = 0; i < capacity * 2; i++) {
+			table.put(i, EMPTY);
+		}
+	}
+
+	/**
+	 * Write changes to the underlying file, if any.
+	 */
+	public synchronized void flush() {
+		if (mappedBuffer != null) {
+			mappedBuffer.force();
+		}
+	}
+
+	/**
+	 * @return number of recorded fingerprints
+	 */
+	public synchronized int size() {
+		int size = 0;
+		for (int slot = 0; slot < capacity; slot++) {
+			if (table.get(slot * 2) != EMPTY) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return max number of fingerprints held
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return number of documents found unchanged
+	 */
+	public synchronized long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * @return number of documents found new or changed
+	 */
+	public synchronized long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * @return ratio of unchanged documents, 0 if nothing checked so far
+	 */
+	public synchronized double getHitRatio() {
+		long total = hitCount + missCount;
+		return total == 0 ? 0d : (double) hitCount / total;
+	}
+
+	/**
+	 * @return name of the field holding the unique document key. Defaults to {@code id}.
+	 */
+	public String getIdFieldName() {
+		return this.idFieldName;
+	}
+
+	/**
+	 * @param idFieldName name of the field holding the unique document key
+	 */
+	public void setIdFieldName(String idFieldName) {
+		Assert.hasText(idFieldName, "IdFieldName must not be empty.");
+		this.idFieldName = idFieldName;
+	}
+
+	/**
+	 * @param document
+	 * @return the id of given document as string, null if not present
+	 */
+	String getDocumentId(SolrInputDocument document) {
+		Object id = document.getFieldValue(idFieldName);
+		return id != null ? id.toString() : null;
+	}
+
+	private int findSlot(long key) {
+		int home = (int) (key ^ (key >>> 32)) & mask;
+		for (int i = 0; i < BUCKET_SIZE; i++) {
+			int slot = (home + i) & mask;
+			if (table.get(slot * 2) == key) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private int findFreeSlot(long key) {
+		int home = (int) (key ^ (key >>> 32)) & mask;
+		for (int i = 0; i < BUCKET_SIZE; i++) {
+			int slot = (home + i) & mask;
+			if (table.get(slot * 2) == EMPTY) {
+				return slot;
+			}
+		}
+		// bucket full, evict entry derived from key to spread evictions across bucket
+		return (home + (int) ((key >>> 48) & (BUCKET_SIZE - 1))) & mask;
+	}
+
+	private static long hashId(String id) {
+		Assert.notNull(id, "Id must not be null.");
+
+		long hash = update(FNV_OFFSET_BASIS, id);
+		return hash == EMPTY ? 1L : hash;
+	}
+
+	private static long updateWithValue(long hash, Object value) {
+		if (value == null) {
+			return update(hash, 0);
+		}
+		hash = update(hash, value.getClass().getName());
+		if (value instanceof Date) {
+			return update(hash, ((Date) value).getTime());
+		}
+		if (value instanceof byte[]) {
+			for (byte b : (byte[]) value) {
+				hash = updateByte(hash, b);
+			}
+			return hash;
+		}
+		return update(hash, value.toString());
+	}
+
+	private static long update(long hash, String value) {
+		hash = update(hash, value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			hash = updateByte(hash, (byte) (c >>> 8));
+			hash = updateByte(hash, (byte) c);
+		}
+		return hash;
+	}
+
+	private static long update(long hash, long value) {
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			hash = updateByte(hash, (byte) (value >>> shift));
+		}
+		return hash;
+	}
+
+	private static long updateByte(long hash, byte value) {
+		return (hash ^ (value & 0xff)) * FNV_PRIME;
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.util.Collection;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.solr.client.solrj.response.Group;
+import org.apache.solr.client.solrj.response.GroupCommand;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.springframework.data.solr.core.geo.GeoLocation;
+import org.springframework.data.solr.core.query.GeoDistanceOptions;
+
+/**
+ * Adds the distance to the location defined via {@link GeoDistanceOptions} to each document of a {@link QueryResponse}.
+ * Solr 3.x is not capable of returning function values as pseudo fields, so the distance is computed client side using
+ * the same haversine formula (and earth radius) solr uses for {@code geodist()}.
+ * 
+ * @author Christoph Strobl
+ */
+final class GeoDistances {
+
+	static final double EARTH_MEAN_RADIUS_KM = 6371.0087714;
+
+	private GeoDistances() {
+
+	}
+
+	/**
+	 * Set the distance in kilometers as field {@link GeoDistanceOptions#getDistanceFieldName()} of all documents in
+	 * results and groups. Documents without location are left untouched.
+	 * 
+	 * @param response
+	 * @param options
+	 */
+	static void appendDistances(QueryResponse response, GeoDistanceOptions options) {
+		if (response == null || options == null || options.getDistanceFieldName() == null) {
+			return;
+		}
+		appendDistances(response.getResults(), options);
+		if (response.getGroupResponse() != null) {
+			for (GroupCommand command : response.getGroupResponse().getValues()) {
+				for (Group group : command.getValues()) {
+					appendDistances(group.getResult(), options);
+				}
+			}
+		}
+	}
+
+	private static void appendDistances(SolrDocumentList documents, GeoDistanceOptions options) {
+		if (documents == null) {
+			return;
+		}
+		String locationFieldName = options.getField().getName();
+		for (SolrDocument document : documents) {
+			GeoLocation location = parseLocation(document.getFieldValue(locationFieldName));
+			if (location != null) {
+				document.setField(options.getDistanceFieldName(), distance(options.getLocation(), location));
+			}
+		}
+	}
+
+	/**
+	 * @param from
+	 * @param to
+	 * @return great circle distance in kilometers
+	 */
+	static double distance(GeoLocation from, GeoLocation to) {
+		double lat1 = Math.toRadians(from.getLatitude());
+		double lat2 = Math.toRadians(to.getLatitude());
+		double sinHalfDeltaLat = Math.sin((lat2 - lat1) / 2);
+		double sinHalfDeltaLon = Math.sin(Math.toRadians(to.getLongitude() - from.getLongitude()) / 2);
+
+		double h = sinHalfDeltaLat * sinHalfDeltaLat + Math.cos(lat1) * Math.cos(lat2) * sinHalfDeltaLon * sinHalfDeltaLon;
+		return 2 * EARTH_MEAN_RADIUS_KM * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
+	}
+
+	/**
+	 * @param value 'lat,lon' or collection thereof, in which case the first one is used
+	 * @return null if value cannot be parsed
+	 */
+	static GeoLocation parseLocation(Object value) {
+		Object source = value;
+		if (source instanceof Collection) {
+			Collection<?> values = (Collection<?>) source;
+			source = values.isEmpty() ? null : values.iterator().next();
+		}
+		if (source == null) {
+			return null;
+		}
+		String[] coordinates = StringUtils.split(source.toString(), ',');
+		if (coordinates.length != 2) {
+			return null;
+		}
+		try {
+			return new GeoLocation(Double.parseDouble(coordinates[0].trim()), Double.parseDouble(coordinates[1].trim()));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+}
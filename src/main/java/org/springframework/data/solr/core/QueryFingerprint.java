@@ -0,0 +1,160 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.solr.common.params.SolrParams;
+import org.springframework.util.Assert;
+
+/**
+ * Stable 128bit fingerprint of the parameters sent to solr. Parameter names are processed in natural order, so the
+ * fingerprint does not depend on the order parameters have been set in. In contrast to {@link Object#hashCode()} the
+ * value is identical across JVMs and may therefore be used as key for caches shared among multiple instances. Use
+ * {@link QueryParser#fingerprint(org.springframework.data.solr.core.query.SolrDataQuery)} to fingerprint the canonical
+ * form of a query.
+ * 
+ * @author Christoph Strobl
+ */
+public final class QueryFingerprint {
+
+	private static final String ALGORITHM = "MD5";
+	private static final String CHARSET = "UTF-8";
+
+	private final long mostSignificantBits;
+	private final long leastSignificantBits;
+
+	private QueryFingerprint(long mostSignificantBits, long leastSignificantBits) {
+		this.mostSignificantBits = mostSignificantBits;
+		this.leastSignificantBits = leastSignificantBits;
+	}
+
+	/**
+	 * Compute fingerprint for given parameters. Values of multi valued parameters are processed in given order.
+	 * 
+	 * @param params
+	 * @return
+	 */
+	public static QueryFingerprint of(SolrParams params) {
+		Assert.notNull(params, "Cannot create fingerprint for null params.");
+
+		Set<String> names = new TreeSet<String>();
+		for (Iterator<String> it = params.getParameterNamesIterator(); it.hasNext();) {
+			names.add(it.next());
+		}
+
+		MessageDigest digest = createDigest();
+		for (String name : names) {
+			update(digest, name);
+			String[] values = params.getParams(name);
+			digest.update(toBytes(values != null ? values.length : 0));
+			if (values != null) {
+				for (String value : values) {
+					update(digest, value);
+				}
+			}
+		}
+
+		byte[] hash = digest.digest();
+		return new QueryFingerprint(toLong(hash, 0), toLong(hash, 8));
+	}
+
+	/**
+	 * @return the upper 64 bits of the fingerprint
+	 */
+	public long getMostSignificantBits() {
+		return this.mostSignificantBits;
+	}
+
+	/**
+	 * @return the lower 64 bits of the fingerprint
+	 */
+	public long getLeastSignificantBits() {
+		return this.leastSignificantBits;
+	}
+
+	/**
+	 * Shortened 64bit fingerprint for use in places where a primitive long is required.
+	 * 
+	 * @return
+	 */
+	public long asLong() {
+		return this.mostSignificantBits;
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		if (value == null) {
+			digest.update(toBytes(-1));
+			return;
+		}
+		try {
+			byte[] bytes = value.getBytes(CHARSET);
+			digest.update(toBytes(bytes.length));
+			digest.update(bytes);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] toBytes(int value) {
+		return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
+	}
+
+	private static long toLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = offset; i < offset + 8; i++) {
+			value = (value << 8) | (bytes[i] & 0xff);
+		}
+		return value;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof QueryFingerprint)) {
+			return false;
+		}
+		QueryFingerprint other = (QueryFingerprint) obj;
+		return this.mostSignificantBits == other.mostSignificantBits
+				&& this.leastSignificantBits == other.leastSignificantBits;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (this.mostSignificantBits ^ (this.mostSignificantBits >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%016x%016x", this.mostSignificantBits, this.leastSignificantBits);
+	}
+
+}
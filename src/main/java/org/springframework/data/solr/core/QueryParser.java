@@ -16,7 +16,12 @@
 package org.springframework.data.solr.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.solr.client.solrj.SolrQuery;
@@ -25,16 +30,31 @@ import org.apache.solr.client.solrj.SolrServer;
 import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.params.FacetParams;
 import org.apache.solr.common.params.GroupParams;
+import org.apache.solr.common.params.SpatialParams;
+import org.apache.solr.common.params.StatsParams;
+import org.joda.time.ReadableInstant;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.solr.core.convert.GeoConverters;
+import org.springframework.data.solr.core.query.Criteria;
+import org.springframework.data.solr.core.query.ExtractedFilterQueries;
 import org.springframework.data.solr.core.query.FacetOptions;
 import org.springframework.data.solr.core.query.FacetQuery;
+import org.springframework.data.solr.core.query.FacetRange;
 import org.springframework.data.solr.core.query.Field;
 import org.springframework.data.solr.core.query.FilterQuery;
+import org.springframework.data.solr.core.query.GeoDistanceOptions;
+import org.springframework.data.solr.core.query.GroupOptions;
 import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.core.query.SimpleFilterQuery;
+import org.springframework.data.solr.core.query.SimpleQuery;
 import org.springframework.data.solr.core.query.SolrDataQuery;
+import org.springframework.data.solr.core.query.StatsOptions;
+import org.springframework.data.solr.core.query.TermsQuery;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
@@ -50,6 +70,14 @@ import org.springframework.util.CollectionUtils;
  */
 public class QueryParser {
 
+	private static final String MATCH_ALL_QUERY = "*:*";
+	private static final String LOCAL_PARAMS_PREFIX = "{!";
+	private static final String GROUP_FACET = "group.facet"; // not available in GroupParams of solrj 3.6
+	private static final String GEODIST_FUNCTION = "geodist()";
+	private static final DateTimeFormatter DATE_FORMATTER = ISODateTimeFormat.dateTime().withZoneUTC();
+
+	private boolean canonicalizeQueries = false;
+
 	/**
 	 * Convert given Query into a SolrQuery executable via {@link SolrServer}
 	 * 
@@ -58,25 +86,145 @@ public class QueryParser {
 	 */
 	public final SolrQuery constructSolrQuery(SolrDataQuery query) {
 		Assert.notNull(query, "Cannot construct solrQuery from null value.");
-		Assert.notNull(query.getCriteria(), "Query has to have a criteria.");
 
+		if (query.isFrozen() && query instanceof SimpleQuery) {
+			SolrQuery solrQuery = ((SimpleQuery) query).getFrozenSolrQuery(this.canonicalizeQueries);
+			if (solrQuery != null) {
+				return solrQuery;
+			}
+		}
+		return constructSolrQuery(query, query.getCriteria());
+	}
+
+	/**
+	 * Convert given Query into a SolrQuery executable via {@link SolrServer} using the given criteria instead of the one
+	 * held by the query.
+	 * 
+	 * @param query
+	 * @param criteria
+	 * @return
+	 */
+	public final SolrQuery constructSolrQuery(SolrDataQuery query, Criteria criteria) {
+		return constructSolrQuery(query, criteria, this.canonicalizeQueries);
+	}
+
+	/**
+	 * Convert given Query into its canonical SolrQuery. Equivalent queries result in identical parameters, no matter the
+	 * order criteria, filter queries, projections or facet fields have been added in.
+	 * 
+	 * @param query
+	 * @return
+	 */
+	public final SolrQuery constructCanonicalSolrQuery(SolrDataQuery query) {
+		Assert.notNull(query, "Cannot construct solrQuery from null value.");
+
+		return constructSolrQuery(query, query.getCriteria(), true);
+	}
+
+	/**
+	 * Create a fingerprint of the canonical form of given query, usable as key for caching or deduplicating queries.
+	 * 
+	 * @param query
+	 * @return
+	 */
+	public QueryFingerprint fingerprint(SolrDataQuery query) {
+		return QueryFingerprint.of(constructCanonicalSolrQuery(query));
+	}
+
+	private SolrQuery constructSolrQuery(SolrDataQuery query, Criteria criteria, boolean canonical) {
+		Assert.notNull(query, "Cannot construct solrQuery from null value.");
+		Assert.notNull(criteria, "Query has to have a criteria.");
+
+		Criteria queryCriteria = canonical ? criteria.canonicalize() : criteria;
 		SolrQuery solrQuery = new SolrQuery();
-		solrQuery.setParam(CommonParams.Q, getQueryString(query));
 		if (query instanceof Query) {
-			processQueryOptions(solrQuery, (Query) query);
+			processQueryOptions(solrQuery, (Query) query, canonical);
+		}
+		if (query instanceof SimpleQuery) {
+			SimpleQuery simpleQuery = (SimpleQuery) query;
+			appendExtractedFilterQueries(solrQuery, queryCriteria.extractFilterQueries(
+					simpleQuery.isFilterQueryExtraction(), simpleQuery.getFilterQueryFields()));
+		} else {
+			appendExtractedFilterQueries(solrQuery, queryCriteria.extractFilterQueries());
 		}
 		if (query instanceof FacetQuery) {
 			processFacetOptions(solrQuery, (FacetQuery) query);
 		}
+		if (canonical) {
+			canonicalizeParams(solrQuery);
+		}
+		return solrQuery;
+	}
+
+	/**
+	 * Convert given TermsQuery into a SolrQuery targeting the TermsComponent
+	 * 
+	 * @param query
+	 * @return
+	 */
+	public SolrQuery constructTermsQuery(TermsQuery query) {
+		Assert.notNull(query, "Cannot construct solrQuery from null value.");
+
+		SolrQuery solrQuery = new SolrQuery();
+		solrQuery.setQueryType(query.getRequestHandler());
+		solrQuery.setTerms(true);
+		solrQuery.addTermsField(query.getField().getName());
+		if (StringUtils.isNotEmpty(query.getPrefix())) {
+			solrQuery.setTermsPrefix(query.getPrefix());
+		}
+		solrQuery.setTermsLimit(query.getLimit());
+		solrQuery.setTermsMinCount(query.getMinCount());
 		return solrQuery;
 	}
 
-	private void processQueryOptions(SolrQuery solrQuery, Query query) {
+	/**
+	 * Order and deduplicate parameters whose order does not affect the result. Facet queries are left untouched, as
+	 * their results are returned in order of definition.
+	 * 
+	 * @param solrQuery
+	 */
+	private void canonicalizeParams(SolrQuery solrQuery) {
+		for (String name : new String[] { CommonParams.FQ, FacetParams.FACET_FIELD, FacetParams.FACET_RANGE,
+				StatsParams.STATS_FIELD, StatsParams.STATS_FACET }) {
+			String[] values = solrQuery.getParams(name);
+			if (values != null) {
+				Set<String> ordered = new TreeSet<String>(Arrays.asList(values));
+				solrQuery.set(name, ordered.toArray(new String[ordered.size()]));
+			}
+		}
+		String fields = solrQuery.get(CommonParams.FL);
+		if (fields != null) {
+			Set<String> ordered = new TreeSet<String>();
+			for (String field : StringUtils.split(fields, ',')) {
+				ordered.add(field.trim());
+			}
+			solrQuery.set(CommonParams.FL, StringUtils.join(ordered, ","));
+		}
+	}
+
+	private void appendExtractedFilterQueries(SolrQuery solrQuery, ExtractedFilterQueries extracted) {
+		solrQuery.setParam(CommonParams.Q, extracted.getQueryString() != null ? extracted.getQueryString()
+				: MATCH_ALL_QUERY);
+		for (String filterQueryString : extracted.getFilterQueryStrings()) {
+			solrQuery.addFilterQuery(filterQueryString);
+		}
+	}
+
+	private void processQueryOptions(SolrQuery solrQuery, Query query, boolean canonical) {
 		appendPagination(solrQuery, query.getPageRequest());
 		appendProjectionOnFields(solrQuery, query.getProjectionOnFields());
 		appendGroupByFields(solrQuery, query.getGroupByFields());
-		appendFilterQuery(solrQuery, query.getFilterQueries());
+		appendFilterQuery(solrQuery, query.getFilterQueries(), canonical);
+		if (query instanceof SimpleQuery) {
+			// distance has to be the primary sort criteria
+			appendGeoDistanceOptions(solrQuery, ((SimpleQuery) query).getGeoDistanceOptions());
+		}
 		appendSort(solrQuery, query.getSort());
+		if (query instanceof SimpleQuery) {
+			appendStatsOptions(solrQuery, ((SimpleQuery) query).getStatsOptions());
+			appendGroupOptions(solrQuery, ((SimpleQuery) query).getGroupOptions());
+			appendTimeAllowed(solrQuery, ((SimpleQuery) query).getTimeAllowed());
+		}
 	}
 
 	private void processFacetOptions(SolrQuery solrQuery, FacetQuery query) {
@@ -96,6 +244,23 @@ public class QueryParser {
 		return query.getCriteria().createQueryString();
 	}
 
+	/**
+	 * @return true if queries are converted into their canonical form
+	 */
+	public boolean isCanonicalizeQueries() {
+		return this.canonicalizeQueries;
+	}
+
+	/**
+	 * Convert queries into their canonical form before sending them to solr, so that equivalent queries hit the same
+	 * entries in solr's queryResultCache and filterCache. Default is false.
+	 * 
+	 * @param canonicalizeQueries
+	 */
+	public void setCanonicalizeQueries(boolean canonicalizeQueries) {
+		this.canonicalizeQueries = canonicalizeQueries;
+	}
+
 	private void appendPagination(SolrQuery query, Pageable pageable) {
 		if (pageable == null) {
 			return;
@@ -113,11 +278,13 @@ public class QueryParser {
 
 	private void appendFacetingOnFields(SolrQuery solrQuery, FacetQuery query) {
 		FacetOptions facetOptions = query.getFacetOptions();
-		if (facetOptions == null || !facetOptions.hasFields()) {
+		if (facetOptions == null || !facetOptions.hasFacets()) {
 			return;
 		}
 		solrQuery.setFacet(true);
-		solrQuery.addFacetField(convertFieldListToStringArray(facetOptions.getFacetOnFields()));
+		if (facetOptions.hasFields()) {
+			solrQuery.addFacetField(convertFieldListToStringArray(facetOptions.getFacetOnFields()));
+		}
 		solrQuery.setFacetMinCount(facetOptions.getFacetMinCount());
 		solrQuery.setFacetLimit(facetOptions.getPageable().getPageSize());
 		if (facetOptions.getPageable().getPageNumber() > 0) {
@@ -126,6 +293,53 @@ public class QueryParser {
 		if (FacetOptions.FacetSort.INDEX.equals(facetOptions.getFacetSort())) {
 			solrQuery.setFacetSort(FacetParams.FACET_SORT_INDEX);
 		}
+		if (StringUtils.isNotEmpty(facetOptions.getFacetPrefix())) {
+			solrQuery.setFacetPrefix(facetOptions.getFacetPrefix());
+		}
+		if (facetOptions.getFacetMethod() != null) {
+			solrQuery.set(FacetParams.FACET_METHOD, facetOptions.getFacetMethod().name().toLowerCase());
+		}
+		for (Map.Entry<String, FacetOptions.FacetMethod> entry : facetOptions.getFieldFacetMethods().entrySet()) {
+			solrQuery.set(createPerFieldParameterName(entry.getKey(), FacetParams.FACET_METHOD), entry.getValue().name()
+					.toLowerCase());
+		}
+		if (facetOptions.getFacetEnumCacheMinDf() != null) {
+			solrQuery.set(FacetParams.FACET_ENUM_CACHE_MINDF, facetOptions.getFacetEnumCacheMinDf());
+		}
+		appendFacetRanges(solrQuery, facetOptions.getFacetRanges());
+		for (SolrDataQuery facetQuery : facetOptions.getFacetQueries()) {
+			solrQuery.addFacetQuery(getQueryString(facetQuery));
+		}
+	}
+
+	private void appendFacetRanges(SolrQuery solrQuery, List<FacetRange> facetRanges) {
+		for (FacetRange facetRange : facetRanges) {
+			String fieldname = facetRange.getField().getName();
+			solrQuery.add(FacetParams.FACET_RANGE, fieldname);
+			solrQuery.set(createPerFieldParameterName(fieldname, FacetParams.FACET_RANGE_START),
+					convertFacetRangeValue(facetRange.getStart()));
+			solrQuery.set(createPerFieldParameterName(fieldname, FacetParams.FACET_RANGE_END),
+					convertFacetRangeValue(facetRange.getEnd()));
+			solrQuery.set(createPerFieldParameterName(fieldname, FacetParams.FACET_RANGE_GAP),
+					convertFacetRangeValue(facetRange.getGap()));
+			if (facetRange.isHardEnd()) {
+				solrQuery.set(createPerFieldParameterName(fieldname, FacetParams.FACET_RANGE_HARD_END), true);
+			}
+		}
+	}
+
+	private String convertFacetRangeValue(Object value) {
+		if (value instanceof Date) {
+			return DATE_FORMATTER.print(((Date) value).getTime());
+		}
+		if (value instanceof ReadableInstant) {
+			return DATE_FORMATTER.print((ReadableInstant) value);
+		}
+		return value.toString();
+	}
+
+	private static String createPerFieldParameterName(String fieldname, String parameterName) {
+		return "f." + fieldname + "." + parameterName;
 	}
 
 	private void appendGroupByFields(SolrQuery solrQuery, List<Field> fields) {
@@ -134,10 +348,9 @@ public class QueryParser {
 		}
 
 		if (fields.size() > 1) {
-			// there is a bug in solj which prevents multiple grouping
-			// although available via HTTP call
+			// group.main collapses results into a single list which is not possible for multiple fields
 			throw new InvalidDataAccessApiUsageException(
-					"Cannot group on more than one field with current SolrJ API. Group on single field insead");
+					"Cannot group on more than one field using group.main. Use GroupOptions instead.");
 		}
 
 		solrQuery.set(GroupParams.GROUP, true);
@@ -148,17 +361,87 @@ public class QueryParser {
 		}
 	}
 
-	private void appendFilterQuery(SolrQuery solrQuery, List<FilterQuery> filterQueries) {
+	private void appendTimeAllowed(SolrQuery solrQuery, Integer timeAllowed) {
+		if (timeAllowed != null) {
+			solrQuery.setTimeAllowed(timeAllowed);
+		}
+	}
+
+	private void appendGeoDistanceOptions(SolrQuery solrQuery, GeoDistanceOptions geoDistanceOptions) {
+		if (geoDistanceOptions == null) {
+			return;
+		}
+		solrQuery.set(SpatialParams.POINT,
+				GeoConverters.GeoLocationToStringConverter.INSTANCE.convert(geoDistanceOptions.getLocation()));
+		solrQuery.set(SpatialParams.FIELD, geoDistanceOptions.getField().getName());
+		if (geoDistanceOptions.getSortDirection() != null) {
+			solrQuery.addSortField(GEODIST_FUNCTION,
+					Sort.Direction.ASC.equals(geoDistanceOptions.getSortDirection()) ? ORDER.asc : ORDER.desc);
+		}
+
+		// location values are required to compute the distance of each document
+		String fieldList = solrQuery.get(CommonParams.FL);
+		if (geoDistanceOptions.getDistanceFieldName() != null && StringUtils.isNotBlank(fieldList)
+				&& !Arrays.asList(StringUtils.split(fieldList, ',')).contains(geoDistanceOptions.getField().getName())) {
+			solrQuery.setParam(CommonParams.FL, fieldList + "," + geoDistanceOptions.getField().getName());
+		}
+	}
+
+	private void appendGroupOptions(SolrQuery solrQuery, GroupOptions groupOptions) {
+		if (groupOptions == null) {
+			return;
+		}
+		if (solrQuery.get(GroupParams.GROUP) != null) {
+			throw new InvalidDataAccessApiUsageException("Cannot combine group by fields with group options.");
+		}
+
+		solrQuery.set(GroupParams.GROUP, true);
+		solrQuery.set(GroupParams.GROUP_FORMAT, "grouped");
+		for (Field field : groupOptions.getGroupByFields()) {
+			solrQuery.add(GroupParams.GROUP_FIELD, field.getName());
+		}
+		for (SolrDataQuery groupQuery : groupOptions.getGroupByQueries()) {
+			solrQuery.add(GroupParams.GROUP_QUERY, getQueryString(groupQuery));
+		}
+		if (groupOptions.getOffset() != null) {
+			solrQuery.set(GroupParams.GROUP_OFFSET, groupOptions.getOffset());
+		}
+		if (groupOptions.getLimit() != null) {
+			solrQuery.set(GroupParams.GROUP_LIMIT, groupOptions.getLimit());
+		}
+		solrQuery.set(GroupParams.GROUP_TOTAL_COUNT, true);
+		if (groupOptions.isGroupFacets()) {
+			solrQuery.set(GROUP_FACET, true);
+		}
+		if (groupOptions.getCachePercent() != null) {
+			solrQuery.set(GroupParams.GROUP_CACHE_PERCENTAGE, groupOptions.getCachePercent());
+		}
+	}
+
+	private void appendFilterQuery(SolrQuery solrQuery, List<FilterQuery> filterQueries, boolean canonical) {
 		if (CollectionUtils.isEmpty(filterQueries)) {
 			return;
 		}
-		List<String> filterQueryStrings = getFilterQueryStrings(filterQueries);
+		List<String> filterQueryStrings = getFilterQueryStrings(filterQueries, canonical);
 
 		if (!filterQueryStrings.isEmpty()) {
 			solrQuery.setFilterQueries(convertStringListToArray(filterQueryStrings));
 		}
 	}
 
+	private void appendStatsOptions(SolrQuery solrQuery, StatsOptions statsOptions) {
+		if (statsOptions == null || !statsOptions.hasFields()) {
+			return;
+		}
+		solrQuery.set(StatsParams.STATS, true);
+		for (Field field : statsOptions.getFields()) {
+			solrQuery.add(StatsParams.STATS_FIELD, field.getName());
+		}
+		for (Field facet : statsOptions.getFacets()) {
+			solrQuery.add(StatsParams.STATS_FACET, facet.getName());
+		}
+	}
+
 	private void appendSort(SolrQuery solrQuery, Sort sort) {
 		if (sort == null) {
 			return;
@@ -182,15 +465,46 @@ public class QueryParser {
 		return strResult;
 	}
 
-	private List<String> getFilterQueryStrings(List<FilterQuery> filterQueries) {
+	private List<String> getFilterQueryStrings(List<FilterQuery> filterQueries, boolean canonical) {
 		List<String> filterQueryStrings = new ArrayList<String>(filterQueries.size());
 
 		for (FilterQuery filterQuery : filterQueries) {
-			String filterQueryString = getQueryString(filterQuery);
+			String filterQueryString = canonical && filterQuery.getCriteria() != null ? filterQuery.getCriteria()
+					.canonicalize().createQueryString() : getQueryString(filterQuery);
 			if (StringUtils.isNotBlank(filterQueryString)) {
+				if (filterQuery instanceof SimpleFilterQuery) {
+					filterQueryString = appendLocalParams(filterQueryString, (SimpleFilterQuery) filterQuery);
+				}
 				filterQueryStrings.add(filterQueryString);
 			}
 		}
 		return filterQueryStrings;
 	}
+
+	/**
+	 * Add 'cache' and 'cost' local params to given filter query string. Params are merged into already present local
+	 * params, eg. {@code {!geofilt ...}}.
+	 * 
+	 * @param filterQueryString
+	 * @param filterQuery
+	 * @return
+	 */
+	private String appendLocalParams(String filterQueryString, SimpleFilterQuery filterQuery) {
+		StringBuilder localParams = new StringBuilder();
+		if (filterQuery.getCache() != null) {
+			localParams.append(" cache=").append(filterQuery.getCache());
+		}
+		if (filterQuery.getCost() != null) {
+			localParams.append(" cost=").append(filterQuery.getCost());
+		}
+		if (localParams.length() == 0) {
+			return filterQueryString;
+		}
+
+		if (filterQueryString.startsWith(LOCAL_PARAMS_PREFIX) && filterQueryString.indexOf('}') > 0) {
+			int end = filterQueryString.indexOf('}');
+			return filterQueryString.substring(0, end) + localParams + filterQueryString.substring(end);
+		}
+		return LOCAL_PARAMS_PREFIX + localParams.substring(1) + "}" + filterQueryString;
+	}
 }
@@ -16,23 +16,53 @@
 package org.springframework.data.solr.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.solr.client.solrj.response.FacetField;
 import org.apache.solr.client.solrj.response.FacetField.Count;
+import org.apache.solr.client.solrj.response.FieldStatsInfo;
+import org.apache.solr.client.solrj.response.Group;
+import org.apache.solr.client.solrj.response.GroupCommand;
 import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.client.solrj.response.RangeFacet;
+import org.apache.solr.client.solrj.response.TermsResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.util.NamedList;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.solr.core.convert.SolrConverter;
 import org.springframework.data.solr.core.query.FacetQuery;
 import org.springframework.data.solr.core.query.Field;
+import org.springframework.data.solr.core.query.Query;
 import org.springframework.data.solr.core.query.SimpleField;
+import org.springframework.data.solr.core.query.SimpleQuery;
+import org.springframework.data.solr.core.query.TermsQuery;
+import org.springframework.data.solr.core.query.result.CacheStatsResult;
 import org.springframework.data.solr.core.query.result.FacetEntry;
+import org.springframework.data.solr.core.query.result.FacetFieldColumns;
 import org.springframework.data.solr.core.query.result.FacetPage;
+import org.springframework.data.solr.core.query.result.FacetQueryEntry;
+import org.springframework.data.solr.core.query.result.FieldStatsResult;
+import org.springframework.data.solr.core.query.result.GroupEntry;
+import org.springframework.data.solr.core.query.result.GroupResult;
+import org.springframework.data.solr.core.query.result.SimpleCacheStatsResult;
+import org.springframework.data.solr.core.query.result.SimpleGroupEntry;
+import org.springframework.data.solr.core.query.result.SimpleGroupResult;
+import org.springframework.data.solr.core.query.result.SimpleFieldStatsResult;
 import org.springframework.data.solr.core.query.result.SimpleFacetEntry;
+import org.springframework.data.solr.core.query.result.SimpleFacetQueryEntry;
+import org.springframework.data.solr.core.query.result.SimpleStatsResult;
+import org.springframework.data.solr.core.query.result.SimpleTermsEntry;
+import org.springframework.data.solr.core.query.result.TermsEntry;
 import org.springframework.util.Assert;
 
 /**
@@ -43,39 +73,276 @@ import org.springframework.util.Assert;
  */
 final class ResultHelper {
 
+	static final String PARTIAL_RESULTS = "partialResults";
+	static final String MBEANS = "solr-mbeans";
+	static final String MBEANS_CATEGORY_CACHE = "CACHE";
+	static final String MBEANS_STATS = "stats";
+
 	private ResultHelper() {
 	}
 
 	static Map<Field, Page<FacetEntry>> convertFacetQueryResponseToFacetPageMap(FacetQuery query, QueryResponse response) {
+		List<FacetFieldColumns> columns = convertFacetQueryResponseToFacetFieldColumns(query, response);
+		if (columns.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<Field, Page<FacetEntry>> facetResult = new HashMap<Field, Page<FacetEntry>>(columns.size());
+		for (FacetFieldColumns column : columns) {
+			facetResult.put(column.getField(), column.asPage());
+		}
+		return facetResult;
+	}
+
+	static List<FacetFieldColumns> convertFacetQueryResponseToFacetFieldColumns(FacetQuery query, QueryResponse response) {
+		Assert.notNull(query, "Cannot convert response for 'null', query");
+
+		if (!query.hasFacetOptions() || response == null || CollectionUtils.isEmpty(response.getFacetFields())) {
+			return Collections.emptyList();
+		}
+		Pageable pageable = query.getFacetOptions().getPageable();
+		List<FacetFieldColumns> facetResult = new ArrayList<FacetFieldColumns>(response.getFacetFields().size());
+		for (FacetField facetField : response.getFacetFields()) {
+			if (facetField != null && StringUtils.isNotBlank(facetField.getName())) {
+				facetResult.add(convertFacetFieldToColumns(facetField, pageable));
+			}
+		}
+		return facetResult;
+	}
+
+	private static FacetFieldColumns convertFacetFieldToColumns(FacetField facetField, Pageable pageable) {
+		Field field = new SimpleField(facetField.getName());
+		if (CollectionUtils.isEmpty(facetField.getValues())) {
+			return new FacetFieldColumns(field, new String[0], new long[0], pageable, 0);
+		}
+
+		List<Count> facetValues = facetField.getValues();
+		String[] values = new String[facetValues.size()];
+		long[] counts = new long[facetValues.size()];
+		int size = 0;
+		for (Count count : facetValues) {
+			if (count != null) {
+				values[size] = count.getName();
+				counts[size] = count.getCount();
+				size++;
+			}
+		}
+		if (size < values.length) {
+			values = Arrays.copyOf(values, size);
+			counts = Arrays.copyOf(counts, size);
+		}
+		return new FacetFieldColumns(field, values, counts, pageable, facetField.getValueCount());
+	}
+
+	static Map<Field, Page<FacetEntry>> convertFacetQueryResponseToRangeFacetPageMap(FacetQuery query,
+			QueryResponse response) {
 		Assert.notNull(query, "Cannot convert response for 'null', query");
 
-		if (!query.hasFacetOptions() || response == null) {
+		if (!query.hasFacetOptions() || response == null || CollectionUtils.isEmpty(response.getFacetRanges())) {
 			return Collections.emptyMap();
 		}
 		Map<Field, Page<FacetEntry>> facetResult = new HashMap<Field, Page<FacetEntry>>();
+		for (RangeFacet<?, ?> rangeFacet : response.getFacetRanges()) {
+			if (rangeFacet != null && StringUtils.isNotBlank(rangeFacet.getName())) {
+				Field field = new SimpleField(rangeFacet.getName());
+				List<FacetEntry> entries = new ArrayList<FacetEntry>(rangeFacet.getCounts().size());
+				for (RangeFacet.Count count : rangeFacet.getCounts()) {
+					if (count != null) {
+						entries.add(new SimpleFacetEntry(field, count.getValue(), count.getCount()));
+					}
+				}
+				facetResult.put(field, new FacetPage<FacetEntry>(entries));
+			}
+		}
+		return facetResult;
+	}
+
+	static List<FacetQueryEntry> convertFacetQueryResponseToFacetQueryResult(FacetQuery query, QueryResponse response) {
+		Assert.notNull(query, "Cannot convert response for 'null', query");
+
+		if (!query.hasFacetOptions() || response == null || response.getFacetQuery() == null) {
+			return Collections.emptyList();
+		}
+		List<FacetQueryEntry> facetResult = new ArrayList<FacetQueryEntry>(response.getFacetQuery().size());
+		for (Entry<String, Integer> entry : response.getFacetQuery().entrySet()) {
+			facetResult.add(new SimpleFacetQueryEntry(entry.getKey(), entry.getValue() != null ? entry.getValue() : 0));
+		}
+		return facetResult;
+	}
+
+	static <T> List<GroupResult<T>> convertGroupQueryResponseToGroupResults(Query query, QueryResponse response,
+			Class<T> clazz, SolrConverter converter) {
+		Assert.notNull(query, "Cannot convert response for 'null', query");
+
+		if (!(query instanceof SimpleQuery) || !((SimpleQuery) query).hasGroupOptions() || response == null
+				|| response.getGroupResponse() == null) {
+			return Collections.emptyList();
+		}
+
+		List<GroupCommand> commands = response.getGroupResponse().getValues();
+		List<GroupResult<T>> groupResults = new ArrayList<GroupResult<T>>(commands.size());
+		for (GroupCommand command : commands) {
+			if (command != null && StringUtils.isNotBlank(command.getName())) {
+				groupResults.add(convertGroupCommand(command, query.getPageRequest(), clazz, converter));
+			}
+		}
+		return groupResults;
+	}
+
+	private static <T> GroupResult<T> convertGroupCommand(GroupCommand command, Pageable pageable, Class<T> clazz,
+			SolrConverter converter) {
+		List<GroupEntry<T>> entries = new ArrayList<GroupEntry<T>>(command.getValues().size());
+		for (Group group : command.getValues()) {
+			if (group != null) {
+				entries.add(new SimpleGroupEntry<T>(group.getGroupValue(), convertGroupDocumentList(group.getResult(), clazz,
+						converter)));
+			}
+		}
+
+		Integer groupsCount = command.getNGroups();
+		Page<GroupEntry<T>> page = groupsCount != null ? new PageImpl<GroupEntry<T>>(entries, pageable, groupsCount)
+				: new PageImpl<GroupEntry<T>>(entries);
+		return new SimpleGroupResult<T>(command.getName(), command.getMatches(), groupsCount, page);
+	}
 
-		if (CollectionUtils.isNotEmpty(response.getFacetFields())) {
-			int initalPageSize = query.getFacetOptions().getPageable().getPageSize();
-			for (FacetField facetField : response.getFacetFields()) {
-				if (facetField != null && StringUtils.isNotBlank(facetField.getName())) {
-					Field field = new SimpleField(facetField.getName());
-					if (CollectionUtils.isNotEmpty(facetField.getValues())) {
-						List<FacetEntry> pageEntries = new ArrayList<FacetEntry>(initalPageSize);
-						for (Count count : facetField.getValues()) {
-							if (count != null) {
-								pageEntries.add(new SimpleFacetEntry(field, count.getName(), count.getCount()));
-							}
+	private static <T> Page<T> convertGroupDocumentList(SolrDocumentList documents, Class<T> clazz,
+			SolrConverter converter) {
+		if (documents == null) {
+			return new PageImpl<T>(Collections.<T> emptyList());
+		}
+		List<T> beans = new ArrayList<T>(documents.size());
+		for (SolrDocument document : documents) {
+			beans.add(converter.read(clazz, document));
+		}
+		return new PageImpl<T>(beans, null, documents.getNumFound());
+	}
+
+	/**
+	 * @param response
+	 * @return true if the response header flags results as partial due to exceeding 'timeAllowed'
+	 */
+	static boolean isPartialResults(QueryResponse response) {
+		if (response == null || response.getHeader() == null) {
+			return false;
+		}
+		Object partialResults = response.getHeader().get(PARTIAL_RESULTS);
+		return partialResults != null && Boolean.valueOf(partialResults.toString());
+	}
+
+	static List<FieldStatsResult> convertStatsQueryResponseToFieldStatsResults(Query query, QueryResponse response) {
+		Assert.notNull(query, "Cannot convert response for 'null', query");
+
+		if (!(query instanceof SimpleQuery) || !((SimpleQuery) query).hasStatsOptions() || response == null
+				|| response.getFieldStatsInfo() == null) {
+			return Collections.emptyList();
+		}
+		List<FieldStatsResult> statsResults = new ArrayList<FieldStatsResult>(response.getFieldStatsInfo().size());
+		for (FieldStatsInfo fieldStatsInfo : response.getFieldStatsInfo().values()) {
+			if (fieldStatsInfo != null && StringUtils.isNotBlank(fieldStatsInfo.getName())) {
+				SimpleFieldStatsResult statsResult = new SimpleFieldStatsResult(new SimpleField(fieldStatsInfo.getName()));
+				copyStats(fieldStatsInfo, statsResult);
+				if (fieldStatsInfo.getFacets() != null) {
+					for (Entry<String, List<FieldStatsInfo>> facet : fieldStatsInfo.getFacets().entrySet()) {
+						Field facetField = new SimpleField(facet.getKey());
+						for (FieldStatsInfo facetStatsInfo : facet.getValue()) {
+							SimpleStatsResult facetStatsResult = new SimpleStatsResult();
+							copyStats(facetStatsInfo, facetStatsResult);
+							statsResult.addFacetStatsResult(facetField, facetStatsInfo.getName(), facetStatsResult);
 						}
-						facetResult.put(field, new FacetPage<FacetEntry>(pageEntries, query.getFacetOptions().getPageable(),
-								facetField.getValueCount()));
-					} else {
-						facetResult.put(field, new FacetPage<FacetEntry>(Collections.<FacetEntry> emptyList(), query
-								.getFacetOptions().getPageable(), 0));
 					}
 				}
+				statsResults.add(statsResult);
 			}
 		}
-		return facetResult;
+		return statsResults;
+	}
+
+	static List<TermsEntry> convertTermsQueryResponseToTermsEntries(TermsQuery query, QueryResponse response) {
+		Assert.notNull(query, "Cannot convert response for 'null', query");
+
+		if (response == null || response.getTermsResponse() == null) {
+			return Collections.emptyList();
+		}
+		List<TermsResponse.Term> terms = response.getTermsResponse().getTerms(query.getField().getName());
+		if (CollectionUtils.isEmpty(terms)) {
+			return Collections.emptyList();
+		}
+		List<TermsEntry> entries = new ArrayList<TermsEntry>(terms.size());
+		for (TermsResponse.Term term : terms) {
+			if (term != null) {
+				entries.add(new SimpleTermsEntry(query.getField(), term.getTerm(), term.getFrequency()));
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Convert response of solr's {@code /admin/mbeans?stats=true} handler into one {@link CacheStatsResult} per cache
+	 * listed in category 'CACHE'.
+	 * 
+	 * @param response
+	 * @return empty list if response does not contain cache statistics
+	 */
+	@SuppressWarnings("unchecked")
+	static List<CacheStatsResult> convertMBeansResponseToCacheStatsResults(NamedList<Object> response) {
+		if (response == null || !(response.get(MBEANS) instanceof NamedList)) {
+			return Collections.emptyList();
+		}
+		Object caches = ((NamedList<Object>) response.get(MBEANS)).get(MBEANS_CATEGORY_CACHE);
+		if (!(caches instanceof NamedList)) {
+			return Collections.emptyList();
+		}
+
+		List<CacheStatsResult> results = new ArrayList<CacheStatsResult>();
+		for (Map.Entry<String, Object> cache : (NamedList<Object>) caches) {
+			if (cache.getValue() instanceof NamedList) {
+				Object stats = ((NamedList<Object>) cache.getValue()).get(MBEANS_STATS);
+				if (stats instanceof NamedList) {
+					results.add(convertCacheStats(cache.getKey(), (NamedList<Object>) stats));
+				}
+			}
+		}
+		return results;
+	}
+
+	private static CacheStatsResult convertCacheStats(String name, NamedList<Object> stats) {
+		SimpleCacheStatsResult result = new SimpleCacheStatsResult(name);
+		result.setLookups(toNumber(stats.get("lookups")).longValue());
+		result.setHits(toNumber(stats.get("hits")).longValue());
+		result.setHitRatio(toNumber(stats.get("hitratio")).doubleValue());
+		result.setInserts(toNumber(stats.get("inserts")).longValue());
+		result.setEvictions(toNumber(stats.get("evictions")).longValue());
+		result.setSize(toNumber(stats.get("size")).longValue());
+		result.setWarmupTime(toNumber(stats.get("warmupTime")).longValue());
+		result.setCumulativeHitRatio(toNumber(stats.get("cumulative_hitratio")).doubleValue());
+		result.setCumulativeEvictions(toNumber(stats.get("cumulative_evictions")).longValue());
+		return result;
+	}
+
+	/**
+	 * Solr reports some statistics, like the hit ratio, as formatted strings.
+	 */
+	private static Number toNumber(Object value) {
+		if (value instanceof Number) {
+			return (Number) value;
+		}
+		if (value != null) {
+			try {
+				return Double.valueOf(value.toString().trim());
+			} catch (NumberFormatException e) {
+				// ignore and fall back to 0
+			}
+		}
+		return Integer.valueOf(0);
+	}
+
+	private static void copyStats(FieldStatsInfo source, SimpleStatsResult target) {
+		target.setMin(source.getMin());
+		target.setMax(source.getMax());
+		target.setSum(source.getSum());
+		target.setMean(source.getMean());
+		target.setStddev(source.getStddev());
+		target.setCount(source.getCount());
+		target.setMissing(source.getMissing());
 	}
 
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.io.IOException;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.solr.client.solrj.impl.HttpSolrServer;
+import org.springframework.util.Assert;
+
+/**
+ * {@link HttpSolrServer} sending requests via the {@link HttpClient} of another server, but with a fixed socket
+ * timeout. The timeout is set on each request, so connections, credentials and settings of the shared client remain
+ * untouched. Used to limit queries having 'timeAllowed' set, as solrj offers no socket timeout per request. <br />
+ * Request writer, retries and redirects are not taken over from the original server, none of them are used for
+ * queries.
+ * 
+ * @author Christoph Strobl
+ */
+class SocketTimeoutHttpSolrServer extends HttpSolrServer {
+
+	private static final long serialVersionUID = 7468253910275431486L;
+
+	/**
+	 * @param solrServer
+	 * @param socketTimeout time in milliseconds
+	 */
+	SocketTimeoutHttpSolrServer(HttpSolrServer solrServer, int socketTimeout) {
+		super(solrServer.getBaseURL(), new SocketTimeoutHttpClient(solrServer.getHttpClient(), socketTimeout), solrServer
+				.getParser());
+		this.invariantParams = solrServer.getInvariantParams();
+	}
+
+	/**
+	 * Shutting down would close the connections of the original server.
+	 */
+	@Override
+	public void shutdown() {
+		// connections are owned by the original server
+	}
+
+	private static class SocketTimeoutHttpClient implements HttpClient {
+
+		private final HttpClient httpClient;
+		private final int socketTimeout;
+
+		SocketTimeoutHttpClient(HttpClient httpClient, int socketTimeout) {
+			Assert.notNull(httpClient);
+			Assert.isTrue(socketTimeout > 0, "SocketTimeout must be greater than zero.");
+
+			this.httpClient = httpClient;
+			this.socketTimeout = socketTimeout;
+		}
+
+		private <T extends HttpRequest> T withSocketTimeout(T request) {
+			// request parameters take precedence over the ones of the client
+			HttpConnectionParams.setSoTimeout(request.getParams(), socketTimeout);
+			return request;
+		}
+
+		@Override
+		public HttpParams getParams() {
+			return httpClient.getParams();
+		}
+
+		@Override
+		public ClientConnectionManager getConnectionManager() {
+			return httpClient.getConnectionManager();
+		}
+
+		@Override
+		public HttpResponse execute(HttpUriRequest request) throws IOException {
+			return httpClient.execute(withSocketTimeout(request));
+		}
+
+		@Override
+		public HttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+			return httpClient.execute(withSocketTimeout(request), context);
+		}
+
+		@Override
+		public HttpResponse execute(HttpHost target, HttpRequest request) throws IOException {
+			return httpClient.execute(target, withSocketTimeout(request));
+		}
+
+		@Override
+		public HttpResponse execute(HttpHost target, HttpRequest request, HttpContext context) throws IOException {
+			return httpClient.execute(target, withSocketTimeout(request), context);
+		}
+
+		@Override
+		public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler) throws IOException {
+			return httpClient.execute(withSocketTimeout(request), responseHandler);
+		}
+
+		@Override
+		public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler, HttpContext context)
+				throws IOException {
+			return httpClient.execute(withSocketTimeout(request), responseHandler, context);
+		}
+
+		@Override
+		public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler)
+				throws IOException {
+			return httpClient.execute(target, withSocketTimeout(request), responseHandler);
+		}
+
+		@Override
+		public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler,
+				HttpContext context) throws IOException {
+			return httpClient.execute(target, withSocketTimeout(request), responseHandler, context);
+		}
+
+	}
+
+}
@@ -15,6 +15,8 @@
  */
 package org.springframework.data.solr.core;
 
+import java.net.SocketTimeoutException;
+
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.SolrException.ErrorCode;
@@ -22,6 +24,7 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.PermissionDeniedDataAccessException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
 import org.springframework.data.solr.UncategorizedSolrException;
 import org.springframework.util.ClassUtils;
@@ -36,6 +39,9 @@ public class SolrExceptionTranslator implements PersistenceExceptionTranslator {
 	public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
 		if (ex.getCause() instanceof SolrServerException) {
 			SolrServerException solrServerException = (SolrServerException) ex.getCause();
+			if (solrServerException.getCause() instanceof SocketTimeoutException) {
+				return new QueryTimeoutException(solrServerException.getMessage(), solrServerException);
+			}
 			if (solrServerException.getCause() instanceof SolrException) {
 				SolrException solrException = (SolrException) solrServerException.getCause();
 				// solr 4.x moved ParseExecption from org.apache.lucene.queryParser to org.apache.lucene.queryparser.classic
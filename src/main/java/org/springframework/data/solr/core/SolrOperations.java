@@ -15,7 +15,9 @@
  */
 package org.springframework.data.solr.core;
 
+import java.io.File;
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.solr.client.solrj.SolrServer;
 import org.apache.solr.client.solrj.response.QueryResponse;
@@ -27,7 +29,12 @@ import org.springframework.data.solr.core.convert.SolrConverter;
 import org.springframework.data.solr.core.query.FacetQuery;
 import org.springframework.data.solr.core.query.Query;
 import org.springframework.data.solr.core.query.SolrDataQuery;
+import org.springframework.data.solr.core.query.TermsQuery;
+import org.springframework.data.solr.core.query.result.CacheStatsResult;
 import org.springframework.data.solr.core.query.result.FacetPage;
+import org.springframework.data.solr.core.query.result.GroupPage;
+import org.springframework.data.solr.core.query.result.StatsPage;
+import org.springframework.data.solr.core.query.result.TermsEntry;
 
 /**
  * Interface that specifies a basic set of Solr operations.
@@ -90,6 +97,27 @@ public interface SolrOperations {
 	 */
 	UpdateResponse executeAddDocuments(Collection<SolrInputDocument> documents);
 
+	/**
+	 * Stream content of given csv file to solr using the csv request handler
+	 * 
+	 * @param file
+	 * @param options
+	 * @return
+	 */
+	UpdateResponse executeLoadCsv(File file, CsvLoadOptions options);
+
+	/**
+	 * Write beans as csv and send them to solr using the csv request handler. Columns are derived from the mapping of
+	 * given type, values are converted using {@link #getConverter()}. Beans are sent in chunks of
+	 * {@link CsvLoadOptions#getChunkSize()}, uploading up to {@link CsvLoadOptions#getConcurrency()} chunks in parallel.
+	 * 
+	 * @param beans
+	 * @param clazz
+	 * @param options
+	 * @return one response per chunk
+	 */
+	<T> List<UpdateResponse> executeLoadCsv(Iterable<? extends T> beans, Class<T> clazz, CsvLoadOptions options);
+
 	/**
 	 * Find and delete all objects matching the provided Query
 	 * 
@@ -132,7 +160,8 @@ public interface SolrOperations {
 	<T> T executeObjectQuery(Query query, Class<T> clazz);
 
 	/**
-	 * Execute the query against solr and retrun result as {@link Page}
+	 * Execute the query against solr and retrun result as {@link Page}. Use {@link #executeGroupQuery(Query, Class)}
+	 * for queries having group options.
 	 * 
 	 * @param query
 	 * @param clazz
@@ -141,7 +170,32 @@ public interface SolrOperations {
 	<T> Page<T> executeListQuery(Query query, Class<T> clazz);
 
 	/**
-	 * Execute a facet query against solr facet result will be returned along with query result within the FacetPage
+	 * Execute the query against solr and return the first returned object converted into given projectionType. The
+	 * projection type may either be an interface or a DTO. Unless the query already defines projection fields, the 'fl'
+	 * parameter is derived from the properties of the projection type.
+	 * 
+	 * @param query
+	 * @param domainType
+	 * @param projectionType
+	 * @return the first matching object
+	 */
+	<T> T executeObjectQuery(Query query, Class<?> domainType, Class<T> projectionType);
+
+	/**
+	 * Execute the query against solr and return result converted into given projectionType as {@link Page}. The
+	 * projection type may either be an interface or a DTO. Unless the query already defines projection fields, the 'fl'
+	 * parameter is derived from the properties of the projection type.
+	 * 
+	 * @param query
+	 * @param domainType
+	 * @param projectionType
+	 * @return
+	 */
+	<T> Page<T> executeListQuery(Query query, Class<?> domainType, Class<T> projectionType);
+
+	/**
+	 * Execute a facet query against solr facet result will be returned along with query result within the FacetPage.
+	 * Use {@link #executeGroupQuery(Query, Class)} for queries having group options.
 	 * 
 	 * @param query
 	 * @param clazz
@@ -149,13 +203,55 @@ public interface SolrOperations {
 	 */
 	<T> FacetPage<T> executeFacetQuery(FacetQuery query, Class<T> clazz);
 
+	/**
+	 * Execute the query against solr and return result along with the statistics computed for the fields listed in
+	 * {@link org.springframework.data.solr.core.query.SimpleQuery#getStatsOptions()} within the StatsPage
+	 * 
+	 * @param query
+	 * @param clazz
+	 * @return
+	 */
+	<T> StatsPage<T> executeStatsQuery(Query query, Class<T> clazz);
+
+	/**
+	 * Execute the query against solr and return the top documents per group of the single field or query listed in
+	 * {@link org.springframework.data.solr.core.query.SimpleQuery#getGroupOptions()} within the GroupPage. The page
+	 * content holds the groups, its total is the number of groups. Pagination applies to groups.
+	 * 
+	 * @param query
+	 * @param clazz
+	 * @return
+	 */
+	<T> GroupPage<T> executeGroupQuery(Query query, Class<T> clazz);
+
+	/**
+	 * Execute the query against solr's TermsComponent returning indexed terms along with their document frequency,
+	 * ordered by frequency.
+	 * 
+	 * @param query
+	 * @return empty list if no terms found
+	 */
+	List<TermsEntry> executeTermsQuery(TermsQuery query);
+
+	/**
+	 * Request statistics of all solr side caches (filterCache, queryResultCache, documentCache,...) of the core via
+	 * solr's {@code /admin/mbeans} handler.
+	 * 
+	 * @return empty list if no statistics available
+	 */
+	List<CacheStatsResult> executeCacheStats();
+
 	/**
 	 * Send commit command
 	 */
 	void executeCommit();
 
 	/**
-	 * send rollback command
+	 * Discard updates buffered by the current transaction. Outside of transactions send rollback command, which discards
+	 * all uncommitted updates on the server, including those of other clients.
+	 * 
+	 * @throws org.springframework.dao.InvalidDataAccessApiUsageException outside of transactions when updates are sent
+	 *           asynchronously by a write behind queue or coalescing update buffer
 	 */
 	void executeRollback();
 
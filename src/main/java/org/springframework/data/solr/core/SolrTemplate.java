@@ -15,29 +15,50 @@
  */
 package org.springframework.data.solr.core;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest.METHOD;
 import org.apache.solr.client.solrj.SolrServer;
 import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.HttpSolrServer;
+import org.apache.solr.client.solrj.request.ContentStreamUpdateRequest;
+import org.apache.solr.client.solrj.request.LukeRequest;
+import org.apache.solr.client.solrj.request.QueryRequest;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.client.solrj.response.SolrPingResponse;
 import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.util.ContentStreamBase;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.common.util.SimpleOrderedMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.solr.HttpSolrServerFactory;
 import org.springframework.data.solr.SolrServerFactory;
@@ -45,23 +66,64 @@ import org.springframework.data.solr.UncategorizedSolrException;
 import org.springframework.data.solr.core.convert.MappingSolrConverter;
 import org.springframework.data.solr.core.convert.SolrConverter;
 import org.springframework.data.solr.core.mapping.SimpleSolrMappingContext;
+import org.springframework.data.solr.core.mapping.SolrPersistentEntity;
+import org.springframework.data.solr.core.mapping.SolrPersistentProperty;
+import org.springframework.data.solr.core.query.Criteria;
 import org.springframework.data.solr.core.query.FacetQuery;
+import org.springframework.data.solr.core.query.GroupOptions;
 import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.core.query.SimpleField;
+import org.springframework.data.solr.core.query.SimpleQuery;
+import org.springframework.data.solr.core.query.SimpleStringCriteria;
 import org.springframework.data.solr.core.query.SolrDataQuery;
+import org.springframework.data.solr.core.query.TermsQuery;
+import org.springframework.data.solr.core.query.result.CacheStatsResult;
 import org.springframework.data.solr.core.query.result.FacetPage;
+import org.springframework.data.solr.core.query.result.GroupEntry;
+import org.springframework.data.solr.core.query.result.GroupPage;
+import org.springframework.data.solr.core.query.result.GroupResult;
+import org.springframework.data.solr.core.query.result.StatsPage;
+import org.springframework.data.solr.core.query.result.TermsEntry;
+import org.springframework.data.solr.core.querylog.QueryLogWriter;
+import org.springframework.data.solr.core.transaction.SolrTransactionUtils;
+import org.springframework.data.solr.core.transaction.SolrUpdateBuffer;
+import org.springframework.data.solr.core.writebehind.CoalescingUpdateBuffer;
+import org.springframework.data.solr.core.writebehind.WriteBehindQueue;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 /**
  * Implementation of SolrOperations
  * 
  * @author Christoph Strobl
  */
-public class SolrTemplate implements SolrOperations, InitializingBean, ApplicationContextAware {
+public class SolrTemplate implements SolrOperations, InitializingBean, DisposableBean, ApplicationContextAware {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(SolrTemplate.class);
 	private static final QueryParser DEFAULT_QUERY_PARSER = new QueryParser();
 	private static final PersistenceExceptionTranslator exceptionTranslator = new SolrExceptionTranslator();
 
+	/**
+	 * Default max length of the url encoded query string sent via HTTP GET. Most servlet containers and proxies reject
+	 * request lines exceeding 8k.
+	 */
+	public static final int DEFAULT_MAX_GET_REQUEST_LENGTH = 4096;
+
+	/**
+	 * Default max number of values per {@code in} condition. Corresponds to the {@code maxBooleanClauses} default in
+	 * solrconfig.xml.
+	 */
+	public static final int DEFAULT_MAX_BOOLEAN_CLAUSES = 1024;
+
+	/**
+	 * Default time in milliseconds added to {@link SimpleQuery#getTimeAllowed()} for the client side socket timeout. Solr
+	 * only limits the search itself, so the timeout has to cover query parsing and faceting as well.
+	 */
+	public static final long DEFAULT_TIME_ALLOWED_GRACE_PERIOD = 1000;
+
+	private static final String MBEANS_REQUEST_HANDLER = "/admin/mbeans";
+
 	@SuppressWarnings("serial")
 	private static final List<String> ITERABLE_CLASSES = new ArrayList<String>() {
 		{
@@ -74,6 +136,17 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 	private SolrServerFactory solrServerFactory;
 	private QueryParser queryParser = DEFAULT_QUERY_PARSER;
 	private final SolrConverter solrConverter;
+	private DocumentFingerprintCache documentFingerprintCache;
+	private volatile boolean documentFingerprintCacheValidated = false;
+	private TermsPrefixCache termsPrefixCache;
+	private QueryLogWriter queryLogWriter;
+	private WriteBehindQueue writeBehindQueue;
+	private CoalescingUpdateBuffer coalescingUpdateBuffer;
+	private boolean synchronizeWithTransaction = false;
+	private int maxGetRequestLength = DEFAULT_MAX_GET_REQUEST_LENGTH;
+	private int maxBooleanClauses = DEFAULT_MAX_BOOLEAN_CLAUSES;
+	private long timeAllowedGracePeriod = DEFAULT_TIME_ALLOWED_GRACE_PERIOD;
+	private ExecutorService executor;
 
 	public SolrTemplate(SolrServer solrServer) {
 		this(solrServer, null);
@@ -126,11 +199,10 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 
 			@Override
 			public Long doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
-				SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+				SolrQuery solrQuery = createSolrQuery(query, getPartitions(query));
 				solrQuery.setStart(0);
 				solrQuery.setRows(0);
-
-				return solrServer.query(solrQuery).getResults().getNumFound();
+				return query(solrServer, solrQuery, getSocketTimeout(query)).getResults().getNumFound();
 			}
 		});
 	}
@@ -141,7 +213,8 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return execute(new SolrCallback<UpdateResponse>() {
 			@Override
 			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
-				return solrServer.add(convertBeanToSolrInputDocument(objectToAdd));
+				SolrInputDocument document = convertBeanToSolrInputDocument(objectToAdd);
+				return addDocument(solrServer, document, getDocumentId(objectToAdd, document));
 			}
 		});
 	}
@@ -151,7 +224,8 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return execute(new SolrCallback<UpdateResponse>() {
 			@Override
 			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
-				return solrServer.add(convertBeansToSolrInputDocuments(beansToAdd));
+				List<SolrInputDocument> documents = convertBeansToSolrInputDocuments(beansToAdd);
+				return addDocuments(solrServer, documents, getDocumentIds(beansToAdd, documents));
 			}
 		});
 	}
@@ -161,7 +235,7 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return execute(new SolrCallback<UpdateResponse>() {
 			@Override
 			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
-				return solrServer.add(documentToAdd);
+				return addDocument(solrServer, documentToAdd, null);
 			}
 		});
 	}
@@ -171,11 +245,61 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return execute(new SolrCallback<UpdateResponse>() {
 			@Override
 			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
-				return solrServer.add(documentsToAdd);
+				return addDocuments(solrServer, documentsToAdd, null);
 			}
 		});
 	}
 
+	@Override
+	public UpdateResponse executeLoadCsv(final File file, final CsvLoadOptions options) {
+		Assert.notNull(file, "File must not be 'null'.");
+		Assert.notNull(options, "CsvLoadOptions must not be 'null'.");
+
+		return execute(new SolrCallback<UpdateResponse>() {
+			@Override
+			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
+				ContentStreamUpdateRequest request = createCsvUpdateRequest(options, options.getFieldNames(),
+						options.getMultiValuedFieldNames());
+				request.setParam("header", Boolean.toString(options.isHeader()));
+				request.addContentStream(new ContentStreamBase.FileStream(file));
+				return processCsvUpdateRequest(solrServer, request);
+			}
+		});
+	}
+
+	@Override
+	public <T> List<UpdateResponse> executeLoadCsv(Iterable<? extends T> beans, Class<T> clazz, CsvLoadOptions options) {
+		Assert.notNull(beans, "Beans must not be 'null'.");
+		Assert.notNull(clazz, "Target class must not be 'null'.");
+		Assert.notNull(options, "CsvLoadOptions must not be 'null'.");
+
+		CsvContentWriter writer = new CsvContentWriter(getConverter().getMappingContext().getPersistentEntity(clazz),
+				getConverter(), options);
+		ExecutorService executor = getExecutor();
+		LinkedList<Future<UpdateResponse>> pending = new LinkedList<Future<UpdateResponse>>();
+		try {
+			List<UpdateResponse> responses = new ArrayList<UpdateResponse>();
+
+			List<T> chunk = new ArrayList<T>(options.getChunkSize());
+			for (Iterator<? extends T> it = beans.iterator(); it.hasNext();) {
+				chunk.add(it.next());
+				if (chunk.size() == options.getChunkSize() || !it.hasNext()) {
+					while (pending.size() >= options.getConcurrency()) {
+						responses.add(getChunkResponse(pending.removeFirst()));
+					}
+					pending.add(executor.submit(new CsvChunkUpload(writer, chunk, options)));
+					chunk = new ArrayList<T>(options.getChunkSize());
+				}
+			}
+			while (!pending.isEmpty()) {
+				responses.add(getChunkResponse(pending.removeFirst()));
+			}
+			return responses;
+		} finally {
+			cancel(pending);
+		}
+	}
+
 	@Override
 	public UpdateResponse executeDelete(SolrDataQuery query) {
 		Assert.notNull(query, "Query must not be 'null'.");
@@ -185,7 +309,10 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return execute(new SolrCallback<UpdateResponse>() {
 			@Override
 			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
-				return solrServer.deleteByQuery(queryString);
+				if (documentFingerprintCache != null) {
+					documentFingerprintCache.clear();
+				}
+				return doDeleteByQuery(solrServer, queryString);
 			}
 		});
 	}
@@ -197,6 +324,12 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return execute(new SolrCallback<UpdateResponse>() {
 			@Override
 			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
+				if (documentFingerprintCache != null) {
+					documentFingerprintCache.remove(id);
+				}
+				if (isDeferringUpdates(solrServer)) {
+					return doDeleteById(solrServer, Collections.singletonList(id));
+				}
 				return solrServer.deleteById(id);
 			}
 		});
@@ -210,7 +343,12 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return execute(new SolrCallback<UpdateResponse>() {
 			@Override
 			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
-				return solrServer.deleteById(toBeDeleted);
+				if (documentFingerprintCache != null) {
+					for (String id : toBeDeleted) {
+						documentFingerprintCache.remove(id);
+					}
+				}
+				return doDeleteById(solrServer, toBeDeleted);
 			}
 		});
 	}
@@ -220,14 +358,14 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		Assert.notNull(query, "Query must not be 'null'.");
 		Assert.notNull(clazz, "Target class must not be 'null'.");
 
-		query.setPageRequest(new PageRequest(0, 1));
-		QueryResponse response = executeQuery(query);
+		Query singleResultQuery = getModifiableQuery(query).setPageRequest(new PageRequest(0, 1));
+		QueryResponse response = executeQuery(singleResultQuery);
 
 		if (response.getResults().size() > 0) {
 			if (response.getResults().size() > 1) {
 				LOGGER.warn("More than 1 result found for singe result query ('{}'), returning first entry in list");
 			}
-			return response.getBeans(clazz).get(0);
+			return getConverter().read(clazz, response.getResults().get(0));
 		}
 		return null;
 	}
@@ -236,57 +374,326 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		Assert.notNull(query, "Query must not be 'null'.");
 		Assert.notNull(clazz, "Target class must not be 'null'.");
 
+		return executeStatsQuery(query, clazz);
+	}
+
+	@Override
+	public <T> StatsPage<T> executeStatsQuery(Query query, Class<T> clazz) {
+		Assert.notNull(query, "Query must not be 'null'.");
+		Assert.notNull(clazz, "Target class must not be 'null'.");
+		assertNoGroupOptions(query);
+
 		QueryResponse response = executeQuery(query);
-		return new PageImpl<T>(response.getBeans(clazz), query.getPageRequest(), response.getResults().getNumFound());
+
+		StatsPage<T> page = new StatsPage<T>(convertQueryResponseToBeans(response, clazz), query.getPageRequest(),
+				response.getResults().getNumFound());
+		page.addAllFieldStatsResults(ResultHelper.convertStatsQueryResponseToFieldStatsResults(query, response));
+		page.setPartialResults(ResultHelper.isPartialResults(response));
+		return page;
+	}
+
+	@Override
+	public <T> T executeObjectQuery(Query query, Class<?> domainType, Class<T> projectionType) {
+		Assert.notNull(query, "Query must not be 'null'.");
+		Assert.notNull(projectionType, "Projection type must not be 'null'.");
+
+		Query singleResultQuery = appendProjectionOnFields(query, domainType, projectionType).setPageRequest(
+				new PageRequest(0, 1));
+		QueryResponse response = executeQuery(singleResultQuery);
+
+		if (response.getResults().size() > 0) {
+			return getConverter().readProjection(projectionType, domainType, response.getResults().get(0));
+		}
+		return null;
+	}
+
+	@Override
+	public <T> Page<T> executeListQuery(Query query, Class<?> domainType, Class<T> projectionType) {
+		Assert.notNull(query, "Query must not be 'null'.");
+		Assert.notNull(projectionType, "Projection type must not be 'null'.");
+		assertNoGroupOptions(query);
+
+		QueryResponse response = executeQuery(appendProjectionOnFields(query, domainType, projectionType));
+		StatsPage<T> page = new StatsPage<T>(convertQueryResponseToProjections(response, domainType, projectionType),
+				query.getPageRequest(), response.getResults().getNumFound());
+		page.addAllFieldStatsResults(ResultHelper.convertStatsQueryResponseToFieldStatsResults(query, response));
+		page.setPartialResults(ResultHelper.isPartialResults(response));
+		return page;
 	}
 
 	@Override
 	public <T> FacetPage<T> executeFacetQuery(FacetQuery query, Class<T> clazz) {
 		Assert.notNull(query, "Query must not be 'null'.");
 		Assert.notNull(clazz, "Target class must not be 'null'.");
+		assertNoGroupOptions(query);
+
+		QueryResponse response = executeQuery(query);
+
+		FacetPage<T> page = new FacetPage<T>(convertQueryResponseToBeans(response, clazz), query.getPageRequest(),
+				response.getResults().getNumFound());
+		page.addAllFacetResultColumns(ResultHelper.convertFacetQueryResponseToFacetFieldColumns(query, response));
+		page.addAllRangeFacetResultPages(ResultHelper.convertFacetQueryResponseToRangeFacetPageMap(query, response));
+		page.addAllFacetQueryResults(ResultHelper.convertFacetQueryResponseToFacetQueryResult(query, response));
+		page.addAllFieldStatsResults(ResultHelper.convertStatsQueryResponseToFieldStatsResults(query, response));
+		page.setPartialResults(ResultHelper.isPartialResults(response));
+
+		return page;
+	}
+
+	@Override
+	public <T> GroupPage<T> executeGroupQuery(Query query, Class<T> clazz) {
+		Assert.notNull(query, "Query must not be 'null'.");
+		Assert.notNull(clazz, "Target class must not be 'null'.");
+		Assert.isTrue(query instanceof SimpleQuery && ((SimpleQuery) query).hasGroupOptions(),
+				"Query must define group options.");
+		GroupOptions groupOptions = ((SimpleQuery) query).getGroupOptions();
+		if (groupOptions.getGroupByFields().size() + groupOptions.getGroupByQueries().size() != 1) {
+			throw new InvalidDataAccessApiUsageException("Cannot execute query grouping by more than one field or query.");
+		}
 
 		QueryResponse response = executeQuery(query);
 
-		FacetPage<T> page = new FacetPage<T>(response.getBeans(clazz), query.getPageRequest(), response.getResults()
-				.getNumFound());
-		page.addAllFacetResultPages(ResultHelper.convertFacetQueryResponseToFacetPageMap(query, response));
+		List<GroupResult<T>> groupResults = ResultHelper.convertGroupQueryResponseToGroupResults(query, response, clazz,
+				getConverter());
+		List<GroupEntry<T>> content = new ArrayList<GroupEntry<T>>();
+		long total = 0;
+		if (!groupResults.isEmpty()) {
+			content.addAll(groupResults.get(0).getGroupEntries().getContent());
+			total = groupResults.get(0).getGroupEntries().getTotalElements();
+		}
 
+		GroupPage<T> page = new GroupPage<T>(content, query.getPageRequest(), total);
+		page.addAllGroupResults(groupResults);
+		if (query instanceof FacetQuery) {
+			FacetQuery facetQuery = (FacetQuery) query;
+			page.addAllFacetResultColumns(ResultHelper.convertFacetQueryResponseToFacetFieldColumns(facetQuery, response));
+			page.addAllRangeFacetResultPages(ResultHelper.convertFacetQueryResponseToRangeFacetPageMap(facetQuery,
+					response));
+			page.addAllFacetQueryResults(ResultHelper.convertFacetQueryResponseToFacetQueryResult(facetQuery, response));
+		}
+		page.addAllFieldStatsResults(ResultHelper.convertStatsQueryResponseToFieldStatsResults(query, response));
+		page.setPartialResults(ResultHelper.isPartialResults(response));
 		return page;
 	}
 
+	@Override
+	public List<TermsEntry> executeTermsQuery(TermsQuery query) {
+		Assert.notNull(query, "Query must not be 'null'.");
+
+		if (termsPrefixCache != null) {
+			List<TermsEntry> cached = termsPrefixCache.get(query);
+			if (cached != null) {
+				return cached;
+			}
+		}
+
+		SolrQuery solrQuery = queryParser.constructTermsQuery(query);
+		LOGGER.debug("Executing terms query '" + solrQuery + "' against solr.");
+		List<TermsEntry> entries = ResultHelper.convertTermsQueryResponseToTermsEntries(query, executeSolrQuery(solrQuery));
+
+		if (termsPrefixCache != null) {
+			termsPrefixCache.put(query, entries);
+		}
+		return entries;
+	}
+
+	@Override
+	public List<CacheStatsResult> executeCacheStats() {
+		return execute(new SolrCallback<List<CacheStatsResult>>() {
+			@Override
+			public List<CacheStatsResult> doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
+				ModifiableSolrParams params = new ModifiableSolrParams();
+				params.set("stats", true);
+				params.set("cat", ResultHelper.MBEANS_CATEGORY_CACHE);
+
+				QueryRequest request = new QueryRequest(params);
+				request.setPath(MBEANS_REQUEST_HANDLER);
+				return ResultHelper.convertMBeansResponseToCacheStatsResults(solrServer.request(request));
+			}
+		});
+	}
+
 	public final QueryResponse executeQuery(SolrDataQuery query) {
 		Assert.notNull(query, "Query must not be 'null'");
 
-		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+		SolrQuery solrQuery = createSolrQuery(query, getPartitions(query));
 		LOGGER.debug("Executing query '" + solrQuery + "' against solr.");
+		QueryResponse response = executeSolrQuery(solrQuery, getSocketTimeout(query));
+
+		if (query instanceof SimpleQuery && ((SimpleQuery) query).hasGeoDistanceOptions()) {
+			GeoDistances.appendDistances(response, ((SimpleQuery) query).getGeoDistanceOptions());
+		}
+		return response;
+	}
+
+	/**
+	 * Compute the client side socket timeout for queries having {@link SimpleQuery#getTimeAllowed()} set.
+	 * 
+	 * @param query
+	 * @return time in milliseconds, 0 for none
+	 */
+	private int getSocketTimeout(SolrDataQuery query) {
+		if (timeAllowedGracePeriod < 0 || !(query instanceof SimpleQuery)
+				|| ((SimpleQuery) query).getTimeAllowed() == null) {
+			return 0;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, ((SimpleQuery) query).getTimeAllowed() + timeAllowedGracePeriod);
+	}
+
+	/**
+	 * Split criteria of query into multiple ones in case an {@code in} condition exceeds {@link #getMaxBooleanClauses()}.
+	 * 
+	 * @param query
+	 * @return list containing only the criteria of given query if no split is required
+	 */
+	private List<Criteria> getPartitions(SolrDataQuery query) {
+		if (maxBooleanClauses <= 0) {
+			return Collections.singletonList(query.getCriteria());
+		}
+		return query.getCriteria().partition(maxBooleanClauses);
+	}
 
-		return executeSolrQuery(solrQuery);
+	/**
+	 * Create the query matching any of the given partitions. Partitions are combined using nested {@code OR} groups, none
+	 * of them exceeding {@link #getMaxBooleanClauses()}, so solr sorts, paginates and counts the complete result of a
+	 * split query.
+	 * 
+	 * @param query
+	 * @param partitions
+	 * @return
+	 */
+	private SolrQuery createSolrQuery(SolrDataQuery query, List<Criteria> partitions) {
+		if (partitions.size() <= 1) {
+			return queryParser.constructSolrQuery(query);
+		}
+
+		List<String> fragments = new ArrayList<String>(partitions.size());
+		for (Criteria partition : partitions) {
+			fragments.add(partition.createQueryString());
+		}
+		int groupSize = Math.max(2, maxBooleanClauses);
+		while (fragments.size() > 1) {
+			List<String> groups = new ArrayList<String>((fragments.size() + groupSize - 1) / groupSize);
+			for (int start = 0; start < fragments.size(); start += groupSize) {
+				groups.add(StringUtils.collectionToDelimitedString(
+						fragments.subList(start, Math.min(start + groupSize, fragments.size())), " OR ", "(", ")"));
+			}
+			fragments = groups;
+		}
+		return queryParser.constructSolrQuery(query, new SimpleStringCriteria(fragments.get(0)));
 	}
 
 	final QueryResponse executeSolrQuery(final SolrQuery solrQuery) {
+		return executeSolrQuery(solrQuery, 0);
+	}
+
+	/**
+	 * @param solrQuery
+	 * @param socketTimeout in milliseconds, 0 for none
+	 * @return
+	 */
+	private QueryResponse executeSolrQuery(final SolrQuery solrQuery, final int socketTimeout) {
 		return execute(new SolrCallback<QueryResponse>() {
 			@Override
 			public QueryResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
-				return solrServer.query(solrQuery);
+				return query(solrServer, solrQuery, socketTimeout);
 			}
 		});
 	}
 
+	private QueryResponse query(SolrServer solrServer, SolrQuery solrQuery) throws SolrServerException {
+		return query(solrServer, solrQuery, 0);
+	}
+
+	/**
+	 * Solr stops searching once 'timeAllowed' is exceeded, but cannot limit the time spent otherwise. Requests are
+	 * therefore additionally limited by a socket timeout, which is only possible for {@link HttpSolrServer}. Subclasses
+	 * might alter the way requests are sent, so they are limited by 'timeAllowed' only.
+	 * 
+	 * @param solrServer
+	 * @param solrQuery
+	 * @param socketTimeout in milliseconds, 0 for none
+	 * @return
+	 * @throws SolrServerException
+	 */
+	private QueryResponse query(SolrServer solrServer, SolrQuery solrQuery, int socketTimeout)
+			throws SolrServerException {
+		if (socketTimeout > 0 && HttpSolrServer.class.equals(solrServer.getClass())) {
+			solrServer = new SocketTimeoutHttpSolrServer((HttpSolrServer) solrServer, socketTimeout);
+		}
+		if (queryLogWriter != null) {
+			queryLogWriter.append(solrQuery);
+		}
+		if (exceedsMaxGetRequestLength(solrQuery)) {
+			LOGGER.debug("Query exceeds max GET request length of " + maxGetRequestLength + ", sending via POST.");
+			return solrServer.query(solrQuery, METHOD.POST);
+		}
+		return solrServer.query(solrQuery);
+	}
+
+	/**
+	 * Check if the url encoded query string of given query would exceed {@link #getMaxGetRequestLength()}. Encoding the
+	 * whole query is only done in case the raw parameter length is not sufficient to decide, as encoding expands each
+	 * character by 3 at most.
+	 * 
+	 * @param solrQuery
+	 * @return
+	 */
+	boolean exceedsMaxGetRequestLength(SolrQuery solrQuery) {
+		if (maxGetRequestLength < 0) {
+			return false;
+		}
+
+		long rawLength = 0;
+		for (Iterator<String> it = solrQuery.getParameterNamesIterator(); it.hasNext();) {
+			String name = it.next();
+			String[] values = solrQuery.getParams(name);
+			if (values != null) {
+				for (String value : values) {
+					rawLength += name.length() + (value != null ? value.length() : 0) + 2;
+				}
+			}
+		}
+
+		if (rawLength > maxGetRequestLength) {
+			return true;
+		}
+		if (rawLength * 3 <= maxGetRequestLength) {
+			return false;
+		}
+		return ClientUtils.toQueryString(solrQuery, false).length() > maxGetRequestLength;
+	}
+
 	@Override
 	public void executeCommit() {
 		execute(new SolrCallback<UpdateResponse>() {
 			@Override
 			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
-				return solrServer.commit();
+				if (isDeferringUpdates(solrServer)) {
+					return createEmptyUpdateResponse();
+				}
+				return commitAndRecordFingerprints(solrServer);
 			}
 		});
 	}
 
 	@Override
 	public void executeRollback() {
+		if ((writeBehindQueue != null || coalescingUpdateBuffer != null)
+				&& getTransactionalUpdateBuffer(getSolrServer()) == null) {
+			throw new InvalidDataAccessApiUsageException("Cannot rollback updates sent asynchronously.");
+		}
 		execute(new SolrCallback<UpdateResponse>() {
 			@Override
 			public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
+				if (documentFingerprintCache != null) {
+					documentFingerprintCache.discardPending();
+				}
+				SolrUpdateBuffer updateBuffer = getTransactionalUpdateBuffer(solrServer);
+				if (updateBuffer != null) {
+					updateBuffer.discard();
+					return createEmptyUpdateResponse();
+				}
 				return solrServer.rollback();
 			}
 		});
@@ -303,7 +710,7 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return document;
 	}
 
-	private Collection<SolrInputDocument> convertBeansToSolrInputDocuments(Iterable<?> beans) {
+	private List<SolrInputDocument> convertBeansToSolrInputDocuments(Iterable<?> beans) {
 		if (beans == null) {
 			return Collections.emptyList();
 		}
@@ -314,6 +721,449 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return resultList;
 	}
 
+	/**
+	 * Resolve the unique key of given bean via the id property of its persistent entity. Only required for keying
+	 * updates within the {@link CoalescingUpdateBuffer}.
+	 * 
+	 * @param bean
+	 * @param document the document bean has been converted into
+	 * @return null if not required or bean has no id
+	 */
+	private String getDocumentId(Object bean, SolrInputDocument document) {
+		if (coalescingUpdateBuffer == null || bean instanceof SolrInputDocument) {
+			return null;
+		}
+		SolrPersistentEntity<?> entity = getConverter().getMappingContext().getPersistentEntity(bean.getClass());
+		SolrPersistentProperty idProperty = entity != null ? entity.getIdProperty() : null;
+		Object id = idProperty != null ? document.getFieldValue(idProperty.getFieldName()) : null;
+		return id != null ? id.toString() : null;
+	}
+
+	private List<String> getDocumentIds(Iterable<?> beans, List<SolrInputDocument> documents) {
+		if (coalescingUpdateBuffer == null || beans == null) {
+			return null;
+		}
+		List<String> ids = new ArrayList<String>(documents.size());
+		Iterator<SolrInputDocument> documentIterator = documents.iterator();
+		for (Object bean : beans) {
+			ids.add(getDocumentId(bean, documentIterator.next()));
+		}
+		return ids;
+	}
+
+	private ContentStreamUpdateRequest createCsvUpdateRequest(CsvLoadOptions options, List<String> fieldNames,
+			List<String> multiValuedFieldNames) {
+		ContentStreamUpdateRequest request = new ContentStreamUpdateRequest(options.getRequestHandler());
+		request.setParam("separator", Character.toString(options.getSeparator()));
+		request.setParam("encapsulator", Character.toString(options.getEncapsulator()));
+		if (!fieldNames.isEmpty()) {
+			request.setParam("fieldnames", StringUtils.collectionToCommaDelimitedString(fieldNames));
+		}
+		for (String fieldName : multiValuedFieldNames) {
+			request.setParam("f." + fieldName + ".split", Boolean.TRUE.toString());
+			request.setParam("f." + fieldName + ".separator", Character.toString(options.getMultiValueSeparator()));
+		}
+		return request;
+	}
+
+	private UpdateResponse processCsvUpdateRequest(SolrServer solrServer, ContentStreamUpdateRequest request)
+			throws SolrServerException, IOException {
+		if (documentFingerprintCache != null) {
+			documentFingerprintCache.clear();
+		}
+		return request.process(solrServer);
+	}
+
+	private void cancel(Collection<? extends Future<?>> futures) {
+		for (Future<?> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * @return executor shared by all parallel operations of this template, created on first use
+	 */
+	private synchronized ExecutorService getExecutor() {
+		if (this.executor == null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("solr-template-");
+			threadFactory.setDaemon(true);
+			this.executor = Executors.newCachedThreadPool(threadFactory);
+		}
+		return this.executor;
+	}
+
+	private <T> T getChunkResponse(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncategorizedSolrException("Interrupted while waiting for chunk response.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof DataAccessException) {
+				throw (DataAccessException) e.getCause();
+			}
+			if (e.getCause() instanceof IllegalArgumentException) {
+				throw new InvalidDataAccessApiUsageException(e.getCause().getMessage(), e.getCause());
+			}
+			throw new UncategorizedSolrException(e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * @param solrServer
+	 * @param document
+	 * @param documentId unique key of the document, null if not known
+	 * @return
+	 * @throws SolrServerException
+	 * @throws IOException
+	 */
+	private UpdateResponse addDocument(SolrServer solrServer, SolrInputDocument document, String documentId)
+			throws SolrServerException, IOException {
+		DocumentFingerprintCache fingerprintCache = getValidatedFingerprintCache(solrServer);
+		String id = fingerprintCache != null ? fingerprintCache.getDocumentId(document) : null;
+		if (id == null) {
+			return doAdd(solrServer, document, documentId);
+		}
+		if (isDeferringUpdates(solrServer)) {
+			// commit of deferred updates is not under control of the template, so fingerprints cannot be recorded
+			fingerprintCache.remove(id);
+			return doAdd(solrServer, document, documentId);
+		}
+
+		if (!fingerprintCache.markPendingIfChanged(id, DocumentFingerprintCache.fingerprint(document))) {
+			return createEmptyUpdateResponse();
+		}
+
+		boolean sent = false;
+		try {
+			UpdateResponse response = doAdd(solrServer, document, documentId);
+			sent = true;
+			return response;
+		} finally {
+			if (!sent) {
+				fingerprintCache.abortPending(id);
+			}
+		}
+	}
+
+	/**
+	 * @param solrServer
+	 * @param documents
+	 * @param documentIds unique key of each document in the same order, null if not known
+	 * @return
+	 * @throws SolrServerException
+	 * @throws IOException
+	 */
+	private UpdateResponse addDocuments(SolrServer solrServer, Collection<SolrInputDocument> documents,
+			List<String> documentIds) throws SolrServerException, IOException {
+		DocumentFingerprintCache fingerprintCache = getValidatedFingerprintCache(solrServer);
+		if (fingerprintCache == null) {
+			return doAdd(solrServer, documents, documentIds);
+		}
+		if (isDeferringUpdates(solrServer)) {
+			for (SolrInputDocument document : documents) {
+				String id = fingerprintCache.getDocumentId(document);
+				if (id != null) {
+					fingerprintCache.remove(id);
+				}
+			}
+			return doAdd(solrServer, documents, documentIds);
+		}
+
+		List<SolrInputDocument> changed = new ArrayList<SolrInputDocument>(documents.size());
+		List<String> changedIds = documentIds != null ? new ArrayList<String>(documents.size()) : null;
+		List<String> pendingIds = new ArrayList<String>(documents.size());
+		Iterator<String> documentIdIterator = documentIds != null ? documentIds.iterator() : null;
+		for (SolrInputDocument document : documents) {
+			String documentId = documentIdIterator != null ? documentIdIterator.next() : null;
+			String id = fingerprintCache.getDocumentId(document);
+			boolean add = id == null;
+			if (!add && fingerprintCache.markPendingIfChanged(id, DocumentFingerprintCache.fingerprint(document))) {
+				add = true;
+				pendingIds.add(id);
+			}
+			if (add) {
+				changed.add(document);
+				if (changedIds != null) {
+					changedIds.add(documentId);
+				}
+			}
+		}
+		if (changed.isEmpty()) {
+			return createEmptyUpdateResponse();
+		}
+
+		boolean sent = false;
+		try {
+			UpdateResponse response = doAdd(solrServer, changed, changedIds);
+			sent = true;
+			return response;
+		} finally {
+			if (!sent) {
+				for (String id : pendingIds) {
+					fingerprintCache.abortPending(id);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param solrServer
+	 * @return the fingerprint cache validated against the current index version on first use, null if not set
+	 */
+	private DocumentFingerprintCache getValidatedFingerprintCache(SolrServer solrServer) {
+		DocumentFingerprintCache fingerprintCache = this.documentFingerprintCache;
+		if (fingerprintCache != null && !documentFingerprintCacheValidated) {
+			if (!fingerprintCache.validate(readIndexVersion(solrServer))) {
+				LOGGER.info("Index has been modified since fingerprints have been recorded, dropping fingerprints.");
+			}
+			documentFingerprintCacheValidated = true;
+		}
+		return fingerprintCache;
+	}
+
+	/**
+	 * Commit and record fingerprints of documents sent since the last commit. The index version is read once after the
+	 * commit, as the version recorded on the previous commit is known already. Modifications by others are therefore
+	 * only detected when the cache is validated on first use.
+	 * 
+	 * @param solrServer
+	 * @return
+	 * @throws SolrServerException
+	 * @throws IOException
+	 */
+	private UpdateResponse commitAndRecordFingerprints(SolrServer solrServer) throws SolrServerException, IOException {
+		DocumentFingerprintCache fingerprintCache = this.documentFingerprintCache;
+		if (fingerprintCache == null) {
+			return solrServer.commit();
+		}
+
+		UpdateResponse response = solrServer.commit();
+		fingerprintCache.commitPending(readIndexVersion(solrServer));
+		return response;
+	}
+
+	/**
+	 * Read the version of the index via the luke request handler.
+	 * 
+	 * @param solrServer
+	 * @return {@link DocumentFingerprintCache#UNKNOWN_INDEX_VERSION} if not available
+	 */
+	private long readIndexVersion(SolrServer solrServer) {
+		LukeRequest request = new LukeRequest();
+		request.setNumTerms(0);
+		try {
+			NamedList<Object> response = solrServer.request(request);
+			Object index = response != null ? response.get("index") : null;
+			Object version = index instanceof NamedList ? ((NamedList<?>) index).get("version") : null;
+			if (version instanceof Number) {
+				return ((Number) version).longValue();
+			}
+		} catch (Exception e) {
+			LOGGER.debug("Could not read index version.", e);
+		}
+		return DocumentFingerprintCache.UNKNOWN_INDEX_VERSION;
+	}
+
+	private UpdateResponse doAdd(SolrServer solrServer, SolrInputDocument document, String documentId)
+			throws SolrServerException, IOException {
+		if (isDeferringUpdates(solrServer)) {
+			return doAdd(solrServer, Collections.singletonList(document),
+					documentId != null ? Collections.singletonList(documentId) : null);
+		}
+		return solrServer.add(document);
+	}
+
+	/**
+	 * @param solrServer
+	 * @param documents
+	 * @param documentIds unique key of each document in the same order, used for keying updates within the
+	 *          {@link CoalescingUpdateBuffer}. null if not known.
+	 * @return
+	 * @throws SolrServerException
+	 * @throws IOException
+	 */
+	private UpdateResponse doAdd(SolrServer solrServer, Collection<SolrInputDocument> documents, List<String> documentIds)
+			throws SolrServerException, IOException {
+		SolrUpdateBuffer updateBuffer = getTransactionalUpdateBuffer(solrServer);
+		if (updateBuffer != null) {
+			updateBuffer.add(documents);
+			return createEmptyUpdateResponse();
+		}
+		if (coalescingUpdateBuffer != null) {
+			if (documentIds == null) {
+				coalescingUpdateBuffer.add(documents);
+			} else {
+				Iterator<String> documentIdIterator = documentIds.iterator();
+				for (SolrInputDocument document : documents) {
+					coalescingUpdateBuffer.add(documentIdIterator.next(), document);
+				}
+			}
+			return createEmptyUpdateResponse();
+		}
+		if (writeBehindQueue != null) {
+			writeBehindQueue.add(documents);
+			return createEmptyUpdateResponse();
+		}
+		return solrServer.add(documents);
+	}
+
+	private UpdateResponse doDeleteById(SolrServer solrServer, List<String> ids) throws SolrServerException, IOException {
+		SolrUpdateBuffer updateBuffer = getTransactionalUpdateBuffer(solrServer);
+		if (updateBuffer != null) {
+			updateBuffer.deleteById(ids);
+			return createEmptyUpdateResponse();
+		}
+		if (coalescingUpdateBuffer != null) {
+			coalescingUpdateBuffer.deleteById(ids);
+			return createEmptyUpdateResponse();
+		}
+		if (writeBehindQueue != null) {
+			writeBehindQueue.deleteById(ids);
+			return createEmptyUpdateResponse();
+		}
+		return solrServer.deleteById(ids);
+	}
+
+	private UpdateResponse doDeleteByQuery(SolrServer solrServer, String queryString) throws SolrServerException,
+			IOException {
+		SolrUpdateBuffer updateBuffer = getTransactionalUpdateBuffer(solrServer);
+		if (updateBuffer != null) {
+			updateBuffer.deleteByQuery(queryString);
+			return createEmptyUpdateResponse();
+		}
+		if (coalescingUpdateBuffer != null) {
+			coalescingUpdateBuffer.deleteByQuery(queryString);
+			return createEmptyUpdateResponse();
+		}
+		if (writeBehindQueue != null) {
+			writeBehindQueue.deleteByQuery(queryString);
+			return createEmptyUpdateResponse();
+		}
+		return solrServer.deleteByQuery(queryString);
+	}
+
+	private boolean isDeferringUpdates(SolrServer solrServer) {
+		return getTransactionalUpdateBuffer(solrServer) != null || coalescingUpdateBuffer != null
+				|| writeBehindQueue != null;
+	}
+
+	private SolrUpdateBuffer getTransactionalUpdateBuffer(SolrServer solrServer) {
+		return SolrTransactionUtils.getUpdateBuffer(solrServer, synchronizeWithTransaction);
+	}
+
+	private static UpdateResponse createEmptyUpdateResponse() {
+		NamedList<Object> header = new SimpleOrderedMap<Object>();
+		header.add("status", 0);
+		header.add("QTime", 0);
+
+		NamedList<Object> result = new NamedList<Object>();
+		result.add("responseHeader", header);
+
+		UpdateResponse response = new UpdateResponse();
+		response.setResponse(result);
+		return response;
+	}
+
+	private <T> List<T> convertQueryResponseToBeans(QueryResponse response, Class<T> clazz) {
+		SolrDocumentList documents = response.getResults();
+		if (documents == null || documents.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<T> beans = new ArrayList<T>(documents.size());
+		for (SolrDocument document : documents) {
+			beans.add(getConverter().read(clazz, document));
+		}
+		return beans;
+	}
+
+	private <T> List<T> convertQueryResponseToProjections(QueryResponse response, Class<?> domainType,
+			Class<T> projectionType) {
+		SolrDocumentList documents = response.getResults();
+		if (documents == null || documents.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<T> projections = new ArrayList<T>(documents.size());
+		for (SolrDocument document : documents) {
+			projections.add(getConverter().readProjection(projectionType, domainType, document));
+		}
+		return projections;
+	}
+
+	/**
+	 * @param query
+	 * @param domainType
+	 * @param projectionType
+	 * @return a copy of given query restricted to the fields required by the projection, unless the query already
+	 *         defines the fields to return
+	 */
+	private Query appendProjectionOnFields(Query query, Class<?> domainType, Class<?> projectionType) {
+		Query projectionQuery = SimpleQuery.fromQuery(query);
+		if (query.getProjectionOnFields().isEmpty()) {
+			for (String fieldName : getConverter().getProjectionFieldNames(projectionType, domainType)) {
+				projectionQuery.addProjectionOnField(new SimpleField(fieldName));
+			}
+		}
+		return projectionQuery;
+	}
+
+	/**
+	 * @param query
+	 * @return a modifiable copy of given query in case it is frozen, the query itself otherwise
+	 */
+	private Query getModifiableQuery(Query query) {
+		return query.isFrozen() ? SimpleQuery.fromQuery(query) : query;
+	}
+
+	/**
+	 * Grouped responses do not hold a plain document list, so they can only be read via
+	 * {@link #executeGroupQuery(Query, Class)}.
+	 * 
+	 * @param query
+	 */
+	private void assertNoGroupOptions(Query query) {
+		if (query instanceof SimpleQuery && ((SimpleQuery) query).hasGroupOptions()) {
+			throw new InvalidDataAccessApiUsageException("Cannot execute query having group options. Use executeGroupQuery.");
+		}
+	}
+
+	/**
+	 * Writes and uploads a single chunk of beans as csv
+	 */
+	private class CsvChunkUpload implements Callable<UpdateResponse> {
+
+		private final CsvContentWriter writer;
+		private final List<?> beans;
+		private final CsvLoadOptions options;
+
+		CsvChunkUpload(CsvContentWriter writer, List<?> beans, CsvLoadOptions options) {
+			this.writer = writer;
+			this.beans = beans;
+			this.options = options;
+		}
+
+		@Override
+		public UpdateResponse call() {
+			return execute(new SolrCallback<UpdateResponse>() {
+				@Override
+				public UpdateResponse doInSolr(SolrServer solrServer) throws SolrServerException, IOException {
+					ContentStreamUpdateRequest request = createCsvUpdateRequest(options, writer.getFieldNames(),
+							writer.getMultiValuedFieldNames());
+					request.setParam("header", Boolean.FALSE.toString());
+					for (String fieldName : writer.getMultiValuedFieldNames()) {
+						request.setParam("f." + fieldName + ".encapsulator", Character.toString(options.getEncapsulator()));
+					}
+
+					ContentStreamBase.StringStream stream = new ContentStreamBase.StringStream(writer.write(beans));
+					stream.setContentType("text/csv; charset=utf-8");
+					request.addContentStream(stream);
+					return processCsvUpdateRequest(solrServer, request);
+				}
+			});
+		}
+
+	}
+
 	protected void assertNoCollection(Object o) {
 		if (null != o) {
 			if (o.getClass().isArray() || ITERABLE_CLASSES.contains(o.getClass().getName())) {
@@ -338,6 +1188,179 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		return this.solrConverter;
 	}
 
+	/**
+	 * @return the cache used to detect unchanged documents, null if not set
+	 */
+	public DocumentFingerprintCache getDocumentFingerprintCache() {
+		return this.documentFingerprintCache;
+	}
+
+	/**
+	 * Set cache used to detect documents that have not changed since they have been added and committed last. Adding
+	 * unchanged documents is skipped. Fingerprints are recorded on {@link #executeCommit()} along with the index version
+	 * reported by the luke request handler, and validated against it on first use. Updates deferred via transactions,
+	 * a write behind queue or a coalescing buffer are never skipped. {@code null} disables change detection.
+	 * 
+	 * @param documentFingerprintCache
+	 */
+	public void setDocumentFingerprintCache(DocumentFingerprintCache documentFingerprintCache) {
+		this.documentFingerprintCache = documentFingerprintCache;
+		this.documentFingerprintCacheValidated = false;
+	}
+
+	/**
+	 * @return the cache used to answer terms queries, null if not set
+	 */
+	public TermsPrefixCache getTermsPrefixCache() {
+		return this.termsPrefixCache;
+	}
+
+	/**
+	 * Set cache used to answer frequently executed terms queries without a roundtrip to solr. {@code null} disables
+	 * caching.
+	 * 
+	 * @param termsPrefixCache
+	 */
+	public void setTermsPrefixCache(TermsPrefixCache termsPrefixCache) {
+		this.termsPrefixCache = termsPrefixCache;
+	}
+
+	/**
+	 * @return the writer recording queries, null if not set
+	 */
+	public QueryLogWriter getQueryLogWriter() {
+		return this.queryLogWriter;
+	}
+
+	/**
+	 * Record every query sent to solr, so it can be replayed later on using a
+	 * {@link org.springframework.data.solr.core.querylog.QueryLogReplayer}. Default is null, which disables recording.
+	 * 
+	 * @param queryLogWriter
+	 */
+	public void setQueryLogWriter(QueryLogWriter queryLogWriter) {
+		this.queryLogWriter = queryLogWriter;
+	}
+
+	/**
+	 * @return the queue updates are written to asynchronously, null if not set
+	 */
+	public WriteBehindQueue getWriteBehindQueue() {
+		return this.writeBehindQueue;
+	}
+
+	/**
+	 * Append adds and deletes to the given queue instead of sending them to solr directly. Calls return as soon as the
+	 * update has been written to the journal, and {@link #executeCommit()} does not send anything as the queue commits
+	 * after each batch. Use {@link WriteBehindQueue#awaitDrained(long, java.util.concurrent.TimeUnit)} where reads have
+	 * to see previous writes. {@link #executeRollback()} is rejected outside of transactions, as queued updates are
+	 * sent independently. Csv loading is not affected. Cannot be combined with a coalescing update buffer. Default is
+	 * null, which sends updates synchronously.
+	 * 
+	 * @param writeBehindQueue
+	 */
+	public void setWriteBehindQueue(WriteBehindQueue writeBehindQueue) {
+		Assert.state(writeBehindQueue == null || this.coalescingUpdateBuffer == null,
+				"WriteBehindQueue cannot be combined with CoalescingUpdateBuffer.");
+		this.writeBehindQueue = writeBehindQueue;
+	}
+
+	/**
+	 * @return the buffer coalescing updates per document id, null if not set
+	 */
+	public CoalescingUpdateBuffer getCoalescingUpdateBuffer() {
+		return this.coalescingUpdateBuffer;
+	}
+
+	/**
+	 * Collect adds and deletes in the given buffer, keeping only the latest update per document id until the buffer is
+	 * flushed. As with {@link #setWriteBehindQueue(WriteBehindQueue)}, {@link #executeCommit()} does not send anything
+	 * as the buffer commits after each flush, and {@link #executeRollback()} is rejected outside of transactions. Cannot
+	 * be combined with a write behind queue, as flushed updates would bypass its journal. Default is null.
+	 * 
+	 * @param coalescingUpdateBuffer
+	 */
+	public void setCoalescingUpdateBuffer(CoalescingUpdateBuffer coalescingUpdateBuffer) {
+		Assert.state(coalescingUpdateBuffer == null || this.writeBehindQueue == null,
+				"CoalescingUpdateBuffer cannot be combined with WriteBehindQueue.");
+		this.coalescingUpdateBuffer = coalescingUpdateBuffer;
+	}
+
+	/**
+	 * @return true if updates are buffered within transactions not managed by
+	 *         {@link org.springframework.data.solr.core.transaction.SolrTransactionManager}
+	 */
+	public boolean isSynchronizeWithTransaction() {
+		return this.synchronizeWithTransaction;
+	}
+
+	/**
+	 * Buffer adds and deletes within any active transaction, eg. one managed by a jpa transaction manager, and send
+	 * them once the transaction has been committed. Updates within transactions managed by
+	 * {@link org.springframework.data.solr.core.transaction.SolrTransactionManager} are always buffered and take
+	 * precedence over {@link #setCoalescingUpdateBuffer(CoalescingUpdateBuffer)} and
+	 * {@link #setWriteBehindQueue(WriteBehindQueue)}. Default is false.
+	 * 
+	 * @param synchronizeWithTransaction
+	 */
+	public void setSynchronizeWithTransaction(boolean synchronizeWithTransaction) {
+		this.synchronizeWithTransaction = synchronizeWithTransaction;
+	}
+
+	/**
+	 * @return max length of the url encoded query string sent via HTTP GET
+	 */
+	public int getMaxGetRequestLength() {
+		return this.maxGetRequestLength;
+	}
+
+	/**
+	 * Set the max length of the url encoded query string sent via HTTP GET. Queries exceeding the limit, eg. large
+	 * {@code in} conditions, are sent via HTTP POST. A negative value disables switching the request method.
+	 * 
+	 * @param maxGetRequestLength
+	 */
+	public void setMaxGetRequestLength(int maxGetRequestLength) {
+		this.maxGetRequestLength = maxGetRequestLength;
+	}
+
+	/**
+	 * @return max number of values per {@code in} condition sent within one query
+	 */
+	public int getMaxBooleanClauses() {
+		return this.maxBooleanClauses;
+	}
+
+	/**
+	 * Set the max number of values per {@code in} condition. Conditions exceeding the limit are split into multiple ones,
+	 * combined using nested {@code OR} groups within a single query. A value less or equal to zero disables splitting. Should match {@code maxBooleanClauses} in
+	 * solrconfig.xml.
+	 * 
+	 * @param maxBooleanClauses
+	 */
+	public void setMaxBooleanClauses(int maxBooleanClauses) {
+		this.maxBooleanClauses = maxBooleanClauses;
+	}
+
+	/**
+	 * @return time in milliseconds added to {@link SimpleQuery#getTimeAllowed()} for the client side socket timeout
+	 */
+	public long getTimeAllowedGracePeriod() {
+		return this.timeAllowedGracePeriod;
+	}
+
+	/**
+	 * Queries having {@link SimpleQuery#getTimeAllowed()} set are sent with a socket timeout of timeAllowed plus the grace
+	 * period and fail with {@link QueryTimeoutException} once it is exceeded. The socket timeout limits the wait for each
+	 * single read rather than the request as a whole, so it is no hard deadline: a response arriving in chunks may take
+	 * longer in total. Only applies to {@link HttpSolrServer}, other servers are limited by 'timeAllowed' only.
+	 * 
+	 * @param timeAllowedGracePeriod time in milliseconds, negative value disables the client side socket timeout
+	 */
+	public void setTimeAllowedGracePeriod(long timeAllowedGracePeriod) {
+		this.timeAllowedGracePeriod = timeAllowedGracePeriod;
+	}
+
 	public static PersistenceExceptionTranslator getExceptionTranslator() {
 		return exceptionTranslator;
 	}
@@ -355,4 +1378,15 @@ public class SolrTemplate implements SolrOperations, InitializingBean, Applicati
 		}
 	}
 
+	/**
+	 * Stops the threads used for parallel csv uploads.
+	 */
+	@Override
+	public synchronized void destroy() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+	}
+
 }
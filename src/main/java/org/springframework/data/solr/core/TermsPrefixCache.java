@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.solr.core.query.TermsQuery;
+import org.springframework.data.solr.core.query.result.TermsEntry;
+import org.springframework.util.Assert;
+
+/**
+ * Bounded cache of {@link TermsQuery} results used by {@link SolrTemplate} to answer frequently requested prefixes
+ * without a roundtrip to solr. <br />
+ * Entries expire after a fixed time to live, so terms added to the index show up with a delay of at most that period.
+ * Once capacity is reached, the least recently used entry is evicted. Results that are complete, as they hold less
+ * terms than the limit of the query, also serve any longer prefix.
+ * 
+ * @author Christoph Strobl
+ */
+public class TermsPrefixCache {
+
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	private static final char KEY_SEPARATOR = '\u0000';
+
+	private final Map<String, CacheEntry> entries;
+	private final long timeToLiveMillis;
+
+	private long hitCount;
+	private long missCount;
+
+	/**
+	 * Create cache holding up to {@link #DEFAULT_CAPACITY} results
+	 * 
+	 * @param timeToLive
+	 * @param unit
+	 */
+	public TermsPrefixCache(long timeToLive, TimeUnit unit) {
+		this(DEFAULT_CAPACITY, timeToLive, unit);
+	}
+
+	/**
+	 * Create cache holding up to capacity results
+	 * 
+	 * @param capacity
+	 * @param timeToLive
+	 * @param unit
+	 */
+	public TermsPrefixCache(final int capacity, long timeToLive, TimeUnit unit) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than zero.");
+		Assert.isTrue(timeToLive > 0, "TimeToLive must be greater than zero.");
+		Assert.notNull(unit, "TimeUnit must not be null.");
+
+		this.timeToLiveMillis = unit.toMillis(timeToLive);
+		this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Get cached result for given query, or derive it from the complete result of a shorter prefix.
+	 * 
+	 * @param query
+	 * @return null if not cached
+	 */
+	public synchronized List<TermsEntry> get(TermsQuery query) {
+		Assert.notNull(query, "Query must not be null.");
+
+		long now = currentTimeMillis();
+		String prefix = query.getPrefix() != null ? query.getPrefix() : "";
+		CacheEntry entry = getValidEntry(createKey(query, prefix), now);
+		if (entry != null) {
+			hitCount++;
+			return entry.terms;
+		}
+
+		for (int length = prefix.length() - 1; length >= 0; length--) {
+			CacheEntry candidate = getValidEntry(createKey(query, prefix.substring(0, length)), now);
+			if (candidate != null && candidate.complete) {
+				List<TermsEntry> terms = filterByPrefix(candidate.terms, prefix);
+				entries.put(createKey(query, prefix), new CacheEntry(terms, true, candidate.expires));
+				hitCount++;
+				return terms;
+			}
+		}
+		missCount++;
+		return null;
+	}
+
+	/**
+	 * Cache result for given query
+	 * 
+	 * @param query
+	 * @param terms
+	 */
+	public synchronized void put(TermsQuery query, List<TermsEntry> terms) {
+		Assert.notNull(query, "Query must not be null.");
+		Assert.notNull(terms, "Terms must not be null.");
+
+		boolean complete = query.getLimit() < 0 || terms.size() < query.getLimit();
+		entries.put(createKey(query, query.getPrefix() != null ? query.getPrefix() : ""), new CacheEntry(
+				Collections.unmodifiableList(new ArrayList<TermsEntry>(terms)), complete, currentTimeMillis()
+						+ timeToLiveMillis));
+	}
+
+	/**
+	 * Remove all entries
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * @return nr of cached results including expired ones not evicted yet
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return nr of queries answered from cache
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return nr of queries that had to be sent to solr
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	protected long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+
+	private CacheEntry getValidEntry(String key, long now) {
+		CacheEntry entry = entries.get(key);
+		if (entry != null && entry.expires <= now) {
+			entries.remove(key);
+			return null;
+		}
+		return entry;
+	}
+
+	private static List<TermsEntry> filterByPrefix(List<TermsEntry> terms, String prefix) {
+		List<TermsEntry> filtered = new ArrayList<TermsEntry>();
+		for (TermsEntry term : terms) {
+			if (term.getTerm() != null && term.getTerm().startsWith(prefix)) {
+				filtered.add(term);
+			}
+		}
+		return Collections.unmodifiableList(filtered);
+	}
+
+	private static String createKey(TermsQuery query, String prefix) {
+		return new StringBuilder(query.getRequestHandler()).append(KEY_SEPARATOR).append(query.getField().getName())
+				.append(KEY_SEPARATOR).append(query.getLimit()).append(KEY_SEPARATOR).append(query.getMinCount())
+				.append(KEY_SEPARATOR).append(prefix).toString();
+	}
+
+	private static class CacheEntry {
+
+		private final List<TermsEntry> terms;
+		private final boolean complete;
+		private final long expires;
+
+		CacheEntry(List<TermsEntry> terms, boolean complete, long expires) {
+			this.terms = terms;
+			this.complete = complete;
+			this.expires = expires;
+		}
+
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.convert;
+
+/**
+ * Marker interface implemented by entities created by {@link MappingSolrConverter} in lazy loading mode. Properties of
+ * those entities are converted from the raw solr document on first access.
+ * 
+ * @author Christoph Strobl
+ */
+public interface LazyLoadingProxy {
+
+	/**
+	 * Convert all properties not yet loaded.
+	 */
+	void initialize();
+
+	/**
+	 * @return true if all properties have been loaded
+	 */
+	boolean isInitialized();
+
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.convert;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.solr.core.mapping.SolrPersistentEntity;
+import org.springframework.data.solr.core.mapping.SolrPersistentProperty;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Creates cglib generated subclasses of entities backed by the raw solr document. Each property is converted on first
+ * invocation of its getter and kept in the proxy afterwards. Invoking any other method than a property getter or setter
+ * converts all remaining properties before the actual method is called. <br />
+ * Types that cannot be subclassed (final, no default constructor) or make use of dynamic fields or
+ * {@link org.apache.solr.client.solrj.beans.Field} annotated setters are not proxied.
+ * 
+ * @author Christoph Strobl
+ */
+class LazyLoadingProxyFactory {
+
+	private static final ProxyMetadata NOT_PROXYABLE = new ProxyMetadata(null, new SolrPersistentProperty[0]);
+	private static final String DYNAMIC_FIELD_WILDCARD = "*";
+
+	private final MappingSolrConverter converter;
+	private final Map<Class<?>, ProxyMetadata> metadata = new ConcurrentHashMap<Class<?>, ProxyMetadata>();
+
+	LazyLoadingProxyFactory(MappingSolrConverter converter) {
+		Assert.notNull(converter);
+
+		this.converter = converter;
+	}
+
+	/**
+	 * @return true if cglib is present on the classpath
+	 */
+	static boolean isAvailable() {
+		return ClassUtils.isPresent("net.sf.cglib.proxy.Enhancer", LazyLoadingProxyFactory.class.getClassLoader());
+	}
+
+	/**
+	 * Create lazy loading proxy of given type for source
+	 * 
+	 * @param type
+	 * @param source
+	 * @return null if type cannot be proxied
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T createProxy(Class<T> type, Map<String, ?> source) {
+		ProxyMetadata proxyMetadata = getProxyMetadata(type);
+		if (!proxyMetadata.isProxyable()) {
+			return null;
+		}
+		return (T) proxyMetadata.getPrototype().newInstance(new LazyLoadingInterceptor(proxyMetadata, source));
+	}
+
+	private ProxyMetadata getProxyMetadata(Class<?> type) {
+		ProxyMetadata proxyMetadata = metadata.get(type);
+		if (proxyMetadata == null) {
+			proxyMetadata = resolveProxyMetadata(type);
+			metadata.put(type, proxyMetadata);
+		}
+		return proxyMetadata;
+	}
+
+	private ProxyMetadata resolveProxyMetadata(Class<?> type) {
+		if (type.isInterface() || Modifier.isFinal(type.getModifiers()) || !ClassUtils.hasConstructor(type)
+				|| hasAnnotatedMethods(type)) {
+			return NOT_PROXYABLE;
+		}
+
+		SolrPersistentEntity<?> entity;
+		try {
+			entity = converter.getMappingContext().getPersistentEntity(type);
+		} catch (MappingException e) {
+			return NOT_PROXYABLE;
+		}
+		if (entity == null) {
+			return NOT_PROXYABLE;
+		}
+
+		final List<SolrPersistentProperty> properties = new ArrayList<SolrPersistentProperty>();
+		final boolean[] dynamicFields = new boolean[1];
+		entity.doWithProperties(new PropertyHandler<SolrPersistentProperty>() {
+
+			@Override
+			public void doWithPersistentProperty(SolrPersistentProperty property) {
+				if (property.getField() == null
+						|| !property.getField().isAnnotationPresent(org.apache.solr.client.solrj.beans.Field.class)) {
+					return;
+				}
+				if (property.isMap() || property.getFieldName().contains(DYNAMIC_FIELD_WILDCARD)) {
+					dynamicFields[0] = true;
+				}
+				properties.add(property);
+			}
+		});
+		if (dynamicFields[0]) {
+			return NOT_PROXYABLE;
+		}
+
+		try {
+			Enhancer enhancer = new Enhancer();
+			enhancer.setSuperclass(type);
+			enhancer.setInterfaces(new Class<?>[] { LazyLoadingProxy.class });
+			enhancer.setCallback(new LazyLoadingInterceptor(NOT_PROXYABLE, null));
+			enhancer.setClassLoader(type.getClassLoader());
+			Factory prototype = (Factory) enhancer.create();
+
+			return new ProxyMetadata(prototype, properties.toArray(new SolrPersistentProperty[properties.size()]));
+		} catch (RuntimeException e) {
+			return NOT_PROXYABLE;
+		}
+	}
+
+	private static boolean hasAnnotatedMethods(Class<?> type) {
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (Method method : current.getDeclaredMethods()) {
+				if (method.isAnnotationPresent(org.apache.solr.client.solrj.beans.Field.class)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Properties and generated prototype of a single proxied type
+	 */
+	private static class ProxyMetadata {
+
+		private final Factory prototype;
+		private final SolrPersistentProperty[] properties;
+		private final Field[] fields;
+		private final TypeDescriptor[] typeDescriptors;
+		private final Map<String, Integer> getters = new HashMap<String, Integer>();
+		private final Map<String, Integer> setters = new HashMap<String, Integer>();
+
+		ProxyMetadata(Factory prototype, SolrPersistentProperty[] properties) {
+			this.prototype = prototype;
+			this.properties = properties;
+			this.fields = new Field[properties.length];
+			this.typeDescriptors = new TypeDescriptor[properties.length];
+
+			for (int i = 0; i < properties.length; i++) {
+				SolrPersistentProperty property = properties[i];
+				fields[i] = property.getField();
+				ReflectionUtils.makeAccessible(fields[i]);
+				typeDescriptors[i] = new TypeDescriptor(fields[i]);
+				if (property.getGetter() != null) {
+					getters.put(property.getGetter().getName(), i);
+				}
+				if (property.getSetter() != null) {
+					setters.put(property.getSetter().getName(), i);
+				}
+			}
+		}
+
+		boolean isProxyable() {
+			return this.prototype != null;
+		}
+
+		Factory getPrototype() {
+			return this.prototype;
+		}
+
+		int size() {
+			return this.properties.length;
+		}
+
+		String getFieldName(int index) {
+			return this.properties[index].getFieldName();
+		}
+
+		Field getField(int index) {
+			return this.fields[index];
+		}
+
+		TypeDescriptor getTypeDescriptor(int index) {
+			return this.typeDescriptors[index];
+		}
+
+		Integer getGetterIndex(String methodName) {
+			return this.getters.get(methodName);
+		}
+
+		Integer getSetterIndex(String methodName) {
+			return this.setters.get(methodName);
+		}
+
+	}
+
+	/**
+	 * {@link MethodInterceptor} holding the raw solr values of a single proxy instance. The reference to the raw values
+	 * is released as soon as all properties have been loaded.
+	 */
+	private class LazyLoadingInterceptor implements MethodInterceptor {
+
+		private final ProxyMetadata proxyMetadata;
+		private final boolean[] loaded;
+		private Map<String, ?> source;
+		private int pending;
+
+		LazyLoadingInterceptor(ProxyMetadata proxyMetadata, Map<String, ?> source) {
+			this.proxyMetadata = proxyMetadata;
+			this.loaded = new boolean[proxyMetadata.size()];
+			this.source = source;
+			this.pending = proxyMetadata.size();
+		}
+
+		@Override
+		public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+			if (LazyLoadingProxy.class.equals(method.getDeclaringClass())) {
+				if ("isInitialized".equals(method.getName())) {
+					return isInitialized();
+				}
+				initialize(proxy);
+				return null;
+			}
+
+			Integer index = null;
+			if (args.length == 0 && (index = proxyMetadata.getGetterIndex(method.getName())) != null) {
+				load(proxy, index);
+			} else if (args.length == 1 && (index = proxyMetadata.getSetterIndex(method.getName())) != null) {
+				markLoaded(index);
+			} else {
+				initialize(proxy);
+			}
+			return methodProxy.invokeSuper(proxy, args);
+		}
+
+		synchronized boolean isInitialized() {
+			return pending == 0;
+		}
+
+		synchronized void initialize(Object proxy) {
+			for (int i = 0; pending > 0 && i < loaded.length; i++) {
+				load(proxy, i);
+			}
+		}
+
+		private synchronized void load(Object proxy, int index) {
+			if (loaded[index]) {
+				return;
+			}
+
+			Object value = converter.readValue(source.get(proxyMetadata.getFieldName(index)),
+					proxyMetadata.getTypeDescriptor(index));
+			if (value != null) {
+				ReflectionUtils.setField(proxyMetadata.getField(index), proxy, value);
+			}
+			markLoaded(index);
+		}
+
+		private synchronized void markLoaded(int index) {
+			if (!loaded[index]) {
+				loaded[index] = true;
+				if (--pending == 0) {
+					source = null;
+				}
+			}
+		}
+
+	}
+
+}
@@ -15,19 +15,34 @@
  */
 package org.springframework.data.solr.core.convert;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.SolrInputField;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.data.mapping.PropertyHandler;
 import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mapping.model.BeanWrapper;
+import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.solr.SolrServerFactory;
+import org.springframework.data.solr.core.convert.ProjectionInformation.ProjectedProperty;
 import org.springframework.data.solr.core.mapping.SolrPersistentEntity;
 import org.springframework.data.solr.core.mapping.SolrPersistentProperty;
 import org.springframework.data.util.ClassTypeInformation;
@@ -41,10 +56,15 @@ public class MappingSolrConverter implements SolrConverter, ApplicationContextAw
 
 	private final MappingContext<? extends SolrPersistentEntity<?>, SolrPersistentProperty> mappingContext;
 	private final GenericConversionService conversionService;
+	private final Map<Class<?>, List<SolrPersistentProperty>> primitiveArrayProperties = new ConcurrentHashMap<Class<?>,
+			List<SolrPersistentProperty>>();
+	private final Map<List<Class<?>>, ProjectionInformation> projections = new ConcurrentHashMap<List<Class<?>>,
+			ProjectionInformation>();
 
 	@SuppressWarnings("unused")
 	private ApplicationContext applicationContext;
 	private SolrServerFactory solrServerFactory;
+	private LazyLoadingProxyFactory lazyLoadingProxyFactory;
 
 	public MappingSolrConverter(SolrServerFactory solrServerFactory,
 			MappingContext<? extends SolrPersistentEntity<?>, SolrPersistentProperty> mappingContext) {
@@ -66,6 +86,28 @@ public class MappingSolrConverter implements SolrConverter, ApplicationContextAw
 		return this.conversionService;
 	}
 
+	/**
+	 * Enable/Disable lazy loading of entities. If enabled entities are returned as {@link LazyLoadingProxy} converting
+	 * values of the raw solr document on first access. Requires cglib to be present on the classpath, entities are read
+	 * eagerly otherwise.
+	 * 
+	 * @param lazyLoading
+	 */
+	public void setLazyLoading(boolean lazyLoading) {
+		if (lazyLoading && LazyLoadingProxyFactory.isAvailable()) {
+			this.lazyLoadingProxyFactory = new LazyLoadingProxyFactory(this);
+		} else {
+			this.lazyLoadingProxyFactory = null;
+		}
+	}
+
+	/**
+	 * @return true if entities are read using {@link LazyLoadingProxy}
+	 */
+	public boolean isLazyLoading() {
+		return this.lazyLoadingProxyFactory != null;
+	}
+
 	@Override
 	public <R> R read(Class<R> type, Map<String, ?> source) {
 		return read(ClassTypeInformation.from(type), source);
@@ -74,11 +116,93 @@ public class MappingSolrConverter implements SolrConverter, ApplicationContextAw
 	protected <S extends Object> S read(TypeInformation<S> targetTypeInformation, Map<String, ?> source) {
 		Class<S> rawType = targetTypeInformation.getType();
 
+		if (lazyLoadingProxyFactory != null && source != null) {
+			S proxy = lazyLoadingProxyFactory.createProxy(rawType, source);
+			if (proxy != null) {
+				return proxy;
+			}
+		}
+
 		if (!conversionService.canConvert(SolrDocument.class, rawType)) {
 			initializeTypedConverter(source, rawType);
 		}
 
-		return conversionService.convert(source, rawType);
+		List<SolrPersistentProperty> arrayProperties = getPrimitiveArrayProperties(rawType);
+		if (arrayProperties.isEmpty()) {
+			return conversionService.convert(source, rawType);
+		}
+
+		S target = conversionService.convert(new PrimitiveArrayHidingDocument(source, arrayProperties), rawType);
+		readPrimitiveArrays(target, arrayProperties, source);
+		return target;
+	}
+
+	@Override
+	public <R> R readProjection(Class<R> projectionType, Class<?> domainType, Map<String, ?> source) {
+		Assert.notNull(projectionType, "ProjectionType must not be null.");
+
+		if (source == null) {
+			return null;
+		}
+
+		ProjectionInformation projection = getProjectionInformation(projectionType, domainType);
+		if (projection.isInterfaceProjection()) {
+			Map<Method, Object> values = new LinkedHashMap<Method, Object>(projection.getProperties().size());
+			for (ProjectedProperty property : projection.getProperties()) {
+				values.put(property.getGetter(), readValue(source.get(property.getFieldName()), property.getTypeDescriptor()));
+			}
+			return ProjectingInvocationHandler.createProxy(projectionType, values);
+		}
+
+		R target = BeanUtils.instantiateClass(projectionType);
+		BeanWrapper<SolrPersistentEntity<Object>, Object> wrapper = BeanWrapper.create((Object) target, conversionService);
+		for (ProjectedProperty property : projection.getProperties()) {
+			Object value = readValue(source.get(property.getFieldName()), property.getTypeDescriptor());
+			if (value != null) {
+				wrapper.setProperty(property.getPersistentProperty(), value);
+			}
+		}
+		return target;
+	}
+
+	@Override
+	public List<String> getProjectionFieldNames(Class<?> projectionType, Class<?> domainType) {
+		Assert.notNull(projectionType, "ProjectionType must not be null.");
+
+		return getProjectionInformation(projectionType, domainType).getFieldNames();
+	}
+
+	/**
+	 * Convert a raw value as returned by solr into the given target type
+	 * 
+	 * @param value
+	 * @param targetType
+	 * @return null if value is null
+	 */
+	protected Object readValue(Object value, TypeDescriptor targetType) {
+		if (value == null) {
+			return null;
+		}
+		if (PrimitiveArrays.isPrimitiveArray(targetType.getType())) {
+			return PrimitiveArrays.toPrimitiveArray(value, targetType.getType().getComponentType());
+		}
+		return conversionService.convert(value, TypeDescriptor.forObject(value), targetType);
+	}
+
+	private ProjectionInformation getProjectionInformation(Class<?> projectionType, Class<?> domainType) {
+		List<Class<?>> key = Arrays.<Class<?>> asList(projectionType, domainType);
+		ProjectionInformation projection = projections.get(key);
+		if (projection == null) {
+			SolrPersistentEntity<?> domainEntity = domainType != null ? mappingContext.getPersistentEntity(domainType)
+					: null;
+			if (projectionType.isInterface()) {
+				projection = ProjectionInformation.forInterface(projectionType, domainEntity);
+			} else {
+				projection = ProjectionInformation.forClass(mappingContext.getPersistentEntity(projectionType), domainEntity);
+			}
+			projections.put(key, projection);
+		}
+		return projection;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -87,11 +211,66 @@ public class MappingSolrConverter implements SolrConverter, ApplicationContextAw
 		if (source == null) {
 			return;
 		}
+		if (source instanceof LazyLoadingProxy) {
+			((LazyLoadingProxy) source).initialize();
+		}
 
 		SolrInputDocument convertedDocument = conversionService.convert(source, SolrInputDocument.class);
+		writePrimitiveArrays(convertedDocument);
 		target.putAll(convertedDocument);
 	}
 
+	private void writePrimitiveArrays(SolrInputDocument document) {
+		for (SolrInputField field : document.values()) {
+			if (PrimitiveArrays.isPrimitiveArray(field.getValue())) {
+				field.setValue(PrimitiveArrays.asList(field.getValue()), field.getBoost());
+			}
+		}
+	}
+
+	private void readPrimitiveArrays(Object target, List<SolrPersistentProperty> properties, Map<String, ?> source) {
+		BeanWrapper<SolrPersistentEntity<Object>, Object> wrapper = BeanWrapper.create(target, conversionService);
+		for (SolrPersistentProperty property : properties) {
+			Object value = source.get(property.getFieldName());
+			if (value != null) {
+				wrapper.setProperty(property, PrimitiveArrays.toPrimitiveArray(value, property.getType().getComponentType()));
+			}
+		}
+	}
+
+	private List<SolrPersistentProperty> getPrimitiveArrayProperties(Class<?> type) {
+		List<SolrPersistentProperty> properties = primitiveArrayProperties.get(type);
+		if (properties == null) {
+			properties = resolvePrimitiveArrayProperties(type);
+			primitiveArrayProperties.put(type, properties);
+		}
+		return properties;
+	}
+
+	private List<SolrPersistentProperty> resolvePrimitiveArrayProperties(Class<?> type) {
+		SolrPersistentEntity<?> entity;
+		try {
+			entity = mappingContext.getPersistentEntity(type);
+		} catch (MappingException e) {
+			return Collections.emptyList();
+		}
+		if (entity == null) {
+			return Collections.emptyList();
+		}
+
+		final List<SolrPersistentProperty> properties = new ArrayList<SolrPersistentProperty>();
+		entity.doWithProperties(new PropertyHandler<SolrPersistentProperty>() {
+
+			@Override
+			public void doWithPersistentProperty(SolrPersistentProperty property) {
+				if (PrimitiveArrays.isPrimitiveArray(property.getType())) {
+					properties.add(property);
+				}
+			}
+		});
+		return properties.isEmpty() ? Collections.<SolrPersistentProperty> emptyList() : properties;
+	}
+
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
@@ -114,4 +293,36 @@ public class MappingSolrConverter implements SolrConverter, ApplicationContextAw
 				new SolrjConverters.SolrInputDocumentToObjectConverter<S>((Class<S>) rawType));
 	}
 
+	/**
+	 * Read only view on a source document hiding the values of primitive array properties from the solrj
+	 * DocumentObjectBinder, which cannot bind those. Values are read from the source directly instead of copying them.
+	 */
+	@SuppressWarnings("serial")
+	private static class PrimitiveArrayHidingDocument extends SolrDocument {
+
+		private final Map<String, ?> source;
+		private final List<SolrPersistentProperty> hiddenProperties;
+
+		PrimitiveArrayHidingDocument(Map<String, ?> source, List<SolrPersistentProperty> hiddenProperties) {
+			this.source = source;
+			this.hiddenProperties = hiddenProperties;
+		}
+
+		@Override
+		public Object getFieldValue(String name) {
+			for (SolrPersistentProperty property : hiddenProperties) {
+				if (property.getFieldName().equals(name)) {
+					return null;
+				}
+			}
+			return source.get(name);
+		}
+
+		@Override
+		public Collection<String> getFieldNames() {
+			return Collections.unmodifiableCollection(source.keySet());
+		}
+
+	}
+
 }
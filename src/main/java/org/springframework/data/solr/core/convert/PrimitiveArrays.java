@@ -0,0 +1,176 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.convert;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.springframework.util.Assert;
+
+/**
+ * Binds multi valued numeric fields directly from and to primitive arrays ({@code int[]}, {@code long[]},
+ * {@code double[]},...). The solrj DocumentObjectBinder is not capable of handling those, and would otherwise require
+ * boxed collections.
+ * 
+ * @author Christoph Strobl
+ */
+final class PrimitiveArrays {
+
+	private PrimitiveArrays() {
+
+	}
+
+	/**
+	 * @param type
+	 * @return true if given type is an array of primitives. {@code byte[]} is excluded as it is treated as binary value.
+	 */
+	static boolean isPrimitiveArray(Class<?> type) {
+		return type != null && type.isArray() && type.getComponentType().isPrimitive()
+				&& !byte.class.equals(type.getComponentType());
+	}
+
+	/**
+	 * @param value
+	 * @return true if given value is an array of primitives
+	 */
+	static boolean isPrimitiveArray(Object value) {
+		return value != null && isPrimitiveArray(value.getClass());
+	}
+
+	/**
+	 * Create a read only {@link List} view on the given primitive array. Elements are boxed on access only, so no
+	 * intermediate collection is created when writing values to solr.
+	 * 
+	 * @param array
+	 * @return
+	 */
+	static List<Object> asList(Object array) {
+		Assert.isTrue(isPrimitiveArray(array), "Argument has to be an array of primitives.");
+
+		return new PrimitiveArrayList(array);
+	}
+
+	/**
+	 * Copy the values of the given source into a new array of componentType.
+	 * 
+	 * @param source single {@link Number}, {@link Collection} or array of values as returned by solr
+	 * @param componentType the primitive component type of the resulting array
+	 * @return null if source is null
+	 */
+	static Object toPrimitiveArray(Object source, Class<?> componentType) {
+		Assert.notNull(componentType, "ComponentType must not be null.");
+		Assert.isTrue(componentType.isPrimitive() && !byte.class.equals(componentType), "ComponentType has to be primitive.");
+
+		if (source == null) {
+			return null;
+		}
+		if (source.getClass().isArray() && source.getClass().getComponentType().equals(componentType)) {
+			return source;
+		}
+
+		if (source instanceof Collection) {
+			Collection<?> values = (Collection<?>) source;
+			Object target = Array.newInstance(componentType, values.size());
+			int index = 0;
+			for (Iterator<?> it = values.iterator(); it.hasNext(); index++) {
+				setElement(target, index, it.next(), componentType);
+			}
+			return target;
+		}
+		if (source.getClass().isArray()) {
+			int length = Array.getLength(source);
+			Object target = Array.newInstance(componentType, length);
+			for (int index = 0; index < length; index++) {
+				setElement(target, index, Array.get(source, index), componentType);
+			}
+			return target;
+		}
+
+		Object target = Array.newInstance(componentType, 1);
+		setElement(target, 0, source, componentType);
+		return target;
+	}
+
+	private static void setElement(Object target, int index, Object value, Class<?> componentType) {
+		if (value == null) {
+			return;
+		}
+		if (componentType == boolean.class) {
+			((boolean[]) target)[index] = value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString());
+		} else if (componentType == char.class) {
+			((char[]) target)[index] = value instanceof Character ? (Character) value : value.toString().charAt(0);
+		} else if (componentType == int.class) {
+			((int[]) target)[index] = (int) toLong(value);
+		} else if (componentType == long.class) {
+			((long[]) target)[index] = toLong(value);
+		} else if (componentType == short.class) {
+			((short[]) target)[index] = (short) toLong(value);
+		} else {
+			Number number = value instanceof Number ? (Number) value : Double.valueOf(value.toString());
+			if (componentType == double.class) {
+				((double[]) target)[index] = number.doubleValue();
+			} else if (componentType == float.class) {
+				((float[]) target)[index] = number.floatValue();
+			}
+		}
+	}
+
+	/**
+	 * Integral values are not converted via double, which cannot represent longs exceeding 2^53 exactly.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	private static long toLong(Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		String text = value.toString();
+		try {
+			return Long.parseLong(text);
+		} catch (NumberFormatException e) {
+			return new BigDecimal(text).longValue();
+		}
+	}
+
+	private static class PrimitiveArrayList extends AbstractList<Object> implements RandomAccess {
+
+		private final Object array;
+		private final int size;
+
+		PrimitiveArrayList(Object array) {
+			this.array = array;
+			this.size = Array.getLength(array);
+		}
+
+		@Override
+		public Object get(int index) {
+			return Array.get(array, index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
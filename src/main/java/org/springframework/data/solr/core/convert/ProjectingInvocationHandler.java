@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.convert;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link InvocationHandler} backing interface based projections. Getter invocations are answered from the already
+ * converted property values.
+ * 
+ * @author Christoph Strobl
+ */
+class ProjectingInvocationHandler implements InvocationHandler {
+
+	private final Class<?> projectionType;
+	private final Map<Method, Object> values;
+
+	ProjectingInvocationHandler(Class<?> projectionType, Map<Method, Object> values) {
+		this.projectionType = projectionType;
+		this.values = values;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> T createProxy(Class<T> projectionType, Map<Method, Object> values) {
+		return (T) Proxy.newProxyInstance(ClassUtils.getDefaultClassLoader(), new Class<?>[] { projectionType },
+				new ProjectingInvocationHandler(projectionType, values));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (ReflectionUtils.isEqualsMethod(method)) {
+			return proxy == args[0];
+		}
+		if (ReflectionUtils.isHashCodeMethod(method)) {
+			return System.identityHashCode(proxy);
+		}
+		if (ReflectionUtils.isToStringMethod(method)) {
+			return projectionType.getSimpleName() + values.values();
+		}
+		if (!values.containsKey(method)) {
+			throw new UnsupportedOperationException("Method '" + method.getName() + "' is not a projected property of "
+					+ projectionType.getName() + ".");
+		}
+
+		Object value = values.get(method);
+		if (value == null && method.getReturnType().isPrimitive()) {
+			return getDefaultValue(method.getReturnType());
+		}
+		return value;
+	}
+
+	private static Object getDefaultValue(Class<?> primitiveType) {
+		return Array.get(Array.newInstance(primitiveType, 1), 0);
+	}
+
+}
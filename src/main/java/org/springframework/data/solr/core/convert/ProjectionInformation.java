@@ -0,0 +1,215 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.convert;
+
+import java.beans.Introspector;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.solr.core.mapping.SolrPersistentEntity;
+import org.springframework.data.solr.core.mapping.SolrPersistentProperty;
+import org.springframework.util.Assert;
+
+/**
+ * Holds the properties of a projection type, that is an interface or DTO exposing a subset of the properties of a domain
+ * type, along with the solr field names backing them. Field names are resolved via the domain type mapping, unless the
+ * property of a DTO is explicitly annotated with {@link org.apache.solr.client.solrj.beans.Field}.
+ * 
+ * @author Christoph Strobl
+ */
+final class ProjectionInformation {
+
+	private static final String GETTER_PREFIX = "get";
+	private static final String BOOLEAN_GETTER_PREFIX = "is";
+
+	private final Class<?> projectionType;
+	private final List<ProjectedProperty> properties;
+	private final List<String> fieldNames;
+
+	private ProjectionInformation(Class<?> projectionType, List<ProjectedProperty> properties) {
+		this.projectionType = projectionType;
+		this.properties = Collections.unmodifiableList(properties);
+
+		List<String> names = new ArrayList<String>(properties.size());
+		for (ProjectedProperty property : properties) {
+			if (!names.contains(property.getFieldName())) {
+				names.add(property.getFieldName());
+			}
+		}
+		this.fieldNames = Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Create {@link ProjectionInformation} for an interface based projection. Each getter method is considered a
+	 * projected property.
+	 * 
+	 * @param projectionType
+	 * @param domainEntity may be null
+	 * @return
+	 */
+	static ProjectionInformation forInterface(Class<?> projectionType, SolrPersistentEntity<?> domainEntity) {
+		Assert.isTrue(projectionType.isInterface(), "ProjectionType has to be an interface.");
+
+		List<ProjectedProperty> properties = new ArrayList<ProjectedProperty>();
+		for (Method method : projectionType.getMethods()) {
+			String propertyName = getPropertyName(method);
+			if (propertyName != null) {
+				properties.add(new ProjectedProperty(propertyName, resolveFieldName(propertyName, null, domainEntity),
+						new TypeDescriptor(new MethodParameter(method, -1)), method, null));
+			}
+		}
+		return new ProjectionInformation(projectionType, properties);
+	}
+
+	/**
+	 * Create {@link ProjectionInformation} for a class based projection (DTO).
+	 * 
+	 * @param projectionEntity
+	 * @param domainEntity may be null
+	 * @return
+	 */
+	static ProjectionInformation forClass(SolrPersistentEntity<?> projectionEntity,
+			final SolrPersistentEntity<?> domainEntity) {
+		Assert.notNull(projectionEntity);
+
+		final List<ProjectedProperty> properties = new ArrayList<ProjectedProperty>();
+		projectionEntity.doWithProperties(new PropertyHandler<SolrPersistentProperty>() {
+
+			@Override
+			public void doWithPersistentProperty(SolrPersistentProperty property) {
+				properties.add(new ProjectedProperty(property.getName(), resolveFieldName(property.getName(), property,
+						domainEntity), new TypeDescriptor(property.getField()), null, property));
+			}
+		});
+		return new ProjectionInformation(projectionEntity.getType(), properties);
+	}
+
+	private static String resolveFieldName(String propertyName, SolrPersistentProperty projectedProperty,
+			SolrPersistentEntity<?> domainEntity) {
+		if (projectedProperty != null && isSolrFieldAnnotated(projectedProperty)) {
+			return projectedProperty.getFieldName();
+		}
+		if (domainEntity != null) {
+			SolrPersistentProperty domainProperty = domainEntity.getPersistentProperty(propertyName);
+			if (domainProperty != null) {
+				return domainProperty.getFieldName();
+			}
+		}
+		return projectedProperty != null ? projectedProperty.getFieldName() : propertyName;
+	}
+
+	private static boolean isSolrFieldAnnotated(SolrPersistentProperty property) {
+		return property.getField() != null
+				&& property.getField().isAnnotationPresent(org.apache.solr.client.solrj.beans.Field.class);
+	}
+
+	private static String getPropertyName(Method method) {
+		if (method.getParameterTypes().length > 0 || Void.TYPE.equals(method.getReturnType())) {
+			return null;
+		}
+		String name = method.getName();
+		if (name.startsWith(GETTER_PREFIX) && name.length() > GETTER_PREFIX.length()) {
+			return Introspector.decapitalize(name.substring(GETTER_PREFIX.length()));
+		}
+		if (name.startsWith(BOOLEAN_GETTER_PREFIX) && name.length() > BOOLEAN_GETTER_PREFIX.length()
+				&& (boolean.class.equals(method.getReturnType()) || Boolean.class.equals(method.getReturnType()))) {
+			return Introspector.decapitalize(name.substring(BOOLEAN_GETTER_PREFIX.length()));
+		}
+		return null;
+	}
+
+	/**
+	 * @return the projection type
+	 */
+	Class<?> getProjectionType() {
+		return this.projectionType;
+	}
+
+	/**
+	 * @return true if projection type is an interface
+	 */
+	boolean isInterfaceProjection() {
+		return this.projectionType.isInterface();
+	}
+
+	/**
+	 * @return solr field names required to populate projection. Corresponds to the 'fl' parameter in solr.
+	 */
+	List<String> getFieldNames() {
+		return this.fieldNames;
+	}
+
+	/**
+	 * @return all projected properties
+	 */
+	List<ProjectedProperty> getProperties() {
+		return this.properties;
+	}
+
+	/**
+	 * A single property of a projection type
+	 */
+	static class ProjectedProperty {
+
+		private final String name;
+		private final String fieldName;
+		private final TypeDescriptor typeDescriptor;
+		private final Method getter;
+		private final SolrPersistentProperty persistentProperty;
+
+		ProjectedProperty(String name, String fieldName, TypeDescriptor typeDescriptor, Method getter,
+				SolrPersistentProperty persistentProperty) {
+			this.name = name;
+			this.fieldName = fieldName;
+			this.typeDescriptor = typeDescriptor;
+			this.getter = getter;
+			this.persistentProperty = persistentProperty;
+		}
+
+		String getName() {
+			return this.name;
+		}
+
+		String getFieldName() {
+			return this.fieldName;
+		}
+
+		TypeDescriptor getTypeDescriptor() {
+			return this.typeDescriptor;
+		}
+
+		/**
+		 * @return the getter method for interface projections, null otherwise
+		 */
+		Method getGetter() {
+			return this.getter;
+		}
+
+		/**
+		 * @return the persistent property for class projections, null otherwise
+		 */
+		SolrPersistentProperty getPersistentProperty() {
+			return this.persistentProperty;
+		}
+
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package org.springframework.data.solr.core.convert;
 
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.data.convert.EntityConverter;
@@ -32,4 +33,24 @@ public interface SolrConverter extends
 EntityConverter<SolrPersistentEntity<?>, SolrPersistentProperty, Object, Map<String, ?>>,
 		EntityWriter<Object, Map<String, ?>>, EntityReader<Object, Map<String, ?>> {
 
+	/**
+	 * Read given source into an instance of projectionType. The projection type may either be an interface exposing
+	 * getters for a subset of the domain type properties or a class (DTO) holding those properties.
+	 * 
+	 * @param projectionType
+	 * @param domainType the domain type used to resolve field names of projected properties
+	 * @param source
+	 * @return
+	 */
+	<R> R readProjection(Class<R> projectionType, Class<?> domainType, Map<String, ?> source);
+
+	/**
+	 * Get the names of all solr fields required to populate the given projection type.
+	 * 
+	 * @param projectionType
+	 * @param domainType the domain type used to resolve field names of projected properties
+	 * @return
+	 */
+	List<String> getProjectionFieldNames(Class<?> projectionType, Class<?> domainType);
+
 }
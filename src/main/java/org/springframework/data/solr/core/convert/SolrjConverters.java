@@ -78,6 +78,9 @@ final class SolrjConverters {
 			if (source == null) {
 				return null;
 			}
+			if (source instanceof SolrDocument) {
+				return documentObejctBinder.getBean(clazz, (SolrDocument) source);
+			}
 			SolrDocument document = new SolrDocument();
 			document.putAll(source);
 
@@ -15,6 +15,7 @@
  */
 package org.springframework.data.solr.core.query;
 
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.util.Assert;
 
 /**
@@ -25,6 +26,7 @@ import org.springframework.util.Assert;
 class AbstractQuery {
 
 	private Criteria criteria;
+	private volatile boolean frozen = false;
 
 	AbstractQuery() {
 	}
@@ -36,6 +38,7 @@ class AbstractQuery {
 	@SuppressWarnings("unchecked")
 	public final <T extends SolrDataQuery> T addCriteria(Criteria criteria) {
 		Assert.notNull(criteria, "Cannot add null criteria.");
+		assertNotFrozen();
 		if (!(criteria instanceof SimpleStringCriteria)) {
 			Assert.notNull(criteria.getField(), "Cannot add criteria for null field.");
 			Assert.hasText(criteria.getField().getName(), "Criteria.field.name must not be null/empty.");
@@ -53,4 +56,28 @@ class AbstractQuery {
 		return this.criteria;
 	}
 
+	/**
+	 * Make query immutable. Criteria is frozen along with the query.
+	 * 
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends SolrDataQuery> T freeze() {
+		if (this.criteria != null) {
+			this.criteria.freeze();
+		}
+		this.frozen = true;
+		return (T) this;
+	}
+
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	protected final void assertNotFrozen() {
+		if (this.frozen) {
+			throw new InvalidDataAccessApiUsageException("Cannot modify frozen query.");
+		}
+	}
+
 }
@@ -18,11 +18,14 @@ package org.springframework.data.solr.core.query;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.springframework.core.convert.converter.Converter;
@@ -34,6 +37,7 @@ import org.springframework.data.solr.core.convert.NumberConverters;
 import org.springframework.data.solr.core.geo.Distance;
 import org.springframework.data.solr.core.geo.GeoLocation;
 import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
 
 /**
  * Criteria is the central class when constructing queries. It follows more or less a fluent API style, which allows to
@@ -56,33 +60,26 @@ public class Criteria implements QueryStringHolder {
 	private static final String[] RESERVED_CHARS_REPLACEMENT = { "\\" + DOUBLEQUOTE, "\\+", "\\-", "\\&\\&", "\\|\\|",
 			"\\!", "\\(", "\\)", "\\{", "\\}", "\\[", "\\]", "\\^", "\\~", "\\*", "\\?", "\\:", "\\\\" };
 
-	private final GenericConversionService conversionService = new GenericConversionService();
+	private static final GenericConversionService DEFAULT_CONVERSION_SERVICE = createDefaultConversionService();
+
+	/**
+	 * Never modified once created, so it can be shared among copies. Registering a converter replaces it.
+	 */
+	private GenericConversionService conversionService = DEFAULT_CONVERSION_SERVICE;
+	private List<Converter<?, ?>> registeredConverters = Collections.emptyList();
 
 	private Field field;
 	private float boost = Float.NaN;
 	private boolean negating = false;
+	private boolean filter = false;
 
 	private List<Criteria> criteriaChain = new ArrayList<Criteria>(1);
 
 	private Set<CriteriaEntry> criteria = new LinkedHashSet<CriteriaEntry>();
 
-	{
-		if (!conversionService.canConvert(java.util.Date.class, String.class)) {
-			conversionService.addConverter(DateTimeConverters.JavaDateConverter.INSTANCE);
-		}
-		if (!conversionService.canConvert(org.joda.time.ReadableInstant.class, String.class)) {
-			conversionService.addConverter(DateTimeConverters.JodaDateTimeConverter.INSTANCE);
-		}
-		if (!conversionService.canConvert(org.joda.time.LocalDateTime.class, String.class)) {
-			conversionService.addConverter(DateTimeConverters.JodaLocalDateTimeConverter.INSTANCE);
-		}
-		if (!conversionService.canConvert(Number.class, String.class)) {
-			conversionService.addConverter(NumberConverters.NumberConverter.INSTANCE);
-		}
-		if (!conversionService.canConvert(GeoLocation.class, String.class)) {
-			conversionService.addConverter(GeoConverters.GeoLocationToStringConverter.INSTANCE);
-		}
-	}
+	private volatile boolean frozen = false;
+	private volatile String frozenQueryString;
+	private volatile ExtractedFilterQueries frozenFilterQueries;
 
 	public Criteria() {
 	}
@@ -170,6 +167,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria and(Criteria criteria) {
+		assertNotFrozen();
 		this.criteriaChain.add(criteria);
 		return this;
 	}
@@ -181,6 +179,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria and(Criteria... criterias) {
+		assertNotFrozen();
 		this.criteriaChain.addAll(Arrays.asList(criterias));
 		return this;
 	}
@@ -226,6 +225,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria is(Object o) {
+		assertNotFrozen();
 		criteria.add(new CriteriaEntry(OperationKey.EQUALS, o));
 		return this;
 	}
@@ -238,6 +238,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria contains(String s) {
+		assertNotFrozen();
 		assertNoBlankInWildcardedQuery(s, true, true);
 		criteria.add(new CriteriaEntry(OperationKey.CONTAINS, s));
 		return this;
@@ -250,6 +251,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria startsWith(String s) {
+		assertNotFrozen();
 		assertNoBlankInWildcardedQuery(s, true, false);
 		criteria.add(new CriteriaEntry(OperationKey.STARTS_WITH, s));
 		return this;
@@ -263,6 +265,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria endsWith(String s) {
+		assertNotFrozen();
 		assertNoBlankInWildcardedQuery(s, false, true);
 		criteria.add(new CriteriaEntry(OperationKey.ENDS_WITH, s));
 		return this;
@@ -275,6 +278,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria not() {
+		assertNotFrozen();
 		this.negating = true;
 		return this;
 	}
@@ -297,6 +301,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria fuzzy(String s, float levenshteinDistance) {
+		assertNotFrozen();
 		if (!Float.isNaN(levenshteinDistance)) {
 			if (levenshteinDistance < 0 || levenshteinDistance > 1) {
 				throw new InvalidDataAccessApiUsageException("Levenshtein Distance has to be within its bounds (0.0 - 1.0).");
@@ -313,6 +318,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria expression(String s) {
+		assertNotFrozen();
 		criteria.add(new CriteriaEntry(OperationKey.EXPRESSION, s));
 		return this;
 	}
@@ -324,6 +330,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria boost(float boost) {
+		assertNotFrozen();
 		if (boost < 0) {
 			throw new InvalidDataAccessApiUsageException("Boost must not be negative.");
 		}
@@ -331,6 +338,24 @@ public class Criteria implements QueryStringHolder {
 		return this;
 	}
 
+	/**
+	 * Mark criteria as filter, so that it is sent as separate filter query and does not contribute to the score.
+	 * 
+	 * @return
+	 */
+	public Criteria asFilter() {
+		assertNotFrozen();
+		this.filter = true;
+		return this;
+	}
+
+	/**
+	 * @return true if criteria has been marked via {@link #asFilter()}
+	 */
+	public boolean isFilter() {
+		return this.filter;
+	}
+
 	/**
 	 * Crates new CriteriaEntry for {@code RANGE [lowerBound TO upperBound]}
 	 * 
@@ -339,6 +364,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria between(Object lowerBound, Object upperBound) {
+		assertNotFrozen();
 		if (lowerBound == null && upperBound == null) {
 			throw new InvalidDataAccessApiUsageException("Range [* TO *] is not allowed");
 		}
@@ -391,6 +417,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria in(Iterable<?> values) {
+		assertNotFrozen();
 		Assert.notNull(values, "Collection of 'in' values must not be null");
 		for (Object value : values) {
 			if (value instanceof Collection) {
@@ -410,6 +437,7 @@ public class Criteria implements QueryStringHolder {
 	 * @return
 	 */
 	public Criteria near(GeoLocation location, Distance distance) {
+		assertNotFrozen();
 		Assert.notNull(location);
 		if (distance != null) {
 			if (distance.getValue() < 0) {
@@ -421,12 +449,38 @@ public class Criteria implements QueryStringHolder {
 		return this;
 	}
 
+	/**
+	 * Creates new CriteriaEntry for {@code !bbox}, matching all documents within the bounding box enclosing the circle
+	 * defined by location and distance. Way cheaper than {@link #near(GeoLocation, Distance)} as no exact distance has
+	 * to be calculated, though it might include some documents outside the circle. Best used within a
+	 * {@link FilterQuery}.
+	 * 
+	 * @param location Geolocation in degrees
+	 * @param distance
+	 * @return
+	 */
+	public Criteria withinBoundingBox(GeoLocation location, Distance distance) {
+		assertNotFrozen();
+		Assert.notNull(location);
+		if (distance != null && distance.getValue() < 0) {
+			throw new InvalidDataAccessApiUsageException("distance must not be negative.");
+		}
+		criteria.add(new CriteriaEntry(OperationKey.BBOX, new Object[] { location,
+				distance != null ? distance : new Distance(0) }));
+		return this;
+	}
+
 	/**
 	 * get the QueryString used for executing query
 	 * 
 	 * @return
 	 */
 	public String createQueryString() {
+		String queryString = this.frozenQueryString;
+		return queryString != null ? queryString : renderQueryString();
+	}
+
+	private String renderQueryString() {
 		StringBuilder query = new StringBuilder(StringUtils.EMPTY);
 
 		ListIterator<Criteria> chainIterator = this.criteriaChain.listIterator();
@@ -485,13 +539,17 @@ public class Criteria implements QueryStringHolder {
 
 	private boolean containsFunctionCriteria(Set<CriteriaEntry> chainedCriterias) {
 		for (CriteriaEntry entry : chainedCriterias) {
-			if (StringUtils.equals(OperationKey.NEAR.getKey(), entry.getKey())) {
+			if (isSpatialKey(entry.getKey())) {
 				return true;
 			}
 		}
 		return false;
 	}
 
+	private static boolean isSpatialKey(String key) {
+		return StringUtils.equals(OperationKey.NEAR.getKey(), key) || StringUtils.equals(OperationKey.BBOX.getKey(), key);
+	}
+
 	private String processCriteriaEntry(String key, Object value, String fieldName) {
 		if (value == null) {
 			return null;
@@ -513,13 +571,10 @@ public class Criteria implements QueryStringHolder {
 		}
 
 		if (StringUtils.equals(OperationKey.NEAR.getKey(), key)) {
-			String nearFragment = "{!geofilt pt=";
-			Object[] args = (Object[]) value;
-			nearFragment += filterCriteriaValue(args[0]);
-			nearFragment += " sfield=" + fieldName;
-			nearFragment += " d=" + ((Distance) args[1]).getValue();
-			nearFragment += "}";
-			return nearFragment;
+			return createSpatialFragment("geofilt", (Object[]) value, fieldName);
+		}
+		if (StringUtils.equals(OperationKey.BBOX.getKey(), key)) {
+			return createSpatialFragment("bbox", (Object[]) value, fieldName);
 		}
 
 		Object filteredValue = filterCriteriaValue(value);
@@ -545,6 +600,15 @@ public class Criteria implements QueryStringHolder {
 		return filteredValue.toString();
 	}
 
+	private String createSpatialFragment(String parser, Object[] args, String fieldName) {
+		// location and distance have a fixed format, so there is no need to look up a converter
+		StringBuilder fragment = new StringBuilder("{!").append(parser);
+		fragment.append(" pt=").append(GeoConverters.GeoLocationToStringConverter.INSTANCE.convert((GeoLocation) args[0]));
+		fragment.append(" sfield=").append(fieldName);
+		fragment.append(" d=").append(GeoConverters.DistanceToStringConverter.INSTANCE.convert((Distance) args[1]));
+		return fragment.append("}").toString();
+	}
+
 	private Object filterCriteriaValue(Object criteriaValue) {
 		if (!(criteriaValue instanceof String)) {
 			if (conversionService.canConvert(criteriaValue.getClass(), String.class)) {
@@ -597,12 +661,291 @@ public class Criteria implements QueryStringHolder {
 	}
 
 	/**
-	 * Register an additional converter for transforming object values to solr readable format
+	 * Split the criteria chain into multiple ones, so that the largest {@code in} condition holds at most
+	 * {@code maxValues} values per resulting criteria. The union of all resulting criteria matches the same documents as
+	 * the original one. Negated conditions are never split.
+	 * 
+	 * @param maxValues
+	 * @return list containing only this criteria in case there is nothing to split
+	 */
+	public List<Criteria> partition(int maxValues) {
+		Assert.isTrue(maxValues > 0, "MaxValues must be greater than zero.");
+
+		Criteria target = null;
+		if (this.field == null) {
+			return Collections.singletonList(this);
+		}
+		for (Criteria chainedCriteria : this.criteriaChain) {
+			if (chainedCriteria.isPartitionable(maxValues)
+					&& (target == null || chainedCriteria.criteria.size() > target.criteria.size())) {
+				target = chainedCriteria;
+			}
+		}
+		if (target == null) {
+			return Collections.singletonList(this);
+		}
+
+		List<CriteriaEntry> entries = new ArrayList<CriteriaEntry>(target.criteria);
+		List<Criteria> partitions = new ArrayList<Criteria>((entries.size() + maxValues - 1) / maxValues);
+		for (int start = 0; start < entries.size(); start += maxValues) {
+			Criteria partition = target.copy(entries.subList(start, Math.min(start + maxValues, entries.size())));
+			Criteria head = (target == this) ? partition : this.copy(this.criteria);
+
+			List<Criteria> chain = new ArrayList<Criteria>(this.criteriaChain.size());
+			for (Criteria chainedCriteria : this.criteriaChain) {
+				if (chainedCriteria == target) {
+					chain.add(partition);
+				} else if (chainedCriteria == this) {
+					chain.add(head);
+				} else {
+					chain.add(chainedCriteria);
+				}
+			}
+			head.criteriaChain = chain;
+			partitions.add(head);
+		}
+		return partitions;
+	}
+
+	/**
+	 * Move criteria marked via {@link #asFilter()} into separate filter queries. Nothing is extracted in case the chain
+	 * contains {@code OR} conjunctions, as moving operands of a disjunction into filter queries would change the result.
+	 * 
+	 * @return
+	 */
+	public ExtractedFilterQueries extractFilterQueries() {
+		ExtractedFilterQueries filterQueries = this.frozenFilterQueries;
+		return filterQueries != null ? filterQueries : renderFilterQueries(false, Collections.<String> emptySet());
+	}
+
+	/**
+	 * Move criteria marked via {@link #asFilter()}, as well as criteria for one of the given fields, into separate filter
+	 * queries. Boosted criteria are never extracted.
+	 * 
+	 * @param allFields move criteria of any field
+	 * @param fieldNames names of fields to move criteria for
+	 * @return
+	 */
+	public ExtractedFilterQueries extractFilterQueries(boolean allFields, Collection<String> fieldNames) {
+		Assert.notNull(fieldNames, "FieldNames must not be 'null'.");
+		if (!allFields && fieldNames.isEmpty()) {
+			return extractFilterQueries();
+		}
+		return renderFilterQueries(allFields, fieldNames);
+	}
+
+	private ExtractedFilterQueries renderFilterQueries(boolean allFields, Collection<String> fieldNames) {
+		List<String> filterQueryStrings = new ArrayList<String>();
+		if (this.field == null || containsOrConjunction() || !containsFilter(allFields, fieldNames)) {
+			return new ExtractedFilterQueries(createQueryString(), filterQueryStrings);
+		}
+
+		StringBuilder query = new StringBuilder();
+		for (Criteria chainedCriteria : this.criteriaChain) {
+			if (chainedCriteria.isFilter(allFields, fieldNames)) {
+				filterQueryStrings.add(createQueryFragmentForCriteria(chainedCriteria));
+			} else {
+				if (query.length() > 0) {
+					query.append(chainedCriteria.getConjunctionOperator());
+				}
+				query.append(createQueryFragmentForCriteria(chainedCriteria));
+			}
+		}
+		return new ExtractedFilterQueries(query.length() > 0 ? query.toString() : null, filterQueryStrings);
+	}
+
+	/**
+	 * Make this criteria and all criteria chained to it immutable. The criteria is validated and its query string is
+	 * rendered once, so that frozen criteria can be shared among threads, eg. as static constants. Any further
+	 * modification results in an {@link InvalidDataAccessApiUsageException}. Chaining additional criteria via
+	 * {@link #and(String)} or {@link #or(String)} creates new criteria and is still possible.
+	 * 
+	 * @return this
+	 */
+	public Criteria freeze() {
+		if (this.frozen) {
+			return this;
+		}
+		for (Criteria chainedCriteria : this.criteriaChain) {
+			if (chainedCriteria.field != null && chainedCriteria.criteria.isEmpty()) {
+				throw new InvalidDataAccessApiUsageException("Criteria for field '" + chainedCriteria.field.getName()
+						+ "' has to define at least one condition.");
+			}
+		}
+
+		this.criteria = Collections.unmodifiableSet(this.criteria);
+		this.criteriaChain = Collections.unmodifiableList(this.criteriaChain);
+		this.frozen = true;
+		for (Criteria chainedCriteria : this.criteriaChain) {
+			chainedCriteria.freeze();
+		}
+
+		this.frozenQueryString = renderQueryString();
+		this.frozenFilterQueries = renderFilterQueries(false, Collections.<String> emptySet());
+		return this;
+	}
+
+	/**
+	 * @return true if criteria has been frozen and cannot be modified any longer
+	 */
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	private void assertNotFrozen() {
+		if (this.frozen) {
+			throw new InvalidDataAccessApiUsageException("Cannot modify frozen criteria.");
+		}
+	}
+
+	/**
+	 * Create a canonical form of the criteria chain, so that equivalent criteria render the very same query string. Values
+	 * within a single criteria are ordered by their rendered form and duplicates are removed. Ranges are kept as they
+	 * are, even if both bounds are equal, as a range does not analyze its bounds the way a plain value is analyzed.
+	 * Chained criteria are ordered as well, as long as all of them are combined using the same conjunction operator.
+	 * Chains containing string based criteria are left untouched.
+	 * 
+	 * @return new criteria, or this in case there is nothing to canonicalize
+	 */
+	public Criteria canonicalize() {
+		if (this.field == null) {
+			return this;
+		}
+		for (Criteria chainedCriteria : this.criteriaChain) {
+			if (chainedCriteria.field == null) {
+				return this;
+			}
+		}
+
+		boolean commutative = isCommutative();
+		boolean or = containsOrConjunction();
+		List<Criteria> chain = new ArrayList<Criteria>(this.criteriaChain.size());
+		for (Criteria chainedCriteria : this.criteriaChain) {
+			Criteria copy = chainedCriteria.copy(canonicalEntries(chainedCriteria), commutative ? or
+					: chainedCriteria instanceof OrCriteria);
+			copy.conversionService = this.conversionService;
+			copy.registeredConverters = this.registeredConverters;
+			chain.add(copy);
+		}
+		if (commutative) {
+			Map<String, Criteria> ordered = new TreeMap<String, Criteria>();
+			for (Criteria chainedCriteria : chain) {
+				String fragment = createQueryFragmentForCriteria(chainedCriteria);
+				if (!ordered.containsKey(fragment)) {
+					ordered.put(fragment, chainedCriteria);
+				}
+			}
+			chain = new ArrayList<Criteria>(ordered.values());
+		}
+
+		Criteria head = chain.get(chain.size() - 1);
+		head.criteriaChain = chain;
+		return this.frozen ? head.freeze() : head;
+	}
+
+	private List<CriteriaEntry> canonicalEntries(Criteria chainedCriteria) {
+		Map<String, CriteriaEntry> entries = new TreeMap<String, CriteriaEntry>();
+		for (CriteriaEntry entry : chainedCriteria.criteria) {
+			String fragment = String.valueOf(processCriteriaEntry(entry.getKey(), entry.getValue(),
+					chainedCriteria.field.getName()));
+			if (!entries.containsKey(fragment)) {
+				entries.put(fragment, entry);
+			}
+		}
+		return new ArrayList<CriteriaEntry>(entries.values());
+	}
+
+	private boolean isCommutative() {
+		for (int i = 2; i < this.criteriaChain.size(); i++) {
+			if ((this.criteriaChain.get(i) instanceof OrCriteria) != (this.criteriaChain.get(1) instanceof OrCriteria)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean containsOrConjunction() {
+		for (int i = 1; i < this.criteriaChain.size(); i++) {
+			if (this.criteriaChain.get(i) instanceof OrCriteria) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean containsFilter(boolean allFields, Collection<String> fieldNames) {
+		for (Criteria chainedCriteria : this.criteriaChain) {
+			if (chainedCriteria.isFilter(allFields, fieldNames)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isFilter(boolean allFields, Collection<String> fieldNames) {
+		if (this.field == null || !Float.isNaN(this.boost) || this.criteria.isEmpty()) {
+			return false;
+		}
+		return this.filter || allFields || fieldNames.contains(this.field.getName());
+	}
+
+	private boolean isPartitionable(int maxValues) {
+		if (this.field == null || this.negating || this.criteria.size() <= maxValues) {
+			return false;
+		}
+		for (CriteriaEntry entry : this.criteria) {
+			if (!StringUtils.equals(OperationKey.EQUALS.getKey(), entry.getKey())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Criteria copy(Collection<CriteriaEntry> entries) {
+		return copy(entries, this instanceof OrCriteria);
+	}
+
+	private Criteria copy(Collection<CriteriaEntry> entries, boolean or) {
+		Criteria copy = or ? new OrCriteria() : new Criteria();
+		copy.field = this.field;
+		copy.boost = this.boost;
+		copy.negating = this.negating;
+		copy.filter = this.filter;
+		copy.conversionService = this.conversionService;
+		copy.registeredConverters = this.registeredConverters;
+		copy.criteria = new LinkedHashSet<CriteriaEntry>(entries);
+		copy.criteriaChain.add(copy);
+		return copy;
+	}
+
+	/**
+	 * Register an additional converter for transforming object values to solr readable format. Copies created before
+	 * are not affected.
 	 * 
 	 * @param converter
 	 */
 	public void registerConverter(Converter<?, ?> converter) {
-		conversionService.addConverter(converter);
+		assertNotFrozen();
+		Assert.notNull(converter, "Converter must not be 'null'.");
+
+		List<Converter<?, ?>> converters = new ArrayList<Converter<?, ?>>(this.registeredConverters);
+		converters.add(converter);
+		GenericConversionService newConversionService = createDefaultConversionService();
+		for (Converter<?, ?> registeredConverter : converters) {
+			newConversionService.addConverter(registeredConverter);
+		}
+		this.registeredConverters = Collections.unmodifiableList(converters);
+		this.conversionService = newConversionService;
+	}
+
+	private static GenericConversionService createDefaultConversionService() {
+		GenericConversionService conversionService = new GenericConversionService();
+		conversionService.addConverter(DateTimeConverters.JavaDateConverter.INSTANCE);
+		conversionService.addConverter(DateTimeConverters.JodaDateTimeConverter.INSTANCE);
+		conversionService.addConverter(DateTimeConverters.JodaLocalDateTimeConverter.INSTANCE);
+		conversionService.addConverter(NumberConverters.NumberConverter.INSTANCE);
+		conversionService.addConverter(GeoConverters.GeoLocationToStringConverter.INSTANCE);
+		return conversionService;
 	}
 
 	static class OrCriteria extends Criteria {
@@ -636,7 +979,7 @@ public class Criteria implements QueryStringHolder {
 
 	enum OperationKey {
 		EQUALS("$equals"), CONTAINS("$contains"), STARTS_WITH("$startsWith"), ENDS_WITH("$endsWith"), EXPRESSION(
-				"$expression"), BETWEEN("$between"), NEAR("$near");
+				"$expression"), BETWEEN("$between"), NEAR("$near"), BBOX("$bbox");
 
 		private final String key;
 
@@ -680,6 +1023,23 @@ public class Criteria implements QueryStringHolder {
 			this.value = value;
 		}
 
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CriteriaEntry)) {
+				return false;
+			}
+			CriteriaEntry other = (CriteriaEntry) obj;
+			return ObjectUtils.nullSafeEquals(this.key, other.key) && ObjectUtils.nullSafeEquals(this.value, other.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * ObjectUtils.nullSafeHashCode(this.key) + ObjectUtils.nullSafeHashCode(this.value);
+		}
+
 	}
 
 }
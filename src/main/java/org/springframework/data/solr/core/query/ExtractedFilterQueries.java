@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of splitting a {@link Criteria} into the query string of its scoring parts and the query strings of its non
+ * scoring parts, which can be sent as separate filter queries.
+ * 
+ * @author Christoph Strobl
+ */
+public class ExtractedFilterQueries {
+
+	private final String queryString;
+	private final List<String> filterQueryStrings;
+
+	ExtractedFilterQueries(String queryString, List<String> filterQueryStrings) {
+		this.queryString = queryString;
+		this.filterQueryStrings = Collections.unmodifiableList(filterQueryStrings);
+	}
+
+	/**
+	 * @return query string of scoring criteria, null if all criteria have been extracted
+	 */
+	public String getQueryString() {
+		return this.queryString;
+	}
+
+	/**
+	 * @return query strings of non scoring criteria
+	 */
+	public List<String> getFilterQueryStrings() {
+		return this.filterQueryStrings;
+	}
+
+}
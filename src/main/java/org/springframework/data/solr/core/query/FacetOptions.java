@@ -17,8 +17,11 @@ package org.springframework.data.solr.core.query;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.util.Assert;
@@ -38,11 +41,22 @@ public class FacetOptions {
 		COUNT, INDEX
 	}
 
+	public enum FacetMethod {
+		ENUM, FC
+	}
+
 	private List<Field> facetOnFields = new ArrayList<Field>(1);
+	private List<FacetRange> facetRanges = new ArrayList<FacetRange>(0);
+	private List<SolrDataQuery> facetQueries = new ArrayList<SolrDataQuery>(0);
+	private Map<String, FacetMethod> fieldFacetMethods = new LinkedHashMap<String, FacetMethod>(0);
+	private FacetMethod facetMethod;
+	private Integer facetEnumCacheMinDf;
+	private String facetPrefix;
 	private int facetMinCount = DEFAULT_FACET_MIN_COUNT;
 	private int facetLimit = DEFAULT_FACET_LIMIT;
 	private FacetSort facetSort = DEFAULT_FACET_SORT;
 	private Pageable pageable;
+	private volatile boolean frozen = false;
 
 	public FacetOptions() {
 	}
@@ -84,6 +98,7 @@ public class FacetOptions {
 	public final FacetOptions addFacetOnField(Field field) {
 		Assert.notNull(field, "Cannot facet on null field.");
 		Assert.hasText(field.getName(), "Cannot facet on field with null/empty fieldname.");
+		assertNotFrozen();
 
 		this.facetOnFields.add(field);
 		return this;
@@ -100,6 +115,35 @@ public class FacetOptions {
 		return this;
 	}
 
+	/**
+	 * Append range faceting
+	 * 
+	 * @param facetRange
+	 * @return
+	 */
+	public final FacetOptions addFacetByRange(FacetRange facetRange) {
+		Assert.notNull(facetRange, "FacetRange must not be null.");
+		assertNotFrozen();
+
+		this.facetRanges.add(facetRange);
+		return this;
+	}
+
+	/**
+	 * Append query to count matching documents for. Corresponds to 'facet.query' in solr.
+	 * 
+	 * @param query
+	 * @return
+	 */
+	public final FacetOptions addFacetQuery(SolrDataQuery query) {
+		Assert.notNull(query, "Facet query must not be null.");
+		Assert.notNull(query.getCriteria(), "Facet query must define criteria.");
+		assertNotFrozen();
+
+		this.facetQueries.add(query);
+		return this;
+	}
+
 	/**
 	 * Set minimum number of hits for result to be included in response
 	 * 
@@ -107,6 +151,7 @@ public class FacetOptions {
 	 * @return
 	 */
 	public FacetOptions setFacetMinCount(int minCount) {
+		assertNotFrozen();
 		this.facetMinCount = java.lang.Math.max(0, minCount);
 		return this;
 	}
@@ -118,6 +163,7 @@ public class FacetOptions {
 	 * @return
 	 */
 	public FacetOptions setFacetLimit(int rowsToReturn) {
+		assertNotFrozen();
 		this.facetLimit = java.lang.Math.max(1, rowsToReturn);
 		return this;
 	}
@@ -130,11 +176,65 @@ public class FacetOptions {
 	 */
 	public FacetOptions setFacetSort(FacetSort facetSort) {
 		Assert.notNull(facetSort, "FacetSort must not be null.");
+		assertNotFrozen();
 
 		this.facetSort = facetSort;
 		return this;
 	}
 
+	/**
+	 * Restrict field facets to values starting with given prefix. Corresponds to 'facet.prefix' in solr.
+	 * 
+	 * @param facetPrefix
+	 * @return
+	 */
+	public FacetOptions setFacetPrefix(String facetPrefix) {
+		assertNotFrozen();
+		this.facetPrefix = facetPrefix;
+		return this;
+	}
+
+	/**
+	 * Set algorithm used for field faceting. Corresponds to 'facet.method' in solr.
+	 * 
+	 * @param facetMethod null to use solr's default
+	 * @return
+	 */
+	public FacetOptions setFacetMethod(FacetMethod facetMethod) {
+		assertNotFrozen();
+		this.facetMethod = facetMethod;
+		return this;
+	}
+
+	/**
+	 * Set algorithm used for faceting on field with given name, overriding {@link #setFacetMethod(FacetMethod)}.
+	 * 
+	 * @param fieldname
+	 * @param facetMethod
+	 * @return
+	 */
+	public FacetOptions setFacetMethod(String fieldname, FacetMethod facetMethod) {
+		Assert.hasText(fieldname, "Fieldname must not be null/empty.");
+		Assert.notNull(facetMethod, "FacetMethod must not be null.");
+		assertNotFrozen();
+
+		this.fieldFacetMethods.put(fieldname, facetMethod);
+		return this;
+	}
+
+	/**
+	 * Set minimum document frequency of terms for using solr's filterCache with {@link FacetMethod#ENUM}. Corresponds to
+	 * 'facet.enum.cache.minDf' in solr.
+	 * 
+	 * @param minDf
+	 * @return
+	 */
+	public FacetOptions setFacetEnumCacheMinDf(int minDf) {
+		assertNotFrozen();
+		this.facetEnumCacheMinDf = Math.max(0, minDf);
+		return this;
+	}
+
 	/**
 	 * Get the list of Fields to facet on
 	 * 
@@ -171,11 +271,54 @@ public class FacetOptions {
 		return this.facetSort;
 	}
 
+	/**
+	 * @return range facets
+	 */
+	public List<FacetRange> getFacetRanges() {
+		return Collections.unmodifiableList(this.facetRanges);
+	}
+
+	/**
+	 * @return queries to count matching documents for
+	 */
+	public List<SolrDataQuery> getFacetQueries() {
+		return Collections.unmodifiableList(this.facetQueries);
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public String getFacetPrefix() {
+		return this.facetPrefix;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public FacetMethod getFacetMethod() {
+		return this.facetMethod;
+	}
+
+	/**
+	 * @return facet methods set for individual fields mapped by fieldname
+	 */
+	public Map<String, FacetMethod> getFieldFacetMethods() {
+		return Collections.unmodifiableMap(this.fieldFacetMethods);
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public Integer getFacetEnumCacheMinDf() {
+		return this.facetEnumCacheMinDf;
+	}
+
 	public Pageable getPageable() {
 		return this.pageable != null ? this.pageable : new PageRequest(0, facetLimit);
 	}
 
 	public FacetOptions setPageable(Pageable pageable) {
+		assertNotFrozen();
 		this.pageable = pageable;
 		return this;
 	}
@@ -188,4 +331,43 @@ public class FacetOptions {
 	public boolean hasFields() {
 		return !this.facetOnFields.isEmpty();
 	}
+
+	/**
+	 * true if at least one facet field, range or query set
+	 * 
+	 * @return
+	 */
+	public boolean hasFacets() {
+		return hasFields() || !this.facetRanges.isEmpty() || !this.facetQueries.isEmpty();
+	}
+
+	/**
+	 * Make options immutable
+	 * 
+	 * @return
+	 */
+	public FacetOptions freeze() {
+		if (this.frozen) {
+			return this;
+		}
+		for (SolrDataQuery facetQuery : this.facetQueries) {
+			facetQuery.freeze();
+		}
+		this.facetOnFields = Collections.unmodifiableList(this.facetOnFields);
+		this.facetRanges = Collections.unmodifiableList(this.facetRanges);
+		this.facetQueries = Collections.unmodifiableList(this.facetQueries);
+		this.fieldFacetMethods = Collections.unmodifiableMap(this.fieldFacetMethods);
+		this.frozen = true;
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	private void assertNotFrozen() {
+		if (this.frozen) {
+			throw new InvalidDataAccessApiUsageException("Cannot modify frozen facet options.");
+		}
+	}
 }
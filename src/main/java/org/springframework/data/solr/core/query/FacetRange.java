@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query;
+
+import org.springframework.util.Assert;
+
+/**
+ * Range faceting on a numeric or date field, counting documents per bucket of given gap between start and end.
+ * Corresponds to 'facet.range' in solr.
+ * 
+ * @author Christoph Strobl
+ */
+public class FacetRange {
+
+	private final Field field;
+	private final Object start;
+	private final Object end;
+	private final Object gap;
+	private final boolean hardEnd;
+
+	/**
+	 * @param fieldname
+	 * @param start lower bound of first bucket, eg. {@code 0} or a {@link java.util.Date}
+	 * @param end upper bound of last bucket
+	 * @param gap size of each bucket, eg. {@code 10} or date math like {@code +1DAY}
+	 */
+	public FacetRange(String fieldname, Object start, Object end, Object gap) {
+		this(new SimpleField(fieldname), start, end, gap, false);
+	}
+
+	/**
+	 * @param field
+	 * @param start lower bound of first bucket
+	 * @param end upper bound of last bucket
+	 * @param gap size of each bucket
+	 * @param hardEnd use end as upper bound of the last bucket even if it is smaller than gap
+	 */
+	public FacetRange(Field field, Object start, Object end, Object gap, boolean hardEnd) {
+		Assert.notNull(field, "Cannot facet on null field.");
+		Assert.hasText(field.getName(), "Cannot facet on field with null/empty fieldname.");
+		Assert.notNull(start, "Range start must not be null.");
+		Assert.notNull(end, "Range end must not be null.");
+		Assert.notNull(gap, "Range gap must not be null.");
+
+		this.field = field;
+		this.start = start;
+		this.end = end;
+		this.gap = gap;
+		this.hardEnd = hardEnd;
+	}
+
+	public Field getField() {
+		return this.field;
+	}
+
+	public Object getStart() {
+		return this.start;
+	}
+
+	public Object getEnd() {
+		return this.end;
+	}
+
+	public Object getGap() {
+		return this.gap;
+	}
+
+	public boolean isHardEnd() {
+		return this.hardEnd;
+	}
+
+}
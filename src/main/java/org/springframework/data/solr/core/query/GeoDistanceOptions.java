@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.solr.core.geo.GeoLocation;
+import org.springframework.util.Assert;
+
+/**
+ * Options for ordering results of a {@link Query} by distance to a given location and for returning the distance along
+ * with each document. Location and field are sent as solr's 'pt' and 'sfield' parameters, so {@code geodist()} can be
+ * used without arguments.
+ * 
+ * @author Christoph Strobl
+ */
+public class GeoDistanceOptions {
+
+	private final Field field;
+	private final GeoLocation location;
+	private Sort.Direction sortDirection;
+	private String distanceFieldName;
+	private volatile boolean frozen = false;
+
+	/**
+	 * @param fieldname name of the location field
+	 * @param location point to compute distances to
+	 */
+	public GeoDistanceOptions(String fieldname, GeoLocation location) {
+		this(new SimpleField(fieldname), location);
+	}
+
+	/**
+	 * @param field the location field
+	 * @param location point to compute distances to
+	 */
+	public GeoDistanceOptions(Field field, GeoLocation location) {
+		Assert.notNull(field, "Field must not be null.");
+		Assert.hasText(field.getName(), "Fieldname must not be null/empty.");
+		Assert.notNull(location, "Location must not be null.");
+
+		this.field = field;
+		this.location = location;
+	}
+
+	/**
+	 * Order results by distance. Sorting by distance precedes any other sort defined for the query. Corresponds to
+	 * {@code sort=geodist() asc|desc} in solr.
+	 * 
+	 * @param sortDirection null to not sort by distance
+	 * @return
+	 */
+	public GeoDistanceOptions setSortDirection(Sort.Direction sortDirection) {
+		assertNotFrozen();
+
+		this.sortDirection = sortDirection;
+		return this;
+	}
+
+	/**
+	 * Add the distance in kilometers to each document as field with given name, so it can be bound to a property of the
+	 * same name.
+	 * 
+	 * @param distanceFieldName null to not add distance
+	 * @return
+	 */
+	public GeoDistanceOptions setDistanceFieldName(String distanceFieldName) {
+		assertNotFrozen();
+
+		this.distanceFieldName = distanceFieldName;
+		return this;
+	}
+
+	public Field getField() {
+		return this.field;
+	}
+
+	public GeoLocation getLocation() {
+		return this.location;
+	}
+
+	/**
+	 * @return null if not sorted by distance
+	 */
+	public Sort.Direction getSortDirection() {
+		return this.sortDirection;
+	}
+
+	/**
+	 * @return null if distance not returned
+	 */
+	public String getDistanceFieldName() {
+		return this.distanceFieldName;
+	}
+
+	/**
+	 * Make options immutable
+	 * 
+	 * @return
+	 */
+	public GeoDistanceOptions freeze() {
+		this.frozen = true;
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	private void assertNotFrozen() {
+		if (this.frozen) {
+			throw new InvalidDataAccessApiUsageException("Cannot modify frozen geo distance options.");
+		}
+	}
+
+}
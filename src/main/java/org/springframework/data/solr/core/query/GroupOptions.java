@@ -0,0 +1,233 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.util.Assert;
+
+/**
+ * Set of options for grouping results of a {@link Query} by distinct field values and/or queries. Other than
+ * {@link Query#addGroupByField(Field)}, which collapses results into a flat list, the grouped response holds the top
+ * documents per group as well as the number of matches and groups. The number of groups ('group.ngroups' in solr) is
+ * always requested, as it is the total of pages over groups.
+ * 
+ * @author Christoph Strobl
+ */
+public class GroupOptions {
+
+	private List<Field> groupByFields = new ArrayList<Field>(1);
+	private List<SolrDataQuery> groupByQueries = new ArrayList<SolrDataQuery>(0);
+	private Integer offset;
+	private Integer limit;
+	private boolean groupFacets = false;
+	private Integer cachePercent;
+	private volatile boolean frozen = false;
+
+	public GroupOptions() {
+	}
+
+	/**
+	 * Creates new instance grouping by fields with given name
+	 * 
+	 * @param fieldnames
+	 */
+	public GroupOptions(String... fieldnames) {
+		Assert.notNull(fieldnames, "Fields must not be null.");
+		Assert.noNullElements(fieldnames, "Cannot group by null fieldname.");
+
+		for (String fieldname : fieldnames) {
+			addGroupByField(fieldname);
+		}
+	}
+
+	/**
+	 * Group by distinct values of given field. Corresponds to 'group.field' in solr.
+	 * 
+	 * @param field
+	 * @return
+	 */
+	public final GroupOptions addGroupByField(Field field) {
+		Assert.notNull(field, "Cannot group by null field.");
+		Assert.hasText(field.getName(), "Cannot group by field with null/empty fieldname.");
+		assertNotFrozen();
+
+		this.groupByFields.add(field);
+		return this;
+	}
+
+	/**
+	 * Group by distinct values of field with given name
+	 * 
+	 * @param fieldname
+	 * @return
+	 */
+	public final GroupOptions addGroupByField(String fieldname) {
+		return addGroupByField(new SimpleField(fieldname));
+	}
+
+	/**
+	 * Create a group of all documents matching given query. Corresponds to 'group.query' in solr.
+	 * 
+	 * @param query
+	 * @return
+	 */
+	public final GroupOptions addGroupByQuery(SolrDataQuery query) {
+		Assert.notNull(query, "Cannot group by null query.");
+		Assert.notNull(query.getCriteria(), "Cannot group by query without criteria.");
+		assertNotFrozen();
+
+		this.groupByQueries.add(query);
+		return this;
+	}
+
+	/**
+	 * Offset of the first document within each group. Corresponds to 'group.offset' in solr.
+	 * 
+	 * @param offset
+	 * @return
+	 */
+	public GroupOptions setOffset(int offset) {
+		Assert.isTrue(offset >= 0, "Offset must not be negative.");
+		assertNotFrozen();
+
+		this.offset = offset;
+		return this;
+	}
+
+	/**
+	 * Max number of documents returned per group. Corresponds to 'group.limit' in solr. Solr returns only the top
+	 * document per group if not set.
+	 * 
+	 * @param limit
+	 * @return
+	 */
+	public GroupOptions setLimit(int limit) {
+		Assert.isTrue(limit >= 0, "Limit must not be negative.");
+		assertNotFrozen();
+
+		this.limit = limit;
+		return this;
+	}
+
+	/**
+	 * Compute facet counts per group instead of per document. Corresponds to 'group.facet' in solr.
+	 * 
+	 * @param groupFacets
+	 * @return
+	 */
+	public GroupOptions setGroupFacets(boolean groupFacets) {
+		assertNotFrozen();
+
+		this.groupFacets = groupFacets;
+		return this;
+	}
+
+	/**
+	 * Size of the group cache relative to the number of documents in the index. Corresponds to 'group.cache.percent'
+	 * in solr.
+	 * 
+	 * @param cachePercent value between 0 and 100. 0 disables caching.
+	 * @return
+	 */
+	public GroupOptions setCachePercent(int cachePercent) {
+		Assert.isTrue(cachePercent >= 0 && cachePercent <= 100, "CachePercent has to be within 0 and 100.");
+		assertNotFrozen();
+
+		this.cachePercent = cachePercent;
+		return this;
+	}
+
+	/**
+	 * @return fields to group by
+	 */
+	public List<Field> getGroupByFields() {
+		return Collections.unmodifiableList(this.groupByFields);
+	}
+
+	/**
+	 * @return queries to group by
+	 */
+	public List<SolrDataQuery> getGroupByQueries() {
+		return Collections.unmodifiableList(this.groupByQueries);
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public Integer getOffset() {
+		return this.offset;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public Integer getLimit() {
+		return this.limit;
+	}
+
+	public boolean isGroupFacets() {
+		return this.groupFacets;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public Integer getCachePercent() {
+		return this.cachePercent;
+	}
+
+	/**
+	 * true if at least one field or query to group by is set
+	 * 
+	 * @return
+	 */
+	public boolean hasGroups() {
+		return !this.groupByFields.isEmpty() || !this.groupByQueries.isEmpty();
+	}
+
+	/**
+	 * Make options immutable. Queries to group by are frozen along with the options.
+	 * 
+	 * @return
+	 */
+	public GroupOptions freeze() {
+		if (this.frozen) {
+			return this;
+		}
+		for (SolrDataQuery query : this.groupByQueries) {
+			query.freeze();
+		}
+		this.groupByFields = Collections.unmodifiableList(this.groupByFields);
+		this.groupByQueries = Collections.unmodifiableList(this.groupByQueries);
+		this.frozen = true;
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	private void assertNotFrozen() {
+		if (this.frozen) {
+			throw new InvalidDataAccessApiUsageException("Cannot modify frozen group options.");
+		}
+	}
+
+}
@@ -43,8 +43,9 @@ public class SimpleFacetQuery extends SimpleQuery implements FacetQuery {
 	@Override
 	public final <T extends SolrDataQuery> T setFacetOptions(FacetOptions facetOptions) {
 		if (facetOptions != null) {
-			Assert.isTrue(facetOptions.hasFields(), "Cannot set facet options having no fields.");
+			Assert.isTrue(facetOptions.hasFacets(), "Cannot set facet options having no fields, ranges or queries.");
 		}
+		assertNotFrozen();
 		this.facetOptions = facetOptions;
 		return (T) this;
 	}
@@ -59,4 +60,15 @@ public class SimpleFacetQuery extends SimpleQuery implements FacetQuery {
 		return this.getFacetOptions() != null;
 	}
 
+	/**
+	 * Make query immutable. FacetOptions are frozen along with the query.
+	 */
+	@Override
+	public <T extends SolrDataQuery> T freeze() {
+		if (this.facetOptions != null) {
+			this.facetOptions.freeze();
+		}
+		return super.freeze();
+	}
+
 }
@@ -15,6 +15,8 @@
  */
 package org.springframework.data.solr.core.query;
 
+import org.springframework.util.Assert;
+
 /**
  * Trivial implementation of {@link FilterQuery}
  * 
@@ -22,6 +24,9 @@ package org.springframework.data.solr.core.query;
  */
 public class SimpleFilterQuery extends AbstractQuery implements FilterQuery {
 
+	private Boolean cache;
+	private Integer cost;
+
 	public SimpleFilterQuery() {
 	}
 
@@ -29,4 +34,42 @@ public class SimpleFilterQuery extends AbstractQuery implements FilterQuery {
 		super(criteria);
 	}
 
+	/**
+	 * Set to false to bypass solr's filterCache for this filter query. Corresponds to the 'cache' local param in solr.
+	 * 
+	 * @param cache
+	 * @return
+	 */
+	public SimpleFilterQuery setCache(boolean cache) {
+		this.cache = cache;
+		return this;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public Boolean getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Set evaluation order of non cached filter queries. Lower cost filters are evaluated first. Corresponds to the
+	 * 'cost' local param in solr.
+	 * 
+	 * @param cost
+	 * @return
+	 */
+	public SimpleFilterQuery setCost(int cost) {
+		Assert.isTrue(cost >= 0, "Cost must not be negative.");
+		this.cost = cost;
+		return this;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public Integer getCost() {
+		return this.cost;
+	}
+
 }
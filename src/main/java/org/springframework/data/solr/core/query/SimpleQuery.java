@@ -17,11 +17,15 @@ package org.springframework.data.solr.core.query;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.apache.solr.client.solrj.SolrQuery;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.solr.core.QueryParser;
 import org.springframework.util.Assert;
 
 /**
@@ -33,11 +37,22 @@ public class SimpleQuery extends AbstractQuery implements Query, FilterQuery {
 
 	public static final Pageable DEFAULT_PAGE = new PageRequest(0, DEFAULT_PAGE_SIZE);
 
+	private static final QueryParser QUERY_PARSER = new QueryParser();
+
 	private List<Field> projectionOnFields = new ArrayList<Field>(0);
 	private List<Field> groupByFields = new ArrayList<Field>(0);
 	private List<FilterQuery> filterQueries = new ArrayList<FilterQuery>(0);;
 	private Pageable pageable = DEFAULT_PAGE;
 	private Sort sort;
+	private boolean filterQueryExtraction = false;
+	private Set<String> filterQueryFields = new LinkedHashSet<String>(0);
+	private StatsOptions statsOptions;
+	private GroupOptions groupOptions;
+	private Integer timeAllowed;
+	private GeoDistanceOptions geoDistanceOptions;
+
+	private volatile SolrQuery frozenSolrQuery;
+	private volatile SolrQuery frozenCanonicalSolrQuery;
 
 	public SimpleQuery() {
 	}
@@ -75,6 +90,17 @@ public class SimpleQuery extends AbstractQuery implements Query, FilterQuery {
 		if (source.getSort() != null) {
 			query.addSort(source.getSort());
 		}
+		if (source instanceof SimpleQuery) {
+			query.setFilterQueryExtraction(((SimpleQuery) source).isFilterQueryExtraction());
+			query.filterQueryFields.addAll(((SimpleQuery) source).getFilterQueryFields());
+			query.setStatsOptions(((SimpleQuery) source).getStatsOptions());
+			query.setGroupOptions(((SimpleQuery) source).getGroupOptions());
+			query.setTimeAllowed(((SimpleQuery) source).getTimeAllowed());
+			query.setGeoDistanceOptions(((SimpleQuery) source).getGeoDistanceOptions());
+		}
+		if (source.getPageRequest() != null) {
+			query.pageable = source.getPageRequest();
+		}
 		return query;
 	}
 
@@ -83,6 +109,7 @@ public class SimpleQuery extends AbstractQuery implements Query, FilterQuery {
 	public final <T extends Query> T addProjectionOnField(Field field) {
 		Assert.notNull(field, "Field for projection must not be null.");
 		Assert.hasText(field.getName(), "Field.name for projection must not be null/empty.");
+		assertNotFrozen();
 
 		this.projectionOnFields.add(field);
 		return (T) this;
@@ -113,6 +140,7 @@ public class SimpleQuery extends AbstractQuery implements Query, FilterQuery {
 	@Override
 	public final <T extends Query> T setPageRequest(Pageable pageable) {
 		Assert.notNull(pageable);
+		assertNotFrozen();
 
 		this.pageable = pageable;
 		return this.addSort(pageable.getSort());
@@ -123,6 +151,7 @@ public class SimpleQuery extends AbstractQuery implements Query, FilterQuery {
 	public final <T extends Query> T addGroupByField(Field field) {
 		Assert.notNull(field, "Field for grouping must not be null.");
 		Assert.hasText(field.getName(), "Field.name for grouping must not be null/empty.");
+		assertNotFrozen();
 
 		this.groupByFields.add(field);
 		return (T) this;
@@ -138,6 +167,7 @@ public class SimpleQuery extends AbstractQuery implements Query, FilterQuery {
 		if (sort == null) {
 			return (T) this;
 		}
+		assertNotFrozen();
 
 		if (this.sort == null) {
 			this.sort = sort;
@@ -171,6 +201,7 @@ public class SimpleQuery extends AbstractQuery implements Query, FilterQuery {
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T extends Query> T addFilterQuery(FilterQuery filterQuery) {
+		assertNotFrozen();
 		this.filterQueries.add(filterQuery);
 		return (T) this;
 	}
@@ -180,4 +211,203 @@ public class SimpleQuery extends AbstractQuery implements Query, FilterQuery {
 		return Collections.unmodifiableList(this.filterQueries);
 	}
 
+	/**
+	 * Move all criteria that are not boosted into separate filter queries, so those can be reused via solr's
+	 * filterCache. Extracted criteria no longer contribute to the score. Corresponds to 'fq' in solr. Default is false.
+	 * 
+	 * @param filterQueryExtraction
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Query> T setFilterQueryExtraction(boolean filterQueryExtraction) {
+		assertNotFrozen();
+		this.filterQueryExtraction = filterQueryExtraction;
+		return (T) this;
+	}
+
+	/**
+	 * @return true if all criteria that are not boosted should be sent as filter queries
+	 */
+	public boolean isFilterQueryExtraction() {
+		return this.filterQueryExtraction;
+	}
+
+	/**
+	 * Move criteria for fields with given names into separate filter queries. Criteria marked via
+	 * {@link Criteria#asFilter()} are extracted in any case.
+	 * 
+	 * @param fieldNames
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Query> T addFilterQueryFields(String... fieldNames) {
+		assertNotFrozen();
+		Assert.notNull(fieldNames, "FieldNames must not be 'null'.");
+		for (String fieldName : fieldNames) {
+			Assert.hasText(fieldName, "FieldName must not be empty.");
+			this.filterQueryFields.add(fieldName);
+		}
+		return (T) this;
+	}
+
+	/**
+	 * @return names of fields whose criteria should be sent as filter queries
+	 */
+	public Set<String> getFilterQueryFields() {
+		return Collections.unmodifiableSet(this.filterQueryFields);
+	}
+
+	/**
+	 * Statistics to compute for all documents matching the query
+	 * 
+	 * @param statsOptions
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public final <T extends Query> T setStatsOptions(StatsOptions statsOptions) {
+		if (statsOptions != null) {
+			Assert.isTrue(statsOptions.hasFields(), "Cannot set stats options having no fields.");
+		}
+		assertNotFrozen();
+		this.statsOptions = statsOptions;
+		return (T) this;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public StatsOptions getStatsOptions() {
+		return this.statsOptions;
+	}
+
+	/**
+	 * @return true if options set
+	 */
+	public boolean hasStatsOptions() {
+		return this.statsOptions != null;
+	}
+
+	/**
+	 * Group results by distinct field values and/or queries, returning the top documents per group. Cannot be combined
+	 * with {@link #addGroupByField(Field)}.
+	 * 
+	 * @param groupOptions
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public final <T extends Query> T setGroupOptions(GroupOptions groupOptions) {
+		if (groupOptions != null) {
+			Assert.isTrue(groupOptions.hasGroups(), "Cannot set group options having no fields or queries.");
+		}
+		assertNotFrozen();
+		this.groupOptions = groupOptions;
+		return (T) this;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public GroupOptions getGroupOptions() {
+		return this.groupOptions;
+	}
+
+	/**
+	 * @return true if options set
+	 */
+	public boolean hasGroupOptions() {
+		return this.groupOptions != null;
+	}
+
+	/**
+	 * Max time in milliseconds solr may spend on searching. Solr returns the results collected so far once exceeded,
+	 * flagging them as partial. Corresponds to 'timeAllowed' in solr.
+	 * 
+	 * @param timeAllowed null for no limit
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public final <T extends Query> T setTimeAllowed(Integer timeAllowed) {
+		if (timeAllowed != null) {
+			Assert.isTrue(timeAllowed > 0, "TimeAllowed must be greater than zero.");
+		}
+		assertNotFrozen();
+		this.timeAllowed = timeAllowed;
+		return (T) this;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public Integer getTimeAllowed() {
+		return this.timeAllowed;
+	}
+
+	/**
+	 * Sort by and/or return distance of documents to a given location
+	 * 
+	 * @param geoDistanceOptions
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public final <T extends Query> T setGeoDistanceOptions(GeoDistanceOptions geoDistanceOptions) {
+		assertNotFrozen();
+		this.geoDistanceOptions = geoDistanceOptions;
+		return (T) this;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public GeoDistanceOptions getGeoDistanceOptions() {
+		return this.geoDistanceOptions;
+	}
+
+	/**
+	 * @return true if options set
+	 */
+	public boolean hasGeoDistanceOptions() {
+		return this.geoDistanceOptions != null;
+	}
+
+	/**
+	 * @param canonical
+	 * @return copy of the SolrQuery rendered when the query has been frozen, null if query is not frozen
+	 */
+	public SolrQuery getFrozenSolrQuery(boolean canonical) {
+		SolrQuery solrQuery = canonical ? this.frozenCanonicalSolrQuery : this.frozenSolrQuery;
+		return solrQuery != null ? solrQuery.getCopy() : null;
+	}
+
+	/**
+	 * Make query immutable. Criteria, filter queries and all options are frozen along with the query. The resulting
+	 * SolrQuery is rendered once and reused by {@link QueryParser}.
+	 */
+	@Override
+	public <T extends SolrDataQuery> T freeze() {
+		if (isFrozen()) {
+			return super.freeze();
+		}
+		for (FilterQuery filterQuery : this.filterQueries) {
+			filterQuery.freeze();
+		}
+		if (this.statsOptions != null) {
+			this.statsOptions.freeze();
+		}
+		if (this.groupOptions != null) {
+			this.groupOptions.freeze();
+		}
+		if (this.geoDistanceOptions != null) {
+			this.geoDistanceOptions.freeze();
+		}
+		this.projectionOnFields = Collections.unmodifiableList(this.projectionOnFields);
+		this.groupByFields = Collections.unmodifiableList(this.groupByFields);
+		this.filterQueries = Collections.unmodifiableList(this.filterQueries);
+		T query = super.freeze();
+		if (getCriteria() != null) {
+			this.frozenSolrQuery = QUERY_PARSER.constructSolrQuery(this, getCriteria());
+			this.frozenCanonicalSolrQuery = QUERY_PARSER.constructCanonicalSolrQuery(this);
+		}
+		return query;
+	}
+
 }
@@ -36,4 +36,17 @@ public interface SolrDataQuery {
 	 */
 	Criteria getCriteria();
 
+	/**
+	 * Make query and all its parts immutable, so it can be shared among threads. Rendered query strings are computed
+	 * once. Any further modification results in an {@link org.springframework.dao.InvalidDataAccessApiUsageException}.
+	 * 
+	 * @return
+	 */
+	<T extends SolrDataQuery> T freeze();
+
+	/**
+	 * @return true if query has been frozen
+	 */
+	boolean isFrozen();
+
 }
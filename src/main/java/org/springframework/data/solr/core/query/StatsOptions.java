@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.util.Assert;
+
+/**
+ * Set of options for computing statistics (min, max, sum, mean,...) on numeric fields of all documents matching a
+ * {@link Query}. Aggregates are calculated within solr, so documents do not have to be fetched for it.
+ * 
+ * @author Christoph Strobl
+ */
+public class StatsOptions {
+
+	private List<Field> fields = new ArrayList<Field>(1);
+	private List<Field> facets = new ArrayList<Field>(0);
+	private volatile boolean frozen = false;
+
+	public StatsOptions() {
+	}
+
+	/**
+	 * Creates new instance computing statistics for fields with given name
+	 * 
+	 * @param fieldnames
+	 */
+	public StatsOptions(String... fieldnames) {
+		Assert.notNull(fieldnames, "Fields must not be null.");
+		Assert.noNullElements(fieldnames, "Cannot compute statistics for null fieldname.");
+
+		for (String fieldname : fieldnames) {
+			addField(fieldname);
+		}
+	}
+
+	/**
+	 * Creates new instance computing statistics for given fields
+	 * 
+	 * @param fields
+	 */
+	public StatsOptions(Field... fields) {
+		Assert.notNull(fields, "Fields must not be null.");
+		Assert.noNullElements(fields, "Cannot compute statistics for null field.");
+
+		for (Field field : fields) {
+			addField(field);
+		}
+	}
+
+	/**
+	 * Append additional field to compute statistics for. Corresponds to 'stats.field' in solr.
+	 * 
+	 * @param field
+	 * @return
+	 */
+	public final StatsOptions addField(Field field) {
+		Assert.notNull(field, "Cannot compute statistics for null field.");
+		Assert.hasText(field.getName(), "Cannot compute statistics for field with null/empty fieldname.");
+		assertNotFrozen();
+
+		this.fields.add(field);
+		return this;
+	}
+
+	/**
+	 * Append additional field with given name to compute statistics for
+	 * 
+	 * @param fieldname
+	 * @return
+	 */
+	public final StatsOptions addField(String fieldname) {
+		return addField(new SimpleField(fieldname));
+	}
+
+	/**
+	 * Additionally compute statistics per distinct value of given field. Corresponds to 'stats.facet' in solr.
+	 * 
+	 * @param field
+	 * @return
+	 */
+	public final StatsOptions addFacet(Field field) {
+		Assert.notNull(field, "Cannot facet statistics on null field.");
+		Assert.hasText(field.getName(), "Cannot facet statistics on field with null/empty fieldname.");
+		assertNotFrozen();
+
+		this.facets.add(field);
+		return this;
+	}
+
+	/**
+	 * Additionally compute statistics per distinct value of field with given name
+	 * 
+	 * @param fieldname
+	 * @return
+	 */
+	public final StatsOptions addFacet(String fieldname) {
+		return addFacet(new SimpleField(fieldname));
+	}
+
+	/**
+	 * @return fields to compute statistics for
+	 */
+	public List<Field> getFields() {
+		return Collections.unmodifiableList(this.fields);
+	}
+
+	/**
+	 * @return fields statistics are faceted on
+	 */
+	public List<Field> getFacets() {
+		return Collections.unmodifiableList(this.facets);
+	}
+
+	/**
+	 * true if at least one field set
+	 * 
+	 * @return
+	 */
+	public boolean hasFields() {
+		return !this.fields.isEmpty();
+	}
+
+	/**
+	 * Make options immutable
+	 * 
+	 * @return
+	 */
+	public StatsOptions freeze() {
+		if (this.frozen) {
+			return this;
+		}
+		this.fields = Collections.unmodifiableList(this.fields);
+		this.facets = Collections.unmodifiableList(this.facets);
+		this.frozen = true;
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	private void assertNotFrozen() {
+		if (this.frozen) {
+			throw new InvalidDataAccessApiUsageException("Cannot modify frozen stats options.");
+		}
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Query retrieving indexed terms of a single field along with their document frequency via solr's TermsComponent.
+ * Looking up terms by prefix is considerably cheaper than a wildcard query and therefore suited for autocompletion.
+ * 
+ * @author Christoph Strobl
+ */
+public class TermsQuery {
+
+	public static final String DEFAULT_REQUEST_HANDLER = "/terms";
+	public static final int DEFAULT_LIMIT = 10;
+	public static final int DEFAULT_MIN_COUNT = 1;
+
+	private final Field field;
+	private String prefix;
+	private int limit = DEFAULT_LIMIT;
+	private int minCount = DEFAULT_MIN_COUNT;
+	private String requestHandler = DEFAULT_REQUEST_HANDLER;
+
+	/**
+	 * Creates new query retrieving terms of field with given name
+	 * 
+	 * @param fieldname
+	 */
+	public TermsQuery(String fieldname) {
+		this(new SimpleField(fieldname));
+	}
+
+	/**
+	 * Creates new query retrieving terms of given field
+	 * 
+	 * @param field
+	 */
+	public TermsQuery(Field field) {
+		Assert.notNull(field, "Field for terms query must not be null.");
+		Assert.hasText(field.getName(), "Field.name for terms query must not be null/empty.");
+
+		this.field = field;
+	}
+
+	/**
+	 * Restrict terms to those starting with given prefix. Corresponds to 'terms.prefix' in solr.
+	 * 
+	 * @param prefix
+	 * @return
+	 */
+	public TermsQuery setPrefix(String prefix) {
+		this.prefix = prefix;
+		return this;
+	}
+
+	/**
+	 * Set max number of terms returned. Corresponds to 'terms.limit' in solr.
+	 * 
+	 * @param limit Default is 10. Negative values return all terms.
+	 * @return
+	 */
+	public TermsQuery setLimit(int limit) {
+		this.limit = limit < 0 ? -1 : limit;
+		return this;
+	}
+
+	/**
+	 * Set minimum document frequency of terms returned. Corresponds to 'terms.mincount' in solr.
+	 * 
+	 * @param minCount Default is 1
+	 * @return
+	 */
+	public TermsQuery setMinCount(int minCount) {
+		this.minCount = Math.max(0, minCount);
+		return this;
+	}
+
+	/**
+	 * Set path of the request handler the TermsComponent is registered with.
+	 * 
+	 * @param requestHandler Default is {@code /terms}
+	 * @return
+	 */
+	public TermsQuery setRequestHandler(String requestHandler) {
+		Assert.hasText(requestHandler, "RequestHandler must not be null/empty.");
+		this.requestHandler = requestHandler;
+		return this;
+	}
+
+	public Field getField() {
+		return this.field;
+	}
+
+	/**
+	 * @return null if not set
+	 */
+	public String getPrefix() {
+		return this.prefix;
+	}
+
+	public int getLimit() {
+		return this.limit;
+	}
+
+	public int getMinCount() {
+		return this.minCount;
+	}
+
+	public String getRequestHandler() {
+		return this.requestHandler;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof TermsQuery)) {
+			return false;
+		}
+		TermsQuery other = (TermsQuery) obj;
+		return this.field.getName().equals(other.field.getName()) && ObjectUtils.nullSafeEquals(this.prefix, other.prefix)
+				&& this.limit == other.limit && this.minCount == other.minCount
+				&& this.requestHandler.equals(other.requestHandler);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = this.field.getName().hashCode();
+		result = 31 * result + ObjectUtils.nullSafeHashCode(this.prefix);
+		result = 31 * result + this.limit;
+		result = 31 * result + this.minCount;
+		return 31 * result + this.requestHandler.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "TermsQuery [field=" + field + ", prefix=" + prefix + ", limit=" + limit + ", minCount=" + minCount + "]";
+	}
+
+}
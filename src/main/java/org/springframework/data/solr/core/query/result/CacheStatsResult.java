@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+/**
+ * Statistics of a single solr side cache (eg. filterCache, queryResultCache, documentCache) as reported by solr's
+ * {@code /admin/mbeans} handler. Counters refer to the current searcher, unless prefixed with cumulative.
+ * 
+ * @author Christoph Strobl
+ */
+public interface CacheStatsResult {
+
+	/**
+	 * @return name of the cache
+	 */
+	String getName();
+
+	/**
+	 * @return nr of lookups
+	 */
+	long getLookups();
+
+	/**
+	 * @return nr of lookups answered by the cache
+	 */
+	long getHits();
+
+	/**
+	 * @return ratio of hits to lookups, 0 if no lookups performed
+	 */
+	double getHitRatio();
+
+	/**
+	 * @return nr of entries added
+	 */
+	long getInserts();
+
+	/**
+	 * @return nr of entries removed due to exceeding the cache size
+	 */
+	long getEvictions();
+
+	/**
+	 * @return current nr of entries
+	 */
+	long getSize();
+
+	/**
+	 * @return milliseconds spent autowarming the cache when opening the current searcher
+	 */
+	long getWarmupTime();
+
+	/**
+	 * @return ratio of hits to lookups since the core has been started
+	 */
+	double getCumulativeHitRatio();
+
+	/**
+	 * @return nr of entries evicted since the core has been started
+	 */
+	long getCumulativeEvictions();
+
+}
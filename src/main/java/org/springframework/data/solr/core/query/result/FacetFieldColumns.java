@@ -0,0 +1,246 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.solr.core.query.Field;
+import org.springframework.util.Assert;
+
+/**
+ * Columnar representation of the facet result for a single field. Values and counts are held in parallel arrays, so no
+ * {@link FacetEntry} has to be created per value unless accessed via the {@link Page} view returned by
+ * {@link #asPage()}.
+ * 
+ * @author Christoph Strobl
+ */
+public final class FacetFieldColumns {
+
+	private final Field field;
+	private final String[] values;
+	private final long[] counts;
+	private final Pageable pageable;
+	private final long total;
+	private volatile FacetEntry[] entries;
+
+	/**
+	 * @param field
+	 * @param values
+	 * @param counts has to be of same length as values
+	 */
+	public FacetFieldColumns(Field field, String[] values, long[] counts) {
+		this(field, values, counts, null, values != null ? values.length : 0);
+	}
+
+	/**
+	 * @param field
+	 * @param values
+	 * @param counts has to be of same length as values
+	 * @param pageable may be null
+	 * @param total
+	 */
+	public FacetFieldColumns(Field field, String[] values, long[] counts, Pageable pageable, long total) {
+		Assert.notNull(field, "Field must not be null.");
+		Assert.notNull(values, "Values must not be null.");
+		Assert.notNull(counts, "Counts must not be null.");
+		Assert.isTrue(values.length == counts.length, "Values and counts must be of same length.");
+
+		this.field = field;
+		this.values = values;
+		this.counts = counts;
+		this.pageable = pageable;
+		this.total = total;
+	}
+
+	/**
+	 * @return the faceted field
+	 */
+	public Field getField() {
+		return this.field;
+	}
+
+	/**
+	 * @return number of values
+	 */
+	public int size() {
+		return this.values.length;
+	}
+
+	/**
+	 * @param index
+	 * @return value at given index
+	 */
+	public String getValue(int index) {
+		return this.values[index];
+	}
+
+	/**
+	 * @param index
+	 * @return nr of hits for value at given index
+	 */
+	public long getValueCount(int index) {
+		return this.counts[index];
+	}
+
+	/**
+	 * @return the pageable used for faceting, may be null
+	 */
+	public Pageable getPageable() {
+		return this.pageable;
+	}
+
+	/**
+	 * @return total number of facet values
+	 */
+	public long getTotalElements() {
+		return this.total;
+	}
+
+	/**
+	 * Create a read only {@link Page} view on the columns. {@link FacetEntry}s are created on first access only and
+	 * reused afterwards, also among multiple views.
+	 * 
+	 * @return
+	 */
+	public Page<FacetEntry> asPage() {
+		return new FacetFieldColumnsPage(this);
+	}
+
+	private FacetEntry getEntry(int index) {
+		FacetEntry[] entries = this.entries;
+		if (entries == null) {
+			entries = new FacetEntry[this.values.length];
+			this.entries = entries;
+		}
+		// entries are immutable, so concurrent creation of the same entry is harmless
+		FacetEntry entry = entries[index];
+		if (entry == null) {
+			entry = new SimpleFacetEntry(this.field, this.values[index], this.counts[index]);
+			entries[index] = entry;
+		}
+		return entry;
+	}
+
+	private static class FacetEntryList extends AbstractList<FacetEntry> implements RandomAccess {
+
+		private final FacetFieldColumns columns;
+
+		FacetEntryList(FacetFieldColumns columns) {
+			this.columns = columns;
+		}
+
+		@Override
+		public FacetEntry get(int index) {
+			return columns.getEntry(index);
+		}
+
+		@Override
+		public int size() {
+			return columns.values.length;
+		}
+
+	}
+
+	private static class FacetFieldColumnsPage implements Page<FacetEntry> {
+
+		private final FacetFieldColumns columns;
+		private final List<FacetEntry> content;
+
+		FacetFieldColumnsPage(FacetFieldColumns columns) {
+			this.columns = columns;
+			this.content = new FacetEntryList(columns);
+		}
+
+		@Override
+		public int getNumber() {
+			return columns.pageable != null ? columns.pageable.getPageNumber() : 0;
+		}
+
+		@Override
+		public int getSize() {
+			return columns.pageable != null ? columns.pageable.getPageSize() : 0;
+		}
+
+		@Override
+		public int getTotalPages() {
+			return getSize() == 0 ? 0 : (int) Math.ceil((double) columns.total / (double) getSize());
+		}
+
+		@Override
+		public int getNumberOfElements() {
+			return content.size();
+		}
+
+		@Override
+		public long getTotalElements() {
+			return columns.total;
+		}
+
+		@Override
+		public boolean hasPreviousPage() {
+			return getNumber() > 0;
+		}
+
+		@Override
+		public boolean isFirstPage() {
+			return !hasPreviousPage();
+		}
+
+		@Override
+		public boolean hasNextPage() {
+			return ((long) (getNumber() + 1) * getSize()) < columns.total;
+		}
+
+		@Override
+		public boolean isLastPage() {
+			return !hasNextPage();
+		}
+
+		@Override
+		public Iterator<FacetEntry> iterator() {
+			return content.iterator();
+		}
+
+		@Override
+		public List<FacetEntry> getContent() {
+			return content;
+		}
+
+		@Override
+		public boolean hasContent() {
+			return !content.isEmpty();
+		}
+
+		@Override
+		public Sort getSort() {
+			return columns.pageable != null ? columns.pageable.getSort() : null;
+		}
+
+		@Override
+		public String toString() {
+			return "Page " + getNumber() + " of " + getTotalPages() + " containing " + columns.field.getName()
+					+ " facet values";
+		}
+
+	}
+
+}
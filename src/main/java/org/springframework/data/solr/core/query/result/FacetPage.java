@@ -29,17 +29,21 @@ import org.springframework.data.solr.core.query.Field;
 import org.springframework.data.solr.core.query.SimpleField;
 
 /**
- * FacetPage holds a page for each field targeted by the facet query.
+ * FacetPage holds a page for each field and range targeted by the facet query, as well as the counts of facet queries.
+ * Statistics are available as for any {@link StatsPage}.
  * 
  * @param <T>
  * 
  * @author Christoph Strobl
  */
-public class FacetPage<T> extends PageImpl<T> {
+public class FacetPage<T> extends StatsPage<T> {
 
 	private static final long serialVersionUID = 9024455741261109788L;
 
 	private Map<String, Page<FacetEntry>> facetResultPages = new HashMap<String, Page<FacetEntry>>(1);
+	private Map<String, FacetFieldColumns> facetResultColumns = new HashMap<String, FacetFieldColumns>(1);
+	private Map<String, Page<FacetEntry>> rangeFacetResultPages = new HashMap<String, Page<FacetEntry>>(0);
+	private List<FacetQueryEntry> facetQueryResult = new ArrayList<FacetQueryEntry>(0);
 
 	public FacetPage(List<T> content) {
 		super(content);
@@ -50,14 +54,56 @@ public class FacetPage<T> extends PageImpl<T> {
 	}
 
 	public final Page<FacetEntry> getFacetResultPage(Field field) {
+		FacetFieldColumns columns = facetResultColumns.get(field.getName());
+		if (columns != null) {
+			return columns.asPage();
+		}
 		Page<FacetEntry> page = facetResultPages.get(field.getName());
 		return page != null ? page : new PageImpl<FacetEntry>(Collections.<FacetEntry> emptyList());
 	}
 
 	public final void addFacetResultPage(Page<FacetEntry> page, Field field) {
+		facetResultColumns.remove(field.getName());
 		facetResultPages.put(field.getName(), page);
 	}
 
+	/**
+	 * Get the columnar facet result for given field. Prefer this one over {@link #getFacetResultPage(Field)} when
+	 * iterating high cardinality facets, as it does not require a {@link FacetEntry} per value.
+	 * 
+	 * @param field
+	 * @return null if field has not been faceted
+	 */
+	public final FacetFieldColumns getFacetResultColumns(Field field) {
+		FacetFieldColumns columns = facetResultColumns.get(field.getName());
+		if (columns != null) {
+			return columns;
+		}
+		Page<FacetEntry> page = facetResultPages.get(field.getName());
+		if (page == null) {
+			return null;
+		}
+		List<FacetEntry> content = page.getContent();
+		String[] values = new String[content.size()];
+		long[] counts = new long[content.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = content.get(i).getValue();
+			counts[i] = content.get(i).getValueCount();
+		}
+		return new FacetFieldColumns(field, values, counts, null, page.getTotalElements());
+	}
+
+	public final void addFacetResultColumns(FacetFieldColumns columns) {
+		facetResultPages.remove(columns.getField().getName());
+		facetResultColumns.put(columns.getField().getName(), columns);
+	}
+
+	public void addAllFacetResultColumns(Collection<FacetFieldColumns> columns) {
+		for (FacetFieldColumns entry : columns) {
+			addFacetResultColumns(entry);
+		}
+	}
+
 	public void addAllFacetResultPages(Map<Field, Page<FacetEntry>> pageMap) {
 		for (Map.Entry<Field, Page<FacetEntry>> entry : pageMap.entrySet()) {
 			addFacetResultPage(entry.getValue(), entry.getKey());
@@ -68,7 +114,57 @@ public class FacetPage<T> extends PageImpl<T> {
 	 * @return Collection holding faceting result pages
 	 */
 	public Collection<Page<FacetEntry>> getFacetResultPages() {
-		return Collections.unmodifiableCollection(this.facetResultPages.values());
+		if (facetResultColumns.isEmpty()) {
+			return Collections.unmodifiableCollection(this.facetResultPages.values());
+		}
+		List<Page<FacetEntry>> pages = new ArrayList<Page<FacetEntry>>(facetResultPages.size()
+				+ facetResultColumns.size());
+		pages.addAll(this.facetResultPages.values());
+		for (FacetFieldColumns columns : this.facetResultColumns.values()) {
+			pages.add(columns.asPage());
+		}
+		return Collections.unmodifiableCollection(pages);
+	}
+
+	/**
+	 * Get buckets of range faceting on given field
+	 * 
+	 * @param field
+	 * @return empty page if field has not been faceted by range
+	 */
+	public final Page<FacetEntry> getRangeFacetResultPage(Field field) {
+		Page<FacetEntry> page = rangeFacetResultPages.get(field.getName());
+		return page != null ? page : new PageImpl<FacetEntry>(Collections.<FacetEntry> emptyList());
+	}
+
+	public final void addRangeFacetResultPage(Page<FacetEntry> page, Field field) {
+		rangeFacetResultPages.put(field.getName(), page);
+	}
+
+	public void addAllRangeFacetResultPages(Map<Field, Page<FacetEntry>> pageMap) {
+		for (Map.Entry<Field, Page<FacetEntry>> entry : pageMap.entrySet()) {
+			addRangeFacetResultPage(entry.getValue(), entry.getKey());
+		}
+	}
+
+	/**
+	 * @return Collection holding range faceting result pages
+	 */
+	public Collection<Page<FacetEntry>> getRangeFacetResultPages() {
+		return Collections.unmodifiableCollection(this.rangeFacetResultPages.values());
+	}
+
+	/**
+	 * Get counts of facet queries in order of definition
+	 * 
+	 * @return
+	 */
+	public Page<FacetQueryEntry> getFacetQueryResult() {
+		return new PageImpl<FacetQueryEntry>(Collections.unmodifiableList(this.facetQueryResult));
+	}
+
+	public void addAllFacetQueryResults(List<FacetQueryEntry> facetQueryEntries) {
+		this.facetQueryResult.addAll(facetQueryEntries);
 	}
 
 	/**
@@ -77,13 +173,16 @@ public class FacetPage<T> extends PageImpl<T> {
 	 * @return
 	 */
 	public Collection<Field> getFacetFields() {
-		if (facetResultPages.isEmpty()) {
+		if (facetResultPages.isEmpty() && facetResultColumns.isEmpty()) {
 			return Collections.emptyList();
 		}
-		List<Field> fields = new ArrayList<Field>(facetResultPages.size());
+		List<Field> fields = new ArrayList<Field>(facetResultPages.size() + facetResultColumns.size());
 		for (String fieldName : this.facetResultPages.keySet()) {
 			fields.add(new SimpleField(fieldName));
 		}
+		for (FacetFieldColumns columns : this.facetResultColumns.values()) {
+			fields.add(columns.getField());
+		}
 		return fields;
 	}
 
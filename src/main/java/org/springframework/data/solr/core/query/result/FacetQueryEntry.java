@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+/**
+ * FacetQueryEntry is returned for each query listed in
+ * {@link org.springframework.data.solr.core.query.FacetOptions#getFacetQueries()} holding the query and the number of
+ * documents matching it.
+ * 
+ * @author Christoph Strobl
+ */
+public interface FacetQueryEntry {
+
+	/**
+	 * The query string as sent to solr
+	 * 
+	 * @return
+	 */
+	String getValue();
+
+	/**
+	 * The nr of hits for the query
+	 * 
+	 * @return
+	 */
+	long getValueCount();
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import java.util.Map;
+
+import org.springframework.data.solr.core.query.Field;
+
+/**
+ * FieldStatsResult is returned for each field listed in {@link org.springframework.data.solr.core.query.StatsOptions}
+ * holding the overall statistics as well as the ones per facet value.
+ * 
+ * @author Christoph Strobl
+ */
+public interface FieldStatsResult extends StatsResult {
+
+	/**
+	 * The field statistics have been computed for
+	 * 
+	 * @return
+	 */
+	Field getField();
+
+	/**
+	 * Statistics per value of given facet field
+	 * 
+	 * @param facet
+	 * @return empty map if no statistics available for facet
+	 */
+	Map<String, StatsResult> getFacetStatsResult(Field facet);
+
+	/**
+	 * @return statistics per facet value mapped by name of the facet field
+	 */
+	Map<String, Map<String, StatsResult>> getFacetStatsResults();
+
+}
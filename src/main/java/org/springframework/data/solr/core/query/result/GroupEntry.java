@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * GroupEntry holds the top documents of a single group, that is a distinct value of the field or the query grouped by.
+ * 
+ * @param <T>
+ * 
+ * @author Christoph Strobl
+ */
+public interface GroupEntry<T> {
+
+	/**
+	 * The value documents have been grouped by
+	 * 
+	 * @return null for documents not having a value in the grouped field
+	 */
+	String getGroupValue();
+
+	/**
+	 * Top documents of the group along with the total number of documents in the group
+	 * 
+	 * @return
+	 */
+	Page<T> getResult();
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.solr.core.query.Field;
+
+/**
+ * GroupPage holds the {@link GroupResult} of the single field or query listed in
+ * {@link org.springframework.data.solr.core.query.GroupOptions}. The content of the page consists of the
+ * {@link GroupEntry}s of that result, as pagination applies to groups. Its total is the number of groups, the number of
+ * matching documents is available via {@link GroupResult#getMatches()}. Facets and statistics are available as for any
+ * {@link FacetPage}.
+ * 
+ * @param <T>
+ * 
+ * @author Christoph Strobl
+ */
+public class GroupPage<T> extends FacetPage<GroupEntry<T>> {
+
+	private static final long serialVersionUID = -4386826148233213440L;
+
+	private Map<String, GroupResult<T>> groupResults = new LinkedHashMap<String, GroupResult<T>>(1);
+
+	public GroupPage(List<GroupEntry<T>> content) {
+		super(content);
+	}
+
+	public GroupPage(List<GroupEntry<T>> content, Pageable pageable, long total) {
+		super(content, pageable, total);
+	}
+
+	/**
+	 * Get result of grouping by given field
+	 * 
+	 * @param field
+	 * @return null if not grouped by field
+	 */
+	public final GroupResult<T> getGroupResult(Field field) {
+		return getGroupResult(field.getName());
+	}
+
+	/**
+	 * Get result of group command with given name, that is the fieldname or query string grouped by
+	 * 
+	 * @param name
+	 * @return null if no group command with given name present
+	 */
+	public final GroupResult<T> getGroupResult(String name) {
+		return this.groupResults.get(name);
+	}
+
+	public final void addGroupResult(GroupResult<T> groupResult) {
+		this.groupResults.put(groupResult.getName(), groupResult);
+	}
+
+	public void addAllGroupResults(Collection<GroupResult<T>> groupResults) {
+		for (GroupResult<T> groupResult : groupResults) {
+			addGroupResult(groupResult);
+		}
+	}
+
+	/**
+	 * @return all group results in order of response
+	 */
+	public Collection<GroupResult<T>> getGroupResults() {
+		return Collections.unmodifiableCollection(this.groupResults.values());
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.solr.core.query.GroupOptions;
+
+/**
+ * GroupResult is returned for each field and query listed in {@link GroupOptions} holding the groups along with the
+ * number of matching documents.
+ * 
+ * @param <T>
+ * 
+ * @author Christoph Strobl
+ */
+public interface GroupResult<T> {
+
+	/**
+	 * Name of the group command, that is the fieldname or query string grouped by
+	 * 
+	 * @return
+	 */
+	String getName();
+
+	/**
+	 * Total number of documents matching the query
+	 * 
+	 * @return
+	 */
+	long getMatches();
+
+	/**
+	 * Total number of groups
+	 * 
+	 * @return null when grouping by query
+	 */
+	Integer getGroupsCount();
+
+	/**
+	 * @return the groups
+	 */
+	Page<GroupEntry<T>> getGroupEntries();
+
+}
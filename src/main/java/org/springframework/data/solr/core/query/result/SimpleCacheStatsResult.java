@@ -0,0 +1,133 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+/**
+ * The most trivial implementation of {@link CacheStatsResult}
+ * 
+ * @author Christoph Strobl
+ */
+public class SimpleCacheStatsResult implements CacheStatsResult {
+
+	private final String name;
+	private long lookups;
+	private long hits;
+	private double hitRatio;
+	private long inserts;
+	private long evictions;
+	private long size;
+	private long warmupTime;
+	private double cumulativeHitRatio;
+	private long cumulativeEvictions;
+
+	public SimpleCacheStatsResult(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public long getLookups() {
+		return this.lookups;
+	}
+
+	public void setLookups(long lookups) {
+		this.lookups = lookups;
+	}
+
+	@Override
+	public long getHits() {
+		return this.hits;
+	}
+
+	public void setHits(long hits) {
+		this.hits = hits;
+	}
+
+	@Override
+	public double getHitRatio() {
+		return this.hitRatio;
+	}
+
+	public void setHitRatio(double hitRatio) {
+		this.hitRatio = hitRatio;
+	}
+
+	@Override
+	public long getInserts() {
+		return this.inserts;
+	}
+
+	public void setInserts(long inserts) {
+		this.inserts = inserts;
+	}
+
+	@Override
+	public long getEvictions() {
+		return this.evictions;
+	}
+
+	public void setEvictions(long evictions) {
+		this.evictions = evictions;
+	}
+
+	@Override
+	public long getSize() {
+		return this.size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	@Override
+	public long getWarmupTime() {
+		return this.warmupTime;
+	}
+
+	public void setWarmupTime(long warmupTime) {
+		this.warmupTime = warmupTime;
+	}
+
+	@Override
+	public double getCumulativeHitRatio() {
+		return this.cumulativeHitRatio;
+	}
+
+	public void setCumulativeHitRatio(double cumulativeHitRatio) {
+		this.cumulativeHitRatio = cumulativeHitRatio;
+	}
+
+	@Override
+	public long getCumulativeEvictions() {
+		return this.cumulativeEvictions;
+	}
+
+	public void setCumulativeEvictions(long cumulativeEvictions) {
+		this.cumulativeEvictions = cumulativeEvictions;
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleCacheStatsResult [name=" + name + ", lookups=" + lookups + ", hits=" + hits + ", hitRatio="
+				+ hitRatio + ", inserts=" + inserts + ", evictions=" + evictions + ", size=" + size + ", warmupTime="
+				+ warmupTime + "]";
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+/**
+ * The most trivial implementation of {@link FacetQueryEntry}
+ * 
+ * @author Christoph Strobl
+ */
+public class SimpleFacetQueryEntry implements FacetQueryEntry {
+
+	private final String value;
+	private final long count;
+
+	public SimpleFacetQueryEntry(String value, long count) {
+		this.value = value;
+		this.count = count;
+	}
+
+	@Override
+	public String getValue() {
+		return this.value;
+	}
+
+	@Override
+	public final long getValueCount() {
+		return this.count;
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleFacetQueryEntry [value=" + value + ", count=" + count + "]";
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.solr.core.query.Field;
+import org.springframework.util.Assert;
+
+/**
+ * The most trivial implementation of {@link FieldStatsResult}
+ * 
+ * @author Christoph Strobl
+ */
+public class SimpleFieldStatsResult extends SimpleStatsResult implements FieldStatsResult {
+
+	private final Field field;
+	private final Map<String, Map<String, StatsResult>> facetStatsResults = new LinkedHashMap<String, Map<String, StatsResult>>(
+			0);
+
+	public SimpleFieldStatsResult(Field field) {
+		Assert.notNull(field, "Field must not be null.");
+		this.field = field;
+	}
+
+	@Override
+	public final Field getField() {
+		return this.field;
+	}
+
+	@Override
+	public Map<String, StatsResult> getFacetStatsResult(Field facet) {
+		Map<String, StatsResult> result = this.facetStatsResults.get(facet.getName());
+		return result != null ? Collections.unmodifiableMap(result) : Collections.<String, StatsResult> emptyMap();
+	}
+
+	@Override
+	public Map<String, Map<String, StatsResult>> getFacetStatsResults() {
+		return Collections.unmodifiableMap(this.facetStatsResults);
+	}
+
+	/**
+	 * Add statistics computed for a single value of given facet field
+	 * 
+	 * @param facet
+	 * @param value
+	 * @param statsResult
+	 */
+	public void addFacetStatsResult(Field facet, String value, StatsResult statsResult) {
+		Map<String, StatsResult> results = this.facetStatsResults.get(facet.getName());
+		if (results == null) {
+			results = new LinkedHashMap<String, StatsResult>();
+			this.facetStatsResults.put(facet.getName(), results);
+		}
+		results.put(value, statsResult);
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleFieldStatsResult [field=" + field + ", " + super.toString() + ", facetStatsResults="
+				+ facetStatsResults + "]";
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * The most trivial implementation of {@link GroupResult}
+ * 
+ * @param <T>
+ * 
+ * @author Christoph Strobl
+ */
+public class SimpleGroupResult<T> implements GroupResult<T> {
+
+	private final String name;
+	private final long matches;
+	private final Integer groupsCount;
+	private final Page<GroupEntry<T>> groupEntries;
+
+	public SimpleGroupResult(String name, long matches, Integer groupsCount, Page<GroupEntry<T>> groupEntries) {
+		this.name = name;
+		this.matches = matches;
+		this.groupsCount = groupsCount;
+		this.groupEntries = groupEntries;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public long getMatches() {
+		return this.matches;
+	}
+
+	@Override
+	public Integer getGroupsCount() {
+		return this.groupsCount;
+	}
+
+	@Override
+	public Page<GroupEntry<T>> getGroupEntries() {
+		return this.groupEntries;
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleGroupResult [name=" + name + ", matches=" + matches + ", groupsCount=" + groupsCount + "]";
+	}
+
+}
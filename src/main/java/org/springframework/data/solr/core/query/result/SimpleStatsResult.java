@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+/**
+ * The most trivial implementation of {@link StatsResult}
+ * 
+ * @author Christoph Strobl
+ */
+public class SimpleStatsResult implements StatsResult {
+
+	private Double min;
+	private Double max;
+	private Double sum;
+	private Double mean;
+	private Double stddev;
+	private Long count;
+	private Long missing;
+
+	@Override
+	public Double getMin() {
+		return this.min;
+	}
+
+	public void setMin(Double min) {
+		this.min = min;
+	}
+
+	@Override
+	public Double getMax() {
+		return this.max;
+	}
+
+	public void setMax(Double max) {
+		this.max = max;
+	}
+
+	@Override
+	public Double getSum() {
+		return this.sum;
+	}
+
+	public void setSum(Double sum) {
+		this.sum = sum;
+	}
+
+	@Override
+	public Double getMean() {
+		return this.mean;
+	}
+
+	public void setMean(Double mean) {
+		this.mean = mean;
+	}
+
+	@Override
+	public Double getStddev() {
+		return this.stddev;
+	}
+
+	public void setStddev(Double stddev) {
+		this.stddev = stddev;
+	}
+
+	@Override
+	public Long getCount() {
+		return this.count;
+	}
+
+	public void setCount(Long count) {
+		this.count = count;
+	}
+
+	@Override
+	public Long getMissing() {
+		return this.missing;
+	}
+
+	public void setMissing(Long missing) {
+		this.missing = missing;
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleStatsResult [min=" + min + ", max=" + max + ", sum=" + sum + ", mean=" + mean + ", stddev=" + stddev
+				+ ", count=" + count + ", missing=" + missing + "]";
+	}
+
+}
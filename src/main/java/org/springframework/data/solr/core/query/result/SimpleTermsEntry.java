@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import org.springframework.data.solr.core.query.Field;
+
+/**
+ * The most trivial implementation of {@link TermsEntry}
+ * 
+ * @author Christoph Strobl
+ */
+public class SimpleTermsEntry implements TermsEntry {
+
+	private final Field field;
+	private final String term;
+	private final long count;
+
+	public SimpleTermsEntry(Field field, String term, long count) {
+		this.field = field;
+		this.term = term;
+		this.count = count;
+	}
+
+	@Override
+	public final Field getField() {
+		return this.field;
+	}
+
+	@Override
+	public final String getTerm() {
+		return this.term;
+	}
+
+	@Override
+	public final long getCount() {
+		return this.count;
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleTermsEntry [field=" + field + ", term=" + term + ", count=" + count + "]";
+	}
+
+}
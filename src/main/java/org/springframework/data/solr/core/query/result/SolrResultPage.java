@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Base for pages of query results, carrying information solr reports along with any result, regardless of the
+ * components used by the query.
+ * 
+ * @param <T>
+ * 
+ * @author Christoph Strobl
+ */
+public class SolrResultPage<T> extends PageImpl<T> {
+
+	private static final long serialVersionUID = 5478321948016785542L;
+
+	private boolean partialResults = false;
+
+	public SolrResultPage(List<T> content) {
+		super(content);
+	}
+
+	public SolrResultPage(List<T> content, Pageable pageable, long total) {
+		super(content, pageable, total);
+	}
+
+	/**
+	 * @return true if solr stopped searching after exceeding
+	 *         {@link org.springframework.data.solr.core.query.SimpleQuery#getTimeAllowed()}, so not all matching documents
+	 *         might be contained
+	 */
+	public boolean isPartialResults() {
+		return this.partialResults;
+	}
+
+	public void setPartialResults(boolean partialResults) {
+		this.partialResults = partialResults;
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.solr.core.query.Field;
+
+/**
+ * StatsPage holds the statistics computed for each field listed in
+ * {@link org.springframework.data.solr.core.query.StatsOptions} along with the page of results.
+ * 
+ * @param <T>
+ * 
+ * @author Christoph Strobl
+ */
+public class StatsPage<T> extends SolrResultPage<T> {
+
+	private static final long serialVersionUID = -3735380427370346398L;
+
+	private Map<String, FieldStatsResult> fieldStatsResults = new HashMap<String, FieldStatsResult>(0);
+
+	public StatsPage(List<T> content) {
+		super(content);
+	}
+
+	public StatsPage(List<T> content, Pageable pageable, long total) {
+		super(content, pageable, total);
+	}
+
+	/**
+	 * @param field
+	 * @return null if no statistics available for field
+	 */
+	public final FieldStatsResult getFieldStatsResult(Field field) {
+		return getFieldStatsResult(field.getName());
+	}
+
+	/**
+	 * @param fieldname
+	 * @return null if no statistics available for field
+	 */
+	public final FieldStatsResult getFieldStatsResult(String fieldname) {
+		return this.fieldStatsResults.get(fieldname);
+	}
+
+	public final void addFieldStatsResult(FieldStatsResult fieldStatsResult) {
+		this.fieldStatsResults.put(fieldStatsResult.getField().getName(), fieldStatsResult);
+	}
+
+	public void addAllFieldStatsResults(Collection<FieldStatsResult> fieldStatsResults) {
+		for (FieldStatsResult fieldStatsResult : fieldStatsResults) {
+			addFieldStatsResult(fieldStatsResult);
+		}
+	}
+
+	/**
+	 * @return Collection holding statistics for all fields
+	 */
+	public Collection<FieldStatsResult> getFieldStatsResults() {
+		return Collections.unmodifiableCollection(this.fieldStatsResults.values());
+	}
+
+}
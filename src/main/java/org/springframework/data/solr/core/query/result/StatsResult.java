@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+/**
+ * StatsResult holds the statistics computed by solr for a numeric field. Values are null in case no document within
+ * the result has a value for the field.
+ * 
+ * @author Christoph Strobl
+ */
+public interface StatsResult {
+
+	/**
+	 * @return the minimum value
+	 */
+	Double getMin();
+
+	/**
+	 * @return the maximum value
+	 */
+	Double getMax();
+
+	/**
+	 * @return the sum of all values
+	 */
+	Double getSum();
+
+	/**
+	 * @return the mean of all values
+	 */
+	Double getMean();
+
+	/**
+	 * @return the standard deviation
+	 */
+	Double getStddev();
+
+	/**
+	 * @return the number of documents having a value
+	 */
+	Long getCount();
+
+	/**
+	 * @return the number of documents not having a value
+	 */
+	Long getMissing();
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.query.result;
+
+import org.springframework.data.solr.core.query.Field;
+
+/**
+ * TermsEntry is returned as result of a {@link org.springframework.data.solr.core.query.TermsQuery} holding a single
+ * indexed term and the number of documents containing it.
+ * 
+ * @author Christoph Strobl
+ */
+public interface TermsEntry {
+
+	/**
+	 * The field the term is indexed in
+	 * 
+	 * @return
+	 */
+	Field getField();
+
+	/**
+	 * The indexed term
+	 * 
+	 * @return
+	 */
+	String getTerm();
+
+	/**
+	 * The nr of documents containing the term
+	 * 
+	 * @return
+	 */
+	long getCount();
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.querylog;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.params.SolrParams;
+import org.springframework.util.Assert;
+
+/**
+ * A single query sent to solr along with the time it has been sent. Serialized as one line consisting of the timestamp
+ * in milliseconds followed by the url encoded query parameters separated by a single blank.
+ * 
+ * @author Christoph Strobl
+ */
+public final class QueryLogEntry {
+
+	private static final char SEPARATOR = ' ';
+	private static final String ENCODING = "UTF-8";
+
+	private final long timestamp;
+	private final SolrParams params;
+	private final String queryString;
+
+	/**
+	 * @param timestamp milliseconds since epoch
+	 * @param params parameters are copied, so subsequent modifications do not alter the entry
+	 */
+	public QueryLogEntry(long timestamp, SolrParams params) {
+		Assert.notNull(params, "Params must not be null.");
+
+		this.timestamp = timestamp;
+		this.params = new ModifiableSolrParams(params);
+		this.queryString = StringUtils.removeStart(ClientUtils.toQueryString(params, false), "?");
+	}
+
+	/**
+	 * @return milliseconds since epoch
+	 */
+	public long getTimestamp() {
+		return this.timestamp;
+	}
+
+	public SolrParams getParams() {
+		return this.params;
+	}
+
+	/**
+	 * @return url encoded query parameters
+	 */
+	public String getQueryString() {
+		return this.queryString;
+	}
+
+	/**
+	 * @return single line representation of entry
+	 */
+	String toLine() {
+		return Long.toString(this.timestamp) + SEPARATOR + this.queryString;
+	}
+
+	/**
+	 * Parse entry previously written via {@link #toLine()}
+	 * 
+	 * @param line
+	 * @return null if line is not a valid entry
+	 */
+	static QueryLogEntry parse(String line) {
+		if (StringUtils.isBlank(line)) {
+			return null;
+		}
+		int separatorIndex = line.indexOf(SEPARATOR);
+		if (separatorIndex < 1) {
+			return null;
+		}
+
+		long timestamp;
+		try {
+			timestamp = Long.parseLong(line.substring(0, separatorIndex));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+
+		ModifiableSolrParams params = new ModifiableSolrParams();
+		for (String parameter : StringUtils.split(line.substring(separatorIndex + 1), '&')) {
+			int valueIndex = parameter.indexOf('=');
+			if (valueIndex > 0) {
+				params.add(decode(parameter.substring(0, valueIndex)), decode(parameter.substring(valueIndex + 1)));
+			}
+		}
+		return new QueryLogEntry(timestamp, params);
+	}
+
+	private static String decode(String value) {
+		try {
+			return URLDecoder.decode(value, ENCODING);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(ENCODING + " not supported.", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "QueryLogEntry [timestamp=" + timestamp + ", queryString=" + queryString + "]";
+	}
+
+}
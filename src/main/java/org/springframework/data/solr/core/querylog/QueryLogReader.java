@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.querylog;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.util.Assert;
+
+/**
+ * Reads query logs written by {@link QueryLogWriter}. Entries are read one at a time when iterating, so logs can be
+ * passed to {@link QueryLogReplayer} without loading them into memory. Lines that cannot be parsed, eg. the last one of
+ * a log that has not been closed properly, are skipped.
+ * 
+ * @author Christoph Strobl
+ */
+public final class QueryLogReader implements Iterator<QueryLogEntry>, Closeable {
+
+	private final BufferedReader reader;
+	private QueryLogEntry next;
+
+	/**
+	 * @param file
+	 * @throws IOException
+	 */
+	public QueryLogReader(File file) throws IOException {
+		Assert.notNull(file, "File must not be null.");
+		this.reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+	}
+
+	/**
+	 * Read all entries in order of appearance.
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<QueryLogEntry> read(File file) throws IOException {
+		List<QueryLogEntry> entries = new ArrayList<QueryLogEntry>();
+		QueryLogReader reader = new QueryLogReader(file);
+		try {
+			while (reader.hasNext()) {
+				entries.add(reader.next());
+			}
+		} finally {
+			reader.close();
+		}
+		return entries;
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			String line;
+			while (this.next == null && (line = this.reader.readLine()) != null) {
+				this.next = QueryLogEntry.parse(line);
+			}
+		} catch (IOException e) {
+			throw new DataAccessResourceFailureException("Cannot read query log.", e);
+		}
+		return this.next != null;
+	}
+
+	@Override
+	public QueryLogEntry next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		QueryLogEntry entry = this.next;
+		this.next = null;
+		return entry;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.querylog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.SolrRequest.METHOD;
+import org.apache.solr.client.solrj.SolrServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.solr.SolrServerFactory;
+import org.springframework.data.solr.UncategorizedSolrException;
+import org.springframework.util.Assert;
+
+/**
+ * Plays back queries recorded via {@link QueryLogWriter} against the {@link SolrServer} provided by a
+ * {@link SolrServerFactory}, which might as well be an embedded one. Queries are sent at their original pace, scaled
+ * by {@link #getSpeed()}, using up to {@link #getConcurrency()} parallel requests. Queries are sent via POST, so long
+ * ones do not exceed the max request length of the servlet container. <br />
+ * Latency is measured from the time a query is scheduled to be sent, so time spent waiting for a free connection
+ * while solr falls behind the original pace is taken into account.
+ * 
+ * @author Christoph Strobl
+ */
+public class QueryLogReplayer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(QueryLogReplayer.class);
+
+	public static final int DEFAULT_CONCURRENCY = 1;
+	public static final double DEFAULT_SPEED = 1;
+
+	private final SolrServerFactory solrServerFactory;
+	private int concurrency = DEFAULT_CONCURRENCY;
+	private double speed = DEFAULT_SPEED;
+
+	public QueryLogReplayer(SolrServerFactory solrServerFactory) {
+		Assert.notNull(solrServerFactory, "SolrServerFactory must not be null.");
+		this.solrServerFactory = solrServerFactory;
+	}
+
+	/**
+	 * Replay entries in given order, retaining the time gaps between them scaled by {@link #getSpeed()}
+	 * 
+	 * @param entries
+	 * @return
+	 */
+	public ReplayReport replay(List<QueryLogEntry> entries) {
+		Assert.notNull(entries, "Entries must not be null.");
+		return replay(entries.iterator());
+	}
+
+	/**
+	 * Replay entries in given order, retaining the time gaps between them scaled by {@link #getSpeed()}. Entries are
+	 * consumed one at a time, so logs exceeding available memory can be replayed via {@link QueryLogReader}.
+	 * 
+	 * @param entries
+	 * @return
+	 */
+	public ReplayReport replay(Iterator<QueryLogEntry> entries) {
+		Assert.notNull(entries, "Entries must not be null.");
+		return execute(entries, this.speed);
+	}
+
+	/**
+	 * Warm up solr side caches by executing the topN most frequent queries of given entries once, as fast as possible.
+	 * 
+	 * @param entries
+	 * @param topN
+	 * @return
+	 */
+	public ReplayReport warmUp(List<QueryLogEntry> entries, int topN) {
+		Assert.notNull(entries, "Entries must not be null.");
+		return warmUp(entries.iterator(), topN);
+	}
+
+	/**
+	 * Warm up solr side caches by executing the topN most frequent queries of given entries once, as fast as possible.
+	 * Only one entry per distinct query is kept in memory.
+	 * 
+	 * @param entries
+	 * @param topN
+	 * @return
+	 */
+	public ReplayReport warmUp(Iterator<QueryLogEntry> entries, int topN) {
+		Assert.notNull(entries, "Entries must not be null.");
+		Assert.isTrue(topN > 0, "TopN must be greater than zero.");
+		return execute(selectMostFrequent(entries, topN).iterator(), 0);
+	}
+
+	/**
+	 * @param entries
+	 * @param topN
+	 * @return one entry per distinct query string ordered by frequency, most frequent first
+	 */
+	static List<QueryLogEntry> selectMostFrequent(Iterator<QueryLogEntry> entries, int topN) {
+		final Map<String, Integer> frequencies = new LinkedHashMap<String, Integer>();
+		Map<String, QueryLogEntry> distinctEntries = new LinkedHashMap<String, QueryLogEntry>();
+		while (entries.hasNext()) {
+			QueryLogEntry entry = entries.next();
+			Integer frequency = frequencies.get(entry.getQueryString());
+			frequencies.put(entry.getQueryString(), frequency == null ? 1 : frequency + 1);
+			if (!distinctEntries.containsKey(entry.getQueryString())) {
+				distinctEntries.put(entry.getQueryString(), entry);
+			}
+		}
+
+		List<QueryLogEntry> selected = new ArrayList<QueryLogEntry>(distinctEntries.values());
+		Collections.sort(selected, new Comparator<QueryLogEntry>() {
+
+			@Override
+			public int compare(QueryLogEntry o1, QueryLogEntry o2) {
+				return frequencies.get(o2.getQueryString()).compareTo(frequencies.get(o1.getQueryString()));
+			}
+
+		});
+		return selected.size() > topN ? new ArrayList<QueryLogEntry>(selected.subList(0, topN)) : selected;
+	}
+
+	/**
+	 * Submit entries one by one, never having more than {@link #getConcurrency()} queries in flight, and record results
+	 * as soon as they complete.
+	 * 
+	 * @param entries
+	 * @param speed
+	 * @return
+	 */
+	private ReplayReport execute(Iterator<QueryLogEntry> entries, double speed) {
+		final SolrServer solrServer = solrServerFactory.getSolrServer();
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		CompletionService<Long> completionService = new ExecutorCompletionService<Long>(executor);
+		LatencyRecorder recorder = new LatencyRecorder();
+
+		long start = System.nanoTime();
+		long firstTimestamp = 0;
+		int pending = 0;
+		try {
+			for (int i = 0; entries.hasNext(); i++) {
+				final QueryLogEntry entry = entries.next();
+				long scheduledNanos = 0;
+				if (speed > 0) {
+					if (i == 0) {
+						firstTimestamp = entry.getTimestamp();
+					}
+					scheduledNanos = start
+							+ (long) (TimeUnit.MILLISECONDS.toNanos(entry.getTimestamp() - firstTimestamp) / speed);
+					long delayNanos = scheduledNanos - System.nanoTime();
+					if (delayNanos > 0) {
+						TimeUnit.NANOSECONDS.sleep(delayNanos);
+					}
+				}
+				for (; pending >= concurrency; pending--) {
+					recorder.record(completionService.take());
+				}
+				if (speed <= 0) {
+					scheduledNanos = System.nanoTime();
+				}
+
+				final long sendNanos = scheduledNanos;
+				completionService.submit(new Callable<Long>() {
+
+					@Override
+					public Long call() throws Exception {
+						solrServer.query(entry.getParams(), METHOD.POST);
+						return System.nanoTime() - sendNanos;
+					}
+
+				});
+				pending++;
+
+				for (Future<Long> completed = completionService.poll(); completed != null; completed = completionService
+						.poll()) {
+					recorder.record(completed);
+					pending--;
+				}
+			}
+			for (; pending > 0; pending--) {
+				recorder.record(completionService.take());
+			}
+			return recorder.createReport(System.nanoTime() - start);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncategorizedSolrException("Interrupted while replaying query log.", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return max nr of queries sent in parallel
+	 */
+	public int getConcurrency() {
+		return this.concurrency;
+	}
+
+	/**
+	 * Set max nr of queries sent in parallel. Default is {@link #DEFAULT_CONCURRENCY}.
+	 * 
+	 * @param concurrency
+	 */
+	public void setConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than zero.");
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * @return factor the original pace is scaled by
+	 */
+	public double getSpeed() {
+		return this.speed;
+	}
+
+	/**
+	 * Scale the original pace of queries. 2 replays twice as fast, 0.5 at half speed. Values less or equal to 0 send
+	 * queries as fast as possible. Default is {@link #DEFAULT_SPEED}.
+	 * 
+	 * @param speed
+	 */
+	public void setSpeed(double speed) {
+		this.speed = speed;
+	}
+
+	/**
+	 * Collects latencies of completed queries in a growing array, as the nr of entries is not known in advance.
+	 */
+	private static class LatencyRecorder {
+
+		private long[] latencies = new long[64];
+		private int succeeded = 0;
+		private int errors = 0;
+
+		void record(Future<Long> future) throws InterruptedException {
+			try {
+				long latency = future.get();
+				if (succeeded == latencies.length) {
+					latencies = Arrays.copyOf(latencies, succeeded * 2);
+				}
+				latencies[succeeded++] = latency;
+			} catch (ExecutionException e) {
+				LOGGER.debug("Replaying query failed.", e.getCause());
+				errors++;
+			}
+		}
+
+		ReplayReport createReport(long durationNanos) {
+			return new ReplayReport(Arrays.copyOf(latencies, succeeded), errors, durationNanos);
+		}
+
+	}
+
+}
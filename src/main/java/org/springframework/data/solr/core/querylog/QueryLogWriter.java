@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.querylog;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.apache.solr.common.params.SolrParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * Appends queries to a file, one {@link QueryLogEntry} per line. Set on
+ * {@link org.springframework.data.solr.core.SolrTemplate#setQueryLogWriter(QueryLogWriter)} to record all queries
+ * sent to solr. Failing to write the log never fails the query itself. Entries are buffered, so the writer has to be
+ * closed (or flushed) to make sure all of them end up in the file.
+ * 
+ * @author Christoph Strobl
+ */
+public class QueryLogWriter implements DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(QueryLogWriter.class);
+
+	private final File file;
+	private Writer writer;
+
+	/**
+	 * Open file for appending entries. File is created if it does not exist.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	public QueryLogWriter(File file) throws IOException {
+		Assert.notNull(file, "File must not be null.");
+
+		this.file = file;
+		this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), "UTF-8"));
+	}
+
+	/**
+	 * Append params sent to solr using the current time as timestamp
+	 * 
+	 * @param params
+	 */
+	public void append(SolrParams params) {
+		append(new QueryLogEntry(System.currentTimeMillis(), params));
+	}
+
+	/**
+	 * @param entry
+	 */
+	public synchronized void append(QueryLogEntry entry) {
+		Assert.notNull(entry, "Entry must not be null.");
+		if (writer == null) {
+			return;
+		}
+
+		try {
+			writer.write(entry.toLine());
+			writer.write('\n');
+		} catch (IOException e) {
+			LOGGER.warn("Could not append query to log '" + file + "'.", e);
+		}
+	}
+
+	public synchronized void flush() {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.flush();
+		} catch (IOException e) {
+			LOGGER.warn("Could not flush query log '" + file + "'.", e);
+		}
+	}
+
+	/**
+	 * Flush pending entries and close file. Subsequently appended entries are dropped.
+	 */
+	public synchronized void close() {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.close();
+		} catch (IOException e) {
+			LOGGER.warn("Could not close query log '" + file + "'.", e);
+		} finally {
+			writer = null;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		close();
+	}
+
+	public File getFile() {
+		return this.file;
+	}
+
+}
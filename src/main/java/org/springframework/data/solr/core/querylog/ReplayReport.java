@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.querylog;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * Outcome of replaying a query log via {@link QueryLogReplayer} holding throughput and latency figures.
+ * 
+ * @author Christoph Strobl
+ */
+public final class ReplayReport {
+
+	private final long[] latenciesNanos;
+	private final int errorCount;
+	private final long durationNanos;
+
+	/**
+	 * @param latenciesNanos latency of each successfully executed query
+	 * @param errorCount nr of failed queries
+	 * @param durationNanos overall duration of the replay
+	 */
+	ReplayReport(long[] latenciesNanos, int errorCount, long durationNanos) {
+		this.latenciesNanos = Arrays.copyOf(latenciesNanos, latenciesNanos.length);
+		Arrays.sort(this.latenciesNanos);
+		this.errorCount = errorCount;
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * @return nr of executed queries including failed ones
+	 */
+	public int getQueryCount() {
+		return this.latenciesNanos.length + this.errorCount;
+	}
+
+	/**
+	 * @return nr of failed queries
+	 */
+	public int getErrorCount() {
+		return this.errorCount;
+	}
+
+	/**
+	 * @return overall duration in milliseconds
+	 */
+	public long getDurationMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.durationNanos);
+	}
+
+	/**
+	 * @return executed queries per second
+	 */
+	public double getThroughput() {
+		if (this.durationNanos <= 0) {
+			return 0;
+		}
+		return getQueryCount() / (this.durationNanos / (double) TimeUnit.SECONDS.toNanos(1));
+	}
+
+	/**
+	 * Get latency at given percentile using the nearest rank method. Failed queries are not taken into account.
+	 * 
+	 * @param percentile value between 0 (exclusive) and 100 (inclusive), eg. 99 for the 99th percentile
+	 * @return latency in milliseconds, 0 if no query succeeded
+	 */
+	public double getLatencyPercentile(double percentile) {
+		Assert.isTrue(percentile > 0 && percentile <= 100, "Percentile must be within (0, 100].");
+		if (this.latenciesNanos.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100 * this.latenciesNanos.length);
+		return toMillis(this.latenciesNanos[Math.max(rank, 1) - 1]);
+	}
+
+	/**
+	 * @return maximum latency in milliseconds, 0 if no query succeeded
+	 */
+	public double getMaxLatency() {
+		return this.latenciesNanos.length == 0 ? 0 : toMillis(this.latenciesNanos[this.latenciesNanos.length - 1]);
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ReplayReport [queries=%d, errors=%d, duration=%dms, throughput=%.1f/s, "
+				+ "p50=%.2fms, p90=%.2fms, p99=%.2fms, max=%.2fms]", getQueryCount(), errorCount, getDurationMillis(),
+				getThroughput(), getLatencyPercentile(50), getLatencyPercentile(90), getLatencyPercentile(99),
+				getMaxLatency());
+	}
+
+}
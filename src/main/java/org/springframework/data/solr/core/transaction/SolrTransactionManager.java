@@ -0,0 +1,208 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.transaction;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.solr.HttpSolrServerFactory;
+import org.springframework.data.solr.SolrServerFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.ResourceTransactionManager;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * {@link org.springframework.transaction.PlatformTransactionManager} buffering adds and deletes issued via
+ * {@link org.springframework.data.solr.core.SolrTemplate} within a transaction in a {@link SolrUpdateBuffer} bound to
+ * the current thread. On commit buffered updates are sent as batched update followed by a single solr commit, on
+ * rollback they are discarded without contacting solr. <br />
+ * Solr has no isolation, so reads within the transaction do not see buffered updates. Nested transactions are not
+ * supported. A commit failing after some requests of a transaction exceeding a single request have been sent cannot be
+ * undone, as a solr rollback would discard uncommitted updates of other clients as well. Those updates become visible
+ * with the next commit. <br />
+ * The buffer is bound to the server returned by {@link SolrServerFactory#getSolrServer()} on begin, the same way
+ * {@link org.springframework.data.solr.core.SolrTemplate} resolves it per call. A transaction timeout is checked
+ * before buffered updates are sent.
+ * 
+ * @author Christoph Strobl
+ */
+public class SolrTransactionManager extends AbstractPlatformTransactionManager implements ResourceTransactionManager {
+
+	private static final long serialVersionUID = 1L;
+	private static final Logger LOGGER = LoggerFactory.getLogger(SolrTransactionManager.class);
+
+	private final SolrServerFactory solrServerFactory;
+
+	public SolrTransactionManager(SolrServerFactory solrServerFactory) {
+		Assert.notNull(solrServerFactory, "SolrServerFactory must not be null.");
+		this.solrServerFactory = solrServerFactory;
+	}
+
+	public SolrTransactionManager(SolrServer solrServer) {
+		this(solrServer != null ? new HttpSolrServerFactory(solrServer) : null);
+	}
+
+	/**
+	 * @return the server transactional resources are currently bound to
+	 */
+	@Override
+	public Object getResourceFactory() {
+		return this.solrServerFactory.getSolrServer();
+	}
+
+	@Override
+	protected Object doGetTransaction() {
+		SolrServer solrServer = solrServerFactory.getSolrServer();
+		Assert.state(solrServer != null, "SolrServerFactory has to return a SolrServer.");
+
+		SolrTransactionObject transactionObject = new SolrTransactionObject(solrServer);
+		transactionObject.setUpdateBuffer((SolrUpdateBuffer) TransactionSynchronizationManager.getResource(solrServer),
+				false);
+		return transactionObject;
+	}
+
+	@Override
+	protected boolean isExistingTransaction(Object transaction) {
+		return ((SolrTransactionObject) transaction).getUpdateBuffer() != null;
+	}
+
+	@Override
+	protected void doBegin(Object transaction, TransactionDefinition definition) {
+		SolrUpdateBuffer updateBuffer = new SolrUpdateBuffer();
+		updateBuffer.setSynchronizedWithTransaction(true);
+		if (definition.getTimeout() != TransactionDefinition.TIMEOUT_DEFAULT) {
+			updateBuffer.setTimeoutInSeconds(definition.getTimeout());
+		}
+
+		SolrTransactionObject transactionObject = (SolrTransactionObject) transaction;
+		transactionObject.setUpdateBuffer(updateBuffer, true);
+		TransactionSynchronizationManager.bindResource(transactionObject.getSolrServer(), updateBuffer);
+	}
+
+	@Override
+	protected Object doSuspend(Object transaction) {
+		SolrTransactionObject transactionObject = (SolrTransactionObject) transaction;
+		transactionObject.setUpdateBuffer(null, false);
+		return new SuspendedUpdateBuffer(transactionObject.getSolrServer(),
+				TransactionSynchronizationManager.unbindResource(transactionObject.getSolrServer()));
+	}
+
+	@Override
+	protected void doResume(Object transaction, Object suspendedResources) {
+		SuspendedUpdateBuffer suspended = (SuspendedUpdateBuffer) suspendedResources;
+		TransactionSynchronizationManager.bindResource(suspended.solrServer, suspended.updateBuffer);
+	}
+
+	@Override
+	protected void doCommit(DefaultTransactionStatus status) {
+		SolrTransactionObject transactionObject = (SolrTransactionObject) status.getTransaction();
+		SolrUpdateBuffer updateBuffer = transactionObject.getUpdateBuffer();
+		if (status.isDebug()) {
+			LOGGER.debug("Committing solr transaction with " + updateBuffer.getDocumentCount() + " documents to add.");
+		}
+		if (updateBuffer.hasTimeout()) {
+			// fails with TransactionTimedOutException once the deadline has been reached
+			updateBuffer.getTimeToLiveInMillis();
+		}
+
+		try {
+			updateBuffer.flush(transactionObject.getSolrServer());
+		} catch (Exception e) {
+			throw new TransactionSystemException("Could not commit solr transaction. Requests sent before the failure "
+					+ "cannot be undone.", e);
+		}
+	}
+
+	@Override
+	protected void doRollback(DefaultTransactionStatus status) {
+		if (status.isDebug()) {
+			LOGGER.debug("Rolling back solr transaction.");
+		}
+		((SolrTransactionObject) status.getTransaction()).getUpdateBuffer().discard();
+	}
+
+	@Override
+	protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+		((SolrTransactionObject) status.getTransaction()).getUpdateBuffer().setRollbackOnly();
+	}
+
+	@Override
+	protected void doCleanupAfterCompletion(Object transaction) {
+		SolrTransactionObject transactionObject = (SolrTransactionObject) transaction;
+		if (transactionObject.isNewUpdateBuffer()) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(transactionObject.getSolrServer());
+		}
+		transactionObject.getUpdateBuffer().discard();
+		transactionObject.getUpdateBuffer().clear();
+	}
+
+	private static class SolrTransactionObject implements SmartTransactionObject {
+
+		private final SolrServer solrServer;
+		private SolrUpdateBuffer updateBuffer;
+		private boolean newUpdateBuffer;
+
+		SolrTransactionObject(SolrServer solrServer) {
+			this.solrServer = solrServer;
+		}
+
+		SolrServer getSolrServer() {
+			return this.solrServer;
+		}
+
+		void setUpdateBuffer(SolrUpdateBuffer updateBuffer, boolean newUpdateBuffer) {
+			this.updateBuffer = updateBuffer;
+			this.newUpdateBuffer = newUpdateBuffer;
+		}
+
+		SolrUpdateBuffer getUpdateBuffer() {
+			return this.updateBuffer;
+		}
+
+		boolean isNewUpdateBuffer() {
+			return this.newUpdateBuffer;
+		}
+
+		@Override
+		public boolean isRollbackOnly() {
+			return this.updateBuffer.isRollbackOnly();
+		}
+
+		@Override
+		public void flush() {
+			// updates are sent on commit only
+		}
+
+	}
+
+	private static class SuspendedUpdateBuffer {
+
+		private final SolrServer solrServer;
+		private final Object updateBuffer;
+
+		SuspendedUpdateBuffer(SolrServer solrServer, Object updateBuffer) {
+			this.solrServer = solrServer;
+			this.updateBuffer = updateBuffer;
+		}
+
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.transaction;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.springframework.data.solr.UncategorizedSolrException;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Helper resolving the {@link SolrUpdateBuffer} of the current transaction.
+ * 
+ * @author Christoph Strobl
+ */
+public final class SolrTransactionUtils {
+
+	private SolrTransactionUtils() {
+
+	}
+
+	/**
+	 * Get the {@link SolrUpdateBuffer} bound to the current thread for the given server. In case there is none but
+	 * transaction synchronization is active, eg. within a transaction managed by a jdbc or jpa transaction manager, a new
+	 * buffer is bound if synchronizeWithTransaction is set. That one is flushed once the surrounding transaction has
+	 * been committed, so solr does not see updates of rolled back transactions.
+	 * 
+	 * @param solrServer must not be null
+	 * @param synchronizeWithTransaction whether to take part in transactions not managed by
+	 *          {@link SolrTransactionManager}
+	 * @return null if updates are not to be buffered
+	 */
+	public static SolrUpdateBuffer getUpdateBuffer(SolrServer solrServer, boolean synchronizeWithTransaction) {
+		Assert.notNull(solrServer, "SolrServer must not be null.");
+
+		SolrUpdateBuffer updateBuffer = (SolrUpdateBuffer) TransactionSynchronizationManager.getResource(solrServer);
+		if (updateBuffer != null || !synchronizeWithTransaction
+				|| !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return updateBuffer;
+		}
+
+		updateBuffer = new SolrUpdateBuffer();
+		updateBuffer.setSynchronizedWithTransaction(true);
+		TransactionSynchronizationManager.registerSynchronization(new SolrUpdateBufferSynchronization(solrServer,
+				updateBuffer));
+		TransactionSynchronizationManager.bindResource(solrServer, updateBuffer);
+		return updateBuffer;
+	}
+
+	private static class SolrUpdateBufferSynchronization extends TransactionSynchronizationAdapter {
+
+		private final SolrServer solrServer;
+		private final SolrUpdateBuffer updateBuffer;
+
+		SolrUpdateBufferSynchronization(SolrServer solrServer, SolrUpdateBuffer updateBuffer) {
+			this.solrServer = solrServer;
+			this.updateBuffer = updateBuffer;
+		}
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResource(solrServer);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(solrServer, updateBuffer);
+		}
+
+		@Override
+		public void afterCommit() {
+			try {
+				updateBuffer.flush(solrServer);
+			} catch (Exception e) {
+				throw new UncategorizedSolrException("Could not send updates of committed transaction.", e);
+			}
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(solrServer);
+			updateBuffer.discard();
+			updateBuffer.clear();
+		}
+
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.transaction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.AbstractUpdateRequest;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrInputDocument;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.util.Assert;
+
+/**
+ * Collects adds and deletes issued within a transaction in the order they have been issued. {@link #flush(SolrServer)}
+ * sends them as batched {@link UpdateRequest}s carrying the commit on the last request, so the whole transaction
+ * usually requires a single roundtrip.
+ * 
+ * @author Christoph Strobl
+ */
+public class SolrUpdateBuffer extends ResourceHolderSupport {
+
+	private final List<Operation> operations = new ArrayList<Operation>();
+	private int documentCount;
+
+	/**
+	 * @param documents must not be null
+	 */
+	public void add(Collection<SolrInputDocument> documents) {
+		Assert.notNull(documents, "Documents must not be null.");
+		if (!documents.isEmpty()) {
+			operations.add(new Operation(OperationType.ADD, new ArrayList<SolrInputDocument>(documents)));
+			documentCount += documents.size();
+		}
+	}
+
+	/**
+	 * @param ids must not be null
+	 */
+	public void deleteById(Collection<String> ids) {
+		Assert.notNull(ids, "Ids must not be null.");
+		if (!ids.isEmpty()) {
+			operations.add(new Operation(OperationType.DELETE_BY_ID, new ArrayList<String>(ids)));
+		}
+	}
+
+	/**
+	 * @param query must not be null
+	 */
+	public void deleteByQuery(String query) {
+		Assert.hasText(query, "Query must not be empty.");
+		operations.add(new Operation(OperationType.DELETE_BY_QUERY, query));
+	}
+
+	/**
+	 * @return true if no updates have been buffered
+	 */
+	public boolean isEmpty() {
+		return operations.isEmpty();
+	}
+
+	/**
+	 * @return number of documents buffered for being added
+	 */
+	public int getDocumentCount() {
+		return documentCount;
+	}
+
+	/**
+	 * Send buffered updates followed by a commit and reset the buffer. Solr processes the adds of a request before its
+	 * deletes, so a new request is started whenever an add follows a delete. Nothing is sent if the buffer is empty.
+	 * Requests sent before a failing one are not undone and become visible with the next commit.
+	 * 
+	 * @param solrServer
+	 * @return response of the last request, null if nothing had to be sent
+	 * @throws SolrServerException
+	 * @throws IOException
+	 */
+	public UpdateResponse flush(SolrServer solrServer) throws SolrServerException, IOException {
+		Assert.notNull(solrServer, "SolrServer must not be null.");
+
+		List<UpdateRequest> requests = createRequests();
+		discard();
+		if (requests.isEmpty()) {
+			return null;
+		}
+
+		requests.get(requests.size() - 1).setAction(AbstractUpdateRequest.ACTION.COMMIT, true, true);
+		UpdateResponse response = null;
+		for (UpdateRequest request : requests) {
+			response = request.process(solrServer);
+		}
+		return response;
+	}
+
+	/**
+	 * Drop all buffered updates without sending them.
+	 */
+	public void discard() {
+		operations.clear();
+		documentCount = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<UpdateRequest> createRequests() {
+		List<UpdateRequest> requests = new ArrayList<UpdateRequest>();
+		UpdateRequest current = null;
+		boolean containsDeletes = false;
+		for (Operation operation : operations) {
+			if (current == null || (OperationType.ADD.equals(operation.type) && containsDeletes)) {
+				current = new UpdateRequest();
+				requests.add(current);
+				containsDeletes = false;
+			}
+			switch (operation.type) {
+				case ADD:
+					current.add((Collection<SolrInputDocument>) operation.value);
+					break;
+				case DELETE_BY_ID:
+					current.deleteById((List<String>) operation.value);
+					containsDeletes = true;
+					break;
+				case DELETE_BY_QUERY:
+					current.deleteByQuery((String) operation.value);
+					containsDeletes = true;
+					break;
+			}
+		}
+		return requests;
+	}
+
+	private enum OperationType {
+		ADD, DELETE_BY_ID, DELETE_BY_QUERY
+	}
+
+	private static class Operation {
+
+		private final OperationType type;
+		private final Object value;
+
+		Operation(OperationType type, Object value) {
+			this.type = type;
+			this.value = value;
+		}
+
+	}
+
+}
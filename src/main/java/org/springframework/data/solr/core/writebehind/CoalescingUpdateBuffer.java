@@ -0,0 +1,456 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.writebehind;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.solr.SolrServerFactory;
+import org.springframework.jmx.export.annotation.ManagedMetric;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.jmx.support.MetricType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Buffers adds and deletes keyed by document id, keeping only the latest operation per id until the buffer is flushed.
+ * Set on {@link org.springframework.data.solr.core.SolrTemplate#setCoalescingUpdateBuffer(CoalescingUpdateBuffer)} to
+ * have repeated updates of the same document within {@link #getFlushWindow()} sent as a single add. Each flush sends
+ * one batch of adds and one of deletes followed by a single commit. A batch solr rejects as bad request is split up
+ * until the offending updates have been isolated, which are skipped and logged as error. <br />
+ * Pending updates are held in a {@link ConcurrentHashMap} so writer threads only contend when updating documents in
+ * the same segment. {@link org.springframework.data.solr.core.SolrTemplate} passes the id of each entity along with its
+ * document. Documents without id cannot be coalesced and are sent as they are. Writers reaching
+ * {@link #getMaxPendingUpdates()} flush pending updates themselves. Pending updates are lost if the application
+ * terminates before they have been flushed.
+ * 
+ * @author Christoph Strobl
+ */
+@ManagedResource(description = "Solr Coalescing Update Buffer")
+public class CoalescingUpdateBuffer implements InitializingBean, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingUpdateBuffer.class);
+
+	public static final long DEFAULT_FLUSH_WINDOW = 1000;
+	public static final int DEFAULT_MAX_PENDING_UPDATES = 10000;
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	private final SolrServerFactory solrServerFactory;
+	private final ConcurrentMap<String, PendingUpdate> pendingUpdates;
+	private final ConcurrentLinkedQueue<PendingUpdate> documentsWithoutId;
+	private final AtomicInteger pendingCount = new AtomicInteger();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong flushedCount = new AtomicLong();
+	private final AtomicLong flushFailures = new AtomicLong();
+	private final AtomicLong deadLetterCount = new AtomicLong();
+	private final Object flushLock = new Object();
+
+	private String idFieldName;
+	private long flushWindow = DEFAULT_FLUSH_WINDOW;
+	private int maxPendingUpdates = DEFAULT_MAX_PENDING_UPDATES;
+	private ScheduledExecutorService flusher;
+	private final Runnable flushTask = new Runnable() {
+
+		@Override
+		public void run() {
+			flush();
+		}
+
+	};
+
+	public CoalescingUpdateBuffer(SolrServerFactory solrServerFactory) {
+		this(solrServerFactory, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * @param solrServerFactory factory providing the server updates are sent to
+	 * @param concurrencyLevel estimated number of threads updating concurrently
+	 */
+	public CoalescingUpdateBuffer(SolrServerFactory solrServerFactory, int concurrencyLevel) {
+		Assert.notNull(solrServerFactory, "SolrServerFactory must not be null.");
+		Assert.isTrue(concurrencyLevel > 0, "ConcurrencyLevel must be greater than 0.");
+
+		this.solrServerFactory = solrServerFactory;
+		this.pendingUpdates = new ConcurrentHashMap<String, PendingUpdate>(DEFAULT_MAX_PENDING_UPDATES, 0.75f,
+				concurrencyLevel);
+		this.documentsWithoutId = new ConcurrentLinkedQueue<PendingUpdate>();
+	}
+
+	/**
+	 * Start flushing pending updates every {@link #getFlushWindow()} milliseconds.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		if (flushWindow <= 0) {
+			return;
+		}
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("solr-update-buffer-");
+		threadFactory.setDaemon(true);
+		this.flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		this.flusher.scheduleWithFixedDelay(flushTask, flushWindow, flushWindow, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop periodic flushing and flush pending updates one last time.
+	 */
+	@Override
+	public void destroy() {
+		if (this.flusher != null) {
+			this.flusher.shutdownNow();
+			this.flusher = null;
+		}
+		flush();
+	}
+
+	/**
+	 * Buffer given documents replacing pending updates with the same id. Ids are read from {@link #getIdFieldName()},
+	 * documents are not coalesced if it has not been set.
+	 * 
+	 * @param documents
+	 * @throws DataAccessResourceFailureException if buffer is full and pending updates cannot be sent
+	 */
+	public void add(Collection<SolrInputDocument> documents) {
+		Assert.notNull(documents, "Documents must not be null.");
+
+		for (SolrInputDocument document : documents) {
+			Object id = idFieldName != null ? document.getFieldValue(idFieldName) : null;
+			add(id != null ? id.toString() : null, document);
+		}
+	}
+
+	/**
+	 * Buffer given document replacing pending updates with the same id.
+	 * 
+	 * @param id unique key of the document, null if not known
+	 * @param document
+	 * @throws DataAccessResourceFailureException if buffer is full and pending updates cannot be sent
+	 */
+	public void add(String id, SolrInputDocument document) {
+		Assert.notNull(document, "Document must not be null.");
+
+		if (id == null) {
+			awaitCapacity();
+			documentsWithoutId.add(new PendingUpdate(null, document));
+			onPendingUpdateAdded();
+		} else {
+			put(id, new PendingUpdate(id, document));
+		}
+	}
+
+	/**
+	 * Buffer deletion of given ids replacing pending updates with the same id.
+	 * 
+	 * @param ids
+	 * @throws DataAccessResourceFailureException if buffer is full and pending updates cannot be sent
+	 */
+	public void deleteById(Collection<String> ids) {
+		Assert.notNull(ids, "Ids must not be null.");
+
+		for (String id : ids) {
+			put(id, new PendingUpdate(id, null));
+		}
+	}
+
+	/**
+	 * Flush pending updates and send deletion of documents matching given query directly, as it cannot be coalesced.
+	 * 
+	 * @param query
+	 * @throws SolrServerException
+	 * @throws IOException
+	 */
+	public void deleteByQuery(String query) throws SolrServerException, IOException {
+		Assert.hasText(query, "Query must not be empty.");
+
+		synchronized (flushLock) {
+			if (!flush()) {
+				throw new DataAccessResourceFailureException("Could not send pending updates preceding delete by query.");
+			}
+			SolrServer solrServer = solrServerFactory.getSolrServer();
+			solrServer.deleteByQuery(query);
+			solrServer.commit();
+		}
+	}
+
+	private void put(String id, PendingUpdate update) {
+		awaitCapacity();
+		if (pendingUpdates.put(id, update) != null) {
+			coalescedCount.incrementAndGet();
+		} else {
+			onPendingUpdateAdded();
+		}
+	}
+
+	private void onPendingUpdateAdded() {
+		if (pendingCount.incrementAndGet() >= maxPendingUpdates) {
+			requestFlush();
+		}
+	}
+
+	private void awaitCapacity() {
+		if (pendingCount.get() < maxPendingUpdates) {
+			return;
+		}
+		synchronized (flushLock) {
+			if (pendingCount.get() >= maxPendingUpdates && !flush()) {
+				throw new DataAccessResourceFailureException("Update buffer is full. Could not send " + pendingCount.get()
+						+ " pending updates to solr.");
+			}
+		}
+	}
+
+	private void requestFlush() {
+		ScheduledExecutorService executor = this.flusher;
+		if (executor == null) {
+			return;
+		}
+		try {
+			executor.execute(flushTask);
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("Flush request rejected, update buffer is shutting down.");
+		}
+	}
+
+	/**
+	 * Send all pending updates to solr followed by a single commit. Updates that could not be sent are kept for the next
+	 * flush unless they have been replaced in the meantime. Updates solr rejects as bad request are skipped.
+	 * 
+	 * @return false if updates could not be sent
+	 */
+	@ManagedOperation(description = "Send pending updates to solr")
+	public boolean flush() {
+		synchronized (flushLock) {
+			List<PendingUpdate> updates = new ArrayList<PendingUpdate>();
+			for (Map.Entry<String, PendingUpdate> entry : pendingUpdates.entrySet()) {
+				// only remove the observed update, a concurrently replaced one is sent with the next flush
+				if (pendingUpdates.remove(entry.getKey(), entry.getValue())) {
+					updates.add(entry.getValue());
+					pendingCount.decrementAndGet();
+				}
+			}
+			PendingUpdate documentWithoutId;
+			while ((documentWithoutId = documentsWithoutId.poll()) != null) {
+				updates.add(documentWithoutId);
+				pendingCount.decrementAndGet();
+			}
+			if (updates.isEmpty()) {
+				return true;
+			}
+
+			int processed = send(updates);
+			if (processed < updates.size()) {
+				restore(updates.subList(processed, updates.size()));
+				return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Send given updates splitting up batches solr rejects as bad request.
+	 * 
+	 * @param updates
+	 * @return number of leading updates that have been sent or skipped
+	 */
+	private int send(List<PendingUpdate> updates) {
+		try {
+			sendBatch(updates);
+			flushedCount.addAndGet(updates.size());
+			return updates.size();
+		} catch (Exception e) {
+			flushFailures.incrementAndGet();
+			if (!WriteBehindQueue.isRejected(e)) {
+				LOGGER.warn("Could not send " + updates.size() + " pending updates to solr.", e);
+				return 0;
+			}
+			if (updates.size() == 1) {
+				deadLetterCount.incrementAndGet();
+				LOGGER.error("Skipping " + describe(updates.get(0)) + " rejected by solr.", e);
+				return 1;
+			}
+			int half = updates.size() / 2;
+			int processed = send(updates.subList(0, half));
+			return processed < half ? processed : half + send(updates.subList(half, updates.size()));
+		}
+	}
+
+	private static String describe(PendingUpdate update) {
+		if (update.getId() == null) {
+			return "document without id";
+		}
+		return (update.isDelete() ? "deletion" : "update") + " of document with id '" + update.getId() + "'";
+	}
+
+	private void sendBatch(List<PendingUpdate> updates) throws SolrServerException, IOException {
+		List<SolrInputDocument> documents = new ArrayList<SolrInputDocument>();
+		List<String> ids = new ArrayList<String>();
+		for (PendingUpdate update : updates) {
+			if (update.isDelete()) {
+				ids.add(update.getId());
+			} else {
+				documents.add(update.getDocument());
+			}
+		}
+
+		SolrServer solrServer = solrServerFactory.getSolrServer();
+		if (!documents.isEmpty()) {
+			solrServer.add(documents);
+		}
+		if (!ids.isEmpty()) {
+			solrServer.deleteById(ids);
+		}
+		solrServer.commit();
+	}
+
+	private void restore(List<PendingUpdate> updates) {
+		for (PendingUpdate update : updates) {
+			if (update.getId() == null) {
+				documentsWithoutId.add(update);
+				pendingCount.incrementAndGet();
+			} else if (pendingUpdates.putIfAbsent(update.getId(), update) == null) {
+				pendingCount.incrementAndGet();
+			}
+		}
+	}
+
+	@ManagedMetric(displayName = "PendingCount", description = "Updates not yet sent to solr",
+			metricType = MetricType.GAUGE)
+	public int getPendingCount() {
+		return pendingCount.get();
+	}
+
+	@ManagedMetric(displayName = "CoalescedCount", description = "Updates replaced by a later one for the same id",
+			metricType = MetricType.COUNTER)
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	@ManagedMetric(displayName = "FlushedCount", description = "Updates sent to solr", metricType = MetricType.COUNTER)
+	public long getFlushedCount() {
+		return flushedCount.get();
+	}
+
+	@ManagedMetric(displayName = "FlushFailures", description = "Flushes solr did not accept",
+			metricType = MetricType.COUNTER)
+	public long getFlushFailures() {
+		return flushFailures.get();
+	}
+
+	@ManagedMetric(displayName = "DeadLetterCount", description = "Updates skipped as solr rejected them",
+			metricType = MetricType.COUNTER)
+	public long getDeadLetterCount() {
+		return deadLetterCount.get();
+	}
+
+	public String getIdFieldName() {
+		return this.idFieldName;
+	}
+
+	/**
+	 * Set name of the field holding the unique key of documents added via {@link #add(Collection)}. Has to match the
+	 * uniqueKey of the schema, as updates of different documents sharing a value would be coalesced otherwise. Default is
+	 * none, so those documents are not coalesced.
+	 * 
+	 * @param idFieldName
+	 */
+	public void setIdFieldName(String idFieldName) {
+		this.idFieldName = idFieldName;
+	}
+
+	public long getFlushWindow() {
+		return this.flushWindow;
+	}
+
+	/**
+	 * Set milliseconds between flushing pending updates. Values less or equal to 0 disable periodic flushing, so
+	 * updates are only sent on calling {@link #flush()}. Has to be set before the buffer is initialized. Default is
+	 * {@link #DEFAULT_FLUSH_WINDOW}.
+	 * 
+	 * @param flushWindow
+	 */
+	public void setFlushWindow(long flushWindow) {
+		this.flushWindow = flushWindow;
+	}
+
+	public int getMaxPendingUpdates() {
+		return this.maxPendingUpdates;
+	}
+
+	/**
+	 * Set number of pending updates triggering a flush before the flush window elapsed. Writers exceeding the limit
+	 * flush pending updates themselves and fail with {@link DataAccessResourceFailureException} if solr does not accept
+	 * them. Default is {@link #DEFAULT_MAX_PENDING_UPDATES}.
+	 * 
+	 * @param maxPendingUpdates
+	 */
+	public void setMaxPendingUpdates(int maxPendingUpdates) {
+		Assert.isTrue(maxPendingUpdates > 0, "MaxPendingUpdates must be greater than 0.");
+		this.maxPendingUpdates = maxPendingUpdates;
+	}
+
+	/**
+	 * Latest pending operation for a single id. Compared by identity, so that flushing only removes the observed
+	 * instance.
+	 */
+	private static class PendingUpdate {
+
+		private final String id;
+		private final SolrInputDocument document;
+
+		/**
+		 * @param id null for documents without id
+		 * @param document null for deletion
+		 */
+		PendingUpdate(String id, SolrInputDocument document) {
+			this.id = id;
+			this.document = document;
+		}
+
+		String getId() {
+			return this.id;
+		}
+
+		boolean isDelete() {
+			return this.document == null;
+		}
+
+		SolrInputDocument getDocument() {
+			return this.document;
+		}
+
+	}
+
+}
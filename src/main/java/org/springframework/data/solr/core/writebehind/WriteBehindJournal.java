@@ -0,0 +1,310 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.writebehind;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+/**
+ * Append only journal of pending updates backed by a memory mapped file. Entries are appended at the write position
+ * and consumed from the confirmed position. Both positions are stored in the file header as a single long, so entries
+ * not yet confirmed survive a restart of the application. Space taken by confirmed entries is reclaimed by moving
+ * pending entries to the start of the file once the end is reached. <br />
+ * Header: magic (int), version (int), confirmed position (int), write position (int) <br />
+ * Entry: payload length (int), type (byte), timestamp (long), payload
+ * 
+ * @author Christoph Strobl
+ */
+final class WriteBehindJournal implements Closeable {
+
+	static final byte ADD = 1;
+	static final byte DELETE_BY_ID = 2;
+	static final byte DELETE_BY_QUERY = 3;
+
+	static final int HEADER_SIZE = 16;
+	static final int ENTRY_HEADER_SIZE = 13;
+
+	private static final int MAGIC = 0x53444a4c;
+	private static final int VERSION = 1;
+	private static final int MAGIC_OFFSET = 0;
+	private static final int VERSION_OFFSET = 4;
+	private static final int POSITIONS_OFFSET = 8;
+	private static final int TYPE_OFFSET = 4;
+	private static final int TIMESTAMP_OFFSET = 5;
+
+	private final File file;
+	private final RandomAccessFile randomAccessFile;
+	private final MappedByteBuffer buffer;
+	private final int capacity;
+	private final boolean forceWrites;
+
+	private int confirmedPosition;
+	private int writePosition;
+	private int pendingCount;
+	private boolean closed;
+
+	/**
+	 * Open journal stored in given file. The file is created if it does not exist. Pending entries of an existing
+	 * journal are retained.
+	 * 
+	 * @param file
+	 * @param capacity size of the mapped file in bytes. Existing journals keep their size if larger.
+	 * @param forceWrites force changes to the storage device on each append. Otherwise they are only guaranteed to
+	 *          survive a crash of the application, but not of the operating system.
+	 * @throws IOException if file cannot be mapped or is not a valid journal
+	 */
+	WriteBehindJournal(File file, int capacity, boolean forceWrites) throws IOException {
+		Assert.notNull(file, "File must not be null.");
+		Assert.isTrue(capacity > HEADER_SIZE + ENTRY_HEADER_SIZE, "Capacity too small.");
+
+		boolean existing = file.length() >= HEADER_SIZE;
+		this.file = file;
+		this.capacity = (int) Math.max(Math.min(file.length(), Integer.MAX_VALUE), capacity);
+		this.forceWrites = forceWrites;
+		this.randomAccessFile = new RandomAccessFile(file, "rw");
+		try {
+			this.buffer = randomAccessFile.getChannel().map(MapMode.READ_WRITE, 0, this.capacity);
+			if (existing) {
+				recover();
+			} else {
+				buffer.putInt(MAGIC_OFFSET, MAGIC);
+				buffer.putInt(VERSION_OFFSET, VERSION);
+				this.confirmedPosition = HEADER_SIZE;
+				this.writePosition = HEADER_SIZE;
+				writePositions();
+			}
+		} catch (IOException e) {
+			randomAccessFile.close();
+			throw e;
+		}
+	}
+
+	private void recover() throws IOException {
+		if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+			throw new IOException("File '" + file + "' is not a write behind journal.");
+		}
+
+		long positions = buffer.getLong(POSITIONS_OFFSET);
+		this.confirmedPosition = (int) (positions >>> 32);
+		this.writePosition = (int) positions;
+		if (confirmedPosition < HEADER_SIZE || writePosition < confirmedPosition || writePosition > capacity) {
+			throw new IOException("Journal '" + file + "' is corrupt.");
+		}
+
+		int position = confirmedPosition;
+		while (position < writePosition) {
+			int length = buffer.getInt(position);
+			if (length < 0 || position + ENTRY_HEADER_SIZE + length > writePosition) {
+				throw new IOException("Journal '" + file + "' is corrupt at position " + position + ".");
+			}
+			position += ENTRY_HEADER_SIZE + length;
+			pendingCount++;
+		}
+	}
+
+	/**
+	 * Append entry to the journal.
+	 * 
+	 * @param type
+	 * @param timestamp
+	 * @param payload
+	 * @return false if there is not enough space left until pending entries are confirmed
+	 */
+	synchronized boolean append(byte type, long timestamp, byte[] payload) {
+		assertOpen();
+		Assert.notNull(payload, "Payload must not be null.");
+		int required = ENTRY_HEADER_SIZE + payload.length;
+		Assert.isTrue(required <= capacity - HEADER_SIZE, "Entry of " + required + " bytes exceeds journal capacity.");
+
+		if (writePosition + required > capacity && !compact(required)) {
+			return false;
+		}
+
+		buffer.position(writePosition);
+		buffer.putInt(payload.length);
+		buffer.put(type);
+		buffer.putLong(timestamp);
+		buffer.put(payload);
+
+		writePosition += required;
+		pendingCount++;
+		writePositions();
+		return true;
+	}
+
+	/**
+	 * Move pending entries to the start of the file. Only done if source and target region do not overlap, so that a
+	 * crash while copying does not damage entries still referenced by the header.
+	 */
+	private boolean compact(int required) {
+		int pendingBytes = writePosition - confirmedPosition;
+		if (pendingBytes > confirmedPosition - HEADER_SIZE || HEADER_SIZE + pendingBytes + required > capacity) {
+			return false;
+		}
+
+		byte[] pending = new byte[pendingBytes];
+		buffer.position(confirmedPosition);
+		buffer.get(pending);
+		buffer.position(HEADER_SIZE);
+		buffer.put(pending);
+
+		confirmedPosition = HEADER_SIZE;
+		writePosition = HEADER_SIZE + pendingBytes;
+		writePositions();
+		return true;
+	}
+
+	/**
+	 * Read pending entries starting at the oldest one without confirming them.
+	 * 
+	 * @param maxEntries
+	 * @return empty list if there are no pending entries
+	 */
+	synchronized List<Entry> read(int maxEntries) {
+		assertOpen();
+		if (pendingCount == 0) {
+			return Collections.emptyList();
+		}
+
+		List<Entry> entries = new ArrayList<Entry>(Math.min(maxEntries, pendingCount));
+		int position = confirmedPosition;
+		while (position < writePosition && entries.size() < maxEntries) {
+			int length = buffer.getInt(position);
+			byte[] payload = new byte[length];
+			buffer.position(position + ENTRY_HEADER_SIZE);
+			buffer.get(payload);
+			entries.add(new Entry(buffer.get(position + TYPE_OFFSET), buffer.getLong(position + TIMESTAMP_OFFSET), payload));
+			position += ENTRY_HEADER_SIZE + length;
+		}
+		return entries;
+	}
+
+	/**
+	 * Confirm the given entries, which have to be the oldest pending ones as returned by {@link #read(int)}.
+	 * 
+	 * @param entries
+	 */
+	synchronized void confirm(List<Entry> entries) {
+		assertOpen();
+		Assert.isTrue(entries.size() <= pendingCount, "Cannot confirm more entries than pending.");
+
+		for (Entry entry : entries) {
+			confirmedPosition += entry.size();
+		}
+		pendingCount -= entries.size();
+		if (pendingCount == 0) {
+			confirmedPosition = HEADER_SIZE;
+			writePosition = HEADER_SIZE;
+		}
+		writePositions();
+	}
+
+	private void writePositions() {
+		buffer.putLong(POSITIONS_OFFSET, ((long) confirmedPosition << 32) | (writePosition & 0xffffffffL));
+		if (forceWrites) {
+			buffer.force();
+		}
+	}
+
+	/**
+	 * @return timestamp of the oldest pending entry or -1 if there are no pending entries
+	 */
+	synchronized long getOldestTimestamp() {
+		return pendingCount > 0 && !closed ? buffer.getLong(confirmedPosition + TIMESTAMP_OFFSET) : -1;
+	}
+
+	synchronized int getPendingCount() {
+		return this.pendingCount;
+	}
+
+	/**
+	 * @return number of bytes taken by pending entries
+	 */
+	synchronized int getPendingBytes() {
+		return this.writePosition - this.confirmedPosition;
+	}
+
+	int getCapacity() {
+		return this.capacity;
+	}
+
+	File getFile() {
+		return this.file;
+	}
+
+	private void assertOpen() {
+		Assert.state(!closed, "Journal '" + file + "' has already been closed.");
+	}
+
+	/**
+	 * Force pending changes to the storage device and close the file.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		buffer.force();
+		randomAccessFile.close();
+	}
+
+	/**
+	 * A single journal entry
+	 */
+	static class Entry {
+
+		private final byte type;
+		private final long timestamp;
+		private final byte[] payload;
+
+		Entry(byte type, long timestamp, byte[] payload) {
+			this.type = type;
+			this.timestamp = timestamp;
+			this.payload = payload;
+		}
+
+		byte getType() {
+			return this.type;
+		}
+
+		long getTimestamp() {
+			return this.timestamp;
+		}
+
+		byte[] getPayload() {
+			return this.payload;
+		}
+
+		/**
+		 * @return number of bytes taken in the journal
+		 */
+		int size() {
+			return ENTRY_HEADER_SIZE + payload.length;
+		}
+
+	}
+
+}
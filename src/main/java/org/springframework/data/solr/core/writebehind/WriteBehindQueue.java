@@ -0,0 +1,695 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.writebehind;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.SolrInputField;
+import org.apache.solr.common.util.JavaBinCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.solr.SolrServerFactory;
+import org.springframework.data.solr.UncategorizedSolrException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedMetric;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.jmx.support.MetricType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Asynchronous write behind of updates. Set on
+ * {@link org.springframework.data.solr.core.SolrTemplate#setWriteBehindQueue(WriteBehindQueue)} to have adds and
+ * deletes appended to a local memory mapped journal and acknowledged immediately. Documents are encoded using solr's
+ * javabin format, which does not depend on the solrj version. A background worker drains the journal in batches, each
+ * followed by a single commit, preserving the order updates have been issued in. Entries are only removed from the
+ * journal once solr accepted them, so updates not yet sent are replayed after a restart. As a failed batch is sent
+ * again, updates are delivered at least once. <br />
+ * Batches solr rejects as bad request are split up to isolate the offending update, which is moved to
+ * {@link #getDeadLetterFile()} once rejected {@link #getMaxDeliveryAttempts()} times. Updates that cannot be read from
+ * the journal are moved there right away. Entries are only removed from the journal after they have been written to
+ * the dead letter file. <br />
+ * Use {@link #awaitDrained(long, TimeUnit)} where subsequent reads have to see previous writes.
+ * 
+ * @author Christoph Strobl
+ */
+@ManagedResource(description = "Solr Write Behind Queue")
+public class WriteBehindQueue implements InitializingBean, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+	public static final int DEFAULT_CAPACITY = 64 * 1024 * 1024;
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	public static final long DEFAULT_DRAIN_INTERVAL = 100;
+	public static final long DEFAULT_APPEND_TIMEOUT = 10000;
+	public static final int DEFAULT_MAX_DELIVERY_ATTEMPTS = 3;
+
+	private static final String CHARSET = "UTF-8";
+	private static final long DRAIN_RATE_WINDOW = 1000;
+	private static final String DEAD_LETTER_FILE_SUFFIX = ".dead";
+	private static final int MAX_TRACKED_DEAD_LETTERS = 1024;
+
+	private final SolrServerFactory solrServerFactory;
+	private final File journalFile;
+
+	private int capacity = DEFAULT_CAPACITY;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private long drainInterval = DEFAULT_DRAIN_INTERVAL;
+	private long appendTimeout = DEFAULT_APPEND_TIMEOUT;
+	private boolean forceWrites = false;
+	private int maxDeliveryAttempts = DEFAULT_MAX_DELIVERY_ATTEMPTS;
+	private File deadLetterFile;
+
+	private WriteBehindJournal journal;
+	private ScheduledExecutorService drainer;
+	private final Runnable drainTask = new Runnable() {
+
+		@Override
+		public void run() {
+			drain();
+		}
+
+	};
+
+	private final Object monitor = new Object();
+	private final Object drainLock = new Object();
+	private long appendedCount;
+	private long processedCount;
+	private long drainedCount;
+	private long drainFailures;
+	private long deadLetterCount;
+	// sequence numbers of recently dead lettered entries, the n-th appended entry being number n
+	private final NavigableSet<Long> deadLetterSequences = new TreeSet<Long>();
+	private int rejectedAttempts;
+
+	private volatile double drainRate;
+	private long drainRateWindowStart;
+	private long drainRateWindowCount;
+
+	/**
+	 * @param solrServerFactory factory providing the server updates are sent to
+	 * @param journalFile file holding pending updates. Pending updates of an existing file are replayed.
+	 */
+	public WriteBehindQueue(SolrServerFactory solrServerFactory, File journalFile) {
+		Assert.notNull(solrServerFactory, "SolrServerFactory must not be null.");
+		Assert.notNull(journalFile, "JournalFile must not be null.");
+
+		this.solrServerFactory = solrServerFactory;
+		this.journalFile = journalFile;
+		this.deadLetterFile = new File(journalFile.getPath() + DEAD_LETTER_FILE_SUFFIX);
+	}
+
+	/**
+	 * Open journal and start draining pending updates.
+	 * 
+	 * @throws IOException if journal cannot be opened
+	 */
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		this.journal = new WriteBehindJournal(journalFile, capacity, forceWrites);
+		synchronized (monitor) {
+			this.appendedCount = journal.getPendingCount();
+		}
+		if (journal.getPendingCount() > 0) {
+			LOGGER.info("Replaying " + journal.getPendingCount() + " pending updates from journal '" + journalFile + "'.");
+		}
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("solr-write-behind-");
+		threadFactory.setDaemon(true);
+		this.drainer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		this.drainer.scheduleWithFixedDelay(drainTask, drainInterval, drainInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop background worker and try to send pending updates one last time. Updates that could not be sent remain in
+	 * the journal.
+	 * 
+	 * @throws IOException
+	 */
+	@Override
+	public void destroy() throws IOException {
+		if (this.drainer != null) {
+			this.drainer.shutdownNow();
+			this.drainer = null;
+		}
+		if (this.journal != null) {
+			drain();
+			this.journal.close();
+		}
+	}
+
+	/**
+	 * Append documents to journal.
+	 * 
+	 * @param documents
+	 */
+	public void add(Collection<SolrInputDocument> documents) {
+		Assert.notNull(documents, "Documents must not be null.");
+
+		for (SolrInputDocument document : documents) {
+			append(WriteBehindJournal.ADD, serialize(document));
+		}
+	}
+
+	/**
+	 * Append deletion of documents with given ids to journal.
+	 * 
+	 * @param ids
+	 */
+	public void deleteById(Collection<String> ids) {
+		Assert.notNull(ids, "Ids must not be null.");
+
+		for (String id : ids) {
+			append(WriteBehindJournal.DELETE_BY_ID, toBytes(id));
+		}
+	}
+
+	/**
+	 * Append deletion of documents matching given query to journal.
+	 * 
+	 * @param query
+	 */
+	public void deleteByQuery(String query) {
+		Assert.hasText(query, "Query must not be empty.");
+
+		append(WriteBehindJournal.DELETE_BY_QUERY, toBytes(query));
+	}
+
+	private void append(byte type, byte[] payload) {
+		Assert.state(journal != null, "WriteBehindQueue has not been initialized.");
+
+		synchronized (monitor) {
+			long deadline = System.currentTimeMillis() + appendTimeout;
+			while (!journal.append(type, System.currentTimeMillis(), payload)) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new DataAccessResourceFailureException("Write behind journal '" + journalFile
+							+ "' is full. Solr did not accept pending updates within " + appendTimeout + "ms.");
+				}
+				requestDrain();
+				waitOnMonitor(remaining);
+			}
+			appendedCount++;
+		}
+	}
+
+	/**
+	 * Wait until all updates appended before calling this method have been sent to solr and committed.
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return false if timeout elapsed before updates have been drained, or if any of the updates pending on calling
+	 *         this method has been moved to the dead letter file
+	 */
+	public boolean awaitDrained(long timeout, TimeUnit unit) {
+		Assert.notNull(unit, "TimeUnit must not be null.");
+
+		synchronized (monitor) {
+			long first = processedCount + 1;
+			long target = appendedCount;
+			long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+			if (processedCount < target) {
+				requestDrain();
+			}
+			while (processedCount < target) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return false;
+				}
+				waitOnMonitor(remaining);
+			}
+			Long deadLetter = deadLetterSequences.ceiling(first);
+			return deadLetter == null || deadLetter > target;
+		}
+	}
+
+	private void waitOnMonitor(long millis) {
+		try {
+			monitor.wait(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncategorizedSolrException("Interrupted while waiting for write behind journal.", e);
+		}
+	}
+
+	private void requestDrain() {
+		ScheduledExecutorService executor = this.drainer;
+		if (executor == null) {
+			return;
+		}
+		try {
+			executor.execute(drainTask);
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("Drain request rejected, write behind queue is shutting down.");
+		}
+	}
+
+	/**
+	 * Send pending updates to solr in batches of {@link #getBatchSize()}. Stops at the first batch solr did not accept,
+	 * which is retried on next invocation. A batch rejected as bad request is split up until the offending update has
+	 * been isolated.
+	 */
+	@ManagedOperation(description = "Send pending updates to solr")
+	public void drain() {
+		Assert.state(journal != null, "WriteBehindQueue has not been initialized.");
+
+		synchronized (drainLock) {
+			List<WriteBehindJournal.Entry> entries;
+			while (!(entries = journal.read(batchSize)).isEmpty()) {
+				if (!drain(entries)) {
+					break;
+				}
+			}
+			updateDrainRate();
+		}
+	}
+
+	/**
+	 * Send given entries, being the oldest pending ones, and remove them from the journal once accepted.
+	 * 
+	 * @param entries
+	 * @return false if entries remain pending and draining has to be retried later
+	 */
+	private boolean drain(List<WriteBehindJournal.Entry> entries) {
+		boolean deadLetter = false;
+		try {
+			send(entries);
+		} catch (UnreadableEntryException e) {
+			if (entries.size() > 1) {
+				return drainSplit(entries);
+			}
+			if (!deadLetter(entries.get(0), "cannot be read from journal", e)) {
+				return false;
+			}
+			deadLetter = true;
+		} catch (Exception e) {
+			synchronized (monitor) {
+				drainFailures++;
+			}
+			if (!isRejected(e)) {
+				LOGGER.warn("Could not send " + entries.size() + " pending updates to solr. Retrying in " + drainInterval
+						+ "ms.", e);
+				return false;
+			}
+			if (entries.size() > 1) {
+				return drainSplit(entries);
+			}
+			if (++rejectedAttempts < maxDeliveryAttempts) {
+				LOGGER.warn("Solr rejected " + describe(entries.get(0)) + " (attempt " + rejectedAttempts + " of "
+						+ maxDeliveryAttempts + "). Retrying in " + drainInterval + "ms.", e);
+				return false;
+			}
+			if (!deadLetter(entries.get(0), "has been rejected by solr " + rejectedAttempts + " times", e)) {
+				return false;
+			}
+			deadLetter = true;
+		}
+
+		rejectedAttempts = 0;
+		journal.confirm(entries);
+		synchronized (monitor) {
+			if (deadLetter) {
+				deadLetterCount++;
+				deadLetterSequences.add(processedCount + 1);
+				if (deadLetterSequences.size() > MAX_TRACKED_DEAD_LETTERS) {
+					deadLetterSequences.pollFirst();
+				}
+			} else {
+				drainedCount += entries.size();
+			}
+			processedCount += entries.size();
+			monitor.notifyAll();
+		}
+		return true;
+	}
+
+	private boolean drainSplit(List<WriteBehindJournal.Entry> entries) {
+		int half = entries.size() / 2;
+		return drain(entries.subList(0, half)) && drain(entries.subList(half, entries.size()));
+	}
+
+	/**
+	 * Append given entry to the dead letter file.
+	 * 
+	 * @return false if the entry could not be written and has to remain in the journal
+	 */
+	private boolean deadLetter(WriteBehindJournal.Entry entry, String reason, Exception e) {
+		try {
+			writeDeadLetter(entry);
+		} catch (IOException ex) {
+			LOGGER.warn("Could not write " + describe(entry) + " to dead letter file '" + deadLetterFile + "'. Retrying in "
+					+ drainInterval + "ms.", ex);
+			return false;
+		}
+		LOGGER.error("Moved " + describe(entry) + " that " + reason + " to dead letter file '" + deadLetterFile + "'.", e);
+		return true;
+	}
+
+	private void writeDeadLetter(WriteBehindJournal.Entry entry) throws IOException {
+		FileOutputStream file = new FileOutputStream(deadLetterFile, true);
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+			out.writeByte(entry.getType());
+			out.writeLong(entry.getTimestamp());
+			out.writeInt(entry.getPayload().length);
+			out.write(entry.getPayload());
+			out.flush();
+			file.getFD().sync();
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * @param e
+	 * @return true if solr rejected the update as bad request, so that sending it again will fail as well
+	 */
+	static boolean isRejected(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SolrException) {
+				return ((SolrException) cause).code() == SolrException.ErrorCode.BAD_REQUEST.code;
+			}
+		}
+		return false;
+	}
+
+	private static String describe(WriteBehindJournal.Entry entry) {
+		String description = "journal entry written at " + entry.getTimestamp();
+		switch (entry.getType()) {
+			case WriteBehindJournal.ADD:
+				return "add " + description + " (" + entry.getPayload().length + " bytes)";
+			case WriteBehindJournal.DELETE_BY_ID:
+				return "delete by id '" + fromBytes(entry.getPayload()) + "' " + description;
+			case WriteBehindJournal.DELETE_BY_QUERY:
+				return "delete by query '" + fromBytes(entry.getPayload()) + "' " + description;
+			default:
+				return description;
+		}
+	}
+
+	private void send(List<WriteBehindJournal.Entry> entries) throws SolrServerException, IOException,
+			UnreadableEntryException {
+		SolrServer solrServer = solrServerFactory.getSolrServer();
+
+		List<SolrInputDocument> documents = new ArrayList<SolrInputDocument>();
+		List<String> ids = new ArrayList<String>();
+		for (WriteBehindJournal.Entry entry : entries) {
+			if (entry.getType() != WriteBehindJournal.ADD && !documents.isEmpty()) {
+				solrServer.add(documents);
+				documents = new ArrayList<SolrInputDocument>();
+			}
+			if (entry.getType() != WriteBehindJournal.DELETE_BY_ID && !ids.isEmpty()) {
+				solrServer.deleteById(ids);
+				ids = new ArrayList<String>();
+			}
+
+			switch (entry.getType()) {
+				case WriteBehindJournal.ADD:
+					documents.add(deserialize(entry.getPayload()));
+					break;
+				case WriteBehindJournal.DELETE_BY_ID:
+					ids.add(fromBytes(entry.getPayload()));
+					break;
+				case WriteBehindJournal.DELETE_BY_QUERY:
+					solrServer.deleteByQuery(fromBytes(entry.getPayload()));
+					break;
+				default:
+					throw new UnreadableEntryException("Unknown journal entry type " + entry.getType() + ".", null);
+			}
+		}
+		if (!documents.isEmpty()) {
+			solrServer.add(documents);
+		}
+		if (!ids.isEmpty()) {
+			solrServer.deleteById(ids);
+		}
+		solrServer.commit();
+	}
+
+	private void updateDrainRate() {
+		long now = System.currentTimeMillis();
+		long drained = getDrainedCount();
+		if (drainRateWindowStart == 0) {
+			drainRateWindowStart = now;
+			drainRateWindowCount = drained;
+		} else if (now - drainRateWindowStart >= DRAIN_RATE_WINDOW) {
+			drainRate = (drained - drainRateWindowCount) * 1000d / (now - drainRateWindowStart);
+			drainRateWindowStart = now;
+			drainRateWindowCount = drained;
+		}
+	}
+
+	/**
+	 * Encode document as javabin list holding the document boost followed by name, boost and value of each field, as
+	 * javabin has no type for input documents.
+	 */
+	private static byte[] serialize(SolrInputDocument document) {
+		List<Object> values = new ArrayList<Object>();
+		values.add(document.getDocumentBoost());
+		for (SolrInputField field : document) {
+			values.add(field.getName());
+			values.add(field.getBoost());
+			values.add(field.getValue());
+		}
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			new JavaBinCodec().marshal(values, bytes);
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Document cannot be written to journal.", e);
+		}
+	}
+
+	private static SolrInputDocument deserialize(byte[] payload) throws UnreadableEntryException {
+		try {
+			List<?> values = (List<?>) new JavaBinCodec().unmarshal(new ByteArrayInputStream(payload));
+			SolrInputDocument document = new SolrInputDocument();
+			document.setDocumentBoost((Float) values.get(0));
+			for (int i = 1; i + 2 < values.size(); i += 3) {
+				document.setField((String) values.get(i), values.get(i + 2), (Float) values.get(i + 1));
+			}
+			return document;
+		} catch (Exception e) {
+			throw new UnreadableEntryException("Document cannot be read from journal.", e);
+		}
+	}
+
+	private static byte[] toBytes(String value) {
+		try {
+			return value.getBytes(CHARSET);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String fromBytes(byte[] value) {
+		try {
+			return new String(value, CHARSET);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@ManagedMetric(displayName = "JournalSize", description = "Bytes taken by pending updates",
+			metricType = MetricType.GAUGE, unit = "bytes")
+	public long getJournalSize() {
+		return journal != null ? journal.getPendingBytes() : 0;
+	}
+
+	@ManagedAttribute(description = "Size of the journal file in bytes")
+	public long getJournalCapacity() {
+		return journal != null ? journal.getCapacity() : capacity;
+	}
+
+	@ManagedMetric(displayName = "PendingCount", description = "Updates not yet sent to solr",
+			metricType = MetricType.GAUGE)
+	public long getPendingCount() {
+		return journal != null ? journal.getPendingCount() : 0;
+	}
+
+	@ManagedMetric(displayName = "Lag", description = "Age of the oldest pending update", metricType = MetricType.GAUGE,
+			unit = "ms")
+	public long getLag() {
+		long oldest = journal != null ? journal.getOldestTimestamp() : -1;
+		return oldest < 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+	}
+
+	@ManagedMetric(displayName = "DrainRate", description = "Updates sent to solr per second",
+			metricType = MetricType.GAUGE, unit = "1/s")
+	public double getDrainRate() {
+		return this.drainRate;
+	}
+
+	@ManagedMetric(displayName = "DrainedCount", description = "Updates accepted by solr",
+			metricType = MetricType.COUNTER)
+	public long getDrainedCount() {
+		synchronized (monitor) {
+			return this.drainedCount;
+		}
+	}
+
+	@ManagedMetric(displayName = "DrainFailures", description = "Batches solr did not accept",
+			metricType = MetricType.COUNTER)
+	public long getDrainFailures() {
+		synchronized (monitor) {
+			return this.drainFailures;
+		}
+	}
+
+	@ManagedMetric(displayName = "DeadLetterCount", description = "Updates moved to the dead letter file",
+			metricType = MetricType.COUNTER)
+	public long getDeadLetterCount() {
+		synchronized (monitor) {
+			return this.deadLetterCount;
+		}
+	}
+
+	public File getJournalFile() {
+		return this.journalFile;
+	}
+
+	/**
+	 * Set size of the journal file in bytes. Appending updates blocks for at most {@link #getAppendTimeout()} in case
+	 * the journal is full. Has to be set before the queue is initialized. Default is {@link #DEFAULT_CAPACITY}.
+	 * 
+	 * @param capacity
+	 */
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set max number of updates sent to solr followed by a single commit. Default is {@link #DEFAULT_BATCH_SIZE}.
+	 * 
+	 * @param batchSize
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "BatchSize must be greater than 0.");
+		this.batchSize = batchSize;
+	}
+
+	public long getDrainInterval() {
+		return this.drainInterval;
+	}
+
+	/**
+	 * Set milliseconds between checking the journal for pending updates. Has to be set before the queue is
+	 * initialized. Default is {@link #DEFAULT_DRAIN_INTERVAL}.
+	 * 
+	 * @param drainInterval
+	 */
+	public void setDrainInterval(long drainInterval) {
+		Assert.isTrue(drainInterval > 0, "DrainInterval must be greater than 0.");
+		this.drainInterval = drainInterval;
+	}
+
+	public long getAppendTimeout() {
+		return this.appendTimeout;
+	}
+
+	/**
+	 * Set max milliseconds to wait for space in a full journal before failing with
+	 * {@link DataAccessResourceFailureException}. Default is {@link #DEFAULT_APPEND_TIMEOUT}.
+	 * 
+	 * @param appendTimeout
+	 */
+	public void setAppendTimeout(long appendTimeout) {
+		this.appendTimeout = appendTimeout;
+	}
+
+	/**
+	 * Force journal changes to the storage device on each append, so that pending updates survive a crash of the
+	 * operating system. Slows down appending considerably. Has to be set before the queue is initialized. Default is
+	 * false.
+	 * 
+	 * @param forceWrites
+	 */
+	public void setForceWrites(boolean forceWrites) {
+		this.forceWrites = forceWrites;
+	}
+
+	public int getMaxDeliveryAttempts() {
+		return this.maxDeliveryAttempts;
+	}
+
+	/**
+	 * Set number of times solr has to reject a single update as bad request before it is skipped. Attempts are spaced
+	 * by {@link #getDrainInterval()}. Default is {@link #DEFAULT_MAX_DELIVERY_ATTEMPTS}.
+	 * 
+	 * @param maxDeliveryAttempts
+	 */
+	public void setMaxDeliveryAttempts(int maxDeliveryAttempts) {
+		Assert.isTrue(maxDeliveryAttempts > 0, "MaxDeliveryAttempts must be greater than 0.");
+		this.maxDeliveryAttempts = maxDeliveryAttempts;
+	}
+
+	public File getDeadLetterFile() {
+		return this.deadLetterFile;
+	}
+
+	/**
+	 * Set file updates that cannot be delivered are appended to, each as entry type (byte), timestamp (long), payload
+	 * length (int) and payload as written to the journal. Default is the journal file suffixed by {@code .dead}.
+	 * 
+	 * @param deadLetterFile
+	 */
+	public void setDeadLetterFile(File deadLetterFile) {
+		Assert.notNull(deadLetterFile, "DeadLetterFile must not be null.");
+		this.deadLetterFile = deadLetterFile;
+	}
+
+	/**
+	 * Journal entry that cannot be turned into an update.
+	 */
+	private static class UnreadableEntryException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		UnreadableEntryException(String message, Throwable cause) {
+			super(message, cause);
+		}
+
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.monitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.solr.core.SolrOperations;
+import org.springframework.data.solr.core.query.result.CacheStatsResult;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedMetric;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.jmx.support.MetricType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Exposes statistics of solr side caches of a single core via JMX. Statistics are polled from solr's
+ * {@code /admin/mbeans} handler using {@link SolrOperations#executeCacheStats()} every {@link #getPollInterval()}
+ * milliseconds, so reading attributes never causes a request to solr. Register one monitor per core using an
+ * {@link org.springframework.jmx.export.annotation.AnnotationMBeanExporter}.
+ * 
+ * @author Christoph Strobl
+ */
+@ManagedResource(description = "Solr Cache Statistics")
+public class SolrCacheMonitor implements InitializingBean, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SolrCacheMonitor.class);
+
+	public static final long DEFAULT_POLL_INTERVAL = 60000;
+
+	static final String FILTER_CACHE = "filterCache";
+	static final String QUERY_RESULT_CACHE = "queryResultCache";
+	static final String DOCUMENT_CACHE = "documentCache";
+
+	private final SolrOperations solrOperations;
+	private long pollInterval = DEFAULT_POLL_INTERVAL;
+	private ScheduledExecutorService scheduler;
+
+	private volatile Map<String, CacheStatsResult> cacheStats = Collections.emptyMap();
+	private volatile Date lastRefresh;
+
+	public SolrCacheMonitor(SolrOperations solrOperations) {
+		Assert.notNull(solrOperations, "SolrOperations must not be null.");
+		this.solrOperations = solrOperations;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (pollInterval <= 0) {
+			return;
+		}
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("solr-cache-monitor-");
+		threadFactory.setDaemon(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		this.scheduler.scheduleWithFixedDelay(new Runnable() {
+
+			@Override
+			public void run() {
+				refresh();
+			}
+
+		}, 0, pollInterval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (this.scheduler != null) {
+			this.scheduler.shutdownNow();
+			this.scheduler = null;
+		}
+	}
+
+	/**
+	 * Poll statistics from solr. Previous statistics are kept in case solr cannot be reached.
+	 */
+	@ManagedOperation(description = "Poll cache statistics from solr")
+	public void refresh() {
+		try {
+			Map<String, CacheStatsResult> stats = new LinkedHashMap<String, CacheStatsResult>();
+			for (CacheStatsResult cacheStatsResult : solrOperations.executeCacheStats()) {
+				stats.put(cacheStatsResult.getName(), cacheStatsResult);
+			}
+			this.cacheStats = Collections.unmodifiableMap(stats);
+			this.lastRefresh = new Date();
+		} catch (DataAccessException e) {
+			LOGGER.warn("Could not poll cache statistics from solr.", e);
+		}
+	}
+
+	/**
+	 * @param cacheName
+	 * @return null if no statistics available for cache with given name
+	 */
+	public CacheStatsResult getCacheStats(String cacheName) {
+		return this.cacheStats.get(cacheName);
+	}
+
+	@ManagedAttribute(description = "Names of caches statistics are available for")
+	public List<String> getCacheNames() {
+		return new ArrayList<String>(this.cacheStats.keySet());
+	}
+
+	@ManagedAttribute(description = "Time statistics have been polled last")
+	public Date getLastRefresh() {
+		return this.lastRefresh;
+	}
+
+	@ManagedMetric(displayName = "FilterCache HitRatio", metricType = MetricType.GAUGE)
+	public double getFilterCacheHitRatio() {
+		return getHitRatio(FILTER_CACHE);
+	}
+
+	@ManagedMetric(displayName = "FilterCache Evictions", metricType = MetricType.COUNTER)
+	public long getFilterCacheEvictions() {
+		return getEvictions(FILTER_CACHE);
+	}
+
+	@ManagedMetric(displayName = "FilterCache Size", metricType = MetricType.GAUGE)
+	public long getFilterCacheSize() {
+		return getSize(FILTER_CACHE);
+	}
+
+	@ManagedMetric(displayName = "FilterCache WarmupTime", metricType = MetricType.GAUGE, unit = "ms")
+	public long getFilterCacheWarmupTime() {
+		return getWarmupTime(FILTER_CACHE);
+	}
+
+	@ManagedMetric(displayName = "QueryResultCache HitRatio", metricType = MetricType.GAUGE)
+	public double getQueryResultCacheHitRatio() {
+		return getHitRatio(QUERY_RESULT_CACHE);
+	}
+
+	@ManagedMetric(displayName = "QueryResultCache Evictions", metricType = MetricType.COUNTER)
+	public long getQueryResultCacheEvictions() {
+		return getEvictions(QUERY_RESULT_CACHE);
+	}
+
+	@ManagedMetric(displayName = "QueryResultCache Size", metricType = MetricType.GAUGE)
+	public long getQueryResultCacheSize() {
+		return getSize(QUERY_RESULT_CACHE);
+	}
+
+	@ManagedMetric(displayName = "QueryResultCache WarmupTime", metricType = MetricType.GAUGE, unit = "ms")
+	public long getQueryResultCacheWarmupTime() {
+		return getWarmupTime(QUERY_RESULT_CACHE);
+	}
+
+	@ManagedMetric(displayName = "DocumentCache HitRatio", metricType = MetricType.GAUGE)
+	public double getDocumentCacheHitRatio() {
+		return getHitRatio(DOCUMENT_CACHE);
+	}
+
+	@ManagedMetric(displayName = "DocumentCache Evictions", metricType = MetricType.COUNTER)
+	public long getDocumentCacheEvictions() {
+		return getEvictions(DOCUMENT_CACHE);
+	}
+
+	@ManagedMetric(displayName = "DocumentCache Size", metricType = MetricType.GAUGE)
+	public long getDocumentCacheSize() {
+		return getSize(DOCUMENT_CACHE);
+	}
+
+	@ManagedMetric(displayName = "DocumentCache WarmupTime", metricType = MetricType.GAUGE, unit = "ms")
+	public long getDocumentCacheWarmupTime() {
+		return getWarmupTime(DOCUMENT_CACHE);
+	}
+
+	private double getHitRatio(String cacheName) {
+		CacheStatsResult stats = getCacheStats(cacheName);
+		return stats != null ? stats.getHitRatio() : 0;
+	}
+
+	private long getEvictions(String cacheName) {
+		CacheStatsResult stats = getCacheStats(cacheName);
+		return stats != null ? stats.getEvictions() : 0;
+	}
+
+	private long getSize(String cacheName) {
+		CacheStatsResult stats = getCacheStats(cacheName);
+		return stats != null ? stats.getSize() : 0;
+	}
+
+	private long getWarmupTime(String cacheName) {
+		CacheStatsResult stats = getCacheStats(cacheName);
+		return stats != null ? stats.getWarmupTime() : 0;
+	}
+
+	/**
+	 * @return milliseconds between polling statistics from solr
+	 */
+	public long getPollInterval() {
+		return this.pollInterval;
+	}
+
+	/**
+	 * Set milliseconds between polling statistics from solr. Values less or equal to 0 disable polling, so statistics
+	 * are only updated on calling {@link #refresh()}. Has to be set before the monitor is initialized. Default is
+	 * {@link #DEFAULT_POLL_INTERVAL}.
+	 * 
+	 * @param pollInterval
+	 */
+	public void setPollInterval(long pollInterval) {
+		this.pollInterval = pollInterval;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adds filter queries to the query of an annotated repository method and moves selected criteria of derived queries
+ * into separate filter queries, so those can be reused via solr's filterCache.
+ * 
+ * @author Christoph Strobl
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface Filter {
+
+	/**
+	 * Additional filter queries. Corresponds to 'fq' in solr.
+	 * 
+	 * @return
+	 */
+	String[] value() default {};
+
+	/**
+	 * Names of fields whose criteria of derived queries are moved into separate filter queries. Extracted criteria no
+	 * longer contribute to the score.
+	 * 
+	 * @return
+	 */
+	String[] fields() default {};
+
+	/**
+	 * Move all criteria of derived queries, that are not boosted, into separate filter queries. Use {@link #fields()}
+	 * to keep scoring criteria within the main query.
+	 * 
+	 * @return
+	 */
+	boolean extract() default false;
+
+	/**
+	 * Set to false to bypass solr's filterCache for the filter queries defined by {@link #value()}.
+	 * 
+	 * @return
+	 */
+	boolean cache() default true;
+
+	/**
+	 * Evaluation order of non cached filter queries defined by {@link #value()}. Negative values are ignored.
+	 * 
+	 * @return
+	 */
+	int cost() default -1;
+
+}
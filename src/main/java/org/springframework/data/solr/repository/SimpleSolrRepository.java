@@ -95,8 +95,7 @@ public class SimpleSolrRepository<T> implements SolrCrudRepository<T, String> {
 
 	@Override
 	public Page<T> findAll(Pageable pageable) {
-		return getSolrOperations().executeListQuery(
-				new SimpleQuery(new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD)).setPageRequest(pageable),
+		return getSolrOperations().executeListQuery(new SimpleQuery(createAllDocumentsCriteria()).setPageRequest(pageable),
 				getEntityClass());
 	}
 
@@ -107,8 +106,8 @@ public class SimpleSolrRepository<T> implements SolrCrudRepository<T, String> {
 			return new PageImpl<T>(Collections.<T> emptyList());
 		}
 		return getSolrOperations().executeListQuery(
-				new SimpleQuery(new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD)).setPageRequest(
-						new PageRequest(0, Math.max(1, itemCount))).addSort(sort), getEntityClass());
+				new SimpleQuery(createAllDocumentsCriteria()).setPageRequest(new PageRequest(0, Math.max(1, itemCount)))
+						.addSort(sort), getEntityClass());
 	}
 
 	@Override
@@ -121,7 +120,7 @@ public class SimpleSolrRepository<T> implements SolrCrudRepository<T, String> {
 
 	@Override
 	public long count() {
-		return count(new SimpleQuery(new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD)));
+		return count(new SimpleQuery(createAllDocumentsCriteria()));
 	}
 
 	protected long count(org.springframework.data.solr.core.query.Query query) {
@@ -185,8 +184,7 @@ public class SimpleSolrRepository<T> implements SolrCrudRepository<T, String> {
 
 	@Override
 	public void deleteAll() {
-		this.solrOperations.executeDelete(new SimpleFilterQuery(new Criteria(Criteria.WILDCARD)
-				.expression(Criteria.WILDCARD)));
+		this.solrOperations.executeDelete(new SimpleFilterQuery(createAllDocumentsCriteria()));
 		this.solrOperations.executeCommit();
 	}
 
@@ -266,4 +264,11 @@ public class SimpleSolrRepository<T> implements SolrCrudRepository<T, String> {
 		return solrInputDocument.getField(idFieldName).getValue().toString();
 	}
 
+	/**
+	 * @return new criteria matching all documents, so further criteria can be added to queries using it
+	 */
+	private static Criteria createAllDocumentsCriteria() {
+		return new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD);
+	}
+
 }
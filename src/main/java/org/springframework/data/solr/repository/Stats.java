@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Computes statistics for the given fields of all documents matching the query of an annotated repository method.
+ * Results are available via {@link org.springframework.data.solr.core.query.result.StatsPage} when returning a page.
+ * 
+ * @author Christoph Strobl
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface Stats {
+
+	/**
+	 * Fields to compute statistics for. Corresponds to 'stats.field' in solr.
+	 * 
+	 * @return
+	 */
+	String[] value();
+
+	/**
+	 * Fields to additionally compute statistics per distinct value for. Corresponds to 'stats.facet' in solr.
+	 * 
+	 * @return
+	 */
+	String[] facets() default {};
+
+}
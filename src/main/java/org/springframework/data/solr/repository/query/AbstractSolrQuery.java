@@ -20,7 +20,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.RepositoryQuery;
 import org.springframework.data.solr.core.SolrOperations;
+import org.springframework.data.solr.core.query.FilterQuery;
 import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.core.query.SimpleQuery;
 import org.springframework.util.Assert;
 
 /**
@@ -45,6 +47,15 @@ public abstract class AbstractSolrQuery implements RepositoryQuery {
 		SolrParameterAccessor accessor = new SolrParametersParameterAccessor(solrQueryMethod, parameters);
 
 		Query query = createQuery(accessor);
+		if (solrQueryMethod.hasFilterAnnotation()) {
+			applyFilterAnnotation(query);
+		}
+		if (solrQueryMethod.hasStatsAnnotation() && query instanceof SimpleQuery) {
+			((SimpleQuery) query).setStatsOptions(solrQueryMethod.getAnnotatedStatsOptions());
+		}
+		if (solrQueryMethod.hasTimeAllowedAnnotation() && query instanceof SimpleQuery) {
+			((SimpleQuery) query).setTimeAllowed(solrQueryMethod.getAnnotatedTimeAllowed());
+		}
 
 		if (solrQueryMethod.isPageQuery()) {
 			return new PagedExecution(accessor.getPageable()).execute(query);
@@ -55,6 +66,16 @@ public abstract class AbstractSolrQuery implements RepositoryQuery {
 		return new SingleEntityExecution().execute(query);
 	}
 
+	private void applyFilterAnnotation(Query query) {
+		if (query instanceof SimpleQuery) {
+			((SimpleQuery) query).setFilterQueryExtraction(solrQueryMethod.isFilterQueryExtraction());
+			((SimpleQuery) query).addFilterQueryFields(solrQueryMethod.getFilterQueryFields());
+		}
+		for (FilterQuery filterQuery : solrQueryMethod.getAnnotatedFilterQueries()) {
+			query.addFilterQuery(filterQuery);
+		}
+	}
+
 	protected abstract Query createQuery(SolrParameterAccessor parameterAccessor);
 
 	@Override
@@ -70,6 +91,9 @@ public abstract class AbstractSolrQuery implements RepositoryQuery {
 
 		protected Page<?> executeFind(Query query) {
 			SolrEntityInformation<?, ?> metadata = solrQueryMethod.getEntityInformation();
+			if (solrQueryMethod.isProjectionQuery()) {
+				return solrOperations.executeListQuery(query, metadata.getJavaType(), solrQueryMethod.getProjectionType());
+			}
 			return solrOperations.executeListQuery(query, metadata.getJavaType());
 		}
 
@@ -114,6 +138,9 @@ public abstract class AbstractSolrQuery implements RepositoryQuery {
 		@Override
 		public Object execute(Query query) {
 			SolrEntityInformation<?, ?> metadata = solrQueryMethod.getEntityInformation();
+			if (solrQueryMethod.isProjectionQuery()) {
+				return solrOperations.executeObjectQuery(query, metadata.getJavaType(), solrQueryMethod.getProjectionType());
+			}
 			return solrOperations.executeObjectQuery(query, metadata.getJavaType());
 		}
 	}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.repository.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.repository.query.ParameterAccessor;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.Part.Type;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.query.parser.PartTree.OrPart;
+import org.springframework.data.solr.core.mapping.SolrPersistentProperty;
+import org.springframework.data.solr.core.query.Criteria;
+import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.core.query.SimpleQuery;
+import org.springframework.util.Assert;
+
+/**
+ * Immutable representation of a {@link PartTree} with property paths already resolved to solr field names. Created
+ * once per derived query method, so that invocations only have to bind the actual parameter values. Produces the same
+ * {@link Query} as {@link SolrQueryCreator} would.
+ * 
+ * @author Christoph Strobl
+ */
+final class PartTreeQueryPlan {
+
+	private final List<List<PartPlan>> orParts;
+	private final boolean filterBoundingBoxes;
+	private final Sort staticSort;
+
+	PartTreeQueryPlan(PartTree tree, MappingContext<?, SolrPersistentProperty> context) {
+		Assert.notNull(tree);
+		Assert.notNull(context);
+
+		List<List<PartPlan>> parts = new ArrayList<List<PartPlan>>();
+		for (OrPart orPart : tree) {
+			List<PartPlan> andParts = new ArrayList<PartPlan>();
+			for (Part part : orPart) {
+				andParts.add(new PartPlan(context.getPersistentPropertyPath(part.getProperty()).toDotPath(
+						SolrPersistentProperty.PropertyToFieldNameConverter.INSTANCE), part.getType()));
+			}
+			parts.add(Collections.unmodifiableList(andParts));
+		}
+		this.orParts = Collections.unmodifiableList(parts);
+		this.filterBoundingBoxes = SolrQueryCreator.hasSingleOrPart(tree);
+		this.staticSort = tree.getSort();
+	}
+
+	/**
+	 * Create {@link Query} for given parameters
+	 * 
+	 * @param parameters
+	 * @return null if tree does not contain any parts
+	 */
+	Query bind(ParameterAccessor parameters) {
+		Iterator<Object> values = parameters.iterator();
+
+		Query query = null;
+		for (List<PartPlan> andParts : orParts) {
+			Query current = new SimpleQuery();
+			for (PartPlan part : andParts) {
+				SolrQueryCreator.appendCriteria(current, part.getType(),
+						SolrQueryCreator.from(part.getType(), new Criteria(part.getFieldName()), values), filterBoundingBoxes);
+			}
+			query = query == null ? current : new SimpleQuery(query.getCriteria().or(current.getCriteria()));
+		}
+
+		if (query == null) {
+			return null;
+		}
+		SolrQueryCreator.appendAllDocumentsCriteriaIfRequired(query);
+		Sort dynamicSort = parameters.getSort();
+		return query.addSort(staticSort != null ? staticSort.and(dynamicSort) : dynamicSort);
+	}
+
+	private static class PartPlan {
+
+		private final String fieldName;
+		private final Type type;
+
+		PartPlan(String fieldName, Type type) {
+			this.fieldName = fieldName;
+			this.type = type;
+		}
+
+		String getFieldName() {
+			return this.fieldName;
+		}
+
+		Type getType() {
+			return this.type;
+		}
+
+	}
+
+}
@@ -29,12 +29,14 @@ import org.springframework.data.solr.core.query.Query;
 public class PartTreeSolrQuery extends AbstractSolrQuery {
 
 	private final PartTree tree;
-	private final MappingContext<?, SolrPersistentProperty> mappingContext;
+	private final PartTreeQueryPlan plan;
 
 	public PartTreeSolrQuery(SolrQueryMethod method, SolrOperations solrOperations) {
 		super(solrOperations, method);
 		this.tree = new PartTree(method.getName(), method.getEntityInformation().getJavaType());
-		this.mappingContext = solrOperations.getConverter().getMappingContext();
+
+		MappingContext<?, SolrPersistentProperty> mappingContext = solrOperations.getConverter().getMappingContext();
+		this.plan = new PartTreeQueryPlan(tree, mappingContext);
 	}
 
 	public PartTree getTree() {
@@ -43,7 +45,7 @@ public class PartTreeSolrQuery extends AbstractSolrQuery {
 
 	@Override
 	protected Query createQuery(SolrParameterAccessor parameterAccessor) {
-		return new SolrQueryCreator(tree, parameterAccessor, mappingContext).createQuery();
+		return plan.bind(parameterAccessor);
 	}
 
 }
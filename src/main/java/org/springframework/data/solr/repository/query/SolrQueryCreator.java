@@ -27,37 +27,42 @@ import org.springframework.data.repository.query.parser.AbstractQueryCreator;
 import org.springframework.data.repository.query.parser.Part;
 import org.springframework.data.repository.query.parser.Part.Type;
 import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.query.parser.PartTree.OrPart;
 import org.springframework.data.solr.core.geo.Distance;
 import org.springframework.data.solr.core.geo.GeoLocation;
 import org.springframework.data.solr.core.mapping.SolrPersistentProperty;
 import org.springframework.data.solr.core.query.Criteria;
 import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.core.query.SimpleFilterQuery;
 import org.springframework.data.solr.core.query.SimpleQuery;
 
 /**
- * Solr specific implmentation of an {@link AbstractQueryCreator} that constructs {@link Query}
+ * Solr specific implmentation of an {@link AbstractQueryCreator} that constructs {@link Query}. Bounding box
+ * conditions ({@link Type#WITHIN}) do not contribute to the score, so they are sent as filter queries unless combined
+ * via {@code or}.
  * 
  * @author Christoph Strobl
  */
 class SolrQueryCreator extends AbstractQueryCreator<Query, Query> {
 
 	private final MappingContext<?, SolrPersistentProperty> context;
+	private final boolean filterBoundingBoxes;
 
 	public SolrQueryCreator(PartTree tree, MappingContext<?, SolrPersistentProperty> context) {
 		super(tree);
 		this.context = context;
+		this.filterBoundingBoxes = hasSingleOrPart(tree);
 	}
 
 	public SolrQueryCreator(PartTree tree, ParameterAccessor parameters, MappingContext<?, SolrPersistentProperty> context) {
 		super(tree, parameters);
 		this.context = context;
+		this.filterBoundingBoxes = hasSingleOrPart(tree);
 	}
 
 	@Override
 	protected Query create(Part part, Iterator<Object> iterator) {
-		PersistentPropertyPath<SolrPersistentProperty> path = context.getPersistentPropertyPath(part.getProperty());
-		return new SimpleQuery(from(part.getType(),
-				new Criteria(path.toDotPath(SolrPersistentProperty.PropertyToFieldNameConverter.INSTANCE)), iterator));
+		return and(part, new SimpleQuery(), iterator);
 	}
 
 	@Override
@@ -66,8 +71,10 @@ class SolrQueryCreator extends AbstractQueryCreator<Query, Query> {
 			return create(part, iterator);
 		}
 		PersistentPropertyPath<SolrPersistentProperty> path = context.getPersistentPropertyPath(part.getProperty());
-		return base.addCriteria(from(part.getType(),
-				new Criteria(path.toDotPath(SolrPersistentProperty.PropertyToFieldNameConverter.INSTANCE)), iterator));
+		appendCriteria(base, part.getType(),
+				from(part.getType(), new Criteria(path.toDotPath(SolrPersistentProperty.PropertyToFieldNameConverter.INSTANCE)),
+						iterator), filterBoundingBoxes);
+		return base;
 	}
 
 	@Override
@@ -80,10 +87,45 @@ class SolrQueryCreator extends AbstractQueryCreator<Query, Query> {
 		if (query == null) {
 			return null;
 		}
+		appendAllDocumentsCriteriaIfRequired(query);
 		return query.addSort(sort);
 	}
 
-	private Criteria from(Type type, Criteria instance, Iterator<?> parameters) {
+	static boolean hasSingleOrPart(PartTree tree) {
+		Iterator<OrPart> orParts = tree.iterator();
+		if (!orParts.hasNext()) {
+			return false;
+		}
+		orParts.next();
+		return !orParts.hasNext();
+	}
+
+	/**
+	 * @param query
+	 * @param type
+	 * @param criteria
+	 * @param filterBoundingBoxes true to add {@link Type#WITHIN} conditions as filter query
+	 */
+	static void appendCriteria(Query query, Type type, Criteria criteria, boolean filterBoundingBoxes) {
+		if (filterBoundingBoxes && Type.WITHIN.equals(type)) {
+			query.addFilterQuery(new SimpleFilterQuery(criteria));
+		} else {
+			query.addCriteria(criteria);
+		}
+	}
+
+	/**
+	 * Queries having filter queries only need to match all documents
+	 * 
+	 * @param query
+	 */
+	static void appendAllDocumentsCriteriaIfRequired(Query query) {
+		if (query.getCriteria() == null) {
+			query.addCriteria(new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD));
+		}
+	}
+
+	static Criteria from(Type type, Criteria instance, Iterator<?> parameters) {
 		Criteria criteria = instance;
 		if (criteria == null) {
 			criteria = new Criteria();
@@ -122,11 +164,13 @@ class SolrQueryCreator extends AbstractQueryCreator<Query, Query> {
 			return criteria.in(asArray(parameters.next())).not();
 		case NEAR:
 			return criteria.near((GeoLocation) parameters.next(), (Distance) parameters.next());
+		case WITHIN:
+			return criteria.withinBoundingBox((GeoLocation) parameters.next(), (Distance) parameters.next());
 		}
 		throw new InvalidDataAccessApiUsageException("Illegal criteria found '" + type + "'.");
 	}
 
-	private Object[] asArray(Object o) {
+	private static Object[] asArray(Object o) {
 		if (o instanceof Collection) {
 			return ((Collection<?>) o).toArray();
 		} else if (o.getClass().isArray()) {
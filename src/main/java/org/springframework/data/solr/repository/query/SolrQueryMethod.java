@@ -16,11 +16,25 @@
 package org.springframework.data.solr.repository.query;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.solr.core.query.FilterQuery;
+import org.springframework.data.solr.core.query.SimpleFilterQuery;
+import org.springframework.data.solr.core.query.SimpleStringCriteria;
+import org.springframework.data.solr.core.query.StatsOptions;
+import org.springframework.data.solr.repository.Filter;
 import org.springframework.data.solr.repository.Query;
+import org.springframework.data.solr.repository.Stats;
+import org.springframework.data.solr.repository.TimeAllowed;
 import org.springframework.data.util.ClassTypeInformation;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.util.StringUtils;
@@ -33,12 +47,43 @@ import org.springframework.util.StringUtils;
 public class SolrQueryMethod extends QueryMethod {
 
 	private final SolrEntityInformation<?, ?> entityInformation;
+	private final Class<?> projectionType;
+	private final List<FilterQuery> annotatedFilterQueries;
 	private Method method;
 
 	public SolrQueryMethod(Method method, RepositoryMetadata metadata, SolrEntityInformationCreator solrInformationCreator) {
 		super(method, metadata);
 		this.method = method;
-		this.entityInformation = solrInformationCreator.getEntityInformation(metadata.getReturnedDomainClass(method));
+
+		Class<?> returnedType = metadata.getReturnedDomainClass(method);
+		Class<?> domainType = metadata.getDomainType();
+		if (isProjection(returnedType, domainType)) {
+			this.projectionType = returnedType;
+			this.entityInformation = solrInformationCreator.getEntityInformation(domainType);
+		} else {
+			this.projectionType = null;
+			this.entityInformation = solrInformationCreator.getEntityInformation(returnedType != null
+					&& domainType != null && !domainType.isAssignableFrom(returnedType) ? domainType : returnedType);
+		}
+		this.annotatedFilterQueries = createAnnotatedFilterQueries();
+	}
+
+	/**
+	 * Types related to the domain type, simple values, arrays as well as collection and wrapper types like
+	 * {@link Iterable}, {@link Map} or {@link Future} are never considered a projection.
+	 * 
+	 * @param returnedType
+	 * @param domainType
+	 * @return
+	 */
+	private static boolean isProjection(Class<?> returnedType, Class<?> domainType) {
+		if (returnedType == null || domainType == null || domainType.isAssignableFrom(returnedType)
+				|| returnedType.isAssignableFrom(domainType)) {
+			return false;
+		}
+		return !returnedType.isArray() && !BeanUtils.isSimpleProperty(returnedType)
+				&& !Iterable.class.isAssignableFrom(returnedType) && !Iterator.class.isAssignableFrom(returnedType)
+				&& !Map.class.isAssignableFrom(returnedType) && !Future.class.isAssignableFrom(returnedType);
 	}
 
 	public boolean hasAnnotatedQuery() {
@@ -63,10 +108,131 @@ public class SolrQueryMethod extends QueryMethod {
 		return this.method.getAnnotation(Query.class);
 	}
 
+	/**
+	 * @return true if method is annotated with {@link Filter}
+	 */
+	public boolean hasFilterAnnotation() {
+		return getFilterAnnotation() != null;
+	}
+
+	/**
+	 * @return true if all criteria that are not boosted should be sent as separate filter queries
+	 */
+	public boolean isFilterQueryExtraction() {
+		return hasFilterAnnotation() && getFilterAnnotation().extract();
+	}
+
+	/**
+	 * @return names of fields whose criteria should be sent as separate filter queries, empty array if none
+	 */
+	public String[] getFilterQueryFields() {
+		return hasFilterAnnotation() ? getFilterAnnotation().fields() : new String[0];
+	}
+
+	/**
+	 * @return frozen filter queries defined via {@link Filter}, empty list if none
+	 */
+	public List<FilterQuery> getAnnotatedFilterQueries() {
+		return this.annotatedFilterQueries;
+	}
+
+	private List<FilterQuery> createAnnotatedFilterQueries() {
+		Filter filter = getFilterAnnotation();
+		if (filter == null || filter.value().length == 0) {
+			return Collections.emptyList();
+		}
+
+		List<FilterQuery> filterQueries = new ArrayList<FilterQuery>(filter.value().length);
+		for (String filterQueryString : filter.value()) {
+			if (StringUtils.hasText(filterQueryString)) {
+				SimpleFilterQuery filterQuery = new SimpleFilterQuery(new SimpleStringCriteria(filterQueryString));
+				if (!filter.cache()) {
+					filterQuery.setCache(false);
+				}
+				if (filter.cost() >= 0) {
+					filterQuery.setCost(filter.cost());
+				}
+				filterQueries.add(filterQuery.<SimpleFilterQuery> freeze());
+			}
+		}
+		return Collections.unmodifiableList(filterQueries);
+	}
+
+	private Filter getFilterAnnotation() {
+		return this.method.getAnnotation(Filter.class);
+	}
+
+	/**
+	 * @return true if method is annotated with {@link Stats}
+	 */
+	public boolean hasStatsAnnotation() {
+		return getStatsAnnotation() != null;
+	}
+
+	/**
+	 * @return stats options defined via {@link Stats}, null if none
+	 */
+	public StatsOptions getAnnotatedStatsOptions() {
+		Stats stats = getStatsAnnotation();
+		if (stats == null) {
+			return null;
+		}
+
+		StatsOptions statsOptions = new StatsOptions();
+		for (String fieldname : stats.value()) {
+			if (StringUtils.hasText(fieldname)) {
+				statsOptions.addField(fieldname);
+			}
+		}
+		for (String facet : stats.facets()) {
+			if (StringUtils.hasText(facet)) {
+				statsOptions.addFacet(facet);
+			}
+		}
+		return statsOptions.hasFields() ? statsOptions : null;
+	}
+
+	private Stats getStatsAnnotation() {
+		return this.method.getAnnotation(Stats.class);
+	}
+
+	/**
+	 * @return true if method is annotated with {@link TimeAllowed}
+	 */
+	public boolean hasTimeAllowedAnnotation() {
+		return getTimeAllowedAnnotation() != null;
+	}
+
+	/**
+	 * @return time in milliseconds defined via {@link TimeAllowed}, null if none or not positive
+	 */
+	public Integer getAnnotatedTimeAllowed() {
+		TimeAllowed timeAllowed = getTimeAllowedAnnotation();
+		return timeAllowed != null && timeAllowed.value() > 0 ? Integer.valueOf(timeAllowed.value()) : null;
+	}
+
+	private TimeAllowed getTimeAllowedAnnotation() {
+		return this.method.getAnnotation(TimeAllowed.class);
+	}
+
 	TypeInformation<?> getReturnType() {
 		return ClassTypeInformation.fromReturnTypeOf(method);
 	}
 
+	/**
+	 * @return true if method returns a projection (interface or DTO) instead of the repository domain type
+	 */
+	public boolean isProjectionQuery() {
+		return this.projectionType != null;
+	}
+
+	/**
+	 * @return the type the query result is projected on, null if not a projection query
+	 */
+	public Class<?> getProjectionType() {
+		return this.projectionType;
+	}
+
 	@Override
 	public SolrEntityInformation<?, ?> getEntityInformation() {
 		return entityInformation;
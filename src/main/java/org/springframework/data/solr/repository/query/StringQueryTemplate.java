@@ -0,0 +1,198 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.repository.query;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.repository.query.ParameterAccessor;
+import org.springframework.data.repository.query.Parameters;
+import org.springframework.data.solr.core.convert.DateTimeConverters;
+import org.springframework.data.solr.core.convert.GeoConverters;
+import org.springframework.data.solr.core.convert.NumberConverters;
+import org.springframework.util.Assert;
+
+/**
+ * String based query parsed into literal segments and {@code ?n} parameter references. Parsing and resolving the
+ * conversion for each parameter is done once, binding parameter values is a single pass appending segments and
+ * values. <br />
+ * Values of {@link Collection} or array parameters are expanded to {@code (value1 OR value2)}. String values are
+ * escaped, values converted to solr readable format are taken as they are.
+ * 
+ * @author Christoph Strobl
+ */
+final class StringQueryTemplate {
+
+	private static final char PLACEHOLDER = '?';
+	private static final String OR_OPERATOR = " OR ";
+	private static final String NULL_VALUE = "null";
+	private static final GenericConversionService CONVERSION_SERVICE = new GenericConversionService();
+
+	static {
+		CONVERSION_SERVICE.addConverter(DateTimeConverters.JavaDateConverter.INSTANCE);
+		CONVERSION_SERVICE.addConverter(DateTimeConverters.JodaDateTimeConverter.INSTANCE);
+		CONVERSION_SERVICE.addConverter(DateTimeConverters.JodaLocalDateTimeConverter.INSTANCE);
+		CONVERSION_SERVICE.addConverter(NumberConverters.NumberConverter.INSTANCE);
+		CONVERSION_SERVICE.addConverter(GeoConverters.GeoLocationToStringConverter.INSTANCE);
+		CONVERSION_SERVICE.addConverter(GeoConverters.DistanceToStringConverter.INSTANCE);
+	}
+
+	private final String[] segments;
+	private final int[] parameterIndexes;
+	private final boolean[] multiValued;
+	private final boolean[] convertible;
+	private final int estimatedLength;
+
+	/**
+	 * @param query raw query containing {@code ?n} placeholders
+	 * @param parameters parameters of the query method placeholders refer to
+	 */
+	StringQueryTemplate(String query, Parameters parameters) {
+		Assert.hasText(query, "Query must not be empty.");
+		Assert.notNull(parameters, "Parameters must not be null.");
+
+		List<String> segmentList = new ArrayList<String>();
+		List<Integer> indexList = new ArrayList<Integer>();
+
+		StringBuilder segment = new StringBuilder();
+		int position = 0;
+		while (position < query.length()) {
+			char c = query.charAt(position);
+			int end = position + 1;
+			while (c == PLACEHOLDER && end < query.length() && Character.isDigit(query.charAt(end))) {
+				end++;
+			}
+			if (end > position + 1 && c == PLACEHOLDER) {
+				segmentList.add(segment.toString());
+				indexList.add(Integer.valueOf(query.substring(position + 1, end)));
+				segment.setLength(0);
+			} else {
+				segment.append(c);
+			}
+			position = end;
+		}
+		segmentList.add(segment.toString());
+
+		this.segments = segmentList.toArray(new String[segmentList.size()]);
+		this.parameterIndexes = new int[indexList.size()];
+		this.multiValued = new boolean[indexList.size()];
+		this.convertible = new boolean[indexList.size()];
+
+		Parameters bindableParameters = parameters.getBindableParameters();
+		for (int i = 0; i < parameterIndexes.length; i++) {
+			int index = indexList.get(i);
+			if (index >= bindableParameters.getNumberOfParameters()) {
+				throw new IllegalArgumentException("Query '" + query + "' refers to parameter ?" + index
+						+ " that is not present in method signature.");
+			}
+
+			Class<?> type = bindableParameters.getParameter(index).getType();
+			parameterIndexes[i] = index;
+			multiValued[i] = Collection.class.isAssignableFrom(type) || (type.isArray() && !byte[].class.equals(type));
+			convertible[i] = !multiValued[i] && isConvertible(type);
+		}
+		this.estimatedLength = query.length() + parameterIndexes.length * 16;
+	}
+
+	/**
+	 * Create the query string for given parameter values
+	 * 
+	 * @param accessor
+	 * @return
+	 */
+	String bind(ParameterAccessor accessor) {
+		StringBuilder sb = new StringBuilder(estimatedLength);
+		for (int i = 0; i < parameterIndexes.length; i++) {
+			sb.append(segments[i]);
+			Object value = accessor.getBindableValue(parameterIndexes[i]);
+			if (multiValued[i] && value != null) {
+				appendMultiValue(sb, value);
+			} else {
+				appendValue(sb, value, convertible[i]);
+			}
+		}
+		sb.append(segments[segments.length - 1]);
+		return sb.toString();
+	}
+
+	private void appendMultiValue(StringBuilder sb, Object value) {
+		Iterator<?> it = value instanceof Collection ? ((Collection<?>) value).iterator() : new ArrayIterator(value);
+		if (!it.hasNext()) {
+			throw new InvalidDataAccessApiUsageException("Cannot bind empty collection to string query.");
+		}
+
+		sb.append('(');
+		while (it.hasNext()) {
+			appendValue(sb, it.next(), false);
+			if (it.hasNext()) {
+				sb.append(OR_OPERATOR);
+			}
+		}
+		sb.append(')');
+	}
+
+	private void appendValue(StringBuilder sb, Object value, boolean convertible) {
+		if (value == null) {
+			sb.append(NULL_VALUE);
+		} else if (convertible || isConvertible(value.getClass())) {
+			sb.append(CONVERSION_SERVICE.convert(value, String.class));
+		} else {
+			sb.append(ClientUtils.escapeQueryChars(value.toString()));
+		}
+	}
+
+	private static boolean isConvertible(Class<?> type) {
+		return !String.class.equals(type) && !Object.class.equals(type) && CONVERSION_SERVICE.canConvert(type, String.class);
+	}
+
+	/**
+	 * Iterates arrays of primitives and objects alike
+	 */
+	private static class ArrayIterator implements Iterator<Object> {
+
+		private final Object array;
+		private final int length;
+		private int index = 0;
+
+		ArrayIterator(Object array) {
+			this.array = array;
+			this.length = Array.getLength(array);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < length;
+		}
+
+		@Override
+		public Object next() {
+			return Array.get(array, index++);
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.solr.client.solrj.beans.Field;
+import org.apache.solr.client.solrj.impl.HttpSolrServer;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.solr.HttpSolrServerFactory;
+import org.springframework.data.solr.core.convert.MappingSolrConverter;
+import org.springframework.data.solr.core.convert.SolrConverter;
+import org.springframework.data.solr.core.mapping.SimpleSolrMappingContext;
+
+/**
+ * @author Christoph Strobl
+ */
+public class CsvContentWriterTest {
+
+	private SimpleSolrMappingContext mappingContext = new SimpleSolrMappingContext();
+	private MappingSolrConverter converter;
+
+	@Before
+	public void setUp() {
+		converter = new MappingSolrConverter(new HttpSolrServerFactory(new HttpSolrServer("http://localhost:8983/solr")),
+				mappingContext);
+		converter.afterPropertiesSet();
+	}
+
+	@Test
+	public void testFieldNamesDerivedFromMapping() {
+		CsvContentWriter writer = createWriter(CsvBean.class, new CsvLoadOptions());
+
+		Assert.assertEquals(Arrays.asList("id", "renamed", "values", "modified"), writer.getFieldNames());
+		Assert.assertEquals(Arrays.asList("values"), writer.getMultiValuedFieldNames());
+	}
+
+	@Test
+	public void testWrite() {
+		CsvContentWriter writer = createWriter(CsvBean.class, new CsvLoadOptions());
+
+		String csv = writer.write(Arrays.asList(new CsvBean("1", "christoph", Arrays.asList("a", "b"), new Date(0L)),
+				new CsvBean("2", null, null, null)));
+
+		Assert.assertEquals("1,christoph,a|b,1970-01-01T00:00:00.000Z\n2,,,\n", csv);
+	}
+
+	@Test
+	public void testWriteEncapsulatesSpecialCharacters() {
+		CsvContentWriter writer = createWriter(CsvBean.class, new CsvLoadOptions());
+
+		String csv = writer.write(Arrays.asList(new CsvBean("1", "strobl, \"christoph\"", null, null)));
+
+		Assert.assertEquals("1,\"strobl, \"\"christoph\"\"\",,\n", csv);
+	}
+
+	@Test
+	public void testWriteWithCustomSeparators() {
+		CsvContentWriter writer = createWriter(CsvBean.class, new CsvLoadOptions().setSeparator(';')
+				.setMultiValueSeparator(','));
+
+		String csv = writer.write(Arrays.asList(new CsvBean("1", "christoph", Arrays.asList("a", "b"), null)));
+
+		Assert.assertEquals("1;christoph;a,b;\n", csv);
+	}
+
+	@Test
+	public void testWritePrimitiveArray() {
+		CsvContentWriter writer = createWriter(BeanWithPrimitiveArray.class, new CsvLoadOptions());
+
+		Assert.assertEquals(Arrays.asList("values"), writer.getMultiValuedFieldNames());
+		Assert.assertEquals("1|2|3\n", writer.write(Arrays.asList(new BeanWithPrimitiveArray(new int[] { 1, 2, 3 }))));
+	}
+
+	@Test
+	public void testWriteEncapsulatesValuesContainingMultiValueSeparator() {
+		CsvContentWriter writer = createWriter(CsvBean.class, new CsvLoadOptions());
+
+		String csv = writer.write(Arrays.asList(new CsvBean("1", "a|b", Arrays.asList("c|d", "e"), null)));
+
+		Assert.assertEquals("1,a|b,\"\"\"c|d\"\"|e\",\n", csv);
+	}
+
+	@Test
+	public void testWriteUsesConverter() {
+		SolrConverter converterMock = Mockito.mock(SolrConverter.class);
+		Mockito.doAnswer(new Answer<Void>() {
+
+			@Override
+			public Void answer(InvocationOnMock invocation) {
+				((SolrInputDocument) invocation.getArguments()[1]).addField("renamed", "converted");
+				return null;
+			}
+		}).when(converterMock).write(Mockito.any(), Mockito.anyMap());
+		CsvContentWriter writer = new CsvContentWriter(mappingContext.getPersistentEntity(CsvBean.class), converterMock,
+				new CsvLoadOptions());
+
+		Assert.assertEquals(",converted,,\n", writer.write(Arrays.asList(new CsvBean("1", "christoph", null, null))));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEncapsulatorMustDifferFromMultiValueSeparator() {
+		createWriter(CsvBean.class, new CsvLoadOptions().setEncapsulator('|'));
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testDynamicFieldsNotSupported() {
+		createWriter(BeanWithDynamicField.class, new CsvLoadOptions());
+	}
+
+	private CsvContentWriter createWriter(Class<?> type, CsvLoadOptions options) {
+		return new CsvContentWriter(mappingContext.getPersistentEntity(type), converter, options);
+	}
+
+	static class CsvBean {
+
+		@Field
+		String id;
+
+		@Field("renamed")
+		String name;
+
+		@Field
+		List<String> values;
+
+		@Field
+		Date modified;
+
+		String notMapped = "not-mapped";
+
+		CsvBean(String id, String name, List<String> values, Date modified) {
+			this.id = id;
+			this.name = name;
+			this.values = values;
+			this.modified = modified;
+		}
+
+	}
+
+	static class BeanWithPrimitiveArray {
+
+		@Field
+		int[] values;
+
+		BeanWithPrimitiveArray(int[] values) {
+			this.values = values;
+		}
+
+	}
+
+	static class BeanWithDynamicField {
+
+		@Field("*_s")
+		Map<String, String> values;
+
+	}
+
+}
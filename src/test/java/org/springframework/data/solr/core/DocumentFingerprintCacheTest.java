@@ -0,0 +1,251 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Christoph Strobl
+ */
+public class DocumentFingerprintCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFingerprintIsIndependentOfFieldOrder() {
+		SolrInputDocument document1 = new SolrInputDocument();
+		document1.addField("id", "1");
+		document1.addField("name", "christoph");
+
+		SolrInputDocument document2 = new SolrInputDocument();
+		document2.addField("name", "christoph");
+		document2.addField("id", "1");
+
+		Assert.assertEquals(DocumentFingerprintCache.fingerprint(document1), DocumentFingerprintCache.fingerprint(document2));
+	}
+
+	@Test
+	public void testFingerprintChangesWithValue() {
+		SolrInputDocument document1 = new SolrInputDocument();
+		document1.addField("id", "1");
+		document1.addField("name", "christoph");
+
+		SolrInputDocument document2 = new SolrInputDocument();
+		document2.addField("id", "1");
+		document2.addField("name", "strobl");
+
+		Assert.assertFalse(DocumentFingerprintCache.fingerprint(document1) == DocumentFingerprintCache
+				.fingerprint(document2));
+	}
+
+	@Test
+	public void testFingerprintDistinguishesValueTypes() {
+		SolrInputDocument document1 = new SolrInputDocument();
+		document1.addField("value", 1);
+
+		SolrInputDocument document2 = new SolrInputDocument();
+		document2.addField("value", "1");
+
+		Assert.assertFalse(DocumentFingerprintCache.fingerprint(document1) == DocumentFingerprintCache
+				.fingerprint(document2));
+	}
+
+	@Test
+	public void testFingerprintChangesWithBoost() {
+		SolrInputDocument document1 = new SolrInputDocument();
+		document1.addField("id", "1");
+
+		SolrInputDocument document2 = new SolrInputDocument();
+		document2.addField("id", "1");
+		document2.setDocumentBoost(2f);
+
+		Assert.assertFalse(DocumentFingerprintCache.fingerprint(document1) == DocumentFingerprintCache
+				.fingerprint(document2));
+	}
+
+	@Test
+	public void testIsUnchanged() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		Assert.assertFalse(cache.isUnchanged("1", 10L));
+
+		cache.put("1", 10L);
+		Assert.assertTrue(cache.isUnchanged("1", 10L));
+		Assert.assertFalse(cache.isUnchanged("1", 11L));
+		Assert.assertFalse(cache.isUnchanged("2", 10L));
+
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(3, cache.getMissCount());
+		Assert.assertEquals(0.25d, cache.getHitRatio(), 0d);
+	}
+
+	@Test
+	public void testPutReplacesExistingFingerprint() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		cache.put("1", 10L);
+		cache.put("1", 11L);
+
+		Assert.assertEquals(1, cache.size());
+		Assert.assertTrue(cache.isUnchanged("1", 11L));
+	}
+
+	@Test
+	public void testRemove() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		cache.put("1", 10L);
+		cache.put("2", 20L);
+		cache.remove("1");
+
+		Assert.assertFalse(cache.isUnchanged("1", 10L));
+		Assert.assertTrue(cache.isUnchanged("2", 20L));
+	}
+
+	@Test
+	public void testClear() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		cache.put("1", 10L);
+		cache.clear();
+
+		Assert.assertEquals(0, cache.size());
+		Assert.assertFalse(cache.isUnchanged("1", 10L));
+	}
+
+	@Test
+	public void testCacheIsBounded() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(16);
+		for (int i = 0; i < 1000; i++) {
+			cache.put(Integer.toString(i), i);
+		}
+
+		Assert.assertEquals(16, cache.getCapacity());
+		Assert.assertTrue(cache.size() <= cache.getCapacity());
+		Assert.assertTrue(cache.isUnchanged("999", 999L));
+	}
+
+	@Test
+	public void testMemoryMappedCacheIsReused() throws IOException {
+		File file = new File(folder.getRoot(), "fingerprints");
+
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100, file);
+		cache.put("1", 10L);
+		cache.flush();
+
+		Assert.assertTrue(new DocumentFingerprintCache(100, file).isUnchanged("1", 10L));
+		Assert.assertFalse(new DocumentFingerprintCache(1000, file).isUnchanged("1", 10L));
+	}
+
+	@Test
+	public void testPendingFingerprintRecordedOnCommitOnly() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		Assert.assertTrue(cache.markPendingIfChanged("1", 10L));
+		Assert.assertTrue(cache.markPendingIfChanged("1", 10L));
+		Assert.assertEquals(0, cache.size());
+
+		cache.commitPending(DocumentFingerprintCache.UNKNOWN_INDEX_VERSION, 5L);
+		Assert.assertFalse(cache.markPendingIfChanged("1", 10L));
+		Assert.assertEquals(5L, cache.getIndexVersion());
+	}
+
+	@Test
+	public void testDiscardPendingKeepsCommittedFingerprints() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		cache.put("1", 10L);
+		Assert.assertTrue(cache.markPendingIfChanged("2", 20L));
+
+		cache.discardPending();
+		cache.commitPending(DocumentFingerprintCache.UNKNOWN_INDEX_VERSION, DocumentFingerprintCache.UNKNOWN_INDEX_VERSION);
+
+		Assert.assertTrue(cache.isUnchanged("1", 10L));
+		Assert.assertFalse(cache.isUnchanged("2", 20L));
+	}
+
+	@Test
+	public void testConflictingPendingFingerprintsAreNotRecorded() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		Assert.assertTrue(cache.markPendingIfChanged("1", 10L));
+		Assert.assertTrue(cache.markPendingIfChanged("1", 11L));
+
+		cache.commitPending(DocumentFingerprintCache.UNKNOWN_INDEX_VERSION, DocumentFingerprintCache.UNKNOWN_INDEX_VERSION);
+
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testMarkingChangedDocumentDropsRecordedFingerprint() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		cache.put("1", 10L);
+
+		Assert.assertTrue(cache.markPendingIfChanged("1", 11L));
+		cache.abortPending("1");
+
+		Assert.assertFalse(cache.isUnchanged("1", 10L));
+	}
+
+	@Test
+	public void testValidateDropsFingerprintsOnIndexVersionMismatch() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		cache.markPendingIfChanged("1", 10L);
+		cache.commitPending(DocumentFingerprintCache.UNKNOWN_INDEX_VERSION, 5L);
+
+		Assert.assertTrue(cache.validate(5L));
+		Assert.assertTrue(cache.validate(DocumentFingerprintCache.UNKNOWN_INDEX_VERSION));
+		Assert.assertEquals(1, cache.size());
+
+		Assert.assertFalse(cache.validate(6L));
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(6L, cache.getIndexVersion());
+	}
+
+	@Test
+	public void testMemoryMappedCacheKeepsIndexVersion() throws IOException {
+		File file = new File(folder.getRoot(), "fingerprints");
+
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100, file);
+		cache.markPendingIfChanged("1", 10L);
+		cache.commitPending(DocumentFingerprintCache.UNKNOWN_INDEX_VERSION, 5L);
+		cache.flush();
+
+		DocumentFingerprintCache reopened = new DocumentFingerprintCache(100, file);
+		Assert.assertEquals(5L, reopened.getIndexVersion());
+		Assert.assertFalse(reopened.validate(7L));
+		Assert.assertFalse(reopened.isUnchanged("1", 10L));
+	}
+
+	@Test
+	public void testGetDocumentId() {
+		SolrInputDocument document = new SolrInputDocument();
+		document.addField("key", 1);
+
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		Assert.assertNull(cache.getDocumentId(document));
+
+		cache.setIdFieldName("key");
+		Assert.assertEquals("1", cache.getDocumentId(document));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCreateWithZeroCapacity() {
+		new DocumentFingerprintCache(0);
+	}
+
+}
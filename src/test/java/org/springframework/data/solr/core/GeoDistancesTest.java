@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.util.Arrays;
+
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.util.NamedList;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.data.solr.core.geo.GeoLocation;
+import org.springframework.data.solr.core.query.GeoDistanceOptions;
+
+/**
+ * @author Christoph Strobl
+ */
+public class GeoDistancesTest {
+
+	private static final GeoLocation LINZ = new GeoLocation(48.303056, 14.290556);
+	private static final GeoLocation VIENNA = new GeoLocation(48.208333, 16.373056);
+
+	@Test
+	public void testDistance() {
+		Assert.assertEquals(154.5, GeoDistances.distance(LINZ, VIENNA), 0.1);
+		Assert.assertEquals(GeoDistances.distance(VIENNA, LINZ), GeoDistances.distance(LINZ, VIENNA), 0.0001);
+	}
+
+	@Test
+	public void testDistanceToSameLocation() {
+		Assert.assertEquals(0, GeoDistances.distance(LINZ, LINZ), 0);
+	}
+
+	@Test
+	public void testParseLocation() {
+		GeoLocation location = GeoDistances.parseLocation("48.303056, 14.290556");
+		Assert.assertEquals(48.303056, location.getLatitude(), 0);
+		Assert.assertEquals(14.290556, location.getLongitude(), 0);
+	}
+
+	@Test
+	public void testParseLocationFromCollection() {
+		GeoLocation location = GeoDistances.parseLocation(Arrays.asList("48.303056,14.290556", "48.208333,16.373056"));
+		Assert.assertEquals(48.303056, location.getLatitude(), 0);
+	}
+
+	@Test
+	public void testParseInvalidLocation() {
+		Assert.assertNull(GeoDistances.parseLocation(null));
+		Assert.assertNull(GeoDistances.parseLocation("48.303056"));
+		Assert.assertNull(GeoDistances.parseLocation("lat,lon"));
+	}
+
+	@Test
+	public void testAppendDistances() {
+		SolrDocument documentInVienna = createDocument("1", "48.208333,16.373056");
+		SolrDocument documentWithoutLocation = createDocument("2", null);
+		QueryResponse response = createResponse(documentInVienna, documentWithoutLocation);
+
+		GeoDistances.appendDistances(response, new GeoDistanceOptions("store", LINZ).setDistanceFieldName("distance"));
+
+		Assert.assertEquals(154.5, (Double) documentInVienna.getFieldValue("distance"), 0.1);
+		Assert.assertFalse(documentWithoutLocation.containsKey("distance"));
+	}
+
+	@Test
+	public void testAppendDistancesWithoutDistanceFieldName() {
+		SolrDocument documentInVienna = createDocument("1", "48.208333,16.373056");
+		GeoDistances.appendDistances(createResponse(documentInVienna), new GeoDistanceOptions("store", LINZ));
+
+		Assert.assertEquals(2, documentInVienna.size());
+	}
+
+	private SolrDocument createDocument(String id, String location) {
+		SolrDocument document = new SolrDocument();
+		document.setField("id", id);
+		if (location != null) {
+			document.setField("store", location);
+		}
+		return document;
+	}
+
+	private QueryResponse createResponse(SolrDocument... documents) {
+		SolrDocumentList documentList = new SolrDocumentList();
+		documentList.addAll(Arrays.asList(documents));
+
+		NamedList<Object> nl = new NamedList<Object>();
+		nl.add("response", documentList);
+		return new QueryResponse(nl, null);
+	}
+
+}
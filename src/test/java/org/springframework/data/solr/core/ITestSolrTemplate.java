@@ -15,31 +15,67 @@
  */
 package org.springframework.data.solr.core;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.parsers.ParserConfigurationException;
 
+import org.apache.solr.client.solrj.SolrServer;
 import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.UpdateResponse;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.solr.AbstractITestWithEmbeddedSolrServer;
 import org.springframework.data.solr.ExampleSolrBean;
+import org.springframework.data.solr.HttpSolrServerFactory;
+import org.springframework.data.solr.SolrServerFactory;
 import org.springframework.data.solr.core.query.Criteria;
 import org.springframework.data.solr.core.query.FacetOptions;
 import org.springframework.data.solr.core.query.FacetQuery;
+import org.springframework.data.solr.core.query.FacetRange;
+import org.springframework.data.solr.core.query.GroupOptions;
 import org.springframework.data.solr.core.query.Query;
 import org.springframework.data.solr.core.query.SimpleFacetQuery;
 import org.springframework.data.solr.core.query.SimpleField;
+import org.springframework.data.solr.core.query.SimpleFilterQuery;
 import org.springframework.data.solr.core.query.SimpleQuery;
 import org.springframework.data.solr.core.query.SimpleStringCriteria;
+import org.springframework.data.solr.core.query.StatsOptions;
+import org.springframework.data.solr.core.query.TermsQuery;
+import org.springframework.data.solr.core.query.result.CacheStatsResult;
 import org.springframework.data.solr.core.query.result.FacetEntry;
 import org.springframework.data.solr.core.query.result.FacetPage;
+import org.springframework.data.solr.core.query.result.FacetQueryEntry;
+import org.springframework.data.solr.core.query.result.FieldStatsResult;
+import org.springframework.data.solr.core.query.result.GroupEntry;
+import org.springframework.data.solr.core.query.result.GroupPage;
+import org.springframework.data.solr.core.query.result.GroupResult;
+import org.springframework.data.solr.core.query.result.StatsPage;
+import org.springframework.data.solr.core.query.result.StatsResult;
+import org.springframework.data.solr.core.query.result.TermsEntry;
+import org.springframework.data.solr.core.querylog.QueryLogEntry;
+import org.springframework.data.solr.core.querylog.QueryLogReader;
+import org.springframework.data.solr.core.querylog.QueryLogReplayer;
+import org.springframework.data.solr.core.querylog.QueryLogWriter;
+import org.springframework.data.solr.core.querylog.ReplayReport;
+import org.springframework.data.solr.core.transaction.SolrTransactionManager;
+import org.springframework.data.solr.core.writebehind.WriteBehindQueue;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.xml.sax.SAXException;
 
 /**
@@ -49,6 +85,9 @@ public class ITestSolrTemplate extends AbstractITestWithEmbeddedSolrServer {
 
 	private SolrTemplate solrTemplate;
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Before
 	public void setUp() throws IOException, ParserConfigurationException, SAXException {
 		solrTemplate = new SolrTemplate(solrServer, null);
@@ -82,11 +121,80 @@ public class ITestSolrTemplate extends AbstractITestWithEmbeddedSolrServer {
 		Assert.assertNull(recalled);
 	}
 
+	@Test
+	public void testQueryWithInCriteriaExceedingMaxBooleanClauses() {
+		List<ExampleSolrBean> values = new ArrayList<ExampleSolrBean>();
+		List<String> ids = new ArrayList<String>();
+		for (int i = 0; i < 10; i++) {
+			ExampleSolrBean bean = createExampleBeanWithId(Integer.toString(i));
+			bean.setPopularity(i);
+			values.add(bean);
+			ids.add(Integer.toString(i));
+		}
+		solrTemplate.executeAddBeans(values);
+		solrTemplate.executeCommit();
+		solrTemplate.setMaxBooleanClauses(3);
+
+		Query query = new SimpleQuery(new Criteria("id").in(ids)).addSort(new Sort(Sort.Direction.DESC, "popularity"))
+				.setPageRequest(new PageRequest(1, 4));
+		Page<ExampleSolrBean> page = solrTemplate.executeListQuery(query, ExampleSolrBean.class);
+
+		Assert.assertEquals(10, page.getTotalElements());
+		Assert.assertEquals(4, page.getNumberOfElements());
+		Assert.assertEquals("5", page.getContent().get(0).getId());
+		Assert.assertEquals("2", page.getContent().get(3).getId());
+		Assert.assertEquals(10, solrTemplate.executeCount(new SimpleQuery(new Criteria("id").in(ids))));
+	}
+
+	@Test
+	public void testQueryWithInCriteriaExceedingMaxBooleanClausesCountsDocumentsMatchingMultipleChunksOnce() {
+		List<ExampleSolrBean> values = new ArrayList<ExampleSolrBean>();
+		for (int i = 0; i < 4; i++) {
+			ExampleSolrBean bean = createExampleBeanWithId(Integer.toString(i));
+			bean.setCategory(Arrays.asList("cat_1", "cat_2", "cat_3", "cat_4"));
+			values.add(bean);
+		}
+		solrTemplate.executeAddBeans(values);
+		solrTemplate.executeCommit();
+		solrTemplate.setMaxBooleanClauses(2);
+
+		Query query = new SimpleQuery(new Criteria("cat").in("cat_1", "cat_2", "cat_3", "cat_4"))
+				.setPageRequest(new PageRequest(0, 2));
+		query.addProjectionOnField(new SimpleField("name"));
+		Page<ExampleSolrBean> page = solrTemplate.executeListQuery(query, ExampleSolrBean.class);
+
+		Assert.assertEquals(4, page.getTotalElements());
+		Assert.assertEquals(2, page.getNumberOfElements());
+		Assert.assertNull(page.getContent().get(0).getId());
+		Assert.assertEquals(4, solrTemplate.executeCount(query));
+	}
+
 	@Test
 	public void testPing() throws SolrServerException, IOException {
 		solrTemplate.executePing();
 	}
 
+	@Test
+	public void testCacheStats() {
+		solrTemplate.executeAddBean(createDefaultExampleBean());
+		solrTemplate.executeCommit();
+
+		Query query = new SimpleQuery(new SimpleStringCriteria("*:*"));
+		query.addFilterQuery(new SimpleFilterQuery(new Criteria("name").is("bar")));
+		solrTemplate.executeListQuery(query, ExampleSolrBean.class);
+		solrTemplate.executeListQuery(query, ExampleSolrBean.class);
+
+		CacheStatsResult filterCache = null;
+		for (CacheStatsResult cacheStats : solrTemplate.executeCacheStats()) {
+			if ("filterCache".equals(cacheStats.getName())) {
+				filterCache = cacheStats;
+			}
+		}
+		Assert.assertNotNull(filterCache);
+		Assert.assertTrue(filterCache.getLookups() > 0);
+		Assert.assertEquals(1, filterCache.getSize());
+	}
+
 	@Test
 	public void testRollback() {
 		ExampleSolrBean toInsert = createDefaultExampleBean();
@@ -133,6 +241,134 @@ public class ITestSolrTemplate extends AbstractITestWithEmbeddedSolrServer {
 		}
 	}
 
+	@Test
+	public void testFacetQueryWithRangeAndFacetQueries() {
+		List<ExampleSolrBean> values = new ArrayList<ExampleSolrBean>();
+		for (int i = 0; i < 10; i++) {
+			ExampleSolrBean bean = createExampleBeanWithId(Integer.toString(i));
+			bean.setPopularity(i);
+			values.add(bean);
+		}
+		solrTemplate.executeAddBeans(values);
+		solrTemplate.executeCommit();
+
+		FacetQuery q = new SimpleFacetQuery(new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD))
+				.setFacetOptions(new FacetOptions().addFacetByRange(new FacetRange("popularity", 0, 10, 5))
+						.addFacetQuery(new SimpleQuery(new Criteria("popularity").between(0, 2)))
+						.addFacetQuery(new SimpleQuery(new Criteria("popularity").greaterThanEqual(8))));
+
+		FacetPage<ExampleSolrBean> page = solrTemplate.executeFacetQuery(q, ExampleSolrBean.class);
+
+		Page<FacetEntry> rangePage = page.getRangeFacetResultPage(new SimpleField("popularity"));
+		Assert.assertEquals(2, rangePage.getNumberOfElements());
+		for (FacetEntry entry : rangePage) {
+			Assert.assertEquals("popularity", entry.getField().getName());
+			Assert.assertEquals(5l, entry.getValueCount());
+		}
+
+		Page<FacetQueryEntry> queryPage = page.getFacetQueryResult();
+		Assert.assertEquals(2, queryPage.getNumberOfElements());
+		Assert.assertEquals(3l, queryPage.getContent().get(0).getValueCount());
+		Assert.assertEquals(2l, queryPage.getContent().get(1).getValueCount());
+	}
+
+	@Test
+	public void testGroupQuery() {
+		List<ExampleSolrBean> values = new ArrayList<ExampleSolrBean>();
+		for (int i = 0; i < 10; i++) {
+			ExampleSolrBean bean = createExampleBeanWithId(Integer.toString(i));
+			bean.setName("group_" + (i % 3));
+			bean.setPopularity(i % 3);
+			values.add(bean);
+		}
+		solrTemplate.executeAddBeans(values);
+		solrTemplate.executeCommit();
+
+		SimpleQuery q = new SimpleQuery(new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD));
+		q.setGroupOptions(new GroupOptions("name").setLimit(2));
+
+		GroupPage<ExampleSolrBean> page = solrTemplate.executeGroupQuery(q, ExampleSolrBean.class);
+		Assert.assertEquals(1, page.getGroupResults().size());
+
+		GroupResult<ExampleSolrBean> fieldResult = page.getGroupResult(new SimpleField("name"));
+		Assert.assertEquals(10, fieldResult.getMatches());
+		Assert.assertEquals(Integer.valueOf(3), fieldResult.getGroupsCount());
+		Assert.assertEquals(3, fieldResult.getGroupEntries().getNumberOfElements());
+		for (GroupEntry<ExampleSolrBean> entry : fieldResult.getGroupEntries()) {
+			Assert.assertNotNull(entry.getGroupValue());
+			Assert.assertEquals(2, entry.getResult().getNumberOfElements());
+			for (ExampleSolrBean bean : entry.getResult()) {
+				Assert.assertEquals(entry.getGroupValue(), bean.getName());
+			}
+		}
+		Assert.assertEquals(3, page.getNumberOfElements());
+		Assert.assertEquals(3, page.getTotalElements());
+		Assert.assertEquals(fieldResult.getGroupEntries().getContent(), page.getContent());
+	}
+
+	@Test
+	public void testGroupQueryByQuery() {
+		List<ExampleSolrBean> values = new ArrayList<ExampleSolrBean>();
+		for (int i = 0; i < 10; i++) {
+			ExampleSolrBean bean = createExampleBeanWithId(Integer.toString(i));
+			bean.setPopularity(i % 3);
+			values.add(bean);
+		}
+		solrTemplate.executeAddBeans(values);
+		solrTemplate.executeCommit();
+
+		SimpleQuery q = new SimpleQuery(new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD));
+		q.setGroupOptions(new GroupOptions().addGroupByQuery(new SimpleQuery(new Criteria("popularity").is(0))));
+
+		GroupPage<ExampleSolrBean> page = solrTemplate.executeGroupQuery(q, ExampleSolrBean.class);
+		Assert.assertEquals(1, page.getNumberOfElements());
+		Assert.assertEquals(4, page.getContent().get(0).getResult().getTotalElements());
+		Assert.assertNotNull(page.getGroupResult("popularity:0"));
+	}
+
+	@Test
+	public void testStatsQuery() {
+		List<ExampleSolrBean> values = new ArrayList<ExampleSolrBean>();
+		for (int i = 0; i < 4; i++) {
+			ExampleSolrBean bean = createExampleBeanWithId(Integer.toString(i));
+			bean.setPrice(i * 10);
+			bean.setInStock(i % 2 == 0);
+			values.add(bean);
+		}
+		solrTemplate.executeAddBeans(values);
+		solrTemplate.executeCommit();
+
+		Query q = new SimpleQuery(new Criteria(Criteria.WILDCARD).expression(Criteria.WILDCARD)).setStatsOptions(
+				new StatsOptions("price").addFacet("inStock")).setPageRequest(new PageRequest(0, 1));
+
+		StatsPage<ExampleSolrBean> page = solrTemplate.executeStatsQuery(q, ExampleSolrBean.class);
+		Assert.assertEquals(1, page.getNumberOfElements());
+
+		FieldStatsResult statsResult = page.getFieldStatsResult("price");
+		Assert.assertEquals(0D, statsResult.getMin(), 0D);
+		Assert.assertEquals(30D, statsResult.getMax(), 0D);
+		Assert.assertEquals(60D, statsResult.getSum(), 0D);
+		Assert.assertEquals(15D, statsResult.getMean(), 0D);
+		Assert.assertEquals(Long.valueOf(4), statsResult.getCount());
+
+		StatsResult inStockStatsResult = statsResult.getFacetStatsResult(new SimpleField("inStock")).get("true");
+		Assert.assertEquals(20D, inStockStatsResult.getSum(), 0D);
+		Assert.assertEquals(Long.valueOf(2), inStockStatsResult.getCount());
+	}
+
+	@Test
+	public void testTermsQuery() {
+		solrTemplate.executeAddBeans(Arrays.asList(createExampleBeanWithId("spring-1"), createExampleBeanWithId("spring-2"),
+				createExampleBeanWithId("solr-1")));
+		solrTemplate.executeCommit();
+
+		List<TermsEntry> terms = solrTemplate.executeTermsQuery(new TermsQuery("id").setPrefix("spr"));
+		Assert.assertEquals(2, terms.size());
+		Assert.assertEquals("spring-1", terms.get(0).getTerm());
+		Assert.assertEquals(1L, terms.get(0).getCount());
+		Assert.assertEquals("spring-2", terms.get(1).getTerm());
+	}
+
 	@Test
 	public void testQueryWithSort() {
 		List<ExampleSolrBean> values = new ArrayList<ExampleSolrBean>();
@@ -185,4 +421,164 @@ public class ITestSolrTemplate extends AbstractITestWithEmbeddedSolrServer {
 		}
 
 	}
+
+	@Test
+	public void testLoadCsvFromBeans() {
+		List<ExampleSolrBean> values = new ArrayList<ExampleSolrBean>();
+		for (int i = 0; i < 25; i++) {
+			ExampleSolrBean bean = createExampleBeanWithId(Integer.toString(i));
+			bean.setCategory(Arrays.asList("category_" + i, "shared", "a|\"b\""));
+			bean.setStore("45.17614,-93.87341");
+			bean.setLastModified(new Date(1356994800000L));
+			values.add(bean);
+		}
+
+		List<UpdateResponse> responses = solrTemplate.executeLoadCsv(values, ExampleSolrBean.class,
+				new CsvLoadOptions().setChunkSize(10).setConcurrency(2));
+		solrTemplate.executeCommit();
+
+		Assert.assertEquals(3, responses.size());
+		Assert.assertEquals(25, solrTemplate.executeCount(new SimpleQuery(new Criteria("cat").is("shared"))));
+
+		ExampleSolrBean recalled = solrTemplate.executeObjectQuery(new SimpleQuery(new Criteria("id").is("7")),
+				ExampleSolrBean.class);
+		Assert.assertEquals("bean_7", recalled.getName());
+		Assert.assertEquals(Arrays.asList("category_7", "shared", "a|\"b\""), recalled.getCategory());
+		Assert.assertEquals("45.17614,-93.87341", recalled.getStore());
+		Assert.assertEquals(new Date(1356994800000L), recalled.getLastModified());
+	}
+
+	@Test
+	public void testLoadCsvFromFile() throws IOException {
+		File file = folder.newFile("beans.csv");
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write("id,name,cat\n1,bean_1,category_1|shared\n2,\"bean,2\",category_2\n");
+		} finally {
+			writer.close();
+		}
+
+		solrTemplate.executeLoadCsv(file, new CsvLoadOptions().setMultiValuedFieldNames("cat"));
+		solrTemplate.executeCommit();
+
+		Assert.assertEquals(2, solrTemplate.executeCount(new SimpleQuery(new Criteria(Criteria.WILDCARD)
+				.expression(Criteria.WILDCARD))));
+		ExampleSolrBean recalled = solrTemplate.executeObjectQuery(new SimpleQuery(new Criteria("id").is("1")),
+				ExampleSolrBean.class);
+		Assert.assertEquals(Arrays.asList("category_1", "shared"), recalled.getCategory());
+		Assert.assertEquals("bean,2",
+				solrTemplate.executeObjectQuery(new SimpleQuery(new Criteria("id").is("2")), ExampleSolrBean.class)
+						.getName());
+	}
+
+	@Test
+	public void testRecordAndReplayQueryLog() throws IOException {
+		solrTemplate.executeAddBean(createDefaultExampleBean());
+		solrTemplate.executeCommit();
+
+		File file = folder.newFile("query.log");
+		QueryLogWriter queryLogWriter = new QueryLogWriter(file);
+		solrTemplate.setQueryLogWriter(queryLogWriter);
+		solrTemplate.executeListQuery(new SimpleQuery(new Criteria("id").is(DEFAULT_BEAN_ID)), ExampleSolrBean.class);
+		solrTemplate.executeCount(new SimpleQuery(new Criteria("name").is("bar")));
+		queryLogWriter.close();
+
+		List<QueryLogEntry> entries = QueryLogReader.read(file);
+		Assert.assertEquals(2, entries.size());
+		Assert.assertEquals("id:1", entries.get(0).getParams().get("q"));
+
+		QueryLogReplayer replayer = new QueryLogReplayer(new SolrServerFactory() {
+
+			@Override
+			public SolrServer getSolrServer() {
+				return solrServer;
+			}
+
+			@Override
+			public String getCore() {
+				return null;
+			}
+
+		});
+		replayer.setConcurrency(2);
+		ReplayReport report = replayer.replay(entries);
+
+		Assert.assertEquals(2, report.getQueryCount());
+		Assert.assertEquals(0, report.getErrorCount());
+		Assert.assertEquals(1, replayer.warmUp(entries, 1).getQueryCount());
+	}
+
+	@Test
+	public void testWriteBehind() throws IOException {
+		WriteBehindQueue writeBehindQueue = new WriteBehindQueue(new HttpSolrServerFactory(solrServer),
+				folder.newFile("solr.journal"));
+		writeBehindQueue.afterPropertiesSet();
+		solrTemplate.setWriteBehindQueue(writeBehindQueue);
+		try {
+			solrTemplate.executeAddBean(createDefaultExampleBean());
+			solrTemplate.executeCommit();
+			Assert.assertTrue(writeBehindQueue.awaitDrained(10, TimeUnit.SECONDS));
+			Assert.assertEquals(1, solrTemplate.executeCount(new SimpleQuery(new Criteria("id").is(DEFAULT_BEAN_ID))));
+
+			solrTemplate.executeDeleteById(DEFAULT_BEAN_ID);
+			Assert.assertTrue(writeBehindQueue.awaitDrained(10, TimeUnit.SECONDS));
+			Assert.assertEquals(0, solrTemplate.executeCount(new SimpleQuery(new Criteria("id").is(DEFAULT_BEAN_ID))));
+			Assert.assertEquals(2, writeBehindQueue.getDrainedCount());
+		} finally {
+			solrTemplate.setWriteBehindQueue(null);
+			writeBehindQueue.destroy();
+		}
+	}
+
+	@Test
+	public void testFingerprintCacheDetectsIndexModifiedByOthers() {
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		solrTemplate.setDocumentFingerprintCache(cache);
+		try {
+			solrTemplate.executeAddBean(createDefaultExampleBean());
+			solrTemplate.executeCommit();
+			Assert.assertTrue(cache.getIndexVersion() != DocumentFingerprintCache.UNKNOWN_INDEX_VERSION);
+			Assert.assertEquals(1, cache.size());
+
+			// wipe index bypassing the template
+			new SolrTemplate(solrServer, null).executeDelete(new SimpleQuery(new SimpleStringCriteria("*:*")));
+			new SolrTemplate(solrServer, null).executeCommit();
+
+			solrTemplate.setDocumentFingerprintCache(cache);
+			solrTemplate.executeAddBean(createDefaultExampleBean());
+			solrTemplate.executeCommit();
+			Assert.assertEquals(1, solrTemplate.executeCount(new SimpleQuery(new Criteria("id").is(DEFAULT_BEAN_ID))));
+		} finally {
+			solrTemplate.setDocumentFingerprintCache(null);
+		}
+	}
+
+	@Test
+	public void testTransactionalUpdates() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new SolrTransactionManager(solrServer));
+
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				solrTemplate.executeAddBean(createDefaultExampleBean());
+				solrTemplate.executeAddBean(createExampleBeanWithId("2"));
+				solrTemplate.executeCommit();
+				Assert.assertEquals(0, solrTemplate.executeCount(new SimpleQuery(new SimpleStringCriteria("*:*"))));
+			}
+		});
+		Assert.assertEquals(2, solrTemplate.executeCount(new SimpleQuery(new SimpleStringCriteria("*:*"))));
+
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				solrTemplate.executeAddBean(createExampleBeanWithId("3"));
+				solrTemplate.executeDeleteById(DEFAULT_BEAN_ID);
+				status.setRollbackOnly();
+			}
+		});
+		Assert.assertEquals(2, solrTemplate.executeCount(new SimpleQuery(new SimpleStringCriteria("*:*"))));
+		Assert.assertEquals(1, solrTemplate.executeCount(new SimpleQuery(new Criteria("id").is(DEFAULT_BEAN_ID))));
+	}
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Strobl
+ */
+public class QueryFingerprintTest {
+
+	@Test
+	public void testFingerprintIsIndependentOfParameterOrder() {
+		ModifiableSolrParams params1 = new ModifiableSolrParams();
+		params1.set("q", "field_1:value_1");
+		params1.set("rows", 10);
+
+		ModifiableSolrParams params2 = new ModifiableSolrParams();
+		params2.set("rows", 10);
+		params2.set("q", "field_1:value_1");
+
+		Assert.assertEquals(QueryFingerprint.of(params1), QueryFingerprint.of(params2));
+		Assert.assertEquals(QueryFingerprint.of(params1).hashCode(), QueryFingerprint.of(params2).hashCode());
+	}
+
+	@Test
+	public void testFingerprintDistinguishesValueBoundaries() {
+		ModifiableSolrParams params1 = new ModifiableSolrParams();
+		params1.set("fq", "ab", "c");
+
+		ModifiableSolrParams params2 = new ModifiableSolrParams();
+		params2.set("fq", "a", "bc");
+
+		Assert.assertFalse(QueryFingerprint.of(params1).equals(QueryFingerprint.of(params2)));
+	}
+
+	@Test
+	public void testFingerprintIsStable() {
+		ModifiableSolrParams params = new ModifiableSolrParams();
+		params.set("q", "field_1:value_1");
+
+		QueryFingerprint fingerprint = QueryFingerprint.of(params);
+		Assert.assertEquals("1f0ba71ba310b9b72fc42d4e9c551107", fingerprint.toString());
+		Assert.assertEquals(fingerprint.getMostSignificantBits(), fingerprint.asLong());
+	}
+
+}
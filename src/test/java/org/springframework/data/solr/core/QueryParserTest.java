@@ -19,21 +19,31 @@ import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.params.FacetParams;
 import org.apache.solr.common.params.GroupParams;
+import org.apache.solr.common.params.StatsParams;
+import org.apache.solr.common.params.TermsParams;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.solr.core.geo.GeoLocation;
 import org.springframework.data.solr.core.query.Criteria;
 import org.springframework.data.solr.core.query.FacetOptions;
 import org.springframework.data.solr.core.query.FacetQuery;
+import org.springframework.data.solr.core.query.FacetRange;
+import org.springframework.data.solr.core.query.GeoDistanceOptions;
 import org.springframework.data.solr.core.query.Query;
 import org.springframework.data.solr.core.query.SimpleFacetQuery;
 import org.springframework.data.solr.core.query.SimpleField;
 import org.springframework.data.solr.core.query.SimpleFilterQuery;
 import org.springframework.data.solr.core.query.SimpleQuery;
 import org.springframework.data.solr.core.query.SimpleStringCriteria;
+import org.springframework.data.solr.core.query.GroupOptions;
+import org.springframework.data.solr.core.query.StatsOptions;
+import org.springframework.data.solr.core.query.TermsQuery;
 
 /**
  * @author Christoph Strobl
@@ -144,6 +154,50 @@ public class QueryParserTest {
 		Assert.assertEquals("count", solrQuery.getFacetSortString());
 	}
 
+	@Test
+	public void testConstructSolrQueryWithFacetPrefixAndMethod() {
+		FacetQuery query = new SimpleFacetQuery(new Criteria("field_1").is("value_1")).setFacetOptions(new FacetOptions(
+				"facet_1", "facet_2").setFacetPrefix("spr").setFacetMethod(FacetOptions.FacetMethod.FC)
+				.setFacetMethod("facet_2", FacetOptions.FacetMethod.ENUM).setFacetEnumCacheMinDf(30));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("spr", solrQuery.get(FacetParams.FACET_PREFIX));
+		Assert.assertEquals("fc", solrQuery.get(FacetParams.FACET_METHOD));
+		Assert.assertEquals("enum", solrQuery.get("f.facet_2.facet.method"));
+		Assert.assertEquals("30", solrQuery.get(FacetParams.FACET_ENUM_CACHE_MINDF));
+	}
+
+	@Test
+	public void testConstructSolrQueryWithFacetRange() {
+		FacetQuery query = new SimpleFacetQuery(new Criteria("field_1").is("value_1")).setFacetOptions(new FacetOptions()
+				.addFacetByRange(new FacetRange("price", 0, 100, 10)).addFacetByRange(
+						new FacetRange(new SimpleField("last_modified"), new DateTime(2012, 1, 1, 0, 0, DateTimeZone.UTC)
+								.toDate(), "NOW", "+1MONTH", true)));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("true", solrQuery.get(FacetParams.FACET));
+		Assert.assertArrayEquals(new String[] { "price", "last_modified" }, solrQuery.getParams(FacetParams.FACET_RANGE));
+		Assert.assertEquals("0", solrQuery.get("f.price.facet.range.start"));
+		Assert.assertEquals("100", solrQuery.get("f.price.facet.range.end"));
+		Assert.assertEquals("10", solrQuery.get("f.price.facet.range.gap"));
+		Assert.assertNull(solrQuery.get("f.price.facet.range.hardend"));
+		Assert.assertEquals("2012-01-01T00:00:00.000Z", solrQuery.get("f.last_modified.facet.range.start"));
+		Assert.assertEquals("+1MONTH", solrQuery.get("f.last_modified.facet.range.gap"));
+		Assert.assertEquals("true", solrQuery.get("f.last_modified.facet.range.hardend"));
+		Assert.assertNull(solrQuery.get(FacetParams.FACET_FIELD));
+	}
+
+	@Test
+	public void testConstructSolrQueryWithFacetQueries() {
+		FacetQuery query = new SimpleFacetQuery(new Criteria("field_1").is("value_1")).setFacetOptions(new FacetOptions()
+				.addFacetQuery(new SimpleQuery(new Criteria("popularity").between(0, 5))).addFacetQuery(
+						new SimpleQuery(new SimpleStringCriteria("popularity:[6 TO *]"))));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertArrayEquals(new String[] { "popularity:[0 TO 5]", "popularity:[6 TO *]" }, solrQuery.getFacetQuery());
+		Assert.assertNull(solrQuery.get(FacetParams.FACET_FIELD));
+	}
+
 	@Test
 	public void testWithFilterQuery() {
 		Query query = new SimpleQuery(new Criteria("field_1").is("value_1")).addFilterQuery(new SimpleFilterQuery(
@@ -163,6 +217,79 @@ public class QueryParserTest {
 		Assert.assertNull(solrQuery.getFilterQueries());
 	}
 
+	@Test
+	public void testWithFilterQueryLocalParams() {
+		Query query = new SimpleQuery(new Criteria("field_1").is("value_1")).addFilterQuery(new SimpleFilterQuery(
+				new Criteria("filter_field").is("filter_value")).setCache(false).setCost(100));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("{!cache=false cost=100}filter_field:filter_value", solrQuery.getFilterQueries()[0]);
+	}
+
+	@Test
+	public void testWithFilterQueryLocalParamsMergedIntoExistingLocalParams() {
+		Query query = new SimpleQuery(new Criteria("field_1").is("value_1")).addFilterQuery(new SimpleFilterQuery(
+				new SimpleStringCriteria("{!geofilt pt=48,16 sfield=store d=5}")).setCache(false));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("{!geofilt pt=48,16 sfield=store d=5 cache=false}", solrQuery.getFilterQueries()[0]);
+	}
+
+	@Test
+	public void testConstructFrozenQueryReturnsIndependentCopies() {
+		Query query = new SimpleQuery(new Criteria("field_1").is("value_1")).setPageRequest(new PageRequest(1, 10))
+				.freeze();
+
+		SolrQuery first = queryParser.constructSolrQuery(query);
+		first.setRows(0);
+		SolrQuery second = queryParser.constructSolrQuery(query);
+
+		Assert.assertNotSame(first, second);
+		Assert.assertEquals("field_1:value_1", second.getQuery());
+		Assert.assertEquals(Integer.valueOf(10), second.getRows());
+		Assert.assertEquals(Integer.valueOf(10), second.getStart());
+	}
+
+	@Test
+	public void testWithFilterQueryExtraction() {
+		SimpleQuery query = new SimpleQuery(new Criteria("title").fuzzy("spring").and("type").is("product").and("price")
+				.between(10, 20)).addFilterQuery(new SimpleFilterQuery(new Criteria("active").is(true)));
+		query.addFilterQueryFields("type", "price");
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("title:spring~", solrQuery.getQuery());
+		Assert.assertArrayEquals(new String[] { "active:true", "type:product", "price:[10 TO 20]" },
+				solrQuery.getFilterQueries());
+	}
+
+	@Test
+	public void testWithFilterQueryExtractionOfAllCriteria() {
+		SimpleQuery query = new SimpleQuery(new Criteria("type").is("product").and("active").is(true));
+		query.setFilterQueryExtraction(true);
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("*:*", solrQuery.getQuery());
+		Assert.assertArrayEquals(new String[] { "type:product", "active:true" }, solrQuery.getFilterQueries());
+	}
+
+	@Test
+	public void testWithCriteriaMarkedAsFilter() {
+		Query query = new SimpleQuery(new Criteria("name").is("spring").and("type").is("product").asFilter());
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("name:spring", solrQuery.getQuery());
+		Assert.assertArrayEquals(new String[] { "type:product" }, solrQuery.getFilterQueries());
+	}
+
+	@Test
+	public void testWithoutFilterQueryExtraction() {
+		Query query = new SimpleQuery(new Criteria("type").is("product").and("active").is(true));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("type:product AND active:true", solrQuery.getQuery());
+		Assert.assertNull(solrQuery.getFilterQueries());
+	}
+
 	@Test
 	public void testWithSimpleStringCriteria() {
 		SimpleStringCriteria criteria = new SimpleStringCriteria("field_1:value_1");
@@ -240,6 +367,216 @@ public class QueryParserTest {
 		Assert.assertEquals(3, solrQuery.getSortFields().length);
 	}
 
+	@Test
+	public void testWithStatsOptions() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		query.setStatsOptions(new StatsOptions("field_2", "field_3").addFacet("field_4"));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("true", solrQuery.get(StatsParams.STATS));
+		Assert.assertArrayEquals(new String[] { "field_2", "field_3" }, solrQuery.getParams(StatsParams.STATS_FIELD));
+		Assert.assertArrayEquals(new String[] { "field_4" }, solrQuery.getParams(StatsParams.STATS_FACET));
+	}
+
+	@Test
+	public void testWithGroupOptions() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		query.setGroupOptions(new GroupOptions("field_2", "field_3")
+				.addGroupByQuery(new SimpleQuery(new Criteria("field_4").is("value_4"))).setOffset(1).setLimit(3)
+				.setGroupFacets(true).setCachePercent(20));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("true", solrQuery.get(GroupParams.GROUP));
+		Assert.assertNull(solrQuery.get(GroupParams.GROUP_MAIN));
+		Assert.assertEquals("grouped", solrQuery.get(GroupParams.GROUP_FORMAT));
+		Assert.assertArrayEquals(new String[] { "field_2", "field_3" }, solrQuery.getParams(GroupParams.GROUP_FIELD));
+		Assert.assertArrayEquals(new String[] { "field_4:value_4" }, solrQuery.getParams(GroupParams.GROUP_QUERY));
+		Assert.assertEquals("1", solrQuery.get(GroupParams.GROUP_OFFSET));
+		Assert.assertEquals("3", solrQuery.get(GroupParams.GROUP_LIMIT));
+		Assert.assertEquals("true", solrQuery.get(GroupParams.GROUP_TOTAL_COUNT));
+		Assert.assertEquals("true", solrQuery.get("group.facet"));
+		Assert.assertEquals("20", solrQuery.get(GroupParams.GROUP_CACHE_PERCENTAGE));
+	}
+
+	@Test
+	public void testWithGroupOptionsOmitsUnsetParameters() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		query.setGroupOptions(new GroupOptions("field_2"));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("true", solrQuery.get(GroupParams.GROUP));
+		Assert.assertNull(solrQuery.get(GroupParams.GROUP_LIMIT));
+		Assert.assertNull(solrQuery.get(GroupParams.GROUP_OFFSET));
+		Assert.assertEquals("true", solrQuery.get(GroupParams.GROUP_TOTAL_COUNT));
+		Assert.assertNull(solrQuery.get("group.facet"));
+		Assert.assertNull(solrQuery.get(GroupParams.GROUP_CACHE_PERCENTAGE));
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testGroupOptionsCannotBeCombinedWithGroupByField() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1")).addGroupByField("field_2");
+		query.setGroupOptions(new GroupOptions("field_3"));
+		queryParser.constructSolrQuery(query);
+	}
+
+	@Test
+	public void testWithTimeAllowed() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		query.setTimeAllowed(100);
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals(Integer.valueOf(100), solrQuery.getTimeAllowed());
+	}
+
+	@Test
+	public void testWithoutTimeAllowed() {
+		SolrQuery solrQuery = queryParser.constructSolrQuery(new SimpleQuery(new Criteria("field_1").is("value_1")));
+		Assert.assertNull(solrQuery.getTimeAllowed());
+	}
+
+	@Test
+	public void testWithGeoDistanceOptions() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1")).addSort(new Sort(Sort.Direction.DESC,
+				"field_2"));
+		query.setGeoDistanceOptions(new GeoDistanceOptions("store", new GeoLocation(48.303056, 14.290556))
+				.setSortDirection(Sort.Direction.ASC));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("48.303056,14.290556", solrQuery.get("pt"));
+		Assert.assertEquals("store", solrQuery.get("sfield"));
+		Assert.assertArrayEquals(new String[] { "geodist() asc", "field_2 desc" }, solrQuery.getSortFields());
+	}
+
+	@Test
+	public void testWithGeoDistanceOptionsWithoutSortDirection() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		query.setGeoDistanceOptions(new GeoDistanceOptions("store", new GeoLocation(48.303056, 14.290556)));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("store", solrQuery.get("sfield"));
+		Assert.assertNull(solrQuery.getSortField());
+	}
+
+	@Test
+	public void testWithGeoDistanceOptionsAddsLocationToProjection() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1")).addProjectionOnField("name");
+		query.setGeoDistanceOptions(new GeoDistanceOptions("store", new GeoLocation(48.303056, 14.290556))
+				.setDistanceFieldName("distance"));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("name,store", solrQuery.get(CommonParams.FL));
+	}
+
+	@Test
+	public void testWithGeoDistanceOptionsDoesNotAddLocationToProjectionTwice() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1")).addProjectionOnField("name");
+		query.addProjectionOnField(new SimpleField("store"));
+		query.setGeoDistanceOptions(new GeoDistanceOptions("store", new GeoLocation(48.303056, 14.290556))
+				.setDistanceFieldName("distance"));
+		SolrQuery solrQuery = queryParser.constructSolrQuery(query);
+
+		Assert.assertEquals("name,store", solrQuery.get(CommonParams.FL));
+	}
+
+	@Test
+	public void testWithoutStatsOptions() {
+		SolrQuery solrQuery = queryParser.constructSolrQuery(new SimpleQuery(new Criteria("field_1").is("value_1")));
+		Assert.assertNull(solrQuery.get(StatsParams.STATS));
+		Assert.assertNull(solrQuery.get(StatsParams.STATS_FIELD));
+	}
+
+	@Test
+	public void testConstructTermsQuery() {
+		SolrQuery solrQuery = queryParser.constructTermsQuery(new TermsQuery("field_1").setPrefix("spr").setLimit(5)
+				.setMinCount(2));
+
+		Assert.assertEquals("/terms", solrQuery.getQueryType());
+		Assert.assertTrue(solrQuery.getTerms());
+		Assert.assertArrayEquals(new String[] { "field_1" }, solrQuery.getTermsFields());
+		Assert.assertEquals("spr", solrQuery.getTermsPrefix());
+		Assert.assertEquals(5, solrQuery.getTermsLimit());
+		Assert.assertEquals(2, solrQuery.getTermsMinCount());
+	}
+
+	@Test
+	public void testConstructTermsQueryWithoutPrefix() {
+		SolrQuery solrQuery = queryParser.constructTermsQuery(new TermsQuery("field_1"));
+		Assert.assertNull(solrQuery.get(TermsParams.TERMS_PREFIX_STR));
+		Assert.assertNull(solrQuery.getQuery());
+	}
+
+	@Test
+	public void testConstructCanonicalSolrQuery() {
+		Query query = new SimpleQuery(new Criteria("field_2").in(2, 1).and("field_1").is("a"));
+		query.addProjectionOnField(new SimpleField("field_3"));
+		query.addProjectionOnField(new SimpleField("field_1"));
+		query.addFilterQuery(new SimpleFilterQuery(new Criteria("field_5").is("y")));
+		query.addFilterQuery(new SimpleFilterQuery(new Criteria("field_4").is("x")));
+		query.addFilterQuery(new SimpleFilterQuery(new Criteria("field_5").is("y")));
+
+		SolrQuery solrQuery = queryParser.constructCanonicalSolrQuery(query);
+		Assert.assertEquals("field_1:a AND field_2:(1 2)", solrQuery.getQuery());
+		Assert.assertArrayEquals(new String[] { "field_4:x", "field_5:y" }, solrQuery.getFilterQueries());
+		assertProjectionPresent(solrQuery, "field_1,field_3");
+	}
+
+	@Test
+	public void testConstructCanonicalSolrQueryRetainsFacetQueryOrder() {
+		FacetQuery query = new SimpleFacetQuery(new Criteria("field_1").is("a"));
+		query.setFacetOptions(new FacetOptions().addFacetQuery(new SimpleQuery(new Criteria("field_3").is("z")))
+				.addFacetQuery(new SimpleQuery(new Criteria("field_2").is("y"))));
+
+		Assert.assertArrayEquals(new String[] { "field_3:z", "field_2:y" },
+				queryParser.constructCanonicalSolrQuery(query).getFacetQuery());
+	}
+
+	@Test
+	public void testConstructCanonicalSolrQueryRetainsSortOrder() {
+		Query query = new SimpleQuery(new Criteria("field_1").is("a"));
+		query.addSort(new Sort("field_2", "field_1"));
+
+		Assert.assertEquals("field_2 asc,field_1 asc", queryParser.constructCanonicalSolrQuery(query).getSortField());
+	}
+
+	@Test
+	public void testConstructSolrQueryIsNotCanonicalByDefault() {
+		Query query = new SimpleQuery(new Criteria("field_1").in(2, 1));
+		Assert.assertEquals("field_1:(2 1)", queryParser.constructSolrQuery(query).getQuery());
+
+		queryParser.setCanonicalizeQueries(true);
+		Assert.assertEquals("field_1:(1 2)", queryParser.constructSolrQuery(query).getQuery());
+	}
+
+	@Test
+	public void testConstructFrozenSolrQueryHonorsCanonicalization() {
+		Query query = new SimpleQuery(new Criteria("field_1").in(2, 1)).freeze();
+		Assert.assertEquals("field_1:(2 1)", queryParser.constructSolrQuery(query).getQuery());
+
+		queryParser.setCanonicalizeQueries(true);
+		Assert.assertEquals("field_1:(1 2)", queryParser.constructSolrQuery(query).getQuery());
+	}
+
+	@Test
+	public void testFingerprintOfEquivalentQueries() {
+		Query query1 = new SimpleQuery(new Criteria("field_1").is("a").and("field_2").in(1, 2));
+		query1.addFilterQuery(new SimpleFilterQuery(new Criteria("field_3").is("x")));
+		query1.addFilterQuery(new SimpleFilterQuery(new Criteria("field_4").is("y")));
+
+		Query query2 = new SimpleQuery(new Criteria("field_2").in(2, 1).and("field_1").is("a"));
+		query2.addFilterQuery(new SimpleFilterQuery(new Criteria("field_4").is("y")));
+		query2.addFilterQuery(new SimpleFilterQuery(new Criteria("field_3").is("x")));
+
+		Assert.assertEquals(queryParser.fingerprint(query1), queryParser.fingerprint(query2));
+	}
+
+	@Test
+	public void testFingerprintOfDifferentQueries() {
+		Query query1 = new SimpleQuery(new Criteria("field_1").is("a"));
+		Query query2 = new SimpleQuery(new Criteria("field_1").is("a")).setPageRequest(new PageRequest(1, 10));
+
+		Assert.assertFalse(queryParser.fingerprint(query1).equals(queryParser.fingerprint(query2)));
+	}
+
 	private void assertFactingPresent(SolrQuery solrQuery, String... expected) {
 		Assert.assertArrayEquals(expected, solrQuery.getFacetFields());
 	}
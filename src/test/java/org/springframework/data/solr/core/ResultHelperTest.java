@@ -16,13 +16,18 @@
 package org.springframework.data.solr.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.solr.client.solrj.response.FacetField;
+import org.apache.solr.client.solrj.response.FieldStatsInfo;
 import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.client.solrj.response.RangeFacet;
+import org.apache.solr.common.util.NamedList;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,12 +35,26 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.solr.core.query.Criteria;
 import org.springframework.data.solr.core.query.FacetOptions;
 import org.springframework.data.solr.core.query.FacetQuery;
+import org.springframework.data.solr.core.query.FacetRange;
 import org.springframework.data.solr.core.query.Field;
 import org.springframework.data.solr.core.query.SimpleFacetQuery;
+import org.springframework.data.solr.core.query.SimpleField;
+import org.springframework.data.solr.core.query.SimpleQuery;
+import org.springframework.data.solr.core.query.StatsOptions;
+import org.springframework.data.solr.core.query.TermsQuery;
+import org.springframework.data.solr.core.query.result.CacheStatsResult;
 import org.springframework.data.solr.core.query.result.FacetEntry;
+import org.springframework.data.solr.core.query.result.FacetFieldColumns;
+import org.springframework.data.solr.core.query.result.FacetPage;
+import org.springframework.data.solr.core.query.result.FacetQueryEntry;
+import org.springframework.data.solr.core.query.result.FieldStatsResult;
+import org.springframework.data.solr.core.query.result.SimpleFacetEntry;
+import org.springframework.data.solr.core.query.result.StatsResult;
+import org.springframework.data.solr.core.query.result.TermsEntry;
 
 /**
  * @author Christoph Strobl
@@ -121,6 +140,272 @@ public class ResultHelperTest {
 		Assert.assertEquals(2, resultEntry.getValue().getContent().size());
 	}
 
+	@Test
+	public void testConvertFacetQueryResponseToFacetFieldColumns() {
+		List<FacetField> fieldList = new ArrayList<FacetField>(1);
+		fieldList.add(createFacetField("field_1", 3, 2, 1));
+
+		Mockito.when(response.getFacetFields()).thenReturn(fieldList);
+
+		List<FacetFieldColumns> result = ResultHelper.convertFacetQueryResponseToFacetFieldColumns(
+				createFacetQuery("field_1"), response);
+		Assert.assertEquals(1, result.size());
+
+		FacetFieldColumns columns = result.get(0);
+		Assert.assertEquals("field_1", columns.getField().getName());
+		Assert.assertEquals(3, columns.size());
+		Assert.assertEquals("value_2", columns.getValue(1));
+		Assert.assertEquals(2, columns.getValueCount(1));
+		Assert.assertEquals(3, columns.getTotalElements());
+
+		Page<FacetEntry> page = columns.asPage();
+		Assert.assertEquals(3, page.getNumberOfElements());
+		Assert.assertEquals(FacetOptions.DEFAULT_FACET_LIMIT, page.getSize());
+		Assert.assertTrue(page.isFirstPage());
+		Assert.assertTrue(page.isLastPage());
+		Assert.assertEquals("value_3", page.getContent().get(2).getValue());
+		Assert.assertEquals(1, page.getContent().get(2).getValueCount());
+		Assert.assertSame(columns.getField(), page.getContent().get(2).getField());
+	}
+
+	@Test
+	public void testFacetFieldColumnsCreateEntriesOncePerIndex() {
+		List<FacetField> fieldList = new ArrayList<FacetField>(1);
+		fieldList.add(createFacetField("field_1", 3, 2, 1));
+
+		Mockito.when(response.getFacetFields()).thenReturn(fieldList);
+
+		FacetFieldColumns columns = ResultHelper.convertFacetQueryResponseToFacetFieldColumns(
+				createFacetQuery("field_1"), response).get(0);
+
+		FacetEntry entry = columns.asPage().getContent().get(1);
+		Assert.assertSame(entry, columns.asPage().getContent().get(1));
+		Assert.assertNotSame(entry, columns.asPage().getContent().get(0));
+	}
+
+	@Test
+	public void testConvertFacetQueryResponseToFacetFieldColumnsSkipsNullCounts() {
+		FacetField ffield = Mockito.mock(FacetField.class);
+		Mockito.when(ffield.getName()).thenReturn("field_1");
+		Mockito.when(ffield.getValues()).thenReturn(
+				Arrays.asList(new FacetField.Count(ffield, "value_1", 1), null, new FacetField.Count(ffield, "value_3", 3)));
+		Mockito.when(ffield.getValueCount()).thenReturn(3);
+		Mockito.when(response.getFacetFields()).thenReturn(Collections.singletonList(ffield));
+
+		FacetFieldColumns columns = ResultHelper.convertFacetQueryResponseToFacetFieldColumns(
+				createFacetQuery("field_1"), response).get(0);
+		Assert.assertEquals(2, columns.size());
+		Assert.assertEquals("value_3", columns.getValue(1));
+		Assert.assertEquals(3, columns.getValueCount(1));
+	}
+
+	@Test
+	public void testFacetPageProvidesColumnsAndPageView() {
+		FacetPage<Object> page = new FacetPage<Object>(Collections.emptyList());
+		page.addFacetResultColumns(new FacetFieldColumns(new SimpleField("field_1"), new String[] { "value_1" },
+				new long[] { 5 }));
+		page.addFacetResultPage(
+				new PageImpl<FacetEntry>(Collections.<FacetEntry> singletonList(new SimpleFacetEntry("field_2", "value_2", 7))),
+				new SimpleField("field_2"));
+
+		Assert.assertEquals(2, page.getFacetFields().size());
+		Assert.assertEquals(2, page.getFacetResultPages().size());
+		Assert.assertEquals(5, page.getFacetResultPage(new SimpleField("field_1")).getContent().get(0).getValueCount());
+
+		FacetFieldColumns columns = page.getFacetResultColumns(new SimpleField("field_2"));
+		Assert.assertEquals(1, columns.size());
+		Assert.assertEquals("value_2", columns.getValue(0));
+		Assert.assertEquals(7, columns.getValueCount(0));
+
+		Assert.assertNull(page.getFacetResultColumns(new SimpleField("field_3")));
+	}
+
+	@Test
+	public void testConvertFacetQueryResponseForQueryResultWithRangeFacet() {
+		RangeFacet.Numeric rangeFacet = new RangeFacet.Numeric("field_1", 0, 20, 10, null, null);
+		rangeFacet.addCount("0", 3);
+		rangeFacet.addCount("10", 5);
+		List<RangeFacet> rangeFacets = new ArrayList<RangeFacet>();
+		rangeFacets.add(rangeFacet);
+		Mockito.when(response.getFacetRanges()).thenReturn(rangeFacets);
+
+		FacetQuery query = new SimpleFacetQuery(new Criteria("field_1")).setFacetOptions(new FacetOptions()
+				.addFacetByRange(new FacetRange("field_1", 0, 20, 10)));
+		Map<Field, Page<FacetEntry>> result = ResultHelper.convertFacetQueryResponseToRangeFacetPageMap(query, response);
+		Assert.assertEquals(1, result.size());
+
+		Page<FacetEntry> page = result.values().iterator().next();
+		Assert.assertEquals(2, page.getNumberOfElements());
+		Assert.assertEquals("10", page.getContent().get(1).getValue());
+		Assert.assertEquals(5, page.getContent().get(1).getValueCount());
+		Assert.assertEquals("field_1", page.getContent().get(1).getField().getName());
+	}
+
+	@Test
+	public void testConvertFacetQueryResponseForQueryResultWithFacetQueries() {
+		Map<String, Integer> facetQueries = new LinkedHashMap<String, Integer>();
+		facetQueries.put("field_1:[0 TO 5]", 3);
+		facetQueries.put("field_1:[6 TO *]", 1);
+		Mockito.when(response.getFacetQuery()).thenReturn(facetQueries);
+
+		List<FacetQueryEntry> result = ResultHelper.convertFacetQueryResponseToFacetQueryResult(
+				createFacetQuery("field_1"), response);
+		Assert.assertEquals(2, result.size());
+		Assert.assertEquals("field_1:[0 TO 5]", result.get(0).getValue());
+		Assert.assertEquals(3, result.get(0).getValueCount());
+		Assert.assertEquals(1, result.get(1).getValueCount());
+	}
+
+	@Test
+	public void testConvertStatsQueryResponseForQueryWithoutStatsOptions() {
+		List<FieldStatsResult> result = ResultHelper.convertStatsQueryResponseToFieldStatsResults(new SimpleQuery(
+				new Criteria("field_1")), response);
+		Assert.assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void testConvertStatsQueryResponseForQueryResultWithNullStats() {
+		Mockito.when(response.getFieldStatsInfo()).thenReturn(null);
+		List<FieldStatsResult> result = ResultHelper.convertStatsQueryResponseToFieldStatsResults(
+				createStatsQuery("field_1"), response);
+		Assert.assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void testConvertStatsQueryResponseForQueryResultWithFacetedStats() {
+		NamedList<Object> facetValues = new NamedList<Object>();
+		facetValues.add("true", createStatsNamedList(2D, 4D, 1L));
+		NamedList<Object> facets = new NamedList<Object>();
+		facets.add("field_2", facetValues);
+		NamedList<Object> stats = createStatsNamedList(1D, 4D, 3L);
+		stats.add("facets", facets);
+
+		Mockito.when(response.getFieldStatsInfo()).thenReturn(
+				Collections.singletonMap("field_1", new FieldStatsInfo(stats, "field_1")));
+
+		List<FieldStatsResult> result = ResultHelper.convertStatsQueryResponseToFieldStatsResults(
+				createStatsQuery("field_1"), response);
+		Assert.assertEquals(1, result.size());
+
+		FieldStatsResult fieldStatsResult = result.get(0);
+		Assert.assertEquals("field_1", fieldStatsResult.getField().getName());
+		Assert.assertEquals(Double.valueOf(1), fieldStatsResult.getMin());
+		Assert.assertEquals(Double.valueOf(4), fieldStatsResult.getMax());
+		Assert.assertEquals(Long.valueOf(3), fieldStatsResult.getCount());
+
+		StatsResult facetStatsResult = fieldStatsResult.getFacetStatsResult(new SimpleField("field_2")).get("true");
+		Assert.assertEquals(Double.valueOf(2), facetStatsResult.getMin());
+		Assert.assertEquals(Long.valueOf(1), facetStatsResult.getCount());
+		Assert.assertTrue(fieldStatsResult.getFacetStatsResult(new SimpleField("field_3")).isEmpty());
+	}
+
+	@Test
+	public void testConvertTermsQueryResponseForNullQueryResponse() {
+		Assert.assertTrue(ResultHelper.convertTermsQueryResponseToTermsEntries(new TermsQuery("field_1"), null).isEmpty());
+	}
+
+	@Test
+	public void testConvertTermsQueryResponseForQueryResultWithTermsOfOtherField() {
+		NamedList<Number> fieldTerms = new NamedList<Number>();
+		fieldTerms.add("value_1", 3);
+		NamedList<Object> terms = new NamedList<Object>();
+		terms.add("field_2", fieldTerms);
+		NamedList<Object> namedList = new NamedList<Object>();
+		namedList.add("terms", terms);
+		QueryResponse termsResponse = new QueryResponse(namedList, null);
+
+		Assert.assertTrue(ResultHelper.convertTermsQueryResponseToTermsEntries(new TermsQuery("field_1"), termsResponse)
+				.isEmpty());
+
+		List<TermsEntry> result = ResultHelper.convertTermsQueryResponseToTermsEntries(new TermsQuery("field_2"),
+				termsResponse);
+		Assert.assertEquals(1, result.size());
+		Assert.assertEquals("value_1", result.get(0).getTerm());
+		Assert.assertEquals(3L, result.get(0).getCount());
+	}
+
+	@Test
+	public void testConvertMBeansResponseToCacheStatsResults() {
+		NamedList<Object> filterCacheStats = new NamedList<Object>();
+		filterCacheStats.add("lookups", 4L);
+		filterCacheStats.add("hits", 2L);
+		filterCacheStats.add("hitratio", "0.50");
+		filterCacheStats.add("inserts", 2L);
+		filterCacheStats.add("evictions", 1L);
+		filterCacheStats.add("size", 1);
+		filterCacheStats.add("warmupTime", 12L);
+		filterCacheStats.add("cumulative_hitratio", "0.75");
+		filterCacheStats.add("cumulative_evictions", 3L);
+
+		NamedList<Object> caches = new NamedList<Object>();
+		caches.add("filterCache", createMBeanNamedList(filterCacheStats));
+		caches.add("documentCache", createMBeanNamedList(new NamedList<Object>()));
+		caches.add("fieldCache", new NamedList<Object>());
+
+		List<CacheStatsResult> results = ResultHelper.convertMBeansResponseToCacheStatsResults(createMBeansResponse(caches));
+		Assert.assertEquals(2, results.size());
+
+		CacheStatsResult filterCache = results.get(0);
+		Assert.assertEquals("filterCache", filterCache.getName());
+		Assert.assertEquals(4, filterCache.getLookups());
+		Assert.assertEquals(2, filterCache.getHits());
+		Assert.assertEquals(0.5, filterCache.getHitRatio(), 0);
+		Assert.assertEquals(2, filterCache.getInserts());
+		Assert.assertEquals(1, filterCache.getEvictions());
+		Assert.assertEquals(1, filterCache.getSize());
+		Assert.assertEquals(12, filterCache.getWarmupTime());
+		Assert.assertEquals(0.75, filterCache.getCumulativeHitRatio(), 0);
+		Assert.assertEquals(3, filterCache.getCumulativeEvictions());
+
+		CacheStatsResult documentCache = results.get(1);
+		Assert.assertEquals("documentCache", documentCache.getName());
+		Assert.assertEquals(0, documentCache.getLookups());
+		Assert.assertEquals(0, documentCache.getHitRatio(), 0);
+	}
+
+	@Test
+	public void testConvertMBeansResponseWithoutCacheCategory() {
+		NamedList<Object> response = new NamedList<Object>();
+		response.add(ResultHelper.MBEANS, new NamedList<Object>());
+
+		Assert.assertTrue(ResultHelper.convertMBeansResponseToCacheStatsResults(response).isEmpty());
+	}
+
+	@Test
+	public void testConvertMBeansResponseWhenResponseIsNull() {
+		Assert.assertTrue(ResultHelper.convertMBeansResponseToCacheStatsResults(null).isEmpty());
+	}
+
+	private NamedList<Object> createMBeansResponse(NamedList<Object> caches) {
+		NamedList<Object> mbeans = new NamedList<Object>();
+		mbeans.add(ResultHelper.MBEANS_CATEGORY_CACHE, caches);
+
+		NamedList<Object> response = new NamedList<Object>();
+		response.add(ResultHelper.MBEANS, mbeans);
+		return response;
+	}
+
+	private NamedList<Object> createMBeanNamedList(NamedList<Object> stats) {
+		NamedList<Object> mbean = new NamedList<Object>();
+		mbean.add("class", "org.apache.solr.search.FastLRUCache");
+		mbean.add(ResultHelper.MBEANS_STATS, stats);
+		return mbean;
+	}
+
+	private SimpleQuery createStatsQuery(String... statsFields) {
+		SimpleQuery query = new SimpleQuery(new Criteria(statsFields[0]));
+		query.setStatsOptions(new StatsOptions(statsFields));
+		return query;
+	}
+
+	private NamedList<Object> createStatsNamedList(double min, double max, long count) {
+		NamedList<Object> stats = new NamedList<Object>();
+		stats.add("min", min);
+		stats.add("max", max);
+		stats.add("count", count);
+		return stats;
+	}
+
 	private FacetQuery createFacetQuery(String... facetFields) {
 		FacetQuery fq = new SimpleFacetQuery(new Criteria(facetFields[0]));
 		fq.setFacetOptions(new FacetOptions(facetFields));
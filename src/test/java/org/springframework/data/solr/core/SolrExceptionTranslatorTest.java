@@ -16,6 +16,7 @@
 package org.springframework.data.solr.core;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.common.SolrException;
@@ -26,6 +27,7 @@ import org.junit.Test;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.PermissionDeniedDataAccessException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.solr.UncategorizedSolrException;
 
 /**
@@ -93,6 +95,15 @@ public class SolrExceptionTranslatorTest {
 				IsInstanceOf.instanceOf(InvalidDataAccessApiUsageException.class));
 	}
 
+	@Test
+	public void testWithSocketTimeoutException() {
+		SolrServerException solrServerException = new SolrServerException("message", new SocketTimeoutException(
+				"Read timed out"));
+
+		Assert.assertThat(exceptionTranslator.translateExceptionIfPossible(new RuntimeException(solrServerException)),
+				IsInstanceOf.instanceOf(QueryTimeoutException.class));
+	}
+
 	private RuntimeException createWrappedSolrServerExceptionFor(ErrorCode errorCode, String message) {
 		SolrServerException rootException = createSolrServerExceptionFor(errorCode, message);
 		return new RuntimeException(rootException.getMessage(), rootException);
@@ -15,23 +15,39 @@
  */
 package org.springframework.data.solr.core;
 
+import java.io.File;
 import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.NotImplementedException;
+import org.apache.commons.lang.StringUtils;
 import org.apache.http.ParseException;
+import org.apache.commons.io.IOUtils;
 import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.beans.Field;
+import org.apache.solr.client.solrj.SolrRequest;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.impl.HttpSolrServer;
+import org.apache.solr.client.solrj.request.ContentStreamUpdateRequest;
+import org.apache.solr.client.solrj.request.LukeRequest;
+import org.apache.solr.client.solrj.request.UpdateRequest;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.client.solrj.response.SolrPingResponse;
 import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.SolrException.ErrorCode;
 import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.params.SolrParams;
+import org.apache.solr.common.util.ContentStream;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.common.util.SimpleOrderedMap;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -40,15 +56,38 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.solr.SolrServerFactory;
 import org.springframework.data.solr.UncategorizedSolrException;
 import org.springframework.data.solr.core.query.Criteria;
+import org.springframework.data.solr.core.query.GroupOptions;
 import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.core.query.SimpleFacetQuery;
+import org.springframework.data.solr.core.query.SimpleField;
 import org.springframework.data.solr.core.query.SimpleQuery;
+import org.springframework.data.solr.core.query.TermsQuery;
+import org.springframework.data.solr.core.query.result.CacheStatsResult;
+import org.springframework.data.solr.core.query.result.GroupEntry;
+import org.springframework.data.solr.core.query.result.GroupPage;
+import org.springframework.data.solr.core.query.result.GroupResult;
+import org.springframework.data.solr.core.query.result.StatsPage;
+import org.springframework.data.solr.core.query.result.TermsEntry;
+import org.springframework.data.solr.core.querylog.QueryLogWriter;
+import org.springframework.data.solr.core.transaction.SolrTransactionManager;
+import org.springframework.data.solr.core.writebehind.CoalescingUpdateBuffer;
+import org.springframework.data.solr.core.writebehind.WriteBehindQueue;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /*
  * @author Christoph Strobl
@@ -89,6 +128,33 @@ public class SolrTemplateTest {
 		solrTemplate.executePing();
 	}
 
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void testExecuteCacheStats() throws SolrServerException, IOException {
+		NamedList<Object> stats = new NamedList<Object>();
+		stats.add("hitratio", "0.50");
+		NamedList<Object> filterCache = new NamedList<Object>();
+		filterCache.add("stats", stats);
+		NamedList<Object> caches = new NamedList<Object>();
+		caches.add("filterCache", filterCache);
+		NamedList<Object> mbeans = new NamedList<Object>();
+		mbeans.add("CACHE", caches);
+		NamedList<Object> response = new NamedList<Object>();
+		response.add("solr-mbeans", mbeans);
+
+		ArgumentCaptor<SolrRequest> captor = ArgumentCaptor.forClass(SolrRequest.class);
+		Mockito.when(solrServerMock.request(captor.capture())).thenReturn(response);
+
+		List<CacheStatsResult> result = solrTemplate.executeCacheStats();
+		Assert.assertEquals(1, result.size());
+		Assert.assertEquals("filterCache", result.get(0).getName());
+		Assert.assertEquals(0.5, result.get(0).getHitRatio(), 0);
+
+		Assert.assertEquals("/admin/mbeans", captor.getValue().getPath());
+		Assert.assertEquals("true", captor.getValue().getParams().get("stats"));
+		Assert.assertEquals("CACHE", captor.getValue().getParams().get("cat"));
+	}
+
 	@Test(expected = InvalidDataAccessApiUsageException.class)
 	public void testExecuteQueryThrowsParseException() throws SolrServerException {
 		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenThrow(
@@ -102,6 +168,99 @@ public class SolrTemplateTest {
 		solrTemplate.executeSolrQuery(new SolrQuery());
 	}
 
+	@Test
+	public void testExecuteQueryUsesGetForShortQuery() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(new QueryResponse());
+		solrTemplate.executeSolrQuery(new SolrQuery("field_1:value_1"));
+
+		Mockito.verify(solrServerMock, Mockito.times(1)).query(Matchers.any(SolrParams.class));
+		Mockito.verify(solrServerMock, Mockito.never()).query(Matchers.any(SolrParams.class),
+				Matchers.eq(SolrRequest.METHOD.POST));
+	}
+
+	@Test
+	public void testExecuteQueryUsesPostForOversizedQuery() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class), Matchers.eq(SolrRequest.METHOD.POST)))
+				.thenReturn(new QueryResponse());
+		solrTemplate.setMaxGetRequestLength(32);
+
+		Query query = new SimpleQuery(new Criteria("id").in(1000, 1001, 1002, 1003, 1004, 1005, 1006, 1007, 1008, 1009));
+		solrTemplate.executeQuery(query);
+
+		Mockito.verify(solrServerMock, Mockito.times(1)).query(Matchers.any(SolrParams.class),
+				Matchers.eq(SolrRequest.METHOD.POST));
+		Mockito.verify(solrServerMock, Mockito.never()).query(Matchers.any(SolrParams.class));
+	}
+
+	@Test
+	public void testExecuteQueryCombinesOversizedInCriteriaIntoSingleQuery() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(createQueryResponse(1));
+		solrTemplate.setMaxBooleanClauses(2);
+
+		Query query = new SimpleQuery(new Criteria("id").in(1, 2, 3, 4, 5)).addSort(
+				new Sort(Sort.Direction.DESC, "popularity")).setPageRequest(new PageRequest(1, 2));
+		QueryResponse response = solrTemplate.executeQuery(query);
+
+		ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+		Mockito.verify(solrServerMock, Mockito.times(1)).query(captor.capture());
+		Assert.assertEquals(1, response.getResults().getNumFound());
+		Assert.assertEquals("((id:(1 2)) OR (id:(3 4))) OR ((id:5))", captor.getValue().get(CommonParams.Q));
+		Assert.assertEquals("popularity desc", captor.getValue().get(CommonParams.SORT));
+		Assert.assertEquals("2", captor.getValue().get(CommonParams.START));
+		Assert.assertEquals("2", captor.getValue().get(CommonParams.ROWS));
+	}
+
+	@Test
+	public void testExecuteCountCombinesOversizedInCriteriaIntoSingleQuery() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(createQueryResponse(2));
+		solrTemplate.setMaxBooleanClauses(2);
+
+		Assert.assertEquals(2, solrTemplate.executeCount(new SimpleQuery(new Criteria("id").in(1, 2, 3, 4))));
+
+		ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+		Mockito.verify(solrServerMock, Mockito.times(1)).query(captor.capture());
+		Assert.assertEquals("(id:(1 2)) OR (id:(3 4))", captor.getValue().get(CommonParams.Q));
+		Assert.assertEquals("0", captor.getValue().get(CommonParams.ROWS));
+	}
+
+	@Test
+	public void testExecuteFacetQueryCombinesOversizedInCriteria() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(createQueryResponse(5));
+		solrTemplate.setMaxBooleanClauses(2);
+
+		solrTemplate.executeQuery(new SimpleFacetQuery(new Criteria("id").in(1, 2, 3, 4)));
+
+		ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+		Mockito.verify(solrServerMock, Mockito.times(1)).query(captor.capture());
+		Assert.assertEquals("(id:(1 2)) OR (id:(3 4))", captor.getValue().get(CommonParams.Q));
+	}
+
+	@Test
+	public void testExecuteObjectQueryWithFrozenQuery() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(createQueryResponse(0));
+		Query query = new SimpleQuery(new Criteria("id").is("1"), new PageRequest(0, 10)).freeze();
+
+		solrTemplate.executeObjectQuery(query, SimpleJavaObject.class);
+
+		ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+		Mockito.verify(solrServerMock, Mockito.times(1)).query(captor.capture());
+		Assert.assertEquals("1", captor.getValue().get(CommonParams.ROWS));
+		Assert.assertEquals(10, query.getPageRequest().getPageSize());
+	}
+
+	@Test
+	public void testExceedsMaxGetRequestLengthConsidersUrlEncoding() {
+		solrTemplate.setMaxGetRequestLength(20);
+		Assert.assertFalse(solrTemplate.exceedsMaxGetRequestLength(new SolrQuery("field_1:value_1")));
+		Assert.assertTrue(solrTemplate.exceedsMaxGetRequestLength(new SolrQuery("a:\"b c\" d:\"e f\"")));
+	}
+
+	@Test
+	public void testExceedsMaxGetRequestLengthDisabled() {
+		solrTemplate.setMaxGetRequestLength(-1);
+		Assert.assertFalse(solrTemplate.exceedsMaxGetRequestLength(new SolrQuery(StringUtils.repeat("a", 10000))));
+	}
+
 	@Test
 	public void testAddBean() throws IOException, SolrServerException {
 		Mockito.when(solrServerMock.add(Mockito.any(SolrInputDocument.class))).thenReturn(new UpdateResponse());
@@ -174,6 +333,185 @@ public class SolrTemplateTest {
 		}
 	}
 
+	@Test
+	public void testAddUnchangedBeanIsSkippedWhenFingerprintCacheSet() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.add(Mockito.any(SolrInputDocument.class))).thenReturn(new UpdateResponse());
+		solrTemplate.setDocumentFingerprintCache(new DocumentFingerprintCache(100));
+
+		solrTemplate.executeAddBean(new SimpleJavaObject("1", 1l));
+		solrTemplate.executeCommit();
+		UpdateResponse updateResponse = solrTemplate.executeAddBean(new SimpleJavaObject("1", 1l));
+		Assert.assertEquals(0, updateResponse.getStatus());
+		solrTemplate.executeAddBean(new SimpleJavaObject("1", 2l));
+
+		Mockito.verify(solrServerMock, Mockito.times(2)).add(Mockito.any(SolrInputDocument.class));
+		Assert.assertEquals(1, solrTemplate.getDocumentFingerprintCache().getHitCount());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testAddBeansOnlySendsChangedBeansWhenFingerprintCacheSet() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.add(Mockito.anyCollectionOf(SolrInputDocument.class))).thenReturn(new UpdateResponse());
+		solrTemplate.setDocumentFingerprintCache(new DocumentFingerprintCache(100));
+
+		solrTemplate.executeAddBeans(Arrays.asList(new SimpleJavaObject("1", 1l), new SimpleJavaObject("2", 2l)));
+		solrTemplate.executeCommit();
+		solrTemplate.executeAddBeans(Arrays.asList(new SimpleJavaObject("1", 1l), new SimpleJavaObject("2", 3l),
+				new SimpleJavaObject("3", 3l)));
+
+		@SuppressWarnings("rawtypes")
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(solrServerMock, Mockito.times(2)).add(captor.capture());
+
+		List<SolrInputDocument> sent = captor.getAllValues().get(1);
+		Assert.assertEquals(2, sent.size());
+		Assert.assertEquals("2", sent.get(0).getFieldValue("id"));
+		Assert.assertEquals("3", sent.get(1).getFieldValue("id"));
+	}
+
+	@Test
+	public void testFingerprintNotRecordedBeforeCommit() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.add(Mockito.any(SolrInputDocument.class))).thenReturn(new UpdateResponse());
+		Mockito.when(solrServerMock.commit()).thenThrow(
+				new SolrServerException("error", new SolrException(ErrorCode.SERVER_ERROR, "error")));
+		solrTemplate.setDocumentFingerprintCache(new DocumentFingerprintCache(100));
+
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+		try {
+			solrTemplate.executeCommit();
+			Assert.fail();
+		} catch (DataAccessException e) {
+			// expected
+		}
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+
+		Mockito.verify(solrServerMock, Mockito.times(2)).add(Mockito.any(SolrInputDocument.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFingerprintsDroppedWhenIndexModifiedByOthers() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.add(Mockito.any(SolrInputDocument.class))).thenReturn(new UpdateResponse());
+		Mockito.when(solrServerMock.request(Mockito.any(LukeRequest.class))).thenReturn(createLukeResponse(1),
+				createLukeResponse(2), createLukeResponse(4));
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		solrTemplate.setDocumentFingerprintCache(cache);
+
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+		solrTemplate.executeCommit();
+		Assert.assertEquals(2, cache.getIndexVersion());
+		Assert.assertEquals(1, cache.size());
+
+		// index version 4 does not match the one recorded on commit, eg. as the index has been wiped meanwhile
+		solrTemplate.setDocumentFingerprintCache(cache);
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+
+		Mockito.verify(solrServerMock, Mockito.times(2)).add(Mockito.any(SolrInputDocument.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testCommitReadsIndexVersionOnce() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.add(Mockito.any(SolrInputDocument.class))).thenReturn(new UpdateResponse());
+		Mockito.when(solrServerMock.request(Mockito.any(LukeRequest.class))).thenReturn(createLukeResponse(1),
+				createLukeResponse(2), createLukeResponse(3));
+		DocumentFingerprintCache cache = new DocumentFingerprintCache(100);
+		solrTemplate.setDocumentFingerprintCache(cache);
+
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+		solrTemplate.executeCommit();
+		solrTemplate.executeCommit();
+
+		Mockito.verify(solrServerMock, Mockito.times(3)).request(Mockito.any(LukeRequest.class));
+		Assert.assertEquals(3, cache.getIndexVersion());
+		Assert.assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testFingerprintNotRecordedWhenAddFails() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.add(Mockito.any(SolrInputDocument.class))).thenThrow(
+				new SolrServerException("error", new SolrException(ErrorCode.SERVER_ERROR, "error"))).thenReturn(
+				new UpdateResponse());
+		solrTemplate.setDocumentFingerprintCache(new DocumentFingerprintCache(100));
+
+		try {
+			solrTemplate.executeAddBean(SIMPLE_OBJECT);
+			Assert.fail();
+		} catch (DataAccessException e) {
+			// expected
+		}
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+
+		Mockito.verify(solrServerMock, Mockito.times(2)).add(Mockito.any(SolrInputDocument.class));
+	}
+
+	@Test
+	public void testDeleteByIdInvalidatesFingerprint() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.add(Mockito.any(SolrInputDocument.class))).thenReturn(new UpdateResponse());
+		Mockito.when(solrServerMock.deleteById(Mockito.anyString())).thenReturn(new UpdateResponse());
+		solrTemplate.setDocumentFingerprintCache(new DocumentFingerprintCache(100));
+
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+		solrTemplate.executeCommit();
+		solrTemplate.executeDeleteById(SIMPLE_OBJECT.getId());
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+
+		Mockito.verify(solrServerMock, Mockito.times(2)).add(Mockito.any(SolrInputDocument.class));
+	}
+
+	@Test
+	public void testRollbackClearsFingerprints() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.add(Mockito.any(SolrInputDocument.class))).thenReturn(new UpdateResponse());
+		Mockito.when(solrServerMock.rollback()).thenReturn(new UpdateResponse());
+		solrTemplate.setDocumentFingerprintCache(new DocumentFingerprintCache(100));
+
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+		solrTemplate.executeRollback();
+		solrTemplate.executeAddBean(SIMPLE_OBJECT);
+
+		Mockito.verify(solrServerMock, Mockito.times(2)).add(Mockito.any(SolrInputDocument.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testLoadCsvFromBeansSendsChunks() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.request(Mockito.any(SolrRequest.class))).thenReturn(new NamedList<Object>());
+		List<SimpleJavaObject> collection = Arrays.asList(new SimpleJavaObject("1", 1l), new SimpleJavaObject("2", 2l),
+				new SimpleJavaObject("3", 3l));
+
+		List<UpdateResponse> responses = solrTemplate.executeLoadCsv(collection, SimpleJavaObject.class,
+				new CsvLoadOptions().setChunkSize(2));
+		Assert.assertEquals(2, responses.size());
+
+		ArgumentCaptor<SolrRequest> captor = ArgumentCaptor.forClass(SolrRequest.class);
+		Mockito.verify(solrServerMock, Mockito.times(2)).request(captor.capture());
+
+		ContentStreamUpdateRequest request = (ContentStreamUpdateRequest) captor.getAllValues().get(0);
+		Assert.assertEquals("/update/csv", request.getPath());
+		Assert.assertEquals("id,value", request.getParams().get("fieldnames"));
+		Assert.assertEquals("false", request.getParams().get("header"));
+
+		ContentStream stream = request.getContentStreams().iterator().next();
+		Assert.assertEquals("1,1\n2,2\n", IOUtils.toString(stream.getReader()));
+	}
+
+	@Test
+	public void testLoadCsvFromFile() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.request(Mockito.any(SolrRequest.class))).thenReturn(new NamedList<Object>());
+		File file = File.createTempFile("solr", ".csv");
+		file.deleteOnExit();
+
+		solrTemplate.executeLoadCsv(file, new CsvLoadOptions().setFieldNames("id", "cat").setMultiValuedFieldNames("cat"));
+
+		ArgumentCaptor<SolrRequest> captor = ArgumentCaptor.forClass(SolrRequest.class);
+		Mockito.verify(solrServerMock, Mockito.times(1)).request(captor.capture());
+
+		SolrParams params = captor.getValue().getParams();
+		Assert.assertEquals("id,cat", params.get("fieldnames"));
+		Assert.assertEquals("true", params.get("f.cat.split"));
+		Assert.assertEquals("|", params.get("f.cat.separator"));
+	}
+
 	@Test
 	public void testCount() throws SolrServerException {
 		ArgumentCaptor<SolrQuery> captor = ArgumentCaptor.forClass(SolrQuery.class);
@@ -231,4 +569,449 @@ public class SolrTemplateTest {
 		Mockito.verify(solrServerMock, Mockito.times(1)).rollback();
 	}
 
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testRollbackWithWriteBehindQueue() throws SolrServerException, IOException {
+		solrTemplate.setWriteBehindQueue(Mockito.mock(WriteBehindQueue.class));
+		solrTemplate.executeRollback();
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testRollbackWithCoalescingUpdateBuffer() throws SolrServerException, IOException {
+		solrTemplate.setCoalescingUpdateBuffer(Mockito.mock(CoalescingUpdateBuffer.class));
+		solrTemplate.executeRollback();
+	}
+
+	@Test
+	public void testExecuteListQueryWithProjectionSetsFieldList() throws SolrServerException {
+		ArgumentCaptor<SolrQuery> captor = ArgumentCaptor.forClass(SolrQuery.class);
+		QueryResponse responseMock = Mockito.mock(QueryResponse.class);
+		SolrDocumentList resultList = new SolrDocumentList();
+		SolrDocument document = new SolrDocument();
+		document.addField("value", 10l);
+		resultList.add(document);
+		resultList.setNumFound(1);
+		Mockito.when(responseMock.getResults()).thenReturn(resultList);
+		Mockito.when(solrServerMock.query(Mockito.any(SolrQuery.class))).thenReturn(responseMock);
+
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value1"));
+		Page<ValueProjection> page = solrTemplate.executeListQuery(query, SimpleJavaObject.class, ValueProjection.class);
+
+		Mockito.verify(solrServerMock, Mockito.times(1)).query(captor.capture());
+		Assert.assertEquals("value", captor.getValue().getFields());
+		Assert.assertTrue(query.getProjectionOnFields().isEmpty());
+		Assert.assertEquals(1, page.getNumberOfElements());
+		Assert.assertEquals(Long.valueOf(10), page.getContent().get(0).getValue());
+	}
+
+	@Test
+	public void testExecuteListQueryWithProjectionDoesNotOverrideExplicitFieldList() throws SolrServerException {
+		ArgumentCaptor<SolrQuery> captor = ArgumentCaptor.forClass(SolrQuery.class);
+		QueryResponse responseMock = Mockito.mock(QueryResponse.class);
+		Mockito.when(responseMock.getResults()).thenReturn(new SolrDocumentList());
+		Mockito.when(solrServerMock.query(Mockito.any(SolrQuery.class))).thenReturn(responseMock);
+
+		solrTemplate.executeListQuery(new SimpleQuery(new Criteria("field_1").is("value1")).addProjectionOnField("id"),
+				SimpleJavaObject.class, ValueProjection.class);
+
+		Mockito.verify(solrServerMock, Mockito.times(1)).query(captor.capture());
+		Assert.assertEquals("id", captor.getValue().getFields());
+	}
+
+	@Test
+	public void testExecuteTermsQuery() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(
+				createTermsQueryResponse("field_1", "spring", "solr"));
+
+		List<TermsEntry> terms = solrTemplate.executeTermsQuery(new TermsQuery("field_1").setPrefix("s"));
+		Assert.assertEquals(2, terms.size());
+		Assert.assertEquals("spring", terms.get(0).getTerm());
+		Assert.assertEquals(2L, terms.get(0).getCount());
+		Assert.assertEquals("field_1", terms.get(0).getField().getName());
+	}
+
+	@Test
+	public void testExecuteTermsQueryUsesPrefixCache() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(
+				createTermsQueryResponse("field_1", "spring", "solr"));
+		solrTemplate.setTermsPrefixCache(new TermsPrefixCache(1, TimeUnit.MINUTES));
+
+		solrTemplate.executeTermsQuery(new TermsQuery("field_1").setPrefix("s"));
+		List<TermsEntry> terms = solrTemplate.executeTermsQuery(new TermsQuery("field_1").setPrefix("sp"));
+
+		Mockito.verify(solrServerMock, Mockito.times(1)).query(Matchers.any(SolrParams.class));
+		Assert.assertEquals(1, terms.size());
+		Assert.assertEquals("spring", terms.get(0).getTerm());
+	}
+
+	@Test
+	public void testExecuteQueryRecordsQueryLog() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(new QueryResponse());
+		QueryLogWriter queryLogWriterMock = Mockito.mock(QueryLogWriter.class);
+		solrTemplate.setQueryLogWriter(queryLogWriterMock);
+
+		solrTemplate.executeQuery(new SimpleQuery(new Criteria("field_1").is("value1")));
+
+		ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+		Mockito.verify(queryLogWriterMock, Mockito.times(1)).append(captor.capture());
+		Assert.assertEquals("field_1:value1", captor.getValue().get(CommonParams.Q));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testWriteBehindQueueReceivesUpdates() throws SolrServerException, IOException {
+		WriteBehindQueue writeBehindQueueMock = Mockito.mock(WriteBehindQueue.class);
+		solrTemplate.setWriteBehindQueue(writeBehindQueueMock);
+
+		UpdateResponse updateResponse = solrTemplate.executeAddBean(SIMPLE_OBJECT);
+		solrTemplate.executeDeleteById("1");
+		solrTemplate.executeDelete(new SimpleQuery(new Criteria("field_1").is("value1")));
+		solrTemplate.executeCommit();
+
+		Assert.assertEquals(0, updateResponse.getStatus());
+		Mockito.verify(writeBehindQueueMock, Mockito.times(1)).add(Matchers.anyCollection());
+		Mockito.verify(writeBehindQueueMock, Mockito.times(1)).deleteById(Arrays.asList("1"));
+		Mockito.verify(writeBehindQueueMock, Mockito.times(1)).deleteByQuery("field_1:value1");
+		Mockito.verify(solrServerMock, Mockito.never()).add(Matchers.any(SolrInputDocument.class));
+		Mockito.verify(solrServerMock, Mockito.never()).deleteById(Matchers.anyString());
+		Mockito.verify(solrServerMock, Mockito.never()).deleteByQuery(Matchers.anyString());
+		Mockito.verify(solrServerMock, Mockito.never()).commit();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testCoalescingUpdateBufferReceivesUpdates() throws SolrServerException, IOException {
+		CoalescingUpdateBuffer coalescingUpdateBufferMock = Mockito.mock(CoalescingUpdateBuffer.class);
+		solrTemplate.setCoalescingUpdateBuffer(coalescingUpdateBufferMock);
+
+		solrTemplate.executeAddBeans(Arrays.asList(SIMPLE_OBJECT, SIMPLE_OBJECT));
+		solrTemplate.executeDeleteById(Arrays.asList("1", "2"));
+		solrTemplate.executeDelete(new SimpleQuery(new Criteria("field_1").is("value1")));
+		solrTemplate.executeCommit();
+
+		Mockito.verify(coalescingUpdateBufferMock, Mockito.times(2)).add(Matchers.eq("simple-string-id"),
+				Matchers.any(SolrInputDocument.class));
+		Mockito.verify(coalescingUpdateBufferMock, Mockito.times(1)).deleteById(Arrays.asList("1", "2"));
+		Mockito.verify(coalescingUpdateBufferMock, Mockito.times(1)).deleteByQuery("field_1:value1");
+		Mockito.verify(solrServerMock, Mockito.never()).add(Matchers.anyCollection());
+		Mockito.verify(solrServerMock, Mockito.never()).commit();
+	}
+
+	@Test
+	public void testCoalescingUpdateBufferReceivesIdOfMappedIdProperty() {
+		CoalescingUpdateBuffer coalescingUpdateBufferMock = Mockito.mock(CoalescingUpdateBuffer.class);
+		solrTemplate.setCoalescingUpdateBuffer(coalescingUpdateBufferMock);
+
+		solrTemplate.executeAddBean(new BeanWithCustomIdField("key-1", "name-1"));
+
+		ArgumentCaptor<SolrInputDocument> captor = ArgumentCaptor.forClass(SolrInputDocument.class);
+		Mockito.verify(coalescingUpdateBufferMock).add(Matchers.eq("key-1"), captor.capture());
+		Assert.assertEquals("key-1", captor.getValue().getFieldValue("key"));
+		Assert.assertNull(captor.getValue().getFieldValue("id"));
+	}
+
+	@Test
+	public void testCoalescingUpdateBufferResolvesIdOfPlainDocuments() {
+		CoalescingUpdateBuffer coalescingUpdateBufferMock = Mockito.mock(CoalescingUpdateBuffer.class);
+		solrTemplate.setCoalescingUpdateBuffer(coalescingUpdateBufferMock);
+
+		solrTemplate.executeAddDocument(SIMPLE_DOCUMENT);
+
+		Mockito.verify(coalescingUpdateBufferMock).add(Arrays.asList(SIMPLE_DOCUMENT));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testCoalescingUpdateBufferCannotBeCombinedWithWriteBehindQueue() {
+		solrTemplate.setWriteBehindQueue(Mockito.mock(WriteBehindQueue.class));
+		solrTemplate.setCoalescingUpdateBuffer(Mockito.mock(CoalescingUpdateBuffer.class));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testWriteBehindQueueCannotBeCombinedWithCoalescingUpdateBuffer() {
+		solrTemplate.setCoalescingUpdateBuffer(Mockito.mock(CoalescingUpdateBuffer.class));
+		solrTemplate.setWriteBehindQueue(Mockito.mock(WriteBehindQueue.class));
+	}
+
+	@Test
+	public void testTransactionBuffersUpdatesAndSendsThemOnCommit() throws SolrServerException, IOException {
+		CoalescingUpdateBuffer coalescingUpdateBufferMock = Mockito.mock(CoalescingUpdateBuffer.class);
+		solrTemplate.setCoalescingUpdateBuffer(coalescingUpdateBufferMock);
+		Mockito.when(solrServerMock.request(Matchers.any(SolrRequest.class))).thenReturn(new NamedList<Object>());
+
+		new TransactionTemplate(new SolrTransactionManager(solrServerMock))
+				.execute(new TransactionCallbackWithoutResult() {
+
+					@Override
+					protected void doInTransactionWithoutResult(TransactionStatus status) {
+						for (int i = 0; i < 200; i++) {
+							solrTemplate.executeAddBean(SIMPLE_OBJECT);
+						}
+						solrTemplate.executeDeleteById("2");
+						solrTemplate.executeCommit();
+					}
+				});
+
+		ArgumentCaptor<UpdateRequest> captor = ArgumentCaptor.forClass(UpdateRequest.class);
+		Mockito.verify(solrServerMock, Mockito.times(1)).request(captor.capture());
+		Assert.assertEquals(200, captor.getValue().getDocuments().size());
+		Assert.assertEquals(Arrays.asList("2"), captor.getValue().getDeleteById());
+		Mockito.verify(solrServerMock, Mockito.never()).commit();
+		Mockito.verifyZeroInteractions(coalescingUpdateBufferMock);
+	}
+
+	@Test
+	public void testTransactionRollbackDoesNotSendUpdates() throws SolrServerException, IOException {
+		new TransactionTemplate(new SolrTransactionManager(solrServerMock))
+				.execute(new TransactionCallbackWithoutResult() {
+
+					@Override
+					protected void doInTransactionWithoutResult(TransactionStatus status) {
+						solrTemplate.executeAddBean(SIMPLE_OBJECT);
+						solrTemplate.executeDelete(new SimpleQuery(new Criteria("field_1").is("value1")));
+						status.setRollbackOnly();
+					}
+				});
+
+		Mockito.verify(solrServerMock, Mockito.never()).request(Matchers.any(SolrRequest.class));
+		Mockito.verify(solrServerMock, Mockito.never()).add(Matchers.any(SolrInputDocument.class));
+		Mockito.verify(solrServerMock, Mockito.never()).deleteByQuery(Matchers.anyString());
+	}
+
+	@Test
+	public void testExecuteGroupQuery() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(createGroupQueryResponse());
+
+		GroupPage<SimpleJavaObject> page = solrTemplate.executeGroupQuery(new SimpleQuery(new Criteria("field_1")
+				.is("value1")).setGroupOptions(new GroupOptions("value").setLimit(2)), SimpleJavaObject.class);
+
+		Assert.assertEquals(2, page.getTotalElements());
+		Assert.assertEquals(2, page.getNumberOfElements());
+		Assert.assertEquals("10", page.getContent().get(0).getGroupValue());
+
+		GroupResult<SimpleJavaObject> groupResult = page.getGroupResult(new SimpleField("value"));
+		Assert.assertEquals(3, groupResult.getMatches());
+		Assert.assertEquals(Integer.valueOf(2), groupResult.getGroupsCount());
+		Assert.assertEquals(2, groupResult.getGroupEntries().getNumberOfElements());
+
+		GroupEntry<SimpleJavaObject> entry = groupResult.getGroupEntries().getContent().get(0);
+		Assert.assertEquals("10", entry.getGroupValue());
+		Assert.assertEquals(2, entry.getResult().getNumberOfElements());
+		Assert.assertEquals(5, entry.getResult().getTotalElements());
+		Assert.assertEquals("id-1", entry.getResult().getContent().get(0).getId());
+		Assert.assertNull(groupResult.getGroupEntries().getContent().get(1).getGroupValue());
+	}
+
+	@Test
+	public void testExecuteGroupQueryByQuery() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(createQueryGroupQueryResponse());
+
+		GroupPage<SimpleJavaObject> page = solrTemplate.executeGroupQuery(new SimpleQuery(new Criteria("field_1")
+				.is("value1")).setGroupOptions(new GroupOptions().addGroupByQuery(new SimpleQuery(new Criteria("value")
+				.between(0, 5)))), SimpleJavaObject.class);
+
+		Assert.assertEquals(1, page.getTotalElements());
+		Assert.assertEquals(1, page.getNumberOfElements());
+
+		GroupResult<SimpleJavaObject> queryResult = page.getGroupResult("value:[0 TO 5]");
+		Assert.assertNull(queryResult.getGroupsCount());
+		Assert.assertEquals("value:[0 TO 5]", page.getContent().get(0).getGroupValue());
+		Assert.assertEquals("id-4", page.getContent().get(0).getResult().getContent().get(0).getId());
+	}
+
+	@Test
+	public void testExecuteGroupQueryWithMultipleGroupCommands() throws SolrServerException {
+		try {
+			solrTemplate.executeGroupQuery(new SimpleQuery(new Criteria("field_1").is("value1"))
+					.setGroupOptions(new GroupOptions("value").addGroupByField("field_1")), SimpleJavaObject.class);
+			Assert.fail("Expected InvalidDataAccessApiUsageException");
+		} catch (InvalidDataAccessApiUsageException e) {
+			// expected
+		}
+		Mockito.verify(solrServerMock, Mockito.never()).query(Matchers.any(SolrParams.class));
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testExecuteListQueryWithGroupOptions() {
+		solrTemplate.executeListQuery(new SimpleQuery(new Criteria("field_1").is("value1")).setGroupOptions(new GroupOptions(
+				"value")), SimpleJavaObject.class);
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testExecuteFacetQueryWithGroupOptions() {
+		SimpleFacetQuery query = new SimpleFacetQuery(new Criteria("field_1").is("value1"));
+		query.setGroupOptions(new GroupOptions("value"));
+		solrTemplate.executeFacetQuery(query, SimpleJavaObject.class);
+	}
+
+	@Test
+	public void testExecuteListQueryWithPartialResults() throws SolrServerException {
+		NamedList<Object> header = new SimpleOrderedMap<Object>();
+		header.add("partialResults", true);
+		SolrDocumentList results = new SolrDocumentList();
+		results.setNumFound(0);
+		NamedList<Object> response = new NamedList<Object>();
+		response.add("responseHeader", header);
+		response.add("response", results);
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(new QueryResponse(response, null));
+
+		StatsPage<SimpleJavaObject> page = (StatsPage<SimpleJavaObject>) solrTemplate.executeListQuery(new SimpleQuery(
+				new Criteria("field_1").is("value1")).setTimeAllowed(100), SimpleJavaObject.class);
+		Assert.assertTrue(page.isPartialResults());
+	}
+
+	@Test
+	public void testExecuteListQueryWithoutPartialResults() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenReturn(createQueryResponse(0));
+
+		StatsPage<SimpleJavaObject> page = (StatsPage<SimpleJavaObject>) solrTemplate.executeListQuery(new SimpleQuery(
+				new Criteria("field_1").is("value1")), SimpleJavaObject.class);
+		Assert.assertFalse(page.isPartialResults());
+	}
+
+	@Test(expected = QueryTimeoutException.class)
+	public void testExecuteQueryExceedingClientSideDeadline() throws IOException {
+		// accepts connections but never responds
+		ServerSocket serverSocket = new ServerSocket(0);
+		HttpSolrServer httpSolrServer = new HttpSolrServer("http://localhost:" + serverSocket.getLocalPort() + "/solr");
+		try {
+			SolrTemplate template = new SolrTemplate(httpSolrServer);
+			template.setTimeAllowedGracePeriod(0);
+
+			template.executeListQuery(new SimpleQuery(new Criteria("field_1").is("value1")).setTimeAllowed(50),
+					SimpleJavaObject.class);
+		} finally {
+			httpSolrServer.shutdown();
+			serverSocket.close();
+		}
+	}
+
+	@Test
+	public void testExecuteQueryWithTimeAllowedOnCallingThread() throws SolrServerException {
+		final Thread caller = Thread.currentThread();
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class))).thenAnswer(new Answer<QueryResponse>() {
+
+			@Override
+			public QueryResponse answer(InvocationOnMock invocation) throws Throwable {
+				Assert.assertSame(caller, Thread.currentThread());
+				return createQueryResponse(0);
+			}
+		});
+
+		solrTemplate.executeListQuery(new SimpleQuery(new Criteria("field_1").is("value1")).setTimeAllowed(50),
+				SimpleJavaObject.class);
+
+		ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+		Mockito.verify(solrServerMock).query(captor.capture());
+		Assert.assertEquals("50", captor.getValue().get(CommonParams.TIME_ALLOWED));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExecuteGroupQueryWithoutGroupOptions() {
+		solrTemplate.executeGroupQuery(new SimpleQuery(new Criteria("field_1").is("value1")), SimpleJavaObject.class);
+	}
+
+	private QueryResponse createGroupQueryResponse() {
+		SolrDocumentList group1 = new SolrDocumentList();
+		group1.add(createSolrDocument("id-1", 10l));
+		group1.add(createSolrDocument("id-2", 10l));
+		group1.setNumFound(5);
+		NamedList<Object> group1Entry = new SimpleOrderedMap<Object>();
+		group1Entry.add("groupValue", 10l);
+		group1Entry.add("doclist", group1);
+
+		SolrDocumentList group2 = new SolrDocumentList();
+		group2.add(createSolrDocument("id-3", null));
+		group2.setNumFound(1);
+		NamedList<Object> group2Entry = new SimpleOrderedMap<Object>();
+		group2Entry.add("groupValue", null);
+		group2Entry.add("doclist", group2);
+
+		NamedList<Object> fieldCommand = new SimpleOrderedMap<Object>();
+		fieldCommand.add("matches", 3);
+		fieldCommand.add("ngroups", 2);
+		fieldCommand.add("groups", new ArrayList<Object>(Arrays.asList(group1Entry, group2Entry)));
+
+		NamedList<Object> grouped = new NamedList<Object>();
+		grouped.add("value", fieldCommand);
+
+		NamedList<Object> response = new NamedList<Object>();
+		response.add("grouped", grouped);
+		return new QueryResponse(response, null);
+	}
+
+	private QueryResponse createQueryGroupQueryResponse() {
+		SolrDocumentList queryGroup = new SolrDocumentList();
+		queryGroup.add(createSolrDocument("id-4", 1l));
+		queryGroup.setNumFound(1);
+		NamedList<Object> queryCommand = new SimpleOrderedMap<Object>();
+		queryCommand.add("matches", 3);
+		queryCommand.add("doclist", queryGroup);
+
+		NamedList<Object> grouped = new NamedList<Object>();
+		grouped.add("value:[0 TO 5]", queryCommand);
+
+		NamedList<Object> response = new NamedList<Object>();
+		response.add("grouped", grouped);
+		return new QueryResponse(response, null);
+	}
+
+	private SolrDocument createSolrDocument(String id, Long value) {
+		SolrDocument document = new SolrDocument();
+		document.addField("id", id);
+		document.addField("value", value);
+		return document;
+	}
+
+	private QueryResponse createTermsQueryResponse(String fieldname, String... terms) {
+		NamedList<Number> fieldTerms = new NamedList<Number>();
+		for (int i = 0; i < terms.length; i++) {
+			fieldTerms.add(terms[i], terms.length - i);
+		}
+		NamedList<Object> termsResponse = new NamedList<Object>();
+		termsResponse.add(fieldname, fieldTerms);
+
+		NamedList<Object> response = new NamedList<Object>();
+		response.add("terms", termsResponse);
+		return new QueryResponse(response, null);
+	}
+
+	private QueryResponse createQueryResponse(long numFound) {
+		SolrDocumentList results = new SolrDocumentList();
+		results.setNumFound(numFound);
+
+		NamedList<Object> response = new NamedList<Object>();
+		response.add("response", results);
+		return new QueryResponse(response, null);
+	}
+
+	private NamedList<Object> createLukeResponse(long indexVersion) {
+		NamedList<Object> index = new SimpleOrderedMap<Object>();
+		index.add("version", indexVersion);
+
+		NamedList<Object> response = new NamedList<Object>();
+		response.add("index", index);
+		return response;
+	}
+
+	interface ValueProjection {
+
+		Long getValue();
+
+	}
+
+	static class BeanWithCustomIdField {
+
+		@Id
+		@Field("key")
+		private String key;
+
+		@Field
+		private String name;
+
+		BeanWithCustomIdField(String key, String name) {
+			this.key = key;
+			this.name = name;
+		}
+
+	}
+
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.solr.core.query.SimpleField;
+import org.springframework.data.solr.core.query.TermsQuery;
+import org.springframework.data.solr.core.query.result.SimpleTermsEntry;
+import org.springframework.data.solr.core.query.result.TermsEntry;
+
+/**
+ * @author Christoph Strobl
+ */
+public class TermsPrefixCacheTest {
+
+	private static final SimpleField FIELD = new SimpleField("field_1");
+
+	private long now;
+	private TermsPrefixCache cache;
+
+	@Before
+	public void setUp() {
+		now = 1000L;
+		cache = new TermsPrefixCache(2, 10, TimeUnit.SECONDS) {
+
+			@Override
+			protected long currentTimeMillis() {
+				return now;
+			}
+		};
+	}
+
+	@Test
+	public void testGetReturnsCachedResult() {
+		List<TermsEntry> terms = createTerms("spring", "solr");
+		cache.put(new TermsQuery(FIELD).setPrefix("s"), terms);
+
+		Assert.assertEquals(terms, cache.get(new TermsQuery(FIELD).setPrefix("s")));
+		Assert.assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void testGetReturnsNullForDifferentOptions() {
+		cache.put(new TermsQuery(FIELD).setPrefix("s"), createTerms("spring"));
+
+		Assert.assertNull(cache.get(new TermsQuery(FIELD).setPrefix("s").setMinCount(2)));
+		Assert.assertNull(cache.get(new TermsQuery("field_2").setPrefix("s")));
+		Assert.assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void testEntriesExpire() {
+		cache.put(new TermsQuery(FIELD).setPrefix("s"), createTerms("spring"));
+		now += TimeUnit.SECONDS.toMillis(10);
+
+		Assert.assertNull(cache.get(new TermsQuery(FIELD).setPrefix("s")));
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testLongerPrefixIsDerivedFromCompleteResult() {
+		cache.put(new TermsQuery(FIELD).setPrefix("s"), createTerms("spring", "solr", "spa"));
+
+		List<TermsEntry> terms = cache.get(new TermsQuery(FIELD).setPrefix("spr"));
+		Assert.assertEquals(1, terms.size());
+		Assert.assertEquals("spring", terms.get(0).getTerm());
+	}
+
+	@Test
+	public void testLongerPrefixIsNotDerivedFromIncompleteResult() {
+		cache.put(new TermsQuery(FIELD).setPrefix("s").setLimit(2), createTerms("spring", "solr"));
+
+		Assert.assertNull(cache.get(new TermsQuery(FIELD).setPrefix("sp").setLimit(2)));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEntryIsEvicted() {
+		cache.put(new TermsQuery(FIELD).setPrefix("a"), Collections.<TermsEntry> emptyList());
+		cache.put(new TermsQuery(FIELD).setPrefix("b"), Collections.<TermsEntry> emptyList());
+		cache.get(new TermsQuery(FIELD).setPrefix("a"));
+		cache.put(new TermsQuery(FIELD).setPrefix("c"), Collections.<TermsEntry> emptyList());
+
+		Assert.assertNotNull(cache.get(new TermsQuery(FIELD).setPrefix("a")));
+		Assert.assertNull(cache.get(new TermsQuery(FIELD).setPrefix("b")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroTimeToLive() {
+		new TermsPrefixCache(0, TimeUnit.SECONDS);
+	}
+
+	private List<TermsEntry> createTerms(String... terms) {
+		TermsEntry[] entries = new TermsEntry[terms.length];
+		for (int i = 0; i < terms.length; i++) {
+			entries[i] = new SimpleTermsEntry(FIELD, terms[i], terms.length - i);
+		}
+		return Arrays.asList(entries);
+	}
+
+}
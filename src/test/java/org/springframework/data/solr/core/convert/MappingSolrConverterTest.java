@@ -15,6 +15,8 @@
  */
 package org.springframework.data.solr.core.convert;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.solr.client.solrj.SolrServer;
@@ -85,6 +87,261 @@ public class MappingSolrConverterTest {
 		Assert.assertEquals(document.getFieldValue("intProperty"), convertable.getIntProperty());
 	}
 
+	@Test
+	public void testWritePrimitiveArrays() {
+		BeanWithPrimitiveArrays bean = new BeanWithPrimitiveArrays("1", new int[] { 1, 2, 3 }, new long[] { 4L },
+				new double[] { 1.5d, 2.5d });
+		SolrInputDocument solrDocument = new SolrInputDocument();
+		converter.write(bean, solrDocument);
+
+		Assert.assertEquals(Arrays.<Object> asList(1, 2, 3), solrDocument.getFieldValues("intValues"));
+		Assert.assertEquals(Arrays.<Object> asList(4L), solrDocument.getFieldValues("longValues"));
+		Assert.assertEquals(Arrays.<Object> asList(1.5d, 2.5d), solrDocument.getFieldValues("doubleValues"));
+		Assert.assertEquals(Integer.valueOf(1), solrDocument.getFieldValue("intValues"));
+	}
+
+	@Test
+	public void testReadPrimitiveArrays() {
+		SolrDocument document = new SolrDocument();
+		document.addField("id", "1");
+		document.addField("intValues", 1);
+		document.addField("intValues", 2);
+		document.addField("longValues", 3L);
+		document.addField("doubleValues", 1.5d);
+		document.addField("doubleValues", 2.5f);
+
+		BeanWithPrimitiveArrays bean = converter.read(BeanWithPrimitiveArrays.class, (Map<String, Object>) document);
+
+		Assert.assertEquals("1", bean.getId());
+		Assert.assertArrayEquals(new int[] { 1, 2 }, bean.getIntValues());
+		Assert.assertArrayEquals(new long[] { 3L }, bean.getLongValues());
+		Assert.assertArrayEquals(new double[] { 1.5d, 2.5d }, bean.getDoubleValues(), 0d);
+	}
+
+	@Test
+	public void testReadPrimitiveArraysKeepsPrecisionOfLargeLongValues() {
+		SolrDocument document = new SolrDocument();
+		document.addField("id", "1");
+		document.addField("longValues", Long.toString(Long.MAX_VALUE));
+		document.addField("longValues", Long.MAX_VALUE - 1);
+
+		BeanWithPrimitiveArrays bean = converter.read(BeanWithPrimitiveArrays.class, (Map<String, Object>) document);
+
+		Assert.assertArrayEquals(new long[] { Long.MAX_VALUE, Long.MAX_VALUE - 1 }, bean.getLongValues());
+		Assert.assertEquals(2, document.getFieldValues("longValues").size());
+	}
+
+	@Test
+	public void testReadPrimitiveArraysWithMissingValues() {
+		SolrDocument document = new SolrDocument();
+		document.addField("id", "1");
+
+		BeanWithPrimitiveArrays bean = converter.read(BeanWithPrimitiveArrays.class, (Map<String, Object>) document);
+
+		Assert.assertEquals("1", bean.getId());
+		Assert.assertNull(bean.getIntValues());
+	}
+
+	@Test
+	public void testReadInterfaceProjection() {
+		SolrDocument document = new SolrDocument();
+		document.addField("stringProperty", "christoph");
+		document.addField("intProperty", 32);
+
+		StringPropertyProjection projection = converter.readProjection(StringPropertyProjection.class,
+				ConvertableBean.class, document);
+
+		Assert.assertEquals("christoph", projection.getStringProperty());
+		Assert.assertEquals(32, projection.getIntProperty());
+	}
+
+	@Test
+	public void testReadInterfaceProjectionWithMissingPrimitiveValue() {
+		SolrDocument document = new SolrDocument();
+		document.addField("stringProperty", "christoph");
+
+		StringPropertyProjection projection = converter.readProjection(StringPropertyProjection.class,
+				ConvertableBean.class, document);
+
+		Assert.assertEquals(0, projection.getIntProperty());
+	}
+
+	@Test
+	public void testReadClassProjection() {
+		SolrDocument document = new SolrDocument();
+		document.addField("stringProperty", "christoph");
+		document.addField("intProperty", 32);
+
+		IntPropertyDto dto = converter.readProjection(IntPropertyDto.class, ConvertableBean.class, document);
+
+		Assert.assertEquals(Long.valueOf(32), dto.intProperty);
+	}
+
+	@Test
+	public void testProjectionFieldNamesResolvedViaDomainType() {
+		List<String> fieldNames = converter.getProjectionFieldNames(RenamedPropertyProjection.class,
+				BeanWithRenamedProperty.class);
+
+		Assert.assertEquals(Arrays.asList("renamed_field"), fieldNames);
+	}
+
+	@Test
+	public void testProjectionFieldNamesForInterface() {
+		List<String> fieldNames = converter.getProjectionFieldNames(StringPropertyProjection.class, ConvertableBean.class);
+
+		Assert.assertEquals(2, fieldNames.size());
+		Assert.assertTrue(fieldNames.containsAll(Arrays.asList("stringProperty", "intProperty")));
+	}
+
+	@Test
+	public void testLazyLoadingConvertsPropertyOnFirstAccess() {
+		converter.setLazyLoading(true);
+
+		LazyLoadableBean bean = converter.read(LazyLoadableBean.class, (Map<String, Object>) createLazyLoadableDocument());
+
+		Assert.assertTrue(bean instanceof LazyLoadingProxy);
+		Assert.assertNull(bean.name);
+		Assert.assertEquals("christoph", bean.getName());
+		Assert.assertEquals("christoph", bean.name);
+		Assert.assertNull(bean.values);
+		Assert.assertFalse(((LazyLoadingProxy) bean).isInitialized());
+
+		Assert.assertArrayEquals(new int[] { 1, 2 }, bean.getValues());
+		Assert.assertEquals("1", bean.getId());
+		Assert.assertTrue(((LazyLoadingProxy) bean).isInitialized());
+	}
+
+	@Test
+	public void testLazyLoadingDoesNotOverrideValueSetBeforeAccess() {
+		converter.setLazyLoading(true);
+
+		LazyLoadableBean bean = converter.read(LazyLoadableBean.class, (Map<String, Object>) createLazyLoadableDocument());
+		bean.setName("strobl");
+
+		Assert.assertEquals("strobl", bean.getName());
+	}
+
+	@Test
+	public void testLazyLoadingInitializesAllPropertiesOnNonPropertyMethod() {
+		converter.setLazyLoading(true);
+
+		LazyLoadableBean bean = converter.read(LazyLoadableBean.class, (Map<String, Object>) createLazyLoadableDocument());
+		bean.toString();
+
+		Assert.assertTrue(((LazyLoadingProxy) bean).isInitialized());
+		Assert.assertEquals("1", bean.id);
+		Assert.assertEquals("christoph", bean.name);
+		Assert.assertArrayEquals(new int[] { 1, 2 }, bean.values);
+	}
+
+	@Test
+	public void testWriteLazyLoadingProxy() {
+		converter.setLazyLoading(true);
+
+		LazyLoadableBean bean = converter.read(LazyLoadableBean.class, (Map<String, Object>) createLazyLoadableDocument());
+		SolrInputDocument solrDocument = new SolrInputDocument();
+		converter.write(bean, solrDocument);
+
+		Assert.assertEquals("1", solrDocument.getFieldValue("id"));
+		Assert.assertEquals("christoph", solrDocument.getFieldValue("name"));
+		Assert.assertEquals(Arrays.<Object> asList(1, 2), solrDocument.getFieldValues("values"));
+	}
+
+	@Test
+	public void testLazyLoadingFallsBackToEagerReadForFinalType() {
+		converter.setLazyLoading(true);
+
+		SolrDocument document = new SolrDocument();
+		document.addField("value", "christoph");
+
+		FinalBean bean = converter.read(FinalBean.class, (Map<String, Object>) document);
+
+		Assert.assertEquals(FinalBean.class, bean.getClass());
+		Assert.assertEquals("christoph", bean.value);
+	}
+
+	@Test
+	public void testLazyLoadingDisabledByDefault() {
+		Assert.assertFalse(converter.isLazyLoading());
+
+		LazyLoadableBean bean = converter.read(LazyLoadableBean.class, (Map<String, Object>) createLazyLoadableDocument());
+
+		Assert.assertFalse(bean instanceof LazyLoadingProxy);
+		Assert.assertEquals("christoph", bean.name);
+	}
+
+	private SolrDocument createLazyLoadableDocument() {
+		SolrDocument document = new SolrDocument();
+		document.addField("id", "1");
+		document.addField("name", "christoph");
+		document.addField("values", 1);
+		document.addField("values", 2);
+		return document;
+	}
+
+	interface StringPropertyProjection {
+
+		String getStringProperty();
+
+		int getIntProperty();
+
+	}
+
+	interface RenamedPropertyProjection {
+
+		String getValue();
+
+	}
+
+	public static class IntPropertyDto {
+
+		Long intProperty;
+
+	}
+
+	public static class LazyLoadableBean {
+
+		@Field
+		String id;
+
+		@Field
+		String name;
+
+		@Field
+		int[] values;
+
+		public String getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int[] getValues() {
+			return values;
+		}
+
+	}
+
+	public static final class FinalBean {
+
+		@Field
+		String value;
+
+	}
+
+	public static class BeanWithRenamedProperty {
+
+		@Field("renamed_field")
+		String value;
+
+	}
+
 	public static class ConvertableBean {
 
 		@Field
@@ -120,4 +377,46 @@ public class MappingSolrConverterTest {
 
 	}
 
+	public static class BeanWithPrimitiveArrays {
+
+		@Field
+		String id;
+
+		@Field
+		int[] intValues;
+
+		@Field
+		long[] longValues;
+
+		@Field
+		double[] doubleValues;
+
+		public BeanWithPrimitiveArrays() {
+		}
+
+		public BeanWithPrimitiveArrays(String id, int[] intValues, long[] longValues, double[] doubleValues) {
+			this.id = id;
+			this.intValues = intValues;
+			this.longValues = longValues;
+			this.doubleValues = doubleValues;
+		}
+
+		String getId() {
+			return id;
+		}
+
+		int[] getIntValues() {
+			return intValues;
+		}
+
+		long[] getLongValues() {
+			return longValues;
+		}
+
+		double[] getDoubleValues() {
+			return doubleValues;
+		}
+
+	}
+
 }
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.TimeZone;
 
@@ -266,6 +267,12 @@ public class CriteriaTest {
 		Assert.assertEquals("field_1:(1 2 3 5 8 13 21)", criteria.createQueryString());
 	}
 
+	@Test
+	public void testInWithDuplicateValues() {
+		Criteria criteria = new Criteria("field_1").in(1, 2, 1, 3, 2);
+		Assert.assertEquals("field_1:(1 2 3)", criteria.createQueryString());
+	}
+
 	@Test
 	public void testInWithNestedCollection() {
 		List<List<String>> enclosingList = new ArrayList<List<String>>();
@@ -342,6 +349,26 @@ public class CriteriaTest {
 		new Criteria("field_1").near(new GeoLocation(48.303056, 14.290556), new Distance(-1));
 	}
 
+	@Test
+	public void testWithinBoundingBox() {
+		Criteria criteria = new Criteria("field_1").withinBoundingBox(new GeoLocation(48.303056, 14.290556),
+				new Distance(5));
+		Assert.assertEquals("{!bbox pt=48.303056,14.290556 sfield=field_1 d=5.0}", criteria.createQueryString());
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testWithinBoundingBoxWithNegativeDistance() {
+		new Criteria("field_1").withinBoundingBox(new GeoLocation(48.303056, 14.290556), new Distance(-1));
+	}
+
+	@Test
+	public void testWithinBoundingBoxAndCriteria() {
+		Criteria criteria = new Criteria("field_1").withinBoundingBox(new GeoLocation(48.303056, 14.290556),
+				new Distance(5)).and("name").is("data");
+		Assert.assertEquals("{!bbox pt=48.303056,14.290556 sfield=field_1 d=5.0} AND name:data",
+				criteria.createQueryString());
+	}
+
 	@Test
 	public void testRegisterAlternateConverter() {
 		Criteria criteria = new Criteria("field_1").is(100);
@@ -356,4 +383,260 @@ public class CriteriaTest {
 		Assert.assertEquals("field_1:001", criteria.createQueryString());
 	}
 
+	@Test
+	public void testRegisterAlternateConverterDoesNotAffectOtherCriteria() {
+		Criteria criteria = new Criteria("field_1").is(100);
+		criteria.registerConverter(new Converter<Number, String>() {
+
+			@Override
+			public String convert(Number arg0) {
+				return StringUtils.reverse(arg0.toString());
+			}
+
+		});
+
+		Assert.assertEquals("field_2:100", new Criteria("field_2").is(100).createQueryString());
+	}
+
+	@Test
+	public void testRegisterConverterDoesNotAffectCanonicalCopy() {
+		Criteria criteria = new Criteria("field_1").is(200).is(100);
+		Criteria canonical = criteria.canonicalize();
+		canonical.registerConverter(new Converter<Number, String>() {
+
+			@Override
+			public String convert(Number arg0) {
+				return StringUtils.reverse(arg0.toString());
+			}
+
+		});
+
+		Assert.assertEquals("field_1:(001 002)", canonical.createQueryString());
+		Assert.assertEquals("field_1:(200 100)", criteria.createQueryString());
+	}
+
+	@Test
+	public void testFreezeMemoizesQueryString() {
+		Criteria criteria = new Criteria("field_1").is("value_1").and("field_2").in(1, 2).freeze();
+
+		Assert.assertTrue(criteria.isFrozen());
+		Assert.assertEquals("field_1:value_1 AND field_2:(1 2)", criteria.createQueryString());
+		Assert.assertSame(criteria.createQueryString(), criteria.createQueryString());
+		Assert.assertSame(criteria.extractFilterQueries(), criteria.extractFilterQueries());
+	}
+
+	@Test
+	public void testFreezeFreezesChainedCriteria() {
+		Criteria first = new Criteria("field_1").is("value_1");
+		first.and("field_2").is("value_2").freeze();
+		Assert.assertTrue(first.isFrozen());
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFrozenCriteriaRejectsModification() {
+		new Criteria("field_1").is("value_1").freeze().is("value_2");
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFrozenCriteriaRejectsBoost() {
+		new Criteria("field_1").is("value_1").freeze().boost(2);
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFreezeValidatesCriteria() {
+		new Criteria("field_1").freeze();
+	}
+
+	@Test
+	public void testChainingOnFrozenCriteria() {
+		Criteria frozen = new Criteria("field_1").is("value_1").freeze();
+		Criteria criteria = frozen.and("field_2").is("value_2");
+
+		Assert.assertFalse(criteria.isFrozen());
+		Assert.assertEquals("field_1:value_1 AND field_2:value_2", criteria.createQueryString());
+		Assert.assertEquals("field_1:value_1", frozen.createQueryString());
+	}
+
+	@Test
+	public void testExtractFilterQueries() {
+		Criteria criteria = new Criteria("title").is("spring").and("type").is("product").asFilter().and("location")
+				.near(new GeoLocation(48.303056, 14.290556), new Distance(5)).asFilter().and("name").contains("data");
+		ExtractedFilterQueries extracted = criteria.extractFilterQueries();
+
+		Assert.assertEquals("title:spring AND name:*data*", extracted.getQueryString());
+		Assert.assertEquals(Arrays.asList("type:product", "{!geofilt pt=48.303056,14.290556 sfield=location d=5.0}"),
+				extracted.getFilterQueryStrings());
+	}
+
+	@Test
+	public void testExtractFilterQueriesKeepsUnmarkedCriteria() {
+		Criteria criteria = new Criteria("title").is("spring").and("type").is("product");
+		ExtractedFilterQueries extracted = criteria.extractFilterQueries();
+
+		Assert.assertEquals("title:spring AND type:product", extracted.getQueryString());
+		Assert.assertTrue(extracted.getFilterQueryStrings().isEmpty());
+	}
+
+	@Test
+	public void testExtractFilterQueriesForFields() {
+		Criteria criteria = new Criteria("title").is("spring").and("type").is("product").and("active").is(true);
+		ExtractedFilterQueries extracted = criteria.extractFilterQueries(false, Arrays.asList("type", "active"));
+
+		Assert.assertEquals("title:spring", extracted.getQueryString());
+		Assert.assertEquals(Arrays.asList("type:product", "active:true"), extracted.getFilterQueryStrings());
+	}
+
+	@Test
+	public void testExtractFilterQueriesForAllFieldsKeepsBoostedCriteria() {
+		Criteria criteria = new Criteria("title").is("spring").boost(2).and("type").is("product");
+		ExtractedFilterQueries extracted = criteria.extractFilterQueries(true, Collections.<String> emptySet());
+
+		Assert.assertEquals("title:spring^2.0", extracted.getQueryString());
+		Assert.assertEquals(Arrays.asList("type:product"), extracted.getFilterQueryStrings());
+	}
+
+	@Test
+	public void testCopyRetainsFilterMarker() {
+		Criteria criteria = new Criteria("type").is("product").asFilter();
+		Assert.assertTrue(criteria.canonicalize().isFilter());
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFrozenCriteriaRejectsFilterMarker() {
+		new Criteria("field_1").is("value_1").freeze().asFilter();
+	}
+
+	@Test
+	public void testExtractFilterQueriesWithNegatedCriteria() {
+		Criteria criteria = new Criteria("title").contains("spring").and("type").is("product").not().asFilter();
+		ExtractedFilterQueries extracted = criteria.extractFilterQueries();
+
+		Assert.assertEquals("title:*spring*", extracted.getQueryString());
+		Assert.assertEquals(Arrays.asList("-type:product"), extracted.getFilterQueryStrings());
+	}
+
+	@Test
+	public void testExtractFilterQueriesDoesNotSplitOrConjunction() {
+		Criteria criteria = new Criteria("type").is("product").asFilter().or("active").is(true).asFilter();
+		ExtractedFilterQueries extracted = criteria.extractFilterQueries();
+
+		Assert.assertEquals("type:product OR active:true", extracted.getQueryString());
+		Assert.assertTrue(extracted.getFilterQueryStrings().isEmpty());
+	}
+
+	@Test
+	public void testPartitionWithinLimit() {
+		Criteria criteria = new Criteria("field_1").in(1, 2, 3);
+		List<Criteria> partitions = criteria.partition(3);
+		Assert.assertEquals(1, partitions.size());
+		Assert.assertSame(criteria, partitions.get(0));
+	}
+
+	@Test
+	public void testPartitionInCriteria() {
+		Criteria criteria = new Criteria("field_1").in(1, 2, 3, 4, 5);
+		List<Criteria> partitions = criteria.partition(2);
+
+		Assert.assertEquals(3, partitions.size());
+		Assert.assertEquals("field_1:(1 2)", partitions.get(0).createQueryString());
+		Assert.assertEquals("field_1:(3 4)", partitions.get(1).createQueryString());
+		Assert.assertEquals("field_1:5", partitions.get(2).createQueryString());
+		Assert.assertEquals("field_1:(1 2 3 4 5)", criteria.createQueryString());
+	}
+
+	@Test
+	public void testPartitionInCriteriaWithinChain() {
+		Criteria criteria = new Criteria("field_1").in(1, 2, 3, 4).boost(2).and("field_2").is("x").or("field_3").is("y");
+		List<Criteria> partitions = criteria.partition(2);
+
+		Assert.assertEquals(2, partitions.size());
+		Assert.assertEquals("field_1:(1 2)^2.0 AND field_2:x OR field_3:y", partitions.get(0).createQueryString());
+		Assert.assertEquals("field_1:(3 4)^2.0 AND field_2:x OR field_3:y", partitions.get(1).createQueryString());
+		Assert.assertEquals("field_1:(1 2 3 4)^2.0 AND field_2:x OR field_3:y", criteria.createQueryString());
+	}
+
+	@Test
+	public void testPartitionLastCriteriaInChain() {
+		Criteria criteria = new Criteria("field_1").is("x").or("field_2").in(1, 2, 3);
+		List<Criteria> partitions = criteria.partition(2);
+
+		Assert.assertEquals(2, partitions.size());
+		Assert.assertEquals("field_1:x OR field_2:(1 2)", partitions.get(0).createQueryString());
+		Assert.assertEquals("field_1:x OR field_2:3", partitions.get(1).createQueryString());
+	}
+
+	@Test
+	public void testPartitionDoesNotSplitNegatedCriteria() {
+		Criteria criteria = new Criteria("field_1").in(1, 2, 3).not();
+		Assert.assertEquals(1, criteria.partition(2).size());
+	}
+
+	@Test
+	public void testPartitionDoesNotSplitMixedOperations() {
+		Criteria criteria = new Criteria("field_1").in(1, 2).startsWith("3");
+		Assert.assertEquals(1, criteria.partition(2).size());
+	}
+
+	@Test
+	public void testCanonicalizeOrdersAndDeduplicatesValues() {
+		Criteria criteria = new Criteria("field_1").in(3, 1, 2, 1);
+		Assert.assertEquals("field_1:(1 2 3)", criteria.canonicalize().createQueryString());
+		Assert.assertEquals("field_1:(3 1 2)", criteria.createQueryString());
+	}
+
+	@Test
+	public void testCanonicalizeOrdersConjunctions() {
+		Criteria criteria1 = new Criteria("field_2").is("b").and("field_1").is("a").and("field_3").in(2, 1);
+		Criteria criteria2 = new Criteria("field_3").in(1, 2).and("field_1").is("a").and("field_2").is("b");
+
+		Assert.assertEquals("field_1:a AND field_2:b AND field_3:(1 2)", criteria1.canonicalize().createQueryString());
+		Assert.assertEquals(criteria1.canonicalize().createQueryString(), criteria2.canonicalize().createQueryString());
+	}
+
+	@Test
+	public void testCanonicalizeOrdersDisjunctions() {
+		Criteria criteria = new Criteria("field_2").is("b").or("field_1").is("a");
+		Assert.assertEquals("field_1:a OR field_2:b", criteria.canonicalize().createQueryString());
+	}
+
+	@Test
+	public void testCanonicalizeDoesNotReorderMixedConjunctions() {
+		Criteria criteria = new Criteria("field_2").is("b").and("field_1").is("a").or("field_0").is("c");
+		Assert.assertEquals("field_2:b AND field_1:a OR field_0:c", criteria.canonicalize().createQueryString());
+	}
+
+	@Test
+	public void testCanonicalizeRemovesDuplicateConjunctions() {
+		Criteria criteria = new Criteria("field_1").is("a").and("field_2").is("b").and("field_1").is("a");
+		Assert.assertEquals("field_1:a AND field_2:b", criteria.canonicalize().createQueryString());
+	}
+
+	@Test
+	public void testCanonicalizeKeepsRangeWithEqualBounds() {
+		Criteria criteria = new Criteria("field_1").between(100, 100);
+		Assert.assertEquals("field_1:[100 TO 100]", criteria.canonicalize().createQueryString());
+		Assert.assertEquals("field_1:[100 TO *]", new Criteria("field_1").greaterThanEqual(100).canonicalize()
+				.createQueryString());
+	}
+
+	@Test
+	public void testCanonicalizeRetainsBoostAndNegation() {
+		Criteria criteria = new Criteria("field_2").in(2, 1).not().and("field_1").is("a").boost(2);
+		Assert.assertEquals("-field_2:(1 2) AND field_1:a^2.0", criteria.canonicalize().createQueryString());
+	}
+
+	@Test
+	public void testCanonicalizeFrozenCriteria() {
+		Criteria criteria = new Criteria("field_1").in(2, 1).freeze();
+		Criteria canonical = criteria.canonicalize();
+		Assert.assertTrue(canonical.isFrozen());
+		Assert.assertEquals("field_1:(1 2)", canonical.createQueryString());
+	}
+
+	@Test
+	public void testCanonicalizeLeavesStringCriteriaUntouched() {
+		Criteria criteria = new SimpleStringCriteria("field_1:value_1");
+		Assert.assertSame(criteria, criteria.canonicalize());
+	}
+
 }
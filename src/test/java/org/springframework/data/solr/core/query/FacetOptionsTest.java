@@ -17,6 +17,8 @@ package org.springframework.data.solr.core.query;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.solr.core.query.FacetOptions.FacetMethod;
 import org.springframework.data.solr.core.query.FacetOptions.FacetSort;
 
 /**
@@ -112,4 +114,43 @@ public class FacetOptionsTest {
 		Assert.assertEquals(0, options.getFacetMinCount());
 	}
 
+	@Test
+	public void testHasFacetsWithRangesAndQueriesOnly() {
+		FacetOptions options = new FacetOptions();
+		Assert.assertFalse(options.hasFacets());
+
+		options.addFacetByRange(new FacetRange("field_1", 0, 10, 1));
+		Assert.assertFalse(options.hasFields());
+		Assert.assertTrue(options.hasFacets());
+
+		options = new FacetOptions().addFacetQuery(new SimpleQuery(new Criteria("field_1").is("value_1")));
+		Assert.assertTrue(options.hasFacets());
+	}
+
+	@Test
+	public void testSetFacetMethodForField() {
+		FacetOptions options = new FacetOptions("field_1").setFacetMethod("field_1", FacetMethod.ENUM);
+		Assert.assertNull(options.getFacetMethod());
+		Assert.assertEquals(FacetMethod.ENUM, options.getFieldFacetMethods().get("field_1"));
+	}
+
+	@Test
+	public void testSetFacetEnumCacheMinDf() {
+		FacetOptions options = new FacetOptions();
+		Assert.assertNull(options.getFacetEnumCacheMinDf());
+
+		options.setFacetEnumCacheMinDf(-1);
+		Assert.assertEquals(Integer.valueOf(0), options.getFacetEnumCacheMinDf());
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFrozenOptionsRejectFacetRange() {
+		new FacetOptions("field_1").freeze().addFacetByRange(new FacetRange("field_2", 0, 10, 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFacetRangeWithoutGap() {
+		new FacetRange("field_1", 0, 10, null);
+	}
+
 }
@@ -22,6 +22,7 @@ import java.util.TimeZone;
 
 import javax.xml.parsers.ParserConfigurationException;
 
+import org.apache.solr.common.SolrDocumentList;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.junit.After;
@@ -29,6 +30,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.solr.AbstractITestWithEmbeddedSolrServer;
 import org.springframework.data.solr.ExampleSolrBean;
 import org.springframework.data.solr.core.SolrTemplate;
@@ -142,4 +144,34 @@ public class ITestCriteriaExecution extends AbstractITestWithEmbeddedSolrServer
 
 		Assert.assertEquals(1, result.getContent().size());
 	}
+
+	@Test
+	public void testBoundingBoxWithDistanceSorting() {
+		ExampleSolrBean searchableBeanInBuffalow = createExampleBeanWithId("1");
+		searchableBeanInBuffalow.setStore("45.17614,-93.87341");
+
+		ExampleSolrBean searchableBeanCloseToBuffalow = createExampleBeanWithId("2");
+		searchableBeanCloseToBuffalow.setStore("45.15,-93.86");
+
+		ExampleSolrBean searchableBeanInNYC = createExampleBeanWithId("3");
+		searchableBeanInNYC.setStore("40.7143,-74.006");
+
+		solrTemplate.executeAddBeans(Arrays.asList(searchableBeanInBuffalow, searchableBeanCloseToBuffalow,
+				searchableBeanInNYC));
+		solrTemplate.executeCommit();
+
+		SimpleQuery query = new SimpleQuery(new SimpleStringCriteria("*:*"));
+		query.addFilterQuery(new SimpleFilterQuery(new Criteria("store").withinBoundingBox(new GeoLocation(45.15, -93.85),
+				new Distance(5))));
+		query.setGeoDistanceOptions(new GeoDistanceOptions("store", new GeoLocation(45.15, -93.85)).setSortDirection(
+				Sort.Direction.DESC).setDistanceFieldName("distance"));
+
+		SolrDocumentList result = solrTemplate.executeQuery(query).getResults();
+
+		Assert.assertEquals(2, result.size());
+		Assert.assertEquals("1", result.get(0).getFieldValue("id"));
+		Assert.assertEquals(3.44, (Double) result.get(0).getFieldValue("distance"), 0.01);
+		Assert.assertEquals("2", result.get(1).getFieldValue("id"));
+		Assert.assertEquals(0.78, (Double) result.get(1).getFieldValue("distance"), 0.01);
+	}
 }
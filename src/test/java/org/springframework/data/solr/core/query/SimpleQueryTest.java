@@ -20,10 +20,12 @@ import java.util.List;
 import org.apache.commons.lang.StringUtils;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.solr.core.geo.GeoLocation;
 
 /**
  * @author Christoph Strobl
@@ -216,6 +218,65 @@ public class SimpleQueryTest {
 		Assert.assertEquals(source.getSort(), destination.getSort());
 	}
 
+	@Test
+	public void testCloneQueryWithPageRequest() {
+		Query source = new SimpleQuery(new Criteria("field_1").is("value_1"), new PageRequest(2, 5));
+
+		Query destination = SimpleQuery.fromQuery(source);
+		Assert.assertEquals(source.getPageRequest(), destination.getPageRequest());
+	}
+
+	@Test
+	public void testFreeze() {
+		SimpleFilterQuery filterQuery = new SimpleFilterQuery(new Criteria("field_2").is("value_2"));
+		Query query = new SimpleQuery(new Criteria("field_1").is("value_1")).addFilterQuery(filterQuery).freeze();
+
+		Assert.assertTrue(query.isFrozen());
+		Assert.assertTrue(query.getCriteria().isFrozen());
+		Assert.assertTrue(filterQuery.isFrozen());
+		Assert.assertTrue(filterQuery.getCriteria().isFrozen());
+	}
+
+	@Test
+	public void testFreezeRendersSolrQuery() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").in(2, 1));
+		Assert.assertNull(query.getFrozenSolrQuery(false));
+
+		query.freeze();
+		Assert.assertEquals("field_1:(2 1)", query.getFrozenSolrQuery(false).getQuery());
+		Assert.assertEquals("field_1:(1 2)", query.getFrozenSolrQuery(true).getQuery());
+		Assert.assertNotSame(query.getFrozenSolrQuery(false), query.getFrozenSolrQuery(false));
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFrozenQueryRejectsPageRequest() {
+		Query query = new SimpleQuery(new Criteria("field_1").is("value_1")).freeze();
+		query.setPageRequest(new PageRequest(0, 1));
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFrozenQueryRejectsAdditionalCriteria() {
+		Query query = new SimpleQuery(new Criteria("field_1").is("value_1")).freeze();
+		query.addCriteria(new Criteria("field_2").is("value_2"));
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFrozenFacetQueryRejectsFacetOptionModification() {
+		FacetOptions facetOptions = new FacetOptions("field_2");
+		new SimpleFacetQuery(new Criteria("field_1").is("value_1")).setFacetOptions(facetOptions).freeze();
+		facetOptions.setFacetLimit(5);
+	}
+
+	@Test
+	public void testCloneFrozenQueryIsModifiable() {
+		Query source = new SimpleQuery(new Criteria("field_1").is("value_1")).freeze();
+
+		Query destination = SimpleQuery.fromQuery(source);
+		Assert.assertFalse(destination.isFrozen());
+		destination.setPageRequest(new PageRequest(0, 1));
+		Assert.assertEquals("field_1:value_1", destination.getCriteria().getQueryString());
+	}
+
 	@Test
 	public void testAddSort() {
 		Sort sort = new Sort("field_2", "field_3");
@@ -258,4 +319,91 @@ public class SimpleQueryTest {
 		Assert.assertNotNull(query.getSort().getOrderFor("field_3"));
 	}
 
+	@Test
+	public void testCloneQueryWithStatsOptions() {
+		SimpleQuery source = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		source.setStatsOptions(new StatsOptions("field_2").addFacet("field_3"));
+
+		SimpleQuery destination = (SimpleQuery) SimpleQuery.fromQuery(source);
+		Assert.assertSame(source.getStatsOptions(), destination.getStatsOptions());
+		Assert.assertTrue(destination.hasStatsOptions());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetStatsOptionsWithoutFields() {
+		new SimpleQuery(new Criteria("field_1").is("value_1")).setStatsOptions(new StatsOptions());
+	}
+
+	@Test
+	public void testCloneQueryWithTimeAllowed() {
+		SimpleQuery source = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		source.setTimeAllowed(100);
+
+		Assert.assertEquals(Integer.valueOf(100), ((SimpleQuery) SimpleQuery.fromQuery(source)).getTimeAllowed());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetTimeAllowedNotPositive() {
+		new SimpleQuery(new Criteria("field_1").is("value_1")).setTimeAllowed(0);
+	}
+
+	@Test
+	public void testCloneQueryWithGroupOptions() {
+		SimpleQuery source = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		source.setGroupOptions(new GroupOptions("field_2").setLimit(3));
+
+		SimpleQuery destination = (SimpleQuery) SimpleQuery.fromQuery(source);
+		Assert.assertSame(source.getGroupOptions(), destination.getGroupOptions());
+		Assert.assertTrue(destination.hasGroupOptions());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetGroupOptionsWithoutGroups() {
+		new SimpleQuery(new Criteria("field_1").is("value_1")).setGroupOptions(new GroupOptions());
+	}
+
+	@Test
+	public void testCloneQueryWithGeoDistanceOptions() {
+		SimpleQuery source = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		source.setGeoDistanceOptions(new GeoDistanceOptions("store", new GeoLocation(48.303056, 14.290556)));
+
+		SimpleQuery destination = (SimpleQuery) SimpleQuery.fromQuery(source);
+		Assert.assertSame(source.getGeoDistanceOptions(), destination.getGeoDistanceOptions());
+		Assert.assertTrue(destination.hasGeoDistanceOptions());
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFreezeQueryFreezesGeoDistanceOptions() {
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		query.setGeoDistanceOptions(new GeoDistanceOptions("store", new GeoLocation(48.303056, 14.290556)));
+		query.freeze();
+
+		query.getGeoDistanceOptions().setDistanceFieldName("distance");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGroupOptionsRejectInvalidCachePercent() {
+		new GroupOptions("field_1").setCachePercent(101);
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFreezeQueryFreezesGroupOptions() {
+		GroupOptions groupOptions = new GroupOptions("field_2");
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		query.setGroupOptions(groupOptions);
+		query.freeze();
+
+		groupOptions.setLimit(10);
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void testFreezeQueryFreezesStatsOptions() {
+		StatsOptions statsOptions = new StatsOptions("field_2");
+		SimpleQuery query = new SimpleQuery(new Criteria("field_1").is("value_1"));
+		query.setStatsOptions(statsOptions);
+		query.freeze();
+
+		statsOptions.addField("field_3");
+	}
+
 }
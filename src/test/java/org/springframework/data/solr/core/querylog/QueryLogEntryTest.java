@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.querylog;
+
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Strobl
+ */
+public class QueryLogEntryTest {
+
+	@Test
+	public void testToLine() {
+		SolrQuery solrQuery = new SolrQuery("name:foo bar");
+		solrQuery.setRows(10);
+
+		Assert.assertEquals("1350000000000 q=name%3Afoo+bar&rows=10", new QueryLogEntry(1350000000000L, solrQuery).toLine());
+	}
+
+	@Test
+	public void testParseRoundtrip() {
+		SolrQuery solrQuery = new SolrQuery("name:\"foo & bar\"");
+		solrQuery.addFilterQuery("cat:a", "cat:b");
+		solrQuery.setParam("pt", "48.303056,14.290556");
+
+		QueryLogEntry entry = QueryLogEntry.parse(new QueryLogEntry(1350000000000L, solrQuery).toLine());
+		Assert.assertEquals(1350000000000L, entry.getTimestamp());
+		Assert.assertEquals("name:\"foo & bar\"", entry.getParams().get("q"));
+		Assert.assertArrayEquals(new String[] { "cat:a", "cat:b" }, entry.getParams().getParams("fq"));
+		Assert.assertEquals("48.303056,14.290556", entry.getParams().get("pt"));
+	}
+
+	@Test
+	public void testParamsAreCopied() {
+		SolrQuery solrQuery = new SolrQuery("name:foo");
+		QueryLogEntry entry = new QueryLogEntry(1350000000000L, solrQuery);
+		solrQuery.setQuery("name:bar");
+
+		Assert.assertEquals("name:foo", entry.getParams().get("q"));
+		Assert.assertEquals("q=name%3Afoo", entry.getQueryString());
+	}
+
+	@Test
+	public void testParseInvalidLines() {
+		Assert.assertNull(QueryLogEntry.parse(null));
+		Assert.assertNull(QueryLogEntry.parse(""));
+		Assert.assertNull(QueryLogEntry.parse("q=name%3Afoo"));
+		Assert.assertNull(QueryLogEntry.parse("ts q=name%3Afoo"));
+	}
+
+	@Test
+	public void testParseLineWithoutParams() {
+		QueryLogEntry entry = QueryLogEntry.parse("1350000000000 ");
+		Assert.assertEquals(1350000000000L, entry.getTimestamp());
+		Assert.assertFalse(entry.getParams().getParameterNamesIterator().hasNext());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCreateWithNullParams() {
+		new QueryLogEntry(0, (ModifiableSolrParams) null);
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.querylog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.params.SolrParams;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.solr.SolrServerFactory;
+
+/**
+ * @author Christoph Strobl
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class QueryLogReplayerTest {
+
+	private @Mock SolrServerFactory solrServerFactoryMock;
+	private @Mock SolrServer solrServerMock;
+
+	private QueryLogReplayer replayer;
+
+	@Before
+	public void setUp() {
+		Mockito.when(solrServerFactoryMock.getSolrServer()).thenReturn(solrServerMock);
+		replayer = new QueryLogReplayer(solrServerFactoryMock);
+	}
+
+	@Test
+	public void testReplay() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class), Matchers.any(SolrRequest.METHOD.class)))
+				.thenReturn(new QueryResponse());
+
+		ReplayReport report = replayer.replay(Arrays.asList(createEntry(0, "name:foo"), createEntry(10, "name:bar")));
+
+		Assert.assertEquals(2, report.getQueryCount());
+		Assert.assertEquals(0, report.getErrorCount());
+
+		ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+		Mockito.verify(solrServerMock, Mockito.times(2)).query(captor.capture(), Matchers.eq(SolrRequest.METHOD.POST));
+		Assert.assertEquals("name:foo", captor.getAllValues().get(0).get("q"));
+		Assert.assertEquals("name:bar", captor.getAllValues().get(1).get("q"));
+	}
+
+	@Test
+	public void testReplayRetainsPace() {
+		replayer.setSpeed(2);
+		ReplayReport report = replayer.replay(Arrays.asList(createEntry(1000, "name:foo"), createEntry(1400, "name:bar")));
+
+		Assert.assertTrue(report.getDurationMillis() >= 200);
+	}
+
+	@Test
+	public void testReplayMeasuresLatencyFromScheduledTime() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class), Matchers.any(SolrRequest.METHOD.class)))
+				.thenAnswer(new Answer<QueryResponse>() {
+
+					@Override
+					public QueryResponse answer(InvocationOnMock invocation) throws Throwable {
+						Thread.sleep(200);
+						return new QueryResponse();
+					}
+
+				});
+
+		ReplayReport report = replayer.replay(Arrays.asList(createEntry(0, "name:foo"), createEntry(0, "name:bar")));
+
+		Assert.assertTrue(report.getMaxLatency() >= 350);
+	}
+
+	@Test
+	public void testReplayFromIterator() {
+		replayer.setSpeed(0);
+		Iterator<QueryLogEntry> entries = Arrays.asList(createEntry(0, "name:foo"), createEntry(1, "name:bar"))
+				.iterator();
+
+		Assert.assertEquals(2, replayer.replay(entries).getQueryCount());
+		Assert.assertFalse(entries.hasNext());
+	}
+
+	@Test
+	public void testReplayAsFastAsPossible() {
+		replayer.setSpeed(0);
+		ReplayReport report = replayer.replay(Arrays.asList(createEntry(0, "name:foo"), createEntry(60000, "name:bar")));
+
+		Assert.assertEquals(2, report.getQueryCount());
+		Assert.assertTrue(report.getDurationMillis() < 60000);
+	}
+
+	@Test
+	public void testReplayCountsErrors() throws SolrServerException {
+		Mockito.when(solrServerMock.query(Matchers.any(SolrParams.class), Matchers.any(SolrRequest.METHOD.class)))
+				.thenThrow(new SolrServerException("error")).thenReturn(new QueryResponse());
+		replayer.setSpeed(0);
+
+		ReplayReport report = replayer.replay(Arrays.asList(createEntry(0, "name:foo"), createEntry(0, "name:bar")));
+
+		Assert.assertEquals(2, report.getQueryCount());
+		Assert.assertEquals(1, report.getErrorCount());
+	}
+
+	@Test
+	public void testReplayConcurrently() throws SolrServerException {
+		replayer.setConcurrency(4);
+		replayer.setSpeed(0);
+		List<QueryLogEntry> entries = new ArrayList<QueryLogEntry>();
+		for (int i = 0; i < 20; i++) {
+			entries.add(createEntry(i, "name:foo" + i));
+		}
+
+		Assert.assertEquals(20, replayer.replay(entries).getQueryCount());
+		Mockito.verify(solrServerMock, Mockito.times(20)).query(Matchers.any(SolrParams.class),
+				Matchers.any(SolrRequest.METHOD.class));
+	}
+
+	@Test
+	public void testWarmUpExecutesMostFrequentQueriesOnce() throws SolrServerException {
+		List<QueryLogEntry> entries = Arrays.asList(createEntry(0, "name:foo"), createEntry(1, "name:bar"),
+				createEntry(2, "name:bar"), createEntry(3, "name:baz"), createEntry(4, "name:bar"),
+				createEntry(60000, "name:baz"));
+
+		ReplayReport report = replayer.warmUp(entries, 2);
+
+		Assert.assertEquals(2, report.getQueryCount());
+		ArgumentCaptor<SolrParams> captor = ArgumentCaptor.forClass(SolrParams.class);
+		Mockito.verify(solrServerMock, Mockito.times(2)).query(captor.capture(), Matchers.any(SolrRequest.METHOD.class));
+		Assert.assertEquals("name:bar", captor.getAllValues().get(0).get("q"));
+		Assert.assertEquals("name:baz", captor.getAllValues().get(1).get("q"));
+	}
+
+	@Test
+	public void testSelectMostFrequentWithLessDistinctQueries() {
+		List<QueryLogEntry> selected = QueryLogReplayer.selectMostFrequent(
+				Arrays.asList(createEntry(0, "name:foo"), createEntry(1, "name:foo")).iterator(), 10);
+
+		Assert.assertEquals(1, selected.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetConcurrencyNotPositive() {
+		replayer.setConcurrency(0);
+	}
+
+	private QueryLogEntry createEntry(long timestamp, String query) {
+		return new QueryLogEntry(timestamp, new SolrQuery(query));
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.querylog;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Christoph Strobl
+ */
+public class QueryLogWriterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+
+	@Before
+	public void setUp() {
+		file = new File(folder.getRoot(), "query.log");
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		QueryLogWriter writer = new QueryLogWriter(file);
+		writer.append(new QueryLogEntry(1000, new SolrQuery("name:foo")));
+		writer.append(new QueryLogEntry(2000, new SolrQuery("name:bar")));
+		writer.close();
+
+		List<QueryLogEntry> entries = QueryLogReader.read(file);
+		Assert.assertEquals(2, entries.size());
+		Assert.assertEquals(1000, entries.get(0).getTimestamp());
+		Assert.assertEquals("name:foo", entries.get(0).getParams().get("q"));
+		Assert.assertEquals(2000, entries.get(1).getTimestamp());
+		Assert.assertEquals("name:bar", entries.get(1).getParams().get("q"));
+	}
+
+	@Test
+	public void testAppendsToExistingLog() throws IOException {
+		QueryLogWriter writer = new QueryLogWriter(file);
+		writer.append(new SolrQuery("name:foo"));
+		writer.close();
+
+		writer = new QueryLogWriter(file);
+		writer.append(new SolrQuery("name:bar"));
+		writer.destroy();
+
+		Assert.assertEquals(2, QueryLogReader.read(file).size());
+	}
+
+	@Test
+	public void testAppendAfterCloseIsIgnored() throws IOException {
+		QueryLogWriter writer = new QueryLogWriter(file);
+		writer.close();
+		writer.append(new SolrQuery("name:foo"));
+		writer.flush();
+		writer.close();
+
+		Assert.assertTrue(QueryLogReader.read(file).isEmpty());
+	}
+
+	@Test
+	public void testReadSkipsInvalidLines() throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			IOUtils.write("1000 q=name%3Afoo\n\ninvalid\n2000 q=name%3Abar\n3000 q=name%3Abaz", out, "UTF-8");
+		} finally {
+			out.close();
+		}
+
+		List<QueryLogEntry> entries = QueryLogReader.read(file);
+		Assert.assertEquals(3, entries.size());
+		Assert.assertEquals(3000, entries.get(2).getTimestamp());
+	}
+
+	@Test
+	public void testIterateEntries() throws IOException {
+		QueryLogWriter writer = new QueryLogWriter(file);
+		writer.append(new QueryLogEntry(1000, new SolrQuery("name:foo")));
+		writer.append(new QueryLogEntry(2000, new SolrQuery("name:bar")));
+		writer.close();
+
+		QueryLogReader reader = new QueryLogReader(file);
+		try {
+			Assert.assertTrue(reader.hasNext());
+			Assert.assertEquals(1000, reader.next().getTimestamp());
+			Assert.assertEquals(2000, reader.next().getTimestamp());
+			Assert.assertFalse(reader.hasNext());
+		} finally {
+			reader.close();
+		}
+	}
+
+}
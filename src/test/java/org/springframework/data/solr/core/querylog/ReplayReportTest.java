@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.querylog;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Christoph Strobl
+ */
+public class ReplayReportTest {
+
+	@Test
+	public void testLatencyPercentiles() {
+		long[] latencies = new long[100];
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = TimeUnit.MILLISECONDS.toNanos(100 - i);
+		}
+		ReplayReport report = new ReplayReport(latencies, 0, TimeUnit.SECONDS.toNanos(2));
+
+		Assert.assertEquals(50, report.getLatencyPercentile(50), 0);
+		Assert.assertEquals(90, report.getLatencyPercentile(90), 0);
+		Assert.assertEquals(99, report.getLatencyPercentile(99), 0);
+		Assert.assertEquals(100, report.getLatencyPercentile(100), 0);
+		Assert.assertEquals(1, report.getLatencyPercentile(0.1), 0);
+		Assert.assertEquals(100, report.getMaxLatency(), 0);
+	}
+
+	@Test
+	public void testThroughput() {
+		ReplayReport report = new ReplayReport(new long[] { 1, 2, 3 }, 1, TimeUnit.SECONDS.toNanos(2));
+
+		Assert.assertEquals(4, report.getQueryCount());
+		Assert.assertEquals(1, report.getErrorCount());
+		Assert.assertEquals(2000, report.getDurationMillis());
+		Assert.assertEquals(2, report.getThroughput(), 0);
+	}
+
+	@Test
+	public void testEmptyReport() {
+		ReplayReport report = new ReplayReport(new long[0], 0, 0);
+
+		Assert.assertEquals(0, report.getQueryCount());
+		Assert.assertEquals(0, report.getThroughput(), 0);
+		Assert.assertEquals(0, report.getLatencyPercentile(99), 0);
+		Assert.assertEquals(0, report.getMaxLatency(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPercentile() {
+		new ReplayReport(new long[] { 1 }, 0, 1).getLatencyPercentile(101);
+	}
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.transaction;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.NamedList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.data.solr.SolrServerFactory;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * @author Christoph Strobl
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SolrTransactionManagerTest {
+
+	private @Mock SolrServer solrServerMock;
+
+	private TransactionTemplate transactionTemplate;
+
+	@Before
+	public void setUp() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.request(Matchers.any(SolrRequest.class))).thenReturn(new NamedList<Object>());
+		transactionTemplate = new TransactionTemplate(new SolrTransactionManager(solrServerMock));
+	}
+
+	@After
+	public void tearDown() {
+		Assert.assertFalse(TransactionSynchronizationManager.hasResource(solrServerMock));
+	}
+
+	@Test
+	public void testCommitFlushesBufferedUpdates() throws SolrServerException, IOException {
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				SolrUpdateBuffer buffer = SolrTransactionUtils.getUpdateBuffer(solrServerMock, false);
+				Assert.assertNotNull(buffer);
+				buffer.add(Arrays.asList(createDocument("1"), createDocument("2")));
+				buffer.deleteById(Arrays.asList("3"));
+			}
+		});
+
+		ArgumentCaptor<UpdateRequest> captor = ArgumentCaptor.forClass(UpdateRequest.class);
+		Mockito.verify(solrServerMock, Mockito.times(1)).request(captor.capture());
+		Assert.assertEquals(2, captor.getValue().getDocuments().size());
+		Assert.assertEquals(Arrays.asList("3"), captor.getValue().getDeleteById());
+	}
+
+	@Test
+	public void testRollbackDiscardsBufferedUpdates() {
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				SolrTransactionUtils.getUpdateBuffer(solrServerMock, false).add(Arrays.asList(createDocument("1")));
+				status.setRollbackOnly();
+			}
+		});
+
+		Mockito.verifyZeroInteractions(solrServerMock);
+	}
+
+	@Test
+	public void testParticipatingTransactionSharesBuffer() throws SolrServerException, IOException {
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				final SolrUpdateBuffer outer = SolrTransactionUtils.getUpdateBuffer(solrServerMock, false);
+				outer.add(Arrays.asList(createDocument("1")));
+				transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+					@Override
+					protected void doInTransactionWithoutResult(TransactionStatus status) {
+						Assert.assertSame(outer, SolrTransactionUtils.getUpdateBuffer(solrServerMock, false));
+						outer.add(Arrays.asList(createDocument("2")));
+					}
+				});
+				Assert.assertEquals(2, outer.getDocumentCount());
+			}
+		});
+
+		Mockito.verify(solrServerMock, Mockito.times(1)).request(Matchers.any(UpdateRequest.class));
+	}
+
+	@Test
+	public void testFailingCommitDoesNotRollBackUpdatesOfOtherClients() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.request(Matchers.any(SolrRequest.class))).thenThrow(
+				new SolrServerException("Server unavailable"));
+
+		try {
+			transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+				@Override
+				protected void doInTransactionWithoutResult(TransactionStatus status) {
+					SolrTransactionUtils.getUpdateBuffer(solrServerMock, false).add(Arrays.asList(createDocument("1")));
+				}
+			});
+			Assert.fail("Expected TransactionSystemException");
+		} catch (TransactionSystemException e) {
+			Assert.assertTrue(e.getCause() instanceof SolrServerException);
+		}
+		Mockito.verify(solrServerMock, Mockito.never()).rollback();
+	}
+
+	@Test
+	public void testExpiredTimeoutFailsCommitWithoutSendingUpdates() {
+		transactionTemplate.setTimeout(1);
+		try {
+			transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+				@Override
+				protected void doInTransactionWithoutResult(TransactionStatus status) {
+					SolrUpdateBuffer buffer = SolrTransactionUtils.getUpdateBuffer(solrServerMock, false);
+					buffer.add(Arrays.asList(createDocument("1")));
+					buffer.setTimeoutInMillis(0);
+				}
+			});
+			Assert.fail("Expected TransactionTimedOutException");
+		} catch (TransactionTimedOutException e) {
+			// expected
+		}
+		Mockito.verifyZeroInteractions(solrServerMock);
+	}
+
+	@Test
+	public void testBufferIsBoundToServerResolvedPerTransaction() {
+		final SolrServer otherSolrServerMock = Mockito.mock(SolrServer.class);
+		SolrServerFactory solrServerFactoryMock = Mockito.mock(SolrServerFactory.class);
+		Mockito.when(solrServerFactoryMock.getSolrServer()).thenReturn(solrServerMock, otherSolrServerMock);
+		TransactionTemplate template = new TransactionTemplate(new SolrTransactionManager(solrServerFactoryMock));
+
+		template.execute(new TransactionCallbackWithoutResult() {
+
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				Assert.assertNotNull(SolrTransactionUtils.getUpdateBuffer(solrServerMock, false));
+			}
+		});
+		template.execute(new TransactionCallbackWithoutResult() {
+
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				Assert.assertNull(SolrTransactionUtils.getUpdateBuffer(solrServerMock, false));
+				Assert.assertNotNull(SolrTransactionUtils.getUpdateBuffer(otherSolrServerMock, false));
+			}
+		});
+		Assert.assertFalse(TransactionSynchronizationManager.hasResource(otherSolrServerMock));
+	}
+
+	@Test
+	public void testNoBufferOutsideTransaction() {
+		Assert.assertNull(SolrTransactionUtils.getUpdateBuffer(solrServerMock, true));
+	}
+
+	@Test
+	public void testNoBufferWithinForeignTransactionUnlessSynchronizing() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			Assert.assertNull(SolrTransactionUtils.getUpdateBuffer(solrServerMock, false));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void testSynchronizationFlushesAfterCommitOfForeignTransaction() throws SolrServerException, IOException {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			SolrTransactionUtils.getUpdateBuffer(solrServerMock, true).add(Arrays.asList(createDocument("1")));
+			Mockito.verifyZeroInteractions(solrServerMock);
+
+			List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+			TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+			TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+					TransactionSynchronization.STATUS_COMMITTED);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		Mockito.verify(solrServerMock, Mockito.times(1)).request(Matchers.any(UpdateRequest.class));
+	}
+
+	@Test
+	public void testSynchronizationDiscardsUpdatesOfRolledBackForeignTransaction() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			SolrTransactionUtils.getUpdateBuffer(solrServerMock, true).add(Arrays.asList(createDocument("1")));
+
+			TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+					TransactionSynchronization.STATUS_ROLLED_BACK);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		Mockito.verifyZeroInteractions(solrServerMock);
+	}
+
+	private static SolrInputDocument createDocument(String id) {
+		SolrInputDocument document = new SolrInputDocument();
+		document.addField("id", id);
+		return document;
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.transaction;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.UpdateParams;
+import org.apache.solr.common.util.NamedList;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author Christoph Strobl
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SolrUpdateBufferTest {
+
+	private @Mock SolrServer solrServerMock;
+
+	private SolrUpdateBuffer buffer;
+
+	@Before
+	public void setUp() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.request(Matchers.any(SolrRequest.class))).thenReturn(new NamedList<Object>());
+		buffer = new SolrUpdateBuffer();
+	}
+
+	@Test
+	public void testFlushSendsAllUpdatesInSingleRequestWithCommit() throws SolrServerException, IOException {
+		for (int i = 0; i < 200; i++) {
+			buffer.add(Collections.singletonList(createDocument(Integer.toString(i))));
+		}
+		buffer.deleteById(Arrays.asList("300", "301"));
+		Assert.assertEquals(200, buffer.getDocumentCount());
+
+		buffer.flush(solrServerMock);
+
+		List<UpdateRequest> requests = captureRequests(1);
+		Assert.assertEquals(200, requests.get(0).getDocuments().size());
+		Assert.assertEquals(Arrays.asList("300", "301"), requests.get(0).getDeleteById());
+		Assert.assertEquals("true", requests.get(0).getParams().get(UpdateParams.COMMIT));
+		Assert.assertTrue(buffer.isEmpty());
+	}
+
+	@Test
+	public void testAddFollowingDeleteStartsNewRequest() throws SolrServerException, IOException {
+		buffer.deleteByQuery("*:*");
+		buffer.add(Collections.singletonList(createDocument("1")));
+
+		buffer.flush(solrServerMock);
+
+		List<UpdateRequest> requests = captureRequests(2);
+		Assert.assertEquals(Arrays.asList("*:*"), requests.get(0).getDeleteQuery());
+		Assert.assertNull(requests.get(0).getDocuments());
+		Assert.assertNull(requests.get(0).getParams());
+		Assert.assertEquals(1, requests.get(1).getDocuments().size());
+		Assert.assertEquals("true", requests.get(1).getParams().get(UpdateParams.COMMIT));
+	}
+
+	@Test
+	public void testFlushEmptyBufferDoesNotSendAnything() throws SolrServerException, IOException {
+		Assert.assertNull(buffer.flush(solrServerMock));
+		Mockito.verifyZeroInteractions(solrServerMock);
+	}
+
+	@Test
+	public void testDiscardDropsBufferedUpdates() throws SolrServerException, IOException {
+		buffer.add(Collections.singletonList(createDocument("1")));
+		buffer.deleteById(Collections.singletonList("2"));
+
+		buffer.discard();
+		Assert.assertTrue(buffer.isEmpty());
+		Assert.assertEquals(0, buffer.getDocumentCount());
+
+		buffer.flush(solrServerMock);
+		Mockito.verifyZeroInteractions(solrServerMock);
+	}
+
+	@Test
+	public void testEmptyCollectionsAreIgnored() {
+		buffer.add(Collections.<SolrInputDocument> emptyList());
+		buffer.deleteById(Collections.<String> emptyList());
+		Assert.assertTrue(buffer.isEmpty());
+	}
+
+	private List<UpdateRequest> captureRequests(int expectedCount) throws SolrServerException, IOException {
+		ArgumentCaptor<UpdateRequest> captor = ArgumentCaptor.forClass(UpdateRequest.class);
+		Mockito.verify(solrServerMock, Mockito.times(expectedCount)).request(captor.capture());
+		return captor.getAllValues();
+	}
+
+	private static SolrInputDocument createDocument(String id) {
+		SolrInputDocument document = new SolrInputDocument();
+		document.addField("id", id);
+		return document;
+	}
+
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.writebehind;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrException.ErrorCode;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.solr.SolrServerFactory;
+
+/**
+ * @author Christoph Strobl
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CoalescingUpdateBufferTest {
+
+	private @Mock SolrServerFactory solrServerFactoryMock;
+	private @Mock SolrServer solrServerMock;
+
+	private CoalescingUpdateBuffer buffer;
+
+	@Before
+	public void setUp() {
+		Mockito.when(solrServerFactoryMock.getSolrServer()).thenReturn(solrServerMock);
+		buffer = new CoalescingUpdateBuffer(solrServerFactoryMock);
+		buffer.setFlushWindow(0);
+		buffer.afterPropertiesSet();
+	}
+
+	@After
+	public void tearDown() {
+		buffer.destroy();
+	}
+
+	@Test
+	public void testRepeatedUpdatesAreCoalesced() throws SolrServerException, IOException {
+		for (int i = 0; i < 50; i++) {
+			add(createDocument("1", "version-" + i));
+		}
+		add(createDocument("2", "version-0"));
+		Assert.assertEquals(2, buffer.getPendingCount());
+		Assert.assertEquals(49, buffer.getCoalescedCount());
+
+		Assert.assertTrue(buffer.flush());
+
+		List<SolrInputDocument> sent = captureAddedDocuments(1);
+		Assert.assertEquals(2, sent.size());
+		for (SolrInputDocument document : sent) {
+			if ("1".equals(document.getFieldValue("id"))) {
+				Assert.assertEquals("version-49", document.getFieldValue("name"));
+			}
+		}
+		Mockito.verify(solrServerMock, Mockito.times(1)).commit();
+		Assert.assertEquals(0, buffer.getPendingCount());
+		Assert.assertEquals(2, buffer.getFlushedCount());
+	}
+
+	@Test
+	public void testDeleteReplacesPendingAdd() throws SolrServerException, IOException {
+		add(createDocument("1", "foo"));
+		buffer.deleteById(Arrays.asList("1"));
+
+		buffer.flush();
+
+		Mockito.verify(solrServerMock, Mockito.never()).add(Matchers.anyCollectionOf(SolrInputDocument.class));
+		Mockito.verify(solrServerMock, Mockito.times(1)).deleteById(Arrays.asList("1"));
+		Mockito.verify(solrServerMock, Mockito.times(1)).commit();
+	}
+
+	@Test
+	public void testAddReplacesPendingDelete() throws SolrServerException, IOException {
+		buffer.deleteById(Arrays.asList("1"));
+		add(createDocument("1", "foo"));
+
+		buffer.flush();
+
+		Mockito.verify(solrServerMock, Mockito.never()).deleteById(Matchers.anyListOf(String.class));
+		Assert.assertEquals(1, captureAddedDocuments(1).size());
+	}
+
+	@Test
+	public void testDocumentsWithoutIdAreNotCoalesced() throws SolrServerException, IOException {
+		SolrInputDocument document = new SolrInputDocument();
+		document.addField("name", "foo");
+		buffer.add(Arrays.asList(document, document));
+		Assert.assertEquals(2, buffer.getPendingCount());
+
+		buffer.flush();
+
+		Assert.assertEquals(2, captureAddedDocuments(1).size());
+	}
+
+	@Test
+	public void testFlushWithoutPendingUpdates() {
+		Assert.assertTrue(buffer.flush());
+		Mockito.verifyZeroInteractions(solrServerMock);
+	}
+
+	@Test
+	public void testFailedFlushKeepsUpdates() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.add(Matchers.anyCollectionOf(SolrInputDocument.class)))
+				.thenThrow(new SolrServerException("unavailable")).thenReturn(new UpdateResponse());
+		add(createDocument("1", "foo"));
+
+		Assert.assertFalse(buffer.flush());
+		Assert.assertEquals(1, buffer.getPendingCount());
+		Assert.assertEquals(1, buffer.getFlushFailures());
+
+		add(createDocument("1", "bar"));
+		Assert.assertTrue(buffer.flush());
+
+		List<SolrInputDocument> sent = captureAddedDocuments(2);
+		Assert.assertEquals("bar", sent.get(0).getFieldValue("name"));
+		Assert.assertEquals(0, buffer.getPendingCount());
+	}
+
+	@Test
+	public void testRejectedDocumentIsSkipped() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.add(Matchers.anyCollectionOf(SolrInputDocument.class))).thenAnswer(
+				new Answer<UpdateResponse>() {
+
+					@Override
+					public UpdateResponse answer(InvocationOnMock invocation) {
+						for (Object document : (Collection<?>) invocation.getArguments()[0]) {
+							if ("3".equals(((SolrInputDocument) document).getFieldValue("id"))) {
+								throw new SolrException(ErrorCode.BAD_REQUEST, "rejected");
+							}
+						}
+						return new UpdateResponse();
+					}
+
+				});
+		add(createDocument("1", "foo"), createDocument("2", "foo"), createDocument("3", "foo"),
+				createDocument("4", "foo"));
+
+		Assert.assertTrue(buffer.flush());
+		Assert.assertEquals(0, buffer.getPendingCount());
+		Assert.assertEquals(3, buffer.getFlushedCount());
+		Assert.assertEquals(1, buffer.getDeadLetterCount());
+	}
+
+	@Test
+	public void testWriterFlushesFullBuffer() throws SolrServerException, IOException {
+		buffer.setMaxPendingUpdates(2);
+		add(createDocument("1", "foo"), createDocument("2", "foo"));
+		Mockito.verifyZeroInteractions(solrServerMock);
+
+		add(createDocument("3", "foo"));
+		Assert.assertEquals(1, buffer.getPendingCount());
+		Assert.assertEquals(2, captureAddedDocuments(1).size());
+	}
+
+	@Test(expected = DataAccessResourceFailureException.class)
+	public void testAddFailsWhenBufferStaysFull() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.add(Matchers.anyCollectionOf(SolrInputDocument.class))).thenThrow(
+				new SolrServerException("unavailable"));
+		buffer.setMaxPendingUpdates(1);
+		add(createDocument("1", "foo"));
+
+		add(createDocument("2", "foo"));
+	}
+
+	@Test
+	public void testDeleteByQueryFlushesPendingUpdatesFirst() throws SolrServerException, IOException {
+		add(createDocument("1", "foo"));
+
+		buffer.deleteByQuery("name:foo");
+
+		InOrder inOrder = Mockito.inOrder(solrServerMock);
+		inOrder.verify(solrServerMock).add(Matchers.anyCollectionOf(SolrInputDocument.class));
+		inOrder.verify(solrServerMock).commit();
+		inOrder.verify(solrServerMock).deleteByQuery("name:foo");
+		inOrder.verify(solrServerMock).commit();
+	}
+
+	@Test
+	public void testConcurrentWriters() throws InterruptedException, SolrServerException, IOException {
+		final int threads = 8;
+		final int updatesPerThread = 1000;
+		final CountDownLatch latch = new CountDownLatch(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int t = 0; t < threads; t++) {
+			final int thread = t;
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int i = 0; i < updatesPerThread; i++) {
+						add(createDocument(Integer.toString(i % 100), "thread-" + thread));
+					}
+					latch.countDown();
+				}
+
+			});
+		}
+		Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+		executor.shutdown();
+
+		Assert.assertEquals(100, buffer.getPendingCount());
+		Assert.assertEquals(threads * updatesPerThread - 100, buffer.getCoalescedCount());
+
+		buffer.flush();
+		Set<Object> ids = new HashSet<Object>();
+		for (SolrInputDocument document : captureAddedDocuments(1)) {
+			ids.add(document.getFieldValue("id"));
+		}
+		Assert.assertEquals(100, ids.size());
+	}
+
+	@Test
+	public void testPeriodicFlush() throws SolrServerException, IOException {
+		buffer.destroy();
+		buffer = new CoalescingUpdateBuffer(solrServerFactoryMock);
+		buffer.setFlushWindow(20);
+		buffer.afterPropertiesSet();
+
+		add(createDocument("1", "foo"));
+
+		Mockito.verify(solrServerMock, Mockito.timeout(5000)).commit();
+	}
+
+	@Test
+	public void testDocumentsAddedWithoutIdAreNotCoalescedByDefault() throws SolrServerException, IOException {
+		buffer.add(Arrays.asList(createDocument("1", "foo"), createDocument("1", "bar")));
+		Assert.assertEquals(2, buffer.getPendingCount());
+	}
+
+	@Test
+	public void testCustomIdField() throws SolrServerException, IOException {
+		buffer.setIdFieldName("name");
+		buffer.add(Arrays.asList(createDocument("1", "foo"), createDocument("2", "foo")));
+
+		Assert.assertEquals(1, buffer.getPendingCount());
+	}
+
+	private List<SolrInputDocument> captureAddedDocuments(int times) throws SolrServerException, IOException {
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		ArgumentCaptor<Collection<SolrInputDocument>> captor = (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+		Mockito.verify(solrServerMock, Mockito.times(times)).add(captor.capture());
+		return new ArrayList<SolrInputDocument>(captor.getValue());
+	}
+
+	private void add(SolrInputDocument... documents) {
+		for (SolrInputDocument document : documents) {
+			buffer.add((String) document.getFieldValue("id"), document);
+		}
+	}
+
+	private static SolrInputDocument createDocument(String id, String name) {
+		SolrInputDocument document = new SolrInputDocument();
+		document.addField("id", id);
+		document.addField("name", name);
+		return document;
+	}
+
+}
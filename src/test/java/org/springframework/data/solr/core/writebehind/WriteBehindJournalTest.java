@@ -0,0 +1,182 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.writebehind;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Christoph Strobl
+ */
+public class WriteBehindJournalTest {
+
+	private static final int CAPACITY = 1024;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+	private WriteBehindJournal journal;
+
+	@Before
+	public void setUp() throws IOException {
+		file = new File(folder.getRoot(), "solr.journal");
+		journal = new WriteBehindJournal(file, CAPACITY, false);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		journal.close();
+	}
+
+	@Test
+	public void testAppendAndRead() {
+		Assert.assertTrue(journal.append(WriteBehindJournal.ADD, 1000, new byte[] { 1, 2, 3 }));
+		Assert.assertTrue(journal.append(WriteBehindJournal.DELETE_BY_ID, 2000, new byte[] { 4 }));
+
+		List<WriteBehindJournal.Entry> entries = journal.read(10);
+		Assert.assertEquals(2, entries.size());
+		Assert.assertEquals(WriteBehindJournal.ADD, entries.get(0).getType());
+		Assert.assertEquals(1000, entries.get(0).getTimestamp());
+		Assert.assertArrayEquals(new byte[] { 1, 2, 3 }, entries.get(0).getPayload());
+		Assert.assertEquals(WriteBehindJournal.DELETE_BY_ID, entries.get(1).getType());
+		Assert.assertArrayEquals(new byte[] { 4 }, entries.get(1).getPayload());
+
+		Assert.assertEquals(2, journal.getPendingCount());
+		Assert.assertEquals(2 * WriteBehindJournal.ENTRY_HEADER_SIZE + 4, journal.getPendingBytes());
+		Assert.assertEquals(1000, journal.getOldestTimestamp());
+	}
+
+	@Test
+	public void testReadRespectsMaxEntries() {
+		for (int i = 0; i < 5; i++) {
+			journal.append(WriteBehindJournal.ADD, i, new byte[] { (byte) i });
+		}
+
+		List<WriteBehindJournal.Entry> entries = journal.read(3);
+		Assert.assertEquals(3, entries.size());
+		Assert.assertEquals(2, entries.get(2).getTimestamp());
+	}
+
+	@Test
+	public void testConfirmRemovesOldestEntries() {
+		for (int i = 0; i < 3; i++) {
+			journal.append(WriteBehindJournal.ADD, i, new byte[] { (byte) i });
+		}
+
+		journal.confirm(journal.read(2));
+
+		List<WriteBehindJournal.Entry> entries = journal.read(10);
+		Assert.assertEquals(1, entries.size());
+		Assert.assertEquals(2, entries.get(0).getTimestamp());
+		Assert.assertEquals(1, journal.getPendingCount());
+		Assert.assertEquals(2, journal.getOldestTimestamp());
+	}
+
+	@Test
+	public void testConfirmAllEntries() {
+		journal.append(WriteBehindJournal.ADD, 1000, new byte[] { 1 });
+		journal.confirm(journal.read(10));
+
+		Assert.assertTrue(journal.read(10).isEmpty());
+		Assert.assertEquals(0, journal.getPendingCount());
+		Assert.assertEquals(0, journal.getPendingBytes());
+		Assert.assertEquals(-1, journal.getOldestTimestamp());
+	}
+
+	@Test
+	public void testPendingEntriesAreRecoveredAfterReopen() throws IOException {
+		journal.append(WriteBehindJournal.ADD, 1000, new byte[] { 1 });
+		journal.append(WriteBehindJournal.DELETE_BY_QUERY, 2000, new byte[] { 2 });
+		journal.append(WriteBehindJournal.DELETE_BY_ID, 3000, new byte[] { 3 });
+		journal.confirm(journal.read(1));
+		journal.close();
+
+		journal = new WriteBehindJournal(file, CAPACITY, false);
+
+		List<WriteBehindJournal.Entry> entries = journal.read(10);
+		Assert.assertEquals(2, entries.size());
+		Assert.assertEquals(WriteBehindJournal.DELETE_BY_QUERY, entries.get(0).getType());
+		Assert.assertEquals(WriteBehindJournal.DELETE_BY_ID, entries.get(1).getType());
+		Assert.assertEquals(2, journal.getPendingCount());
+	}
+
+	@Test
+	public void testAppendReturnsFalseWhenFull() {
+		byte[] payload = new byte[100];
+		int appended = 0;
+		while (journal.append(WriteBehindJournal.ADD, 0, payload)) {
+			appended++;
+		}
+
+		Assert.assertEquals((CAPACITY - WriteBehindJournal.HEADER_SIZE) / (WriteBehindJournal.ENTRY_HEADER_SIZE + 100),
+				appended);
+		Assert.assertEquals(appended, journal.getPendingCount());
+	}
+
+	@Test
+	public void testAppendCompactsConfirmedSpace() {
+		byte[] payload = new byte[100];
+		while (journal.append(WriteBehindJournal.ADD, 0, payload)) {
+			// fill journal
+		}
+		int pending = journal.getPendingCount();
+		journal.confirm(journal.read(pending - 1));
+
+		journal.append(WriteBehindJournal.DELETE_BY_ID, 4711, new byte[] { 1 });
+
+		List<WriteBehindJournal.Entry> entries = journal.read(10);
+		Assert.assertEquals(2, entries.size());
+		Assert.assertEquals(WriteBehindJournal.ADD, entries.get(0).getType());
+		Assert.assertEquals(100, entries.get(0).getPayload().length);
+		Assert.assertEquals(4711, entries.get(1).getTimestamp());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAppendEntryExceedingCapacity() {
+		journal.append(WriteBehindJournal.ADD, 0, new byte[CAPACITY]);
+	}
+
+	@Test(expected = IOException.class)
+	public void testOpenInvalidFile() throws IOException {
+		File invalid = new File(folder.getRoot(), "invalid.journal");
+		FileOutputStream out = new FileOutputStream(invalid);
+		try {
+			out.write(new byte[WriteBehindJournal.HEADER_SIZE]);
+		} finally {
+			IOUtils.closeQuietly(out);
+		}
+
+		new WriteBehindJournal(invalid, CAPACITY, false);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAppendAfterClose() throws IOException {
+		journal.close();
+		journal.append(WriteBehindJournal.ADD, 0, new byte[] { 1 });
+	}
+
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.core.writebehind;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrException.ErrorCode;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.solr.SolrServerFactory;
+
+/**
+ * @author Christoph Strobl
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WriteBehindQueueTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private @Mock SolrServerFactory solrServerFactoryMock;
+	private @Mock SolrServer solrServerMock;
+
+	private File file;
+	private WriteBehindQueue queue;
+
+	@Before
+	public void setUp() throws IOException {
+		Mockito.when(solrServerFactoryMock.getSolrServer()).thenReturn(solrServerMock);
+		file = new File(folder.getRoot(), "solr.journal");
+		queue = createQueue();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		queue.destroy();
+	}
+
+	@Test
+	public void testUpdatesAreSentInBatchFollowedByCommit() throws SolrServerException, IOException {
+		queue.add(Arrays.asList(createDocument("1"), createDocument("2")));
+		Mockito.verifyZeroInteractions(solrServerMock);
+
+		Assert.assertTrue(queue.awaitDrained(5, TimeUnit.SECONDS));
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		ArgumentCaptor<Collection<SolrInputDocument>> captor = (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+		Mockito.verify(solrServerMock, Mockito.times(1)).add(captor.capture());
+		Mockito.verify(solrServerMock, Mockito.times(1)).commit();
+		Assert.assertEquals(2, captor.getValue().size());
+		Assert.assertEquals("1", captor.getValue().iterator().next().getFieldValue("id"));
+		Assert.assertEquals(2, queue.getDrainedCount());
+		Assert.assertEquals(0, queue.getPendingCount());
+	}
+
+	@Test
+	public void testOrderOfUpdatesIsPreserved() throws SolrServerException, IOException {
+		queue.add(Arrays.asList(createDocument("1")));
+		queue.deleteById(Arrays.asList("1"));
+		queue.deleteByQuery("name:foo");
+		queue.add(Arrays.asList(createDocument("2")));
+
+		queue.drain();
+
+		InOrder inOrder = Mockito.inOrder(solrServerMock);
+		inOrder.verify(solrServerMock).add(Matchers.anyCollectionOf(SolrInputDocument.class));
+		inOrder.verify(solrServerMock).deleteById(Arrays.asList("1"));
+		inOrder.verify(solrServerMock).deleteByQuery("name:foo");
+		inOrder.verify(solrServerMock).add(Matchers.anyCollectionOf(SolrInputDocument.class));
+		inOrder.verify(solrServerMock).commit();
+	}
+
+	@Test
+	public void testDrainSendsBatchesOfConfiguredSize() throws SolrServerException, IOException {
+		queue.setBatchSize(2);
+		queue.deleteById(Arrays.asList("1", "2", "3"));
+
+		queue.drain();
+
+		Mockito.verify(solrServerMock).deleteById(Arrays.asList("1", "2"));
+		Mockito.verify(solrServerMock).deleteById(Arrays.asList("3"));
+		Mockito.verify(solrServerMock, Mockito.times(2)).commit();
+	}
+
+	@Test
+	public void testFailedBatchIsRetried() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.deleteById(Matchers.anyListOf(String.class)))
+				.thenThrow(new SolrServerException("unavailable")).thenReturn(new UpdateResponse());
+		queue.deleteById(Arrays.asList("1"));
+
+		queue.drain();
+		Assert.assertEquals(1, queue.getPendingCount());
+		Assert.assertEquals(1, queue.getDrainFailures());
+		Assert.assertTrue(queue.getJournalSize() > 0);
+
+		queue.drain();
+		Assert.assertEquals(0, queue.getPendingCount());
+		Assert.assertEquals(0, queue.getJournalSize());
+		Mockito.verify(solrServerMock, Mockito.times(2)).deleteById(Arrays.asList("1"));
+	}
+
+	@Test
+	public void testRejectedUpdateIsIsolatedAndSkippedAfterMaxDeliveryAttempts() throws SolrServerException,
+			IOException {
+		Mockito.when(solrServerMock.deleteById(Arrays.asList("1", "2", "3"))).thenThrow(
+				new SolrException(ErrorCode.BAD_REQUEST, "rejected"));
+		Mockito.when(solrServerMock.deleteById(Arrays.asList("2", "3"))).thenThrow(
+				new SolrException(ErrorCode.BAD_REQUEST, "rejected"));
+		Mockito.when(solrServerMock.deleteById(Arrays.asList("2"))).thenThrow(
+				new SolrException(ErrorCode.BAD_REQUEST, "rejected"));
+		queue.setMaxDeliveryAttempts(2);
+		queue.deleteById(Arrays.asList("1", "2", "3"));
+
+		queue.drain();
+		Assert.assertEquals(2, queue.getPendingCount());
+		Assert.assertEquals(0, queue.getDeadLetterCount());
+		Mockito.verify(solrServerMock).deleteById(Arrays.asList("1"));
+
+		queue.drain();
+		Assert.assertEquals(0, queue.getPendingCount());
+		Assert.assertEquals(1, queue.getDeadLetterCount());
+		Assert.assertEquals(2, queue.getDrainedCount());
+		Assert.assertTrue(queue.getDeadLetterFile().length() > 0);
+		Mockito.verify(solrServerMock, Mockito.times(2)).deleteById(Arrays.asList("2"));
+		Mockito.verify(solrServerMock).deleteById(Arrays.asList("3"));
+	}
+
+	@Test
+	public void testAwaitDrainedReturnsFalseWhenUpdateHasBeenDeadLettered() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.deleteById(Arrays.asList("1"))).thenThrow(
+				new SolrException(ErrorCode.BAD_REQUEST, "rejected"));
+		queue.setMaxDeliveryAttempts(1);
+		queue.deleteById(Arrays.asList("1"));
+
+		Assert.assertFalse(queue.awaitDrained(5, TimeUnit.SECONDS));
+		Assert.assertEquals(0, queue.getPendingCount());
+		Assert.assertEquals(1, queue.getDeadLetterCount());
+
+		queue.deleteById(Arrays.asList("2"));
+		Assert.assertTrue(queue.awaitDrained(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testRejectedUpdateRemainsPendingIfDeadLetterFileCannotBeWritten() throws SolrServerException,
+			IOException {
+		Mockito.when(solrServerMock.deleteById(Arrays.asList("1"))).thenThrow(
+				new SolrException(ErrorCode.BAD_REQUEST, "rejected"));
+		queue.setMaxDeliveryAttempts(1);
+		queue.setDeadLetterFile(folder.newFolder("dead"));
+		queue.deleteById(Arrays.asList("1"));
+
+		queue.drain();
+		Assert.assertEquals(1, queue.getPendingCount());
+		Assert.assertEquals(0, queue.getDeadLetterCount());
+	}
+
+	@Test
+	public void testDocumentIsWrittenToJournalInJavabinFormat() throws SolrServerException, IOException {
+		SolrInputDocument document = createDocument("1");
+		document.setDocumentBoost(2f);
+		document.addField("tags", Arrays.asList("foo", "bar"), 3f);
+		document.addField("date", new Date(1000));
+		queue.add(Arrays.asList(document));
+
+		queue.drain();
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		ArgumentCaptor<Collection<SolrInputDocument>> captor = (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+		Mockito.verify(solrServerMock).add(captor.capture());
+		SolrInputDocument sent = captor.getValue().iterator().next();
+		Assert.assertEquals(2f, sent.getDocumentBoost(), 0f);
+		Assert.assertEquals("1", sent.getFieldValue("id"));
+		Assert.assertEquals("name-1", sent.getFieldValue("name"));
+		Assert.assertEquals(Arrays.asList("foo", "bar"), new ArrayList<Object>(sent.getFieldValues("tags")));
+		Assert.assertEquals(3f, sent.getField("tags").getBoost(), 0f);
+		Assert.assertEquals(new Date(1000), sent.getFieldValue("date"));
+	}
+
+	@Test
+	public void testUnavailableSolrDoesNotSkipUpdates() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.deleteById(Matchers.anyListOf(String.class))).thenThrow(
+				new SolrServerException("unavailable"));
+		queue.setMaxDeliveryAttempts(1);
+		queue.deleteById(Arrays.asList("1", "2"));
+
+		queue.drain();
+		queue.drain();
+		Assert.assertEquals(2, queue.getPendingCount());
+		Assert.assertEquals(0, queue.getDeadLetterCount());
+		Mockito.verify(solrServerMock, Mockito.times(2)).deleteById(Arrays.asList("1", "2"));
+	}
+
+	@Test
+	public void testUnreadableEntryIsMovedToDeadLetterFile() throws SolrServerException, IOException {
+		queue.destroy();
+		WriteBehindJournal journal = new WriteBehindJournal(file, WriteBehindQueue.DEFAULT_CAPACITY, false);
+		journal.append(WriteBehindJournal.ADD, System.currentTimeMillis(), new byte[] { 1, 2, 3 });
+		journal.append(WriteBehindJournal.DELETE_BY_ID, System.currentTimeMillis(), "1".getBytes("UTF-8"));
+		journal.close();
+		queue = createQueue();
+
+		queue.drain();
+		Assert.assertEquals(0, queue.getPendingCount());
+		Assert.assertEquals(1, queue.getDeadLetterCount());
+		Assert.assertEquals(1 + 8 + 4 + 3, queue.getDeadLetterFile().length());
+		Mockito.verify(solrServerMock).deleteById(Arrays.asList("1"));
+		Mockito.verify(solrServerMock, Mockito.never()).add(Matchers.anyCollectionOf(SolrInputDocument.class));
+	}
+
+	@Test
+	public void testPendingUpdatesAreReplayedAfterRestart() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.add(Matchers.anyCollectionOf(SolrInputDocument.class))).thenThrow(
+				new SolrServerException("unavailable"));
+		queue.add(Arrays.asList(createDocument("1")));
+		queue.destroy();
+
+		Mockito.reset(solrServerMock);
+		queue = createQueue();
+		Assert.assertEquals(1, queue.getPendingCount());
+
+		Assert.assertTrue(queue.awaitDrained(5, TimeUnit.SECONDS));
+		Mockito.verify(solrServerMock).add(Matchers.anyCollectionOf(SolrInputDocument.class));
+		Mockito.verify(solrServerMock).commit();
+	}
+
+	@Test
+	public void testAwaitDrainedReturnsFalseWhileSolrUnavailable() throws SolrServerException, IOException {
+		Mockito.when(solrServerMock.deleteByQuery(Matchers.anyString())).thenThrow(new SolrServerException("unavailable"));
+		queue.deleteByQuery("name:foo");
+
+		Assert.assertFalse(queue.awaitDrained(200, TimeUnit.MILLISECONDS));
+		Assert.assertEquals(1, queue.getPendingCount());
+	}
+
+	@Test
+	public void testAwaitDrainedWithoutPendingUpdates() {
+		Assert.assertTrue(queue.awaitDrained(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test(expected = DataAccessResourceFailureException.class)
+	public void testAppendFailsWhenJournalStaysFull() throws IOException, SolrServerException {
+		Mockito.when(solrServerMock.deleteById(Matchers.anyListOf(String.class))).thenThrow(
+				new SolrServerException("unavailable"));
+		queue.destroy();
+		file.delete();
+
+		queue = new WriteBehindQueue(solrServerFactoryMock, file);
+		queue.setCapacity(256);
+		queue.setAppendTimeout(50);
+		queue.afterPropertiesSet();
+
+		for (int i = 0; i < 100; i++) {
+			queue.deleteById(Arrays.asList("id-" + i));
+		}
+	}
+
+	@Test
+	public void testLag() {
+		Assert.assertEquals(0, queue.getLag());
+
+		queue.deleteById(Arrays.asList("1"));
+		Assert.assertTrue(queue.getLag() >= 0);
+		Assert.assertEquals(1, queue.getPendingCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAddBeforeInitialization() {
+		new WriteBehindQueue(solrServerFactoryMock, new File(folder.getRoot(), "other.journal")).deleteById(Arrays
+				.asList("1"));
+	}
+
+	private WriteBehindQueue createQueue() throws IOException {
+		WriteBehindQueue queue = new WriteBehindQueue(solrServerFactoryMock, file);
+		queue.setDrainInterval(60000);
+		queue.afterPropertiesSet();
+		return queue;
+	}
+
+	private static SolrInputDocument createDocument(String id) {
+		SolrInputDocument document = new SolrInputDocument();
+		document.addField("id", id);
+		document.addField("name", "name-" + id);
+		return document;
+	}
+
+}
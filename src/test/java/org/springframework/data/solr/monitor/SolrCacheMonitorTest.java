@@ -0,0 +1,149 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.monitor;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.solr.core.SolrOperations;
+import org.springframework.data.solr.core.query.result.CacheStatsResult;
+import org.springframework.data.solr.core.query.result.SimpleCacheStatsResult;
+import org.springframework.jmx.export.annotation.AnnotationMBeanExporter;
+
+/**
+ * @author Christoph Strobl
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SolrCacheMonitorTest {
+
+	private SolrCacheMonitor monitor;
+
+	private @Mock SolrOperations solrOperationsMock;
+
+	@Before
+	public void setUp() {
+		monitor = new SolrCacheMonitor(solrOperationsMock);
+		monitor.setPollInterval(0);
+		monitor.afterPropertiesSet();
+	}
+
+	@After
+	public void tearDown() {
+		monitor.destroy();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCreateWithNullSolrOperations() {
+		new SolrCacheMonitor(null);
+	}
+
+	@Test
+	public void testNoStatisticsBeforeRefresh() {
+		Assert.assertEquals(0, monitor.getFilterCacheHitRatio(), 0);
+		Assert.assertTrue(monitor.getCacheNames().isEmpty());
+		Assert.assertNull(monitor.getLastRefresh());
+		Mockito.verifyZeroInteractions(solrOperationsMock);
+	}
+
+	@Test
+	public void testRefresh() {
+		Mockito.when(solrOperationsMock.executeCacheStats()).thenReturn(
+				Arrays.<CacheStatsResult> asList(createCacheStats("filterCache", 0.5, 10, 3, 25),
+						createCacheStats("queryResultCache", 0.25, 20, 5, 15), createCacheStats("documentCache", 0.75, 30, 7, 0)));
+		monitor.refresh();
+
+		Assert.assertEquals(Arrays.asList("filterCache", "queryResultCache", "documentCache"), monitor.getCacheNames());
+		Assert.assertNotNull(monitor.getLastRefresh());
+
+		Assert.assertEquals(0.5, monitor.getFilterCacheHitRatio(), 0);
+		Assert.assertEquals(10, monitor.getFilterCacheSize());
+		Assert.assertEquals(3, monitor.getFilterCacheEvictions());
+		Assert.assertEquals(25, monitor.getFilterCacheWarmupTime());
+
+		Assert.assertEquals(0.25, monitor.getQueryResultCacheHitRatio(), 0);
+		Assert.assertEquals(20, monitor.getQueryResultCacheSize());
+		Assert.assertEquals(5, monitor.getQueryResultCacheEvictions());
+		Assert.assertEquals(15, monitor.getQueryResultCacheWarmupTime());
+
+		Assert.assertEquals(0.75, monitor.getDocumentCacheHitRatio(), 0);
+		Assert.assertEquals(30, monitor.getDocumentCacheSize());
+		Assert.assertEquals(7, monitor.getDocumentCacheEvictions());
+		Assert.assertEquals(0, monitor.getDocumentCacheWarmupTime());
+	}
+
+	@Test
+	public void testRefreshKeepsPreviousStatisticsOnError() {
+		Mockito.when(solrOperationsMock.executeCacheStats())
+				.thenReturn(Collections.<CacheStatsResult> singletonList(createCacheStats("filterCache", 0.5, 10, 3, 25)))
+				.thenThrow(new DataAccessResourceFailureException("solr not reachable"));
+		monitor.refresh();
+		monitor.refresh();
+
+		Assert.assertEquals(0.5, monitor.getFilterCacheHitRatio(), 0);
+	}
+
+	@Test
+	public void testPollingOnInitialization() throws InterruptedException {
+		SolrCacheMonitor pollingMonitor = new SolrCacheMonitor(solrOperationsMock);
+		pollingMonitor.setPollInterval(10);
+		try {
+			pollingMonitor.afterPropertiesSet();
+			Mockito.verify(solrOperationsMock, Mockito.timeout(1000).atLeast(2)).executeCacheStats();
+		} finally {
+			pollingMonitor.destroy();
+		}
+	}
+
+	@Test
+	public void testExportedViaJmx() throws Exception {
+		Mockito.when(solrOperationsMock.executeCacheStats()).thenReturn(
+				Collections.<CacheStatsResult> singletonList(createCacheStats("filterCache", 0.5, 10, 3, 25)));
+		monitor.refresh();
+
+		MBeanServer server = MBeanServerFactory.newMBeanServer();
+		ObjectName name = new ObjectName("org.springframework.data.solr:type=SolrCacheMonitor,core=collection1");
+
+		AnnotationMBeanExporter exporter = new AnnotationMBeanExporter();
+		exporter.setServer(server);
+		exporter.registerManagedResource(monitor, name);
+
+		Assert.assertEquals(0.5, server.getAttribute(name, "FilterCacheHitRatio"));
+		Assert.assertEquals(10L, server.getAttribute(name, "FilterCacheSize"));
+	}
+
+	private CacheStatsResult createCacheStats(String name, double hitRatio, long size, long evictions, long warmupTime) {
+		SimpleCacheStatsResult stats = new SimpleCacheStatsResult(name);
+		stats.setHitRatio(hitRatio);
+		stats.setSize(size);
+		stats.setEvictions(evictions);
+		stats.setWarmupTime(warmupTime);
+		return stats;
+	}
+
+}
@@ -91,4 +91,25 @@ public class ITestSimpleSolrRepository extends AbstractITestWithEmbeddedSolrServ
 		Assert.assertEquals(0, repository.count());
 	}
 
+	@Test
+	public void testFindAllWithIdsExceedingMaxBooleanClauses() {
+		int objectCount = 1500;
+		List<ExampleSolrBean> toInsert = new ArrayList<ExampleSolrBean>(objectCount);
+		List<String> ids = new ArrayList<String>(objectCount);
+		for (int i = 0; i < objectCount; i++) {
+			toInsert.add(createExampleBeanWithId(Integer.toString(i)));
+			ids.add(Integer.toString(i));
+		}
+		repository.save(toInsert);
+
+		int counter = 0;
+		for (ExampleSolrBean retrievedBean : repository.findAll(ids)) {
+			Assert.assertTrue(ids.contains(retrievedBean.getId()));
+			counter++;
+		}
+		Assert.assertEquals(objectCount, counter);
+
+		repository.deleteAll();
+	}
+
 }
@@ -33,6 +33,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.solr.core.geo.Distance;
 import org.springframework.data.solr.core.geo.GeoLocation;
+import org.springframework.data.solr.core.query.result.FieldStatsResult;
+import org.springframework.data.solr.core.query.result.StatsPage;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.util.StringUtils;
@@ -206,6 +208,24 @@ public class ITestSolrRepositoryOperations {
 		Assert.assertEquals(3, found.size());
 	}
 
+	@Test
+	public void testFindWithFilterAnnotation() {
+		List<ProductBean> found = repo.findAvailableByPopularityIn(Arrays.asList(3, 5));
+		Assert.assertEquals(2, found.size());
+	}
+
+	@Test
+	public void testFindWithStatsAnnotation() {
+		StatsPage<ProductBean> page = repo.findByAvailableTrue(new PageRequest(0, 1));
+		Assert.assertEquals(1, page.getNumberOfElements());
+		Assert.assertEquals(3, page.getTotalElements());
+
+		FieldStatsResult statsResult = page.getFieldStatsResult("popularity");
+		Assert.assertEquals(1D, statsResult.getMin(), 0D);
+		Assert.assertEquals(5D, statsResult.getMax(), 0D);
+		Assert.assertEquals(9D, statsResult.getSum(), 0D);
+	}
+
 	@Test
 	public void testFindByNotIn() {
 		List<ProductBean> found = repo.findByPopularityNotIn(Arrays.asList(3, 5));
@@ -292,6 +312,14 @@ public class ITestSolrRepositoryOperations {
 		Assert.assertTrue(page.getContent().isEmpty());
 	}
 
+	@Test
+	public void testFindWithProjection() {
+		List<ProductNameProjection> found = repo.findProjectedByPopularity(5);
+		Assert.assertEquals(1, found.size());
+		Assert.assertEquals(POPULAR_AVAILABLE_PRODUCT.getId(), found.get(0).getId());
+		Assert.assertEquals(POPULAR_AVAILABLE_PRODUCT.getName(), found.get(0).getName());
+	}
+
 	private static ProductBean createProductBean(String id, int popularity, boolean available) {
 		return createProductBean(id, popularity, available, "");
 	}
@@ -23,6 +23,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.solr.core.geo.Distance;
 import org.springframework.data.solr.core.geo.GeoLocation;
+import org.springframework.data.solr.core.query.result.StatsPage;
 
 /**
  * @author Christoph Strobl
@@ -76,4 +77,12 @@ public interface ProductRepository extends SolrCrudRepository<ProductBean, Strin
 
 	Page<ProductBean> findByNameStartingWith(String name, Pageable page);
 
+	List<ProductNameProjection> findProjectedByPopularity(Integer popularity);
+
+	@Filter("inStock:true")
+	List<ProductBean> findAvailableByPopularityIn(Collection<Integer> popularities);
+
+	@Stats("popularity")
+	StatsPage<ProductBean> findByAvailableTrue(Pageable page);
+
 }
\ No newline at end of file
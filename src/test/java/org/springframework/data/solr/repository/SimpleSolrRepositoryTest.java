@@ -29,7 +29,9 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.data.solr.ExampleSolrBean;
 import org.springframework.data.solr.core.SolrOperations;
 import org.springframework.data.solr.core.SolrTemplate;
+import org.springframework.data.solr.core.query.Criteria;
 import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.core.query.SimpleQuery;
 import org.springframework.data.solr.core.query.SolrDataQuery;
 
 /**
@@ -81,4 +83,14 @@ public class SimpleSolrRepositoryTest {
 		Assert.assertEquals(12345, captor.getAllValues().get(1).getPageRequest().getPageSize());
 	}
 
+	@Test
+	public void testCountQueryAllowsAddingCriteria() {
+		repository.count();
+		ArgumentCaptor<SimpleQuery> captor = ArgumentCaptor.forClass(SimpleQuery.class);
+		Mockito.verify(solrOperationsMock, Mockito.times(1)).executeCount(captor.capture());
+
+		captor.getValue().addCriteria(new Criteria("name").is("christoph"));
+		Assert.assertEquals("*:* AND name:christoph", captor.getValue().getCriteria().createQueryString());
+	}
+
 }
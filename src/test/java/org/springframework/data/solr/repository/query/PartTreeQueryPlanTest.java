@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.solr.repository.query;
+
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.solr.core.geo.Distance;
+import org.springframework.data.solr.core.geo.GeoLocation;
+import org.springframework.data.solr.core.mapping.SimpleSolrMappingContext;
+import org.springframework.data.solr.core.mapping.SolrPersistentProperty;
+import org.springframework.data.solr.core.query.Query;
+import org.springframework.data.solr.repository.ProductBean;
+
+/**
+ * @author Christoph Strobl
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PartTreeQueryPlanTest {
+
+	@Mock
+	private RepositoryMetadata metadataMock;
+
+	@Mock
+	private SolrEntityInformationCreator entityInformationCreatorMock;
+
+	private MappingContext<?, SolrPersistentProperty> mappingContext;
+
+	@Before
+	public void setUp() {
+		mappingContext = new SimpleSolrMappingContext();
+	}
+
+	@Test
+	public void testBindSingleCriteria() throws NoSuchMethodException {
+		assertBindsLikeQueryCreator(SampleRepository.class.getMethod("findByPopularity", Integer.class), 100);
+	}
+
+	@Test
+	public void testBindAndOrCriteria() throws NoSuchMethodException {
+		assertBindsLikeQueryCreator(
+				SampleRepository.class.getMethod("findByPopularityAndPriceOrTitleStartingWith", Integer.class, Float.class,
+						String.class), 100, 200f, "spring");
+	}
+
+	@Test
+	public void testBindNegatingAndInCriteria() throws NoSuchMethodException {
+		assertBindsLikeQueryCreator(
+				SampleRepository.class.getMethod("findByPopularityIsNotAndTitleNotIn", Integer.class, String[].class), 100,
+				new String[] { "spring", "data solr" });
+	}
+
+	@Test
+	public void testBindRangeAndDateCriteria() throws NoSuchMethodException {
+		assertBindsLikeQueryCreator(
+				SampleRepository.class.getMethod("findByPopularityBetweenAndLastModifiedBefore", Integer.class, Integer.class,
+						Date.class), 10, 20, new Date(0L));
+	}
+
+	@Test
+	public void testBindNearCriteria() throws NoSuchMethodException {
+		assertBindsLikeQueryCreator(
+				SampleRepository.class.getMethod("findByLocationNear", GeoLocation.class, Distance.class), new GeoLocation(
+						48.303056, 14.290556), new Distance(5));
+	}
+
+	@Test
+	public void testBindWithinCriteriaAsFilterQuery() throws NoSuchMethodException {
+		Query query = assertBindsLikeQueryCreator(
+				SampleRepository.class.getMethod("findByPopularityAndLocationWithin", Integer.class, GeoLocation.class,
+						Distance.class), 100, new GeoLocation(48.303056, 14.290556), new Distance(5));
+
+		Assert.assertEquals("popularity:100", query.getCriteria().getQueryString());
+		Assert.assertEquals("{!bbox pt=48.303056,14.290556 sfield=store d=5.0}", query.getFilterQueries().get(0)
+				.getCriteria().getQueryString());
+	}
+
+	@Test
+	public void testBindWithinCriteriaCombinedViaOr() throws NoSuchMethodException {
+		Query query = assertBindsLikeQueryCreator(
+				SampleRepository.class.getMethod("findByPopularityOrLocationWithin", Integer.class, GeoLocation.class,
+						Distance.class), 100, new GeoLocation(48.303056, 14.290556), new Distance(5));
+
+		Assert.assertTrue(query.getFilterQueries().isEmpty());
+	}
+
+	@Test
+	public void testBindWithStaticSort() throws NoSuchMethodException {
+		Query query = assertBindsLikeQueryCreator(
+				SampleRepository.class.getMethod("findByPopularityOrderByTitleDesc", Integer.class), 100);
+
+		Assert.assertEquals(Direction.DESC, query.getSort().getOrderFor("title").getDirection());
+	}
+
+	@Test
+	public void testBindWithStaticAndDynamicSort() throws NoSuchMethodException {
+		Query query = assertBindsLikeQueryCreator(
+				SampleRepository.class.getMethod("findByPopularityOrderByTitleDesc", Integer.class, Pageable.class), 100,
+				new PageRequest(0, 10, new Sort("price")));
+
+		Assert.assertEquals(Direction.DESC, query.getSort().getOrderFor("title").getDirection());
+		Assert.assertEquals(Direction.ASC, query.getSort().getOrderFor("price").getDirection());
+	}
+
+	@Test
+	public void testPlanCanBeBoundMultipleTimes() throws NoSuchMethodException {
+		Method method = SampleRepository.class.getMethod("findByPopularity", Integer.class);
+		PartTreeQueryPlan plan = new PartTreeQueryPlan(new PartTree(method.getName(), ProductBean.class), mappingContext);
+		SolrQueryMethod queryMethod = new SolrQueryMethod(method, metadataMock, entityInformationCreatorMock);
+
+		Assert.assertEquals("popularity:1",
+				plan.bind(new SolrParametersParameterAccessor(queryMethod, new Object[] { 1 })).getCriteria()
+						.getQueryString());
+		Assert.assertEquals("popularity:2",
+				plan.bind(new SolrParametersParameterAccessor(queryMethod, new Object[] { 2 })).getCriteria()
+						.getQueryString());
+	}
+
+	private Query assertBindsLikeQueryCreator(Method method, Object... parameters) {
+		PartTree partTree = new PartTree(method.getName(), ProductBean.class);
+		SolrQueryMethod queryMethod = new SolrQueryMethod(method, metadataMock, entityInformationCreatorMock);
+
+		Query expected = new SolrQueryCreator(partTree, new SolrParametersParameterAccessor(queryMethod, parameters),
+				mappingContext).createQuery();
+		Query actual = new PartTreeQueryPlan(partTree, mappingContext).bind(new SolrParametersParameterAccessor(
+				queryMethod, parameters));
+
+		Assert.assertEquals(expected.getCriteria().getQueryString(), actual.getCriteria().getQueryString());
+		Assert.assertEquals(expected.getFilterQueries().size(), actual.getFilterQueries().size());
+		for (int i = 0; i < expected.getFilterQueries().size(); i++) {
+			Assert.assertEquals(expected.getFilterQueries().get(i).getCriteria().getQueryString(), actual.getFilterQueries()
+					.get(i).getCriteria().getQueryString());
+		}
+		Assert.assertEquals(expected.getSort(), actual.getSort());
+		return actual;
+	}
+
+	private interface SampleRepository {
+
+		ProductBean findByPopularity(Integer popularity);
+
+		ProductBean findByPopularityAndPriceOrTitleStartingWith(Integer popularity, Float price, String prefix);
+
+		ProductBean findByPopularityIsNotAndTitleNotIn(Integer popularity, String... titles);
+
+		ProductBean findByPopularityBetweenAndLastModifiedBefore(Integer lower, Integer upper, Date date);
+
+		ProductBean findByLocationNear(GeoLocation location, Distance distance);
+
+		ProductBean findByPopularityAndLocationWithin(Integer popularity, GeoLocation location, Distance distance);
+
+		ProductBean findByPopularityOrLocationWithin(Integer popularity, GeoLocation location, Distance distance);
+
+		ProductBean findByPopularityOrderByTitleDesc(Integer popularity);
+
+		List<ProductBean> findByPopularityOrderByTitleDesc(Integer popularity, Pageable page);
+
+	}
+
+}
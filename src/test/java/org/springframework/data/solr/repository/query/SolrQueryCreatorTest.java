@@ -327,6 +327,40 @@ public class SolrQueryCreatorTest {
 		Assert.assertEquals("{!geofilt pt=48.303056,14.290556 sfield=store d=5.0}", criteria.getQueryString());
 	}
 
+	@Test
+	public void testCreateQueryWithWithin() throws NoSuchMethodException, SecurityException {
+		Method method = SampleRepository.class.getMethod("findByLocationWithin", GeoLocation.class, Distance.class);
+		PartTree partTree = new PartTree(method.getName(), method.getReturnType());
+
+		SolrQueryMethod queryMethod = new SolrQueryMethod(method, metadataMock, entityInformationCreatorMock);
+		SolrQueryCreator creator = new SolrQueryCreator(partTree, new SolrParametersParameterAccessor(queryMethod,
+				new Object[] { new GeoLocation(48.303056, 14.290556), new Distance(5) }), mappingContext);
+
+		Query query = creator.createQuery();
+
+		Assert.assertEquals("*:*", query.getCriteria().getQueryString());
+		Assert.assertEquals(1, query.getFilterQueries().size());
+		Assert.assertEquals("{!bbox pt=48.303056,14.290556 sfield=store d=5.0}", query.getFilterQueries().get(0)
+				.getCriteria().getQueryString());
+	}
+
+	@Test
+	public void testCreateQueryWithWithinCombinedViaOr() throws NoSuchMethodException, SecurityException {
+		Method method = SampleRepository.class.getMethod("findByPopularityOrLocationWithin", Integer.class,
+				GeoLocation.class, Distance.class);
+		PartTree partTree = new PartTree(method.getName(), method.getReturnType());
+
+		SolrQueryMethod queryMethod = new SolrQueryMethod(method, metadataMock, entityInformationCreatorMock);
+		SolrQueryCreator creator = new SolrQueryCreator(partTree, new SolrParametersParameterAccessor(queryMethod,
+				new Object[] { 1, new GeoLocation(48.303056, 14.290556), new Distance(5) }), mappingContext);
+
+		Query query = creator.createQuery();
+
+		Assert.assertTrue(query.getFilterQueries().isEmpty());
+		Assert.assertEquals("popularity:1 OR {!bbox pt=48.303056,14.290556 sfield=store d=5.0}", query.getCriteria()
+				.getQueryString());
+	}
+
 	@Test
 	public void testCreateQueryWithSortDesc() throws NoSuchMethodException, SecurityException {
 		Method method = SampleRepository.class.getMethod("findByPopularityOrderByTitleDesc", Integer.class);
@@ -380,6 +414,10 @@ public class SolrQueryCreatorTest {
 
 		ProductBean findByLocationNear(GeoLocation location, Distance distance);
 
+		ProductBean findByLocationWithin(GeoLocation location, Distance distance);
+
+		ProductBean findByPopularityOrLocationWithin(Integer popularity, GeoLocation location, Distance distance);
+
 	}
 
 }
@@ -16,7 +16,10 @@
 package org.springframework.data.solr.repository.query;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import junit.framework.Assert;
 
@@ -25,8 +28,15 @@ import org.junit.Test;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
 import org.springframework.data.solr.core.mapping.SimpleSolrMappingContext;
+import org.springframework.data.solr.core.query.FilterQuery;
+import org.springframework.data.solr.core.query.SimpleFilterQuery;
+import org.springframework.data.solr.core.query.StatsOptions;
+import org.springframework.data.solr.repository.Filter;
 import org.springframework.data.solr.repository.ProductBean;
+import org.springframework.data.solr.repository.ProductNameProjection;
 import org.springframework.data.solr.repository.Query;
+import org.springframework.data.solr.repository.Stats;
+import org.springframework.data.solr.repository.TimeAllowed;
 import org.springframework.data.solr.repository.support.SolrEntityInformationCreatorImpl;
 
 /**
@@ -72,6 +82,104 @@ public class SolrQueryMethodTest {
 		Assert.assertFalse(method.hasAnnotatedNamedQueryName());
 	}
 
+	@Test
+	public void testWithProjection() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findProjectedByName", String.class);
+		Assert.assertTrue(method.isProjectionQuery());
+		Assert.assertEquals(ProductNameProjection.class, method.getProjectionType());
+		Assert.assertEquals(ProductBean.class, method.getEntityInformation().getJavaType());
+	}
+
+	@Test
+	public void testWithoutProjection() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findByName", String.class);
+		Assert.assertFalse(method.isProjectionQuery());
+		Assert.assertNull(method.getProjectionType());
+	}
+
+	@Test
+	public void testCollectionAndSuperTypesAreNoProjection() throws Exception {
+		Assert.assertFalse(getQueryMethodByName("findByNameLike", String.class).isProjectionQuery());
+		Assert.assertFalse(getQueryMethodByName("findByNameIn", Collection.class).isProjectionQuery());
+		Assert.assertFalse(getQueryMethodByName("findByNameNot", String.class).isProjectionQuery());
+	}
+
+	@Test
+	public void testWithFilterAnnotation() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findByNameAndInStock", String.class, boolean.class);
+		Assert.assertTrue(method.hasFilterAnnotation());
+		Assert.assertFalse(method.isFilterQueryExtraction());
+		Assert.assertEquals(Arrays.asList("inStock"), Arrays.asList(method.getFilterQueryFields()));
+
+		List<FilterQuery> filterQueries = method.getAnnotatedFilterQueries();
+		Assert.assertEquals(1, filterQueries.size());
+		SimpleFilterQuery filterQuery = (SimpleFilterQuery) filterQueries.get(0);
+		Assert.assertEquals("popularity:[5 TO *]", filterQuery.getCriteria().getQueryString());
+		Assert.assertEquals(Boolean.FALSE, filterQuery.getCache());
+		Assert.assertEquals(Integer.valueOf(50), filterQuery.getCost());
+	}
+
+	@Test
+	public void testAnnotatedFilterQueriesAreCreatedOnce() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findByNameAndInStock", String.class, boolean.class);
+
+		Assert.assertSame(method.getAnnotatedFilterQueries(), method.getAnnotatedFilterQueries());
+		Assert.assertTrue(method.getAnnotatedFilterQueries().get(0).isFrozen());
+	}
+
+	@Test
+	public void testWithFilterAnnotationWithoutExtraction() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findByNameOrderByPopularity", String.class);
+		Assert.assertTrue(method.hasFilterAnnotation());
+		Assert.assertFalse(method.isFilterQueryExtraction());
+		Assert.assertEquals(0, method.getFilterQueryFields().length);
+
+		SimpleFilterQuery filterQuery = (SimpleFilterQuery) method.getAnnotatedFilterQueries().get(0);
+		Assert.assertNull(filterQuery.getCache());
+		Assert.assertNull(filterQuery.getCost());
+	}
+
+	@Test
+	public void testWithoutFilterAnnotation() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findByName", String.class);
+		Assert.assertFalse(method.hasFilterAnnotation());
+		Assert.assertFalse(method.isFilterQueryExtraction());
+		Assert.assertEquals(0, method.getFilterQueryFields().length);
+		Assert.assertTrue(method.getAnnotatedFilterQueries().isEmpty());
+	}
+
+	@Test
+	public void testWithStatsAnnotation() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findByNameStartingWith", String.class);
+		Assert.assertTrue(method.hasStatsAnnotation());
+
+		StatsOptions statsOptions = method.getAnnotatedStatsOptions();
+		Assert.assertEquals(2, statsOptions.getFields().size());
+		Assert.assertEquals("price", statsOptions.getFields().get(0).getName());
+		Assert.assertEquals("inStock", statsOptions.getFacets().get(0).getName());
+	}
+
+	@Test
+	public void testWithoutStatsAnnotation() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findByName", String.class);
+		Assert.assertFalse(method.hasStatsAnnotation());
+		Assert.assertNull(method.getAnnotatedStatsOptions());
+	}
+
+	@Test
+	public void testWithTimeAllowedAnnotation() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findByNameEndingWith", String.class);
+		Assert.assertTrue(method.hasTimeAllowedAnnotation());
+		Assert.assertEquals(Integer.valueOf(250), method.getAnnotatedTimeAllowed());
+	}
+
+	@Test
+	public void testWithoutTimeAllowedAnnotation() throws Exception {
+		SolrQueryMethod method = getQueryMethodByName("findByName", String.class);
+		Assert.assertFalse(method.hasTimeAllowedAnnotation());
+		Assert.assertNull(method.getAnnotatedTimeAllowed());
+	}
+
 	private SolrQueryMethod getQueryMethodByName(String name, Class<?>... parameters) throws Exception {
 		Method method = Repo1.class.getMethod(name, parameters);
 		return new SolrQueryMethod(method, new DefaultRepositoryMetadata(Repo1.class), creator);
@@ -90,6 +198,26 @@ public class SolrQueryMethodTest {
 
 		List<ProductBean> findByName(String name);
 
+		List<ProductNameProjection> findProjectedByName(String name);
+
+		List<Collection<String>> findByNameLike(String name);
+
+		Map<String, Object> findByNameIn(Collection<String> names);
+
+		Object findByNameNot(String name);
+
+		@Filter(value = "popularity:[5 TO *]", fields = "inStock", cache = false, cost = 50)
+		List<ProductBean> findByNameAndInStock(String name, boolean inStock);
+
+		@Filter("inStock:true")
+		List<ProductBean> findByNameOrderByPopularity(String name);
+
+		@Stats(value = { "price", "popularity" }, facets = "inStock")
+		List<ProductBean> findByNameStartingWith(String name);
+
+		@TimeAllowed(250)
+		List<ProductBean> findByNameEndingWith(String name);
+
 	}
 
 }
@@ -16,6 +16,8 @@
 package org.springframework.data.solr.repository.query;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -113,6 +115,68 @@ public class StringBasedSolrQueryTest {
 		Assert.assertEquals("{!geofilt pt=48.303056,14.290556 sfield=store d=5.0}", query.getCriteria().getQueryString());
 	}
 
+	@Test
+	public void testQueryCreationEscapesStringValues() throws NoSuchMethodException, SecurityException {
+		Method method = SampleRepository.class.getMethod("findByText", String.class);
+		SolrQueryMethod queryMethod = new SolrQueryMethod(method, metadataMock, entityInformationCreatorMock);
+
+		StringBasedSolrQuery solrQuery = new StringBasedSolrQuery(queryMethod, solrOperationsMock);
+
+		org.springframework.data.solr.core.query.Query query = solrQuery.createQuery(new SolrParametersParameterAccessor(
+				queryMethod, new Object[] { "spring data:solr" }));
+
+		Assert.assertEquals("textGeneral:spring\\ data\\:solr", query.getCriteria().getQueryString());
+	}
+
+	@Test
+	public void testQueryCreationWithCollectionProperty() throws NoSuchMethodException, SecurityException {
+		Method method = SampleRepository.class.getMethod("findByNameIn", Collection.class);
+		SolrQueryMethod queryMethod = new SolrQueryMethod(method, metadataMock, entityInformationCreatorMock);
+
+		StringBasedSolrQuery solrQuery = new StringBasedSolrQuery(queryMethod, solrOperationsMock);
+
+		org.springframework.data.solr.core.query.Query query = solrQuery.createQuery(new SolrParametersParameterAccessor(
+				queryMethod, new Object[] { Arrays.asList("spring", "data solr") }));
+
+		Assert.assertEquals("name:(spring OR data\\ solr)", query.getCriteria().getQueryString());
+	}
+
+	@Test
+	public void testQueryCreationWithArrayProperty() throws NoSuchMethodException, SecurityException {
+		Method method = SampleRepository.class.getMethod("findByPopularityIn", int[].class);
+		SolrQueryMethod queryMethod = new SolrQueryMethod(method, metadataMock, entityInformationCreatorMock);
+
+		StringBasedSolrQuery solrQuery = new StringBasedSolrQuery(queryMethod, solrOperationsMock);
+
+		org.springframework.data.solr.core.query.Query query = solrQuery.createQuery(new SolrParametersParameterAccessor(
+				queryMethod, new Object[] { new int[] { 1, -2 } }));
+
+		Assert.assertEquals("popularity:(1 OR \\-2)", query.getCriteria().getQueryString());
+	}
+
+	@Test
+	public void testQueryCreationWithTwoDigitPlaceholder() throws NoSuchMethodException, SecurityException {
+		Method method = SampleRepository.class.getMethod("findByManyProperties", String.class, String.class,
+				String.class, String.class, String.class, String.class, String.class, String.class, String.class,
+				String.class, String.class);
+		SolrQueryMethod queryMethod = new SolrQueryMethod(method, metadataMock, entityInformationCreatorMock);
+
+		StringBasedSolrQuery solrQuery = new StringBasedSolrQuery(queryMethod, solrOperationsMock);
+
+		org.springframework.data.solr.core.query.Query query = solrQuery.createQuery(new SolrParametersParameterAccessor(
+				queryMethod, new Object[] { "v0", "v1", "v2", "v3", "v4", "v5", "v6", "v7", "v8", "v9", "v10" }));
+
+		Assert.assertEquals("a:v1 AND b:v10 AND c:v1", query.getCriteria().getQueryString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testQueryCreationWithPlaceholderNotInSignature() throws NoSuchMethodException, SecurityException {
+		Method method = SampleRepository.class.getMethod("findByInvalidPlaceholder", String.class);
+		SolrQueryMethod queryMethod = new SolrQueryMethod(method, metadataMock, entityInformationCreatorMock);
+
+		new StringBasedSolrQuery(queryMethod, solrOperationsMock);
+	}
+
 	private interface SampleRepository {
 
 		@Query("textGeneral:?0")
@@ -124,6 +188,19 @@ public class StringBasedSolrQueryTest {
 		@Query("{!geofilt pt=?0 sfield=store d=?1}")
 		ProductBean findByLocationNear(GeoLocation location, Distance distace);
 
+		@Query("name:?0")
+		ProductBean findByNameIn(Collection<String> names);
+
+		@Query("popularity:?0")
+		ProductBean findByPopularityIn(int[] popularity);
+
+		@Query("a:?1 AND b:?10 AND c:?1")
+		ProductBean findByManyProperties(String p0, String p1, String p2, String p3, String p4, String p5, String p6,
+				String p7, String p8, String p9, String p10);
+
+		@Query("name:?1")
+		ProductBean findByInvalidPlaceholder(String name);
+
 	}
 
 }